@@ -0,0 +1,45 @@
+package io.bitrise.trace.benchmark;
+
+import android.os.Debug;
+import androidx.annotation.NonNull;
+import java.util.Locale;
+
+/**
+ * Counts the allocations of an operation on the current thread. The benchmark library of this
+ * project reports only the run times, so the benchmarks that compare allocations run this
+ * alongside the {@link androidx.benchmark.junit4.BenchmarkRule}, and the results are written with
+ * the {@link BenchmarkReport}.
+ */
+public class AllocationCounter {
+
+  private AllocationCounter() {
+    throw new UnsupportedOperationException("Private constructor for AllocationCounter!");
+  }
+
+  /**
+   * Runs the given operation the given number of times, and reports the average number and size
+   * of the objects it allocated. The operation is run once before counting, so the one-off
+   * allocations, e.g. class loading, are not counted.
+   *
+   * @param name       the name of the operation in the report.
+   * @param iterations the number of times to run the operation.
+   * @param operation  the operation to measure, it must run on the calling thread.
+   */
+  @SuppressWarnings("deprecation")
+  public static void report(@NonNull final String name, final int iterations,
+                            @NonNull final Runnable operation) {
+    operation.run();
+
+    Debug.resetThreadAllocCount();
+    Debug.resetThreadAllocSize();
+    Debug.startAllocCounting();
+    for (int i = 0; i < iterations; i++) {
+      operation.run();
+    }
+    Debug.stopAllocCounting();
+
+    BenchmarkReport.write(String.format(Locale.ENGLISH,
+        "%s: %d allocations, %d bytes allocated per operation", name,
+        Debug.getThreadAllocCount() / iterations, Debug.getThreadAllocSize() / iterations));
+  }
+}
@@ -0,0 +1,70 @@
+package io.bitrise.trace.benchmark;
+
+import androidx.annotation.NonNull;
+import io.bitrise.trace.test.MetricTestProvider;
+import io.bitrise.trace.test.TraceTestProvider;
+import io.bitrise.trace.utils.UniqueIdGenerator;
+import io.opencensus.proto.metrics.v1.Metric;
+import io.opencensus.proto.trace.v1.Span;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provides the data for the benchmarks. The data is similar to what the SDK collects, so the
+ * measured sizes and times are representative.
+ */
+public class BenchmarkData {
+
+  /**
+   * The number of Spans of a typical stored Trace.
+   */
+  public static final int SPAN_COUNT = 100;
+
+  /**
+   * The number of Metrics of a typical request.
+   */
+  public static final int METRIC_COUNT = 100;
+
+  private BenchmarkData() {
+    throw new UnsupportedOperationException("Private constructor for BenchmarkData!");
+  }
+
+  /**
+   * Creates the given number of network {@link Span}s, each with a unique Span ID.
+   *
+   * @param count the number of Spans.
+   * @return the List of Spans.
+   */
+  @NonNull
+  public static List<Span> createSpans(final int count) {
+    final Span networkSpan = TraceTestProvider.createNetworkSpan();
+    final List<Span> spans = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      spans.add(networkSpan.toBuilder()
+                           .setSpanId(UniqueIdGenerator.makeSpanIdByteString())
+                           .build());
+    }
+    return spans;
+  }
+
+  /**
+   * Creates the given number of {@link Metric}s, alternating the types the SDK collects.
+   *
+   * @param count the number of Metrics.
+   * @return the List of Metrics.
+   */
+  @NonNull
+  public static List<Metric> createMetrics(final int count) {
+    final Metric[] samples = new Metric[] {
+        MetricTestProvider.getApplicationStartUpMetric(),
+        MetricTestProvider.getApplicationCpuMetric(),
+        MetricTestProvider.getSystemCpuMetric(),
+        MetricTestProvider.getApplicationMemoryUsage(),
+        MetricTestProvider.getSystemMemoryUsage()};
+    final List<Metric> metrics = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      metrics.add(samples[i % samples.length]);
+    }
+    return metrics;
+  }
+}
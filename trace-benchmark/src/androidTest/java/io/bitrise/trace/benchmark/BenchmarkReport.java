@@ -0,0 +1,33 @@
+package io.bitrise.trace.benchmark;
+
+import android.app.Instrumentation;
+import android.os.Bundle;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+/**
+ * Reports the results that the benchmark library does not measure, e.g. allocations or
+ * throughput. The results are written to the output of the tests and to the log.
+ */
+public class BenchmarkReport {
+
+  private static final String TAG = "BenchmarkReport";
+
+  private BenchmarkReport() {
+    throw new UnsupportedOperationException("Private constructor for BenchmarkReport!");
+  }
+
+  /**
+   * Writes the given result to the output of the tests and to the log.
+   *
+   * @param result the result to write, a single line.
+   */
+  public static void write(@NonNull final String result) {
+    Log.i(TAG, result);
+
+    final Bundle status = new Bundle();
+    status.putString(Instrumentation.REPORT_KEY_STREAMRESULT, result + "\n");
+    InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+  }
+}
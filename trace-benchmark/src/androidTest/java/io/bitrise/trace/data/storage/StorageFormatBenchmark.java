@@ -0,0 +1,110 @@
+package io.bitrise.trace.data.storage;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.bitrise.trace.benchmark.BenchmarkData;
+import io.bitrise.trace.data.metric.MetricConverter;
+import io.bitrise.trace.data.trace.Trace;
+import io.bitrise.trace.data.trace.TraceConverter;
+import io.opencensus.proto.metrics.v1.Metric;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Benchmarks the binary protobuf format of the stored {@link Metric}s and {@link Trace}s against
+ * the JSON format, that was used before database version 3.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StorageFormatBenchmark {
+
+  @Rule
+  public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private Metric metric;
+  private byte[] metricBytes;
+  private String metricJson;
+  private Trace trace;
+  private byte[] traceBytes;
+  private String traceJson;
+
+  @Before
+  public void setUp() {
+    metric = BenchmarkData.createMetrics(1).get(0);
+    metricBytes = MetricConverter.toByteArray(metric);
+    metricJson = MetricConverter.toString(metric);
+    trace = new Trace("traceId", "sessionId", BenchmarkData.createSpans(BenchmarkData.SPAN_COUNT));
+    traceBytes = TraceConverter.toByteArray(trace);
+    traceJson = TraceConverter.toString(trace);
+  }
+
+  @Test
+  public void writeMetric_protobuf() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      MetricConverter.toByteArray(metric);
+    }
+  }
+
+  @Test
+  public void writeMetric_json() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      MetricConverter.toString(metric);
+    }
+  }
+
+  @Test
+  public void readMetric_protobuf() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      MetricConverter.toMetric(metricBytes);
+    }
+  }
+
+  @Test
+  public void readMetric_json() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      MetricConverter.toMetric(metricJson);
+    }
+  }
+
+  @Test
+  public void writeTrace_protobuf() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      TraceConverter.toByteArray(trace);
+    }
+  }
+
+  @Test
+  public void writeTrace_json() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      TraceConverter.toString(trace);
+    }
+  }
+
+  @Test
+  public void readTrace_protobuf() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      TraceConverter.toTrace(traceBytes);
+    }
+  }
+
+  /**
+   * Reads only the Spans of the JSON, as reading a whole Trace requires an active Session. The
+   * Spans are the bulk of the stored value.
+   */
+  @Test
+  public void readTrace_json() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      TraceConverter.toSpanList(traceJson);
+    }
+  }
+}
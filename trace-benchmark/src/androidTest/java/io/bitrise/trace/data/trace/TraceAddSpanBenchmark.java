@@ -0,0 +1,219 @@
+package io.bitrise.trace.data.trace;
+
+import androidx.annotation.NonNull;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import com.google.protobuf.ByteString;
+import io.bitrise.trace.benchmark.BenchmarkData;
+import io.bitrise.trace.benchmark.BenchmarkReport;
+import io.opencensus.proto.trace.v1.Span;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Benchmarks adding {@link Span}s to the active {@link Trace} from the given number of threads
+ * at the same time. The lock-free {@link Trace#addSpan(Span)} is compared with the earlier
+ * implementation, that added the Spans to a List under the lock of the active Trace. Each
+ * iteration measures the time until every thread has added {@link #SPANS_PER_THREAD} Spans, and
+ * the aggregate throughput of the threads is written with the {@link BenchmarkReport}.
+ */
+@RunWith(Parameterized.class)
+public class TraceAddSpanBenchmark {
+
+  /**
+   * The number of Spans each thread adds in an iteration.
+   */
+  private static final int SPANS_PER_THREAD = 10000;
+
+  @Rule
+  public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  /**
+   * The number of threads adding Spans at the same time.
+   */
+  @Parameterized.Parameter
+  public int threadCount;
+
+  private Span span;
+  private ExecutorService writerExecutor;
+
+  /**
+   * Synchronizes the start and the end of the iterations between the benchmark thread and the
+   * writer threads.
+   */
+  private CyclicBarrier barrier;
+
+  /**
+   * The Trace the Spans are added to, it is replaced in each iteration.
+   */
+  private volatile SpanTarget target;
+
+  private volatile boolean isRunning;
+
+  @Parameterized.Parameters(name = "threads={0}")
+  public static Collection<Object[]> parameters() {
+    return Arrays.asList(new Object[][] {{1}, {2}, {4}, {8}});
+  }
+
+  @Before
+  public void setUp() {
+    span = BenchmarkData.createSpans(1).get(0);
+    writerExecutor = Executors.newFixedThreadPool(threadCount);
+    barrier = new CyclicBarrier(threadCount + 1);
+    isRunning = true;
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    isRunning = false;
+    barrier.reset();
+    writerExecutor.shutdownNow();
+    writerExecutor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void addSpan_lockFree() throws BrokenBarrierException, InterruptedException {
+    measure("addSpan_lockFree", LockFreeTrace::new);
+  }
+
+  @Test
+  public void addSpan_locked() throws BrokenBarrierException, InterruptedException {
+    measure("addSpan_locked", LockedTrace::new);
+  }
+
+  /**
+   * Runs the benchmark with the writer threads, and reports the aggregate number of added Spans
+   * per second.
+   *
+   * @param name          the name of the benchmark in the report.
+   * @param targetFactory creates a new Trace for each iteration.
+   * @throws BrokenBarrierException if a writer thread failed.
+   * @throws InterruptedException   if the benchmark thread is interrupted.
+   */
+  private void measure(@NonNull final String name, @NonNull final TargetFactory targetFactory)
+      throws BrokenBarrierException, InterruptedException {
+    startWriters();
+    target = targetFactory.create();
+
+    final BenchmarkState state = benchmarkRule.getState();
+    long iterationCount = 0;
+    long elapsedNs = 0;
+    while (state.keepRunning()) {
+      final long start = System.nanoTime();
+      barrier.await();
+      barrier.await();
+      elapsedNs += System.nanoTime() - start;
+      iterationCount++;
+
+      state.pauseTiming();
+      target = targetFactory.create();
+      state.resumeTiming();
+    }
+
+    final double spansPerSecond = (double) iterationCount * threadCount * SPANS_PER_THREAD
+        / elapsedNs * TimeUnit.SECONDS.toNanos(1);
+    BenchmarkReport.write(String.format(Locale.ENGLISH, "%s[threads=%d]: %.0f spans/s", name,
+        threadCount, spansPerSecond));
+  }
+
+  /**
+   * Starts the writer threads. In each iteration they wait for the benchmark thread, add
+   * {@link #SPANS_PER_THREAD} Spans to the {@link #target}, and wait for each other to finish.
+   */
+  private void startWriters() {
+    for (int i = 0; i < threadCount; i++) {
+      writerExecutor.execute(() -> {
+        try {
+          while (isRunning) {
+            barrier.await();
+            final SpanTarget currentTarget = target;
+            for (int j = 0; j < SPANS_PER_THREAD; j++) {
+              currentTarget.addSpan(span);
+            }
+            barrier.await();
+          }
+        } catch (final BrokenBarrierException | InterruptedException e) {
+          // the benchmark is finished
+        }
+      });
+    }
+  }
+
+  /**
+   * A Trace that the {@link Span}s can be added to.
+   */
+  private interface SpanTarget {
+
+    void addSpan(@NonNull Span span);
+  }
+
+  /**
+   * Creates the {@link SpanTarget} of an iteration.
+   */
+  private interface TargetFactory {
+
+    @NonNull
+    SpanTarget create();
+  }
+
+  /**
+   * Adds the {@link Span}s as ApplicationTraceManager#addSpanToActiveTrace does, with the lock-free
+   * {@link Trace#addSpan(Span)}.
+   */
+  private static class LockFreeTrace implements SpanTarget {
+
+    @NonNull
+    private final Trace trace = new Trace("traceId", "sessionId", new ArrayList<>());
+
+    @Override
+    public void addSpan(@NonNull final Span span) {
+      final Span updatedSpan = span.getTraceId().equals(trace.getTraceIdByteString())
+          ? span
+          : span.toBuilder().setTraceId(trace.getTraceIdByteString()).build();
+      trace.addSpan(updatedSpan);
+    }
+  }
+
+  /**
+   * Adds the {@link Span}s as ApplicationTraceManager#addSpanToActiveTrace did before the
+   * lock-free {@link Trace#addSpan(Span)}: the trace ID is converted for each Span, and the Span
+   * is added to the List of the Trace under the lock of the active Trace.
+   */
+  private static class LockedTrace implements SpanTarget {
+
+    @NonNull
+    private final Object activeTraceLock = new Object();
+
+    @NonNull
+    private final String traceId = "traceId";
+
+    @NonNull
+    private final List<Span> spanList = new ArrayList<>();
+
+    @Override
+    public void addSpan(@NonNull final Span span) {
+      synchronized (activeTraceLock) {
+        final Span updatedSpan = span.toBuilder()
+                                     .setTraceId(ByteString.copyFrom(traceId,
+                                         Charset.defaultCharset()))
+                                     .build();
+        spanList.add(updatedSpan);
+      }
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package io.bitrise.trace.network;
+
+import androidx.annotation.NonNull;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.google.gson.Gson;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import com.google.gson.reflect.TypeToken;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import io.bitrise.trace.benchmark.AllocationCounter;
+import io.bitrise.trace.benchmark.BenchmarkData;
+import io.bitrise.trace.data.trace.Trace;
+import io.bitrise.trace.data.trace.TraceConverter;
+import io.opencensus.proto.trace.v1.Span;
+import io.opencensus.proto.trace.v1.TruncatableString;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Benchmarks the JSON conversion of the {@link TraceConverter} with the shared Gson instance
+ * against the earlier adapters, that created a new Gson for each nested field of each
+ * {@link Span}. The allocations of both are reported with the {@link AllocationCounter}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GsonBenchmark {
+
+  /**
+   * The number of Spans of the converted Trace.
+   */
+  private static final int SPAN_COUNT = 10000;
+
+  /**
+   * The number of conversions for counting the allocations.
+   */
+  private static final int ALLOCATION_ITERATIONS = 5;
+
+  private static final String SPAN_LIST_JSON_NAME = "span_list";
+
+  private static final Type SPAN_LIST_TYPE = new TypeToken<List<Span>>() {
+  }.getType();
+
+  @Rule
+  public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  /**
+   * Gson with the earlier {@link Span} adapter, see {@link GsonPerNestedFieldSpanAdapter}.
+   */
+  private Gson gsonPerNestedField;
+  private Trace trace;
+  private String traceJson;
+
+  @Before
+  public void setUp() {
+    gsonPerNestedField = NetworkClient.createGson().newBuilder()
+                                      .registerTypeAdapter(Span.class,
+                                          new GsonPerNestedFieldSpanAdapter())
+                                      .create();
+    trace = new Trace("traceId", "sessionId", BenchmarkData.createSpans(SPAN_COUNT));
+    traceJson = TraceConverter.toString(trace);
+  }
+
+  @Test
+  public void toJson_sharedGson() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      TraceConverter.toString(trace);
+    }
+    AllocationCounter.report("toJson_sharedGson", ALLOCATION_ITERATIONS,
+        () -> TraceConverter.toString(trace));
+  }
+
+  @Test
+  public void toJson_gsonPerNestedField() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      gsonPerNestedField.toJson(trace, Trace.class);
+    }
+    AllocationCounter.report("toJson_gsonPerNestedField", ALLOCATION_ITERATIONS,
+        () -> gsonPerNestedField.toJson(trace, Trace.class));
+  }
+
+  @Test
+  public void fromJson_sharedGson() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      TraceConverter.toSpanList(traceJson);
+    }
+    AllocationCounter.report("fromJson_sharedGson", ALLOCATION_ITERATIONS,
+        () -> TraceConverter.toSpanList(traceJson));
+  }
+
+  @Test
+  public void fromJson_gsonPerNestedField() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      toSpanListWithGsonPerNestedField();
+    }
+    AllocationCounter.report("fromJson_gsonPerNestedField", ALLOCATION_ITERATIONS,
+        this::toSpanListWithGsonPerNestedField);
+  }
+
+  /**
+   * Converts the {@link #traceJson} the same way as {@link TraceConverter#toSpanList(String)}.
+   *
+   * @return the List of Spans.
+   */
+  private List<Span> toSpanListWithGsonPerNestedField() {
+    final JsonObject jsonObject = gsonPerNestedField.fromJson(traceJson, JsonObject.class);
+    return gsonPerNestedField.fromJson(jsonObject.get(SPAN_LIST_JSON_NAME), SPAN_LIST_TYPE);
+  }
+
+  /**
+   * The {@link Span} adapter before the Gson instance was shared. It converted each nested field
+   * with a Gson of its own, as NetworkClient#getGson() created a new instance on each call. The
+   * nested values are converted with the current adapters, the cost of the earlier path is
+   * dominated by creating the Gson instances.
+   */
+  private static class GsonPerNestedFieldSpanAdapter
+      implements JsonSerializer<Span>, JsonDeserializer<Span> {
+
+    private static final String PROPERTY_TRACE_ID = "trace_id";
+    private static final String PROPERTY_SPAN_ID = "span_id";
+    private static final String PROPERTY_PARENT_SPAN_ID = "parent_span_id";
+    private static final String PROPERTY_NAME = "name";
+    private static final String PROPERTY_START_TIME = "start_time";
+    private static final String PROPERTY_END_TIME = "end_time";
+    private static final String PROPERTY_ATTRIBUTES = "attributes";
+    private static final String PROPERTY_KIND = "kind";
+
+    @Override
+    public Span deserialize(@NonNull final JsonElement json,
+                            @NonNull final Type typeOfT,
+                            @NonNull final JsonDeserializationContext context)
+        throws JsonParseException {
+      final JsonObject srcSpan = json.getAsJsonObject();
+      final Span.Builder builder = Span.newBuilder();
+
+      builder.setTraceId(NetworkClient.createGson().fromJson(
+          srcSpan.get(PROPERTY_TRACE_ID), ByteString.class));
+      builder.setSpanId(NetworkClient.createGson().fromJson(
+          srcSpan.get(PROPERTY_SPAN_ID), ByteString.class));
+      builder.setName(NetworkClient.createGson().fromJson(
+          srcSpan.get(PROPERTY_NAME), TruncatableString.class));
+
+      if (srcSpan.has(PROPERTY_PARENT_SPAN_ID)) {
+        builder.setParentSpanId(NetworkClient.createGson().fromJson(
+            srcSpan.get(PROPERTY_PARENT_SPAN_ID), ByteString.class));
+      }
+
+      builder.setStartTime(NetworkClient.createGson().fromJson(
+          srcSpan.get(PROPERTY_START_TIME), Timestamp.class));
+      builder.setEndTime(NetworkClient.createGson().fromJson(
+          srcSpan.get(PROPERTY_END_TIME), Timestamp.class));
+
+      if (srcSpan.has(PROPERTY_ATTRIBUTES)) {
+        builder.setAttributes(NetworkClient.createGson().fromJson(
+            srcSpan.get(PROPERTY_ATTRIBUTES), Span.Attributes.class));
+      }
+
+      builder.setKindValue(srcSpan.get(PROPERTY_KIND).getAsInt());
+
+      return builder.build();
+    }
+
+    @Override
+    public JsonElement serialize(@NonNull final Span src,
+                                 @NonNull final Type typeOfSrc,
+                                 @NonNull final JsonSerializationContext context) {
+      final JsonObject jsonObject = new JsonObject();
+      final Gson gson = NetworkClient.createGson();
+      jsonObject.add(PROPERTY_TRACE_ID, gson.toJsonTree(src.getTraceId()));
+      jsonObject.add(PROPERTY_SPAN_ID, gson.toJsonTree(src.getSpanId()));
+
+      if (!src.getParentSpanId().isEmpty()) {
+        jsonObject.add(PROPERTY_PARENT_SPAN_ID, gson.toJsonTree(src.getParentSpanId()));
+      }
+
+      jsonObject.add(PROPERTY_NAME, gson.toJsonTree(src.getName()));
+      jsonObject.add(PROPERTY_START_TIME, gson.toJsonTree(src.getStartTime()));
+      jsonObject.add(PROPERTY_END_TIME, gson.toJsonTree(src.getEndTime()));
+
+      if (src.getAttributes().getAttributeMapCount() > 0) {
+        jsonObject.add(PROPERTY_ATTRIBUTES,
+            NetworkClient.createGson().toJsonTree(src.getAttributes()));
+      }
+
+      jsonObject.addProperty(PROPERTY_KIND, src.getKindValue());
+
+      return jsonObject;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package io.bitrise.trace.network;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.google.gson.Gson;
+import io.bitrise.trace.benchmark.BenchmarkData;
+import io.bitrise.trace.test.DataTestUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Benchmarks the JSON serialization of the {@link MetricRequest}s and {@link TraceRequest}s with
+ * the streaming type adapters. The "tree" benchmarks build an intermediate JsonElement tree
+ * first, as the adapters did before they became streaming ones, for comparison.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RequestSerializationBenchmark {
+
+  @Rule
+  public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final Gson gson = NetworkClient.getGson();
+  private MetricRequest metricRequest;
+  private TraceRequest traceRequest;
+
+  @Before
+  public void setUp() {
+    metricRequest = new MetricRequest(DataTestUtils.getSampleResource("sessionId"),
+        BenchmarkData.createMetrics(BenchmarkData.METRIC_COUNT));
+    traceRequest = new TraceRequest(DataTestUtils.getSampleResource("sessionId"),
+        BenchmarkData.createSpans(BenchmarkData.SPAN_COUNT));
+  }
+
+  @Test
+  public void serializeMetricRequest_streaming() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      gson.toJson(metricRequest);
+    }
+  }
+
+  @Test
+  public void serializeMetricRequest_tree() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      gson.toJson(gson.toJsonTree(metricRequest));
+    }
+  }
+
+  @Test
+  public void serializeTraceRequest_streaming() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      gson.toJson(traceRequest);
+    }
+  }
+
+  @Test
+  public void serializeTraceRequest_tree() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      gson.toJson(gson.toJsonTree(traceRequest));
+    }
+  }
+}
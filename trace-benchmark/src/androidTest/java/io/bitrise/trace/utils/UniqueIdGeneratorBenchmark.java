@@ -0,0 +1,73 @@
+package io.bitrise.trace.utils;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.util.UUID;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Benchmarks the {@link UniqueIdGenerator} against creating the IDs from {@link UUID}s, as they
+ * were created before.
+ */
+@RunWith(AndroidJUnit4.class)
+public class UniqueIdGeneratorBenchmark {
+
+  @Rule
+  public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  @Test
+  public void makeSpanId() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      UniqueIdGenerator.makeSpanId();
+    }
+  }
+
+  @Test
+  public void makeSpanIdByteString() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      UniqueIdGenerator.makeSpanIdByteString();
+    }
+  }
+
+  @Test
+  public void makeSpanId_uuid() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      makeUuidId(UniqueIdGenerator.SPAN_ID_LENGTH);
+    }
+  }
+
+  @Test
+  public void makeTraceId() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      UniqueIdGenerator.makeTraceId();
+    }
+  }
+
+  @Test
+  public void makeTraceId_uuid() {
+    final BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      makeUuidId(UniqueIdGenerator.TRACE_ID_LENGTH);
+    }
+  }
+
+  /**
+   * Creates an ID the way the {@link UniqueIdGenerator} created them before.
+   *
+   * @param length the length of the ID.
+   * @return the ID.
+   */
+  private static String makeUuidId(final int length) {
+    return UUID.randomUUID()
+               .toString()
+               .replace("-", "")
+               .substring(0, length);
+  }
+}
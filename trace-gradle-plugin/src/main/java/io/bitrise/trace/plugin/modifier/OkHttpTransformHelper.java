@@ -31,7 +31,7 @@ public class OkHttpTransformHelper extends TransformHelper {
 
   /**
    * Transforms {@link OkHttpClient#OkHttpClient()} to add our interceptor, the
-   * TraceOkHttpInterceptor.
+   * TraceOkHttpInterceptor, and our EventListener.Factory, the TraceEventListenerFactory.
    *
    * @param transformInvocation the given {@link TransformInvocation}.
    * @param name                the unique name of the transform.
@@ -57,7 +57,9 @@ public class OkHttpTransformHelper extends TransformHelper {
           && okHttpClientConstructor.getMethodInfo().getDescriptor().equals("()V")) {
         okHttpClientConstructor.setBody(
             "{this(new okhttp3.OkHttpClient.Builder().addInterceptor(new io.bitrise.trace.data"
-                + ".collector.network.okhttp.TraceOkHttpInterceptor()));}");
+                + ".collector.network.okhttp.TraceOkHttpInterceptor())"
+                + ".eventListenerFactory(new io.bitrise.trace.data.collector.network.okhttp"
+                + ".TraceEventListenerFactory()));}");
       }
     }
     okHttpClientClass.writeFile(outputDirectory.getCanonicalPath());
@@ -66,7 +68,8 @@ public class OkHttpTransformHelper extends TransformHelper {
   /**
    * Transforms {@link OkHttpClient.Builder#build()} method to have exactly one instance of our
    * interceptor, the TraceOkHttpInterceptor and it will must be the last Interceptor, so it will
-   * contain the final network call.
+   * contain the final network call. The EventListener.Factory of the client is wrapped with the
+   * TraceEventListenerFactory, that captures the current TraceSpan of the asynchronous calls.
    *
    * @param transformInvocation the given {@link TransformInvocation}.
    * @param name                the unique name of the transform.
@@ -94,7 +97,8 @@ public class OkHttpTransformHelper extends TransformHelper {
 
   /**
    * Gets the content we should add for {@link OkHttpClient.Builder#build()}. This should remove
-   * all the previously added TraceOkHttpInterceptors and add a new one.
+   * all the previously added TraceOkHttpInterceptors and add a new one, and wrap the
+   * EventListener.Factory.
    *
    * @return the content.
    */
@@ -110,6 +114,8 @@ public class OkHttpTransformHelper extends TransformHelper {
         + "}"
         + "interceptors.add(new io.bitrise.trace.data.collector.network.okhttp"
         + ".TraceOkHttpInterceptor());"
+        + "eventListenerFactory = io.bitrise.trace.data.collector.network.okhttp"
+        + ".TraceEventListenerFactory.wrap(eventListenerFactory);"
         + "return new okhttp3.OkHttpClient(this);}";
   }
 }
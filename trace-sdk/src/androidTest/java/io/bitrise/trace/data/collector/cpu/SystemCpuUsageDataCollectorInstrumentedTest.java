@@ -5,7 +5,6 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.both;
-import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
@@ -13,10 +12,7 @@ import io.bitrise.trace.InstrumentedTestRequirements;
 import io.bitrise.trace.data.collector.BaseDataCollectorInstrumentedTest;
 import io.bitrise.trace.data.dto.Data;
 import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.io.RandomAccessFile;
-import java.util.ArrayList;
-import java.util.List;
 import org.junit.Test;
 
 /**
@@ -222,32 +218,13 @@ public class SystemCpuUsageDataCollectorInstrumentedTest extends BaseDataCollect
   }
 
   /**
-   * Verifies that when when we do have access to the proc/stat files and
-   * {@link SystemCpuUsageDataCollector#getCoresUsage(java.io.RandomAccessFile, int)} is called,
-   * the returned {@link CpuUsageData.CpuStat} should be not {@code null}.
-   *
-   * @throws IOException when an I/O error happens.
-   */
-  @Test
-  public void getCoresUsage_resultShouldNotBeNull() throws IOException {
-    InstrumentedTestRequirements.assumeCpuApiLevel();
-
-    final RandomAccessFile randomAccessFile = new RandomAccessFile("/proc/stat", "r");
-    final List<CpuUsageData.CpuStat> actualValue = collector.getCoresUsage(randomAccessFile,
-        SystemCpuUsageDataCollector.getNumberOfCores());
-    assertThat(actualValue, is(notNullValue()));
-    assertThat(actualValue.size(), greaterThan(0));
-  }
-
-  /**
-   * Verifies that when when we do not have access to the proc/stat files and
-   * {@link SystemCpuUsageDataCollector#getCoresUsage(java.io.RandomAccessFile, int)} is called,
-   * the returned {@link CpuUsageData.CpuStat} should be {@code null}.
+   * Verifies that when when we do not have access to the proc/stat files, opening the file
+   * throws an Exception, which is handled by the {@link ProcStatSampler}.
    *
    * @throws FileNotFoundException when the File cannot be found.
    */
   @Test(expected = FileNotFoundException.class)
-  public void getCoresUsage_resultShouldBeException() throws FileNotFoundException {
+  public void openProcStat_resultShouldBeException() throws FileNotFoundException {
     InstrumentedTestRequirements.assumeCpuApiLevelFail();
     new RandomAccessFile("/proc/stat", "r");
   }
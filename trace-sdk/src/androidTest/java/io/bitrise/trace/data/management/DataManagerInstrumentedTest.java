@@ -122,6 +122,8 @@ public class DataManagerInstrumentedTest {
     final long dummyValue = 500L;
     data.setContent(dummyValue);
     dataManager.handleReceivedData(data);
+    // the memory samples are aggregated, they are saved when the aggregation is flushed
+    dataManager.flushAggregatedMetrics();
 
     sleep(100);
     // this happens asynchronously, and can take a few milliseconds to actually get called.
@@ -1,5 +1,6 @@
 package io.bitrise.trace.data.storage;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
@@ -16,6 +17,8 @@ import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.session.Session;
 import io.bitrise.trace.test.MetricTestProvider;
 import io.opencensus.proto.metrics.v1.Metric;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -210,4 +213,135 @@ public class MetricDaoInstrumentedTest {
     final int actualValue = metricDao.getAll().size();
     assertThat(actualValue, is(0));
   }
+
+  /**
+   * Asserts that if we add {@link MetricEntity}s to the {@link TraceDatabase}, then we delete
+   * some of them by their IDs, only the remaining ones will be returned.
+   */
+  @Test
+  public void deleteByIds_shouldDeleteOnlyGivenValues() {
+    final MetricEntity sampleMetricEntity = new MetricEntity(MetricTestProvider.getSampleMetric());
+    final MetricEntity otherMetricEntity = new MetricEntity(MetricTestProvider.getOtherMetric());
+    final MetricEntity emptyMetricEntity = new MetricEntity(MetricTestProvider.getEmptyMetric());
+    metricDao.insertAll(sampleMetricEntity, otherMetricEntity, emptyMetricEntity);
+
+    metricDao.deleteByIds(
+        Arrays.asList(sampleMetricEntity.getMetricId(), otherMetricEntity.getMetricId()));
+
+    final List<MetricEntity> actualValues = metricDao.getAll();
+    assertThat(actualValues, containsInAnyOrder(emptyMetricEntity));
+  }
+
+  /**
+   * Asserts that if we add more {@link MetricEntity}s to the {@link TraceDatabase} than the
+   * {@link TraceDatabase#MAX_BIND_PARAMETERS}, then we delete all of them by their IDs, the
+   * database will be empty.
+   */
+  @Test
+  public void deleteByIds_moreThanBindLimit_shouldMakeEmpty() {
+    final List<String> metricIds = new ArrayList<>();
+    for (int i = 0; i < TraceDatabase.MAX_BIND_PARAMETERS * 2 + 1; i++) {
+      final MetricEntity metricEntity = new MetricEntity(MetricTestProvider.getEmptyMetric());
+      metricEntity.setMetricId("metricId" + i);
+      metricDao.insertAll(metricEntity);
+      metricIds.add(metricEntity.getMetricId());
+    }
+
+    metricDao.deleteByIds(metricIds);
+
+    assertThat(metricDao.getAll().size(), is(0));
+  }
+
+  /**
+   * Asserts that if we add {@link MetricEntity}s to the {@link TraceDatabase} with the same
+   * {@link Session} ID, then we query the Session IDs, the Session ID will be returned once.
+   */
+  @Test
+  public void getSessionIds_shouldBeDistinct() {
+    final MetricEntity firstMetricEntity = new MetricEntity(MetricTestProvider.getSampleMetric());
+    firstMetricEntity.setSessionId("SameSession");
+    final MetricEntity secondMetricEntity = new MetricEntity(MetricTestProvider.getOtherMetric());
+    secondMetricEntity.setSessionId("SameSession");
+    metricDao.insertAll(firstMetricEntity, secondMetricEntity);
+
+    assertThat(metricDao.getSessionIds(), contains("SameSession"));
+  }
+
+  /**
+   * Asserts that if we add {@link MetricEntity}s to the {@link TraceDatabase} with multiple
+   * {@link Session} IDs, then we query the oldest Session ID, the Session ID of the MetricEntity
+   * with the lowest time stamp will be returned.
+   */
+  @Test
+  public void getOldestSessionId_shouldReturnSessionOfOldest() {
+    final MetricEntity newerMetricEntity = new MetricEntity(MetricTestProvider.getSampleMetric());
+    newerMetricEntity.setSessionId("NewerSession");
+    newerMetricEntity.setTimeStamp(2000L);
+    final MetricEntity olderMetricEntity = new MetricEntity(MetricTestProvider.getOtherMetric());
+    olderMetricEntity.setSessionId("OlderSession");
+    olderMetricEntity.setTimeStamp(1000L);
+    metricDao.insertAll(newerMetricEntity, olderMetricEntity);
+
+    assertThat(metricDao.getOldestSessionId(), is("OlderSession"));
+  }
+
+  /**
+   * Asserts that if there are no {@link MetricEntity}s in the {@link TraceDatabase}, the oldest
+   * {@link Session} ID is {@code null}.
+   */
+  @Test
+  public void getOldestSessionId_empty_shouldReturnNull() {
+    assertThat(metricDao.getOldestSessionId(), nullValue());
+  }
+
+  /**
+   * Asserts that if we add {@link MetricEntity}s to the {@link TraceDatabase}, then we query them
+   * page by page, each page contains the next MetricEntitys ordered by their time stamps.
+   */
+  @Test
+  public void getBySessionId_paged_shouldReturnPages() {
+    final String sessionId = "SomeSessionId";
+    final List<MetricEntity> metricEntities = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      final MetricEntity metricEntity = new MetricEntity(MetricTestProvider.getEmptyMetric());
+      metricEntity.setMetricId("metricId" + i);
+      metricEntity.setSessionId(sessionId);
+      metricEntity.setTimeStamp(i);
+      metricEntities.add(metricEntity);
+    }
+    metricDao.insertAll(metricEntities.toArray(new MetricEntity[0]));
+
+    assertThat(metricDao.getBySessionId(sessionId, 2, 0),
+        contains(metricEntities.get(0), metricEntities.get(1)));
+    assertThat(metricDao.getBySessionId(sessionId, 2, 2),
+        contains(metricEntities.get(2), metricEntities.get(3)));
+    assertThat(metricDao.getBySessionId(sessionId, 2, 4), contains(metricEntities.get(4)));
+  }
+
+  /**
+   * Asserts that {@link MetricDao#hasAny()} is {@code false} for an empty table, and {@code true}
+   * after a {@link MetricEntity} is added.
+   */
+  @Test
+  public void hasAny_shouldReflectContent() {
+    assertThat(metricDao.hasAny(), is(false));
+
+    metricDao.insertAll(new MetricEntity(MetricTestProvider.getSampleMetric()));
+
+    assertThat(metricDao.hasAny(), is(true));
+  }
+
+  /**
+   * Asserts that {@link MetricDao#hasSessionId(String)} is {@code true} only for the
+   * {@link Session} IDs of the stored {@link MetricEntity}s.
+   */
+  @Test
+  public void hasSessionId_shouldMatchOnlyStoredSessions() {
+    final MetricEntity metricEntity = new MetricEntity(MetricTestProvider.getSampleMetric());
+    metricEntity.setSessionId("StoredSession");
+    metricDao.insertAll(metricEntity);
+
+    assertThat(metricDao.hasSessionId("StoredSession"), is(true));
+    assertThat(metricDao.hasSessionId("OtherSession"), is(false));
+  }
 }
@@ -1,5 +1,6 @@
 package io.bitrise.trace.data.storage;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
@@ -16,6 +17,8 @@ import io.bitrise.trace.data.trace.TraceEntity;
 import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.session.Session;
 import io.bitrise.trace.test.TraceTestProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -76,10 +79,10 @@ public class TraceDaoInstrumentedTest {
    * {@link TraceDao}, then delete it, it will not be returned when queried.
    */
   @Test
-  public void deleteById_shouldDeleteValue() {
+  public void deleteBySegmentId_shouldDeleteValue() {
     final TraceEntity traceEntity = new TraceEntity(TraceTestProvider.getSampleTrace());
     traceDao.insertAll(traceEntity);
-    traceDao.deleteById(traceEntity.getTraceId());
+    traceDao.deleteBySegmentId(traceEntity.getSegmentId());
     final List<TraceEntity> actualValues = traceDao.getAll();
     assertThat(actualValues, not(hasItem(traceEntity)));
   }
@@ -195,4 +198,156 @@ public class TraceDaoInstrumentedTest {
     final int actualValue = traceDao.getAll().size();
     assertThat(actualValue, is(0));
   }
+
+  /**
+   * Asserts that the segments of the same {@link Trace} are stored separately, and deleting one
+   * of them keeps the others.
+   */
+  @Test
+  public void insertAll_segments_shouldKeepEach() {
+    final Trace firstSegment = TraceTestProvider.getSampleTrace();
+    final Trace secondSegment = firstSegment.createNextSegment();
+    final TraceEntity firstSegmentEntity = new TraceEntity(firstSegment);
+    final TraceEntity secondSegmentEntity = new TraceEntity(secondSegment);
+    traceDao.insertAll(firstSegmentEntity, secondSegmentEntity);
+
+    assertThat(traceDao.getAll(), containsInAnyOrder(firstSegmentEntity, secondSegmentEntity));
+    assertThat(traceDao.getBySegmentId(secondSegment.getSegmentId()), is(secondSegmentEntity));
+
+    traceDao.deleteBySegmentId(firstSegment.getSegmentId());
+
+    assertThat(traceDao.getAll(), containsInAnyOrder(secondSegmentEntity));
+  }
+
+  /**
+   * Asserts that if we add {@link TraceEntity}s to the {@link TraceDatabase}, then we delete
+   * some of them by their IDs, only the remaining ones will be returned.
+   */
+  @Test
+  public void deleteBySegmentIds_shouldDeleteOnlyGivenValues() {
+    final TraceEntity sampleTraceEntity = new TraceEntity(TraceTestProvider.getSampleTrace());
+    final TraceEntity otherTraceEntity = new TraceEntity(TraceTestProvider.getOtherTrace());
+    final TraceEntity emptyTraceEntity = new TraceEntity(TraceTestProvider.getEmptyTrace());
+    traceDao.insertAll(sampleTraceEntity, otherTraceEntity, emptyTraceEntity);
+
+    traceDao.deleteBySegmentIds(
+        Arrays.asList(sampleTraceEntity.getSegmentId(), otherTraceEntity.getSegmentId()));
+
+    final List<TraceEntity> actualValues = traceDao.getAll();
+    assertThat(actualValues, containsInAnyOrder(emptyTraceEntity));
+  }
+
+  /**
+   * Asserts that if we add more {@link TraceEntity}s to the {@link TraceDatabase} than the
+   * {@link TraceDatabase#MAX_BIND_PARAMETERS}, then we delete all of them by their IDs, the
+   * database will be empty.
+   */
+  @Test
+  public void deleteBySegmentIds_moreThanBindLimit_shouldMakeEmpty() {
+    final List<String> segmentIds = new ArrayList<>();
+    for (int i = 0; i < TraceDatabase.MAX_BIND_PARAMETERS * 2 + 1; i++) {
+      final TraceEntity traceEntity = new TraceEntity(TraceTestProvider.getEmptyTrace());
+      traceEntity.setSegmentId("traceId" + i);
+      traceDao.insertAll(traceEntity);
+      segmentIds.add(traceEntity.getSegmentId());
+    }
+
+    traceDao.deleteBySegmentIds(segmentIds);
+
+    assertThat(traceDao.getAll().size(), is(0));
+  }
+
+  /**
+   * Asserts that if we add {@link TraceEntity}s to the {@link TraceDatabase} with the same
+   * {@link Session} ID, then we query the Session IDs, the Session ID will be returned once.
+   */
+  @Test
+  public void getSessionIds_shouldBeDistinct() {
+    final TraceEntity firstTraceEntity = new TraceEntity(TraceTestProvider.getSampleTrace());
+    firstTraceEntity.setSessionId("SameSession");
+    final TraceEntity secondTraceEntity = new TraceEntity(TraceTestProvider.getOtherTrace());
+    secondTraceEntity.setSessionId("SameSession");
+    traceDao.insertAll(firstTraceEntity, secondTraceEntity);
+
+    assertThat(traceDao.getSessionIds(), contains("SameSession"));
+  }
+
+  /**
+   * Asserts that if we add {@link TraceEntity}s to the {@link TraceDatabase} with multiple
+   * {@link Session} IDs, then we query the oldest Session ID, the Session ID of the TraceEntity
+   * with the lowest time stamp will be returned.
+   */
+  @Test
+  public void getOldestSessionId_shouldReturnSessionOfOldest() {
+    final TraceEntity newerTraceEntity = new TraceEntity(TraceTestProvider.getSampleTrace());
+    newerTraceEntity.setSessionId("NewerSession");
+    newerTraceEntity.setTimeStamp(2000L);
+    final TraceEntity olderTraceEntity = new TraceEntity(TraceTestProvider.getOtherTrace());
+    olderTraceEntity.setSessionId("OlderSession");
+    olderTraceEntity.setTimeStamp(1000L);
+    traceDao.insertAll(newerTraceEntity, olderTraceEntity);
+
+    assertThat(traceDao.getOldestSessionId(), is("OlderSession"));
+  }
+
+  /**
+   * Asserts that if there are no {@link TraceEntity}s in the {@link TraceDatabase}, the oldest
+   * {@link Session} ID is {@code null}.
+   */
+  @Test
+  public void getOldestSessionId_empty_shouldReturnNull() {
+    assertThat(traceDao.getOldestSessionId(), nullValue());
+  }
+
+  /**
+   * Asserts that if we add {@link TraceEntity}s to the {@link TraceDatabase}, then we query them
+   * page by page, each page contains the next TraceEntitys ordered by their time stamps.
+   */
+  @Test
+  public void getBySessionId_paged_shouldReturnPages() {
+    final String sessionId = "SomeSessionId";
+    final List<TraceEntity> traceEntities = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      final Trace trace = TraceTestProvider.getEmptyTrace();
+      trace.setTraceId("traceId" + i);
+      final TraceEntity traceEntity = new TraceEntity(trace);
+      traceEntity.setSessionId(sessionId);
+      traceEntity.setTimeStamp(i);
+      traceEntities.add(traceEntity);
+    }
+    traceDao.insertAll(traceEntities.toArray(new TraceEntity[0]));
+
+    assertThat(traceDao.getBySessionId(sessionId, 2, 0),
+        contains(traceEntities.get(0), traceEntities.get(1)));
+    assertThat(traceDao.getBySessionId(sessionId, 2, 2),
+        contains(traceEntities.get(2), traceEntities.get(3)));
+    assertThat(traceDao.getBySessionId(sessionId, 2, 4), contains(traceEntities.get(4)));
+  }
+
+  /**
+   * Asserts that {@link TraceDao#hasAny()} is {@code false} for an empty table, and {@code true}
+   * after a {@link TraceEntity} is added.
+   */
+  @Test
+  public void hasAny_shouldReflectContent() {
+    assertThat(traceDao.hasAny(), is(false));
+
+    traceDao.insertAll(new TraceEntity(TraceTestProvider.getSampleTrace()));
+
+    assertThat(traceDao.hasAny(), is(true));
+  }
+
+  /**
+   * Asserts that {@link TraceDao#hasSessionId(String)} is {@code true} only for the
+   * {@link Session} IDs of the stored {@link TraceEntity}s.
+   */
+  @Test
+  public void hasSessionId_shouldMatchOnlyStoredSessions() {
+    final TraceEntity traceEntity = new TraceEntity(TraceTestProvider.getSampleTrace());
+    traceEntity.setSessionId("StoredSession");
+    traceDao.insertAll(traceEntity);
+
+    assertThat(traceDao.hasSessionId("StoredSession"), is(true));
+    assertThat(traceDao.hasSessionId("OtherSession"), is(false));
+  }
 }
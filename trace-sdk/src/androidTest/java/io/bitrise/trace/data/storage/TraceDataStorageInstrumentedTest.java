@@ -308,12 +308,12 @@ public class TraceDataStorageInstrumentedTest {
 
   @Test
   public void getFirstTraceGroup_noSessions() {
-    assertEquals(Collections.emptyList(), dataStorage.getFirstTraceGroup());
+    assertEquals(Collections.emptyList(), dataStorage.getFirstTraceGroup(1));
   }
 
   @Test
   public void getFirstMetricGroup_noSessions() {
-    assertEquals(Collections.emptyList(), dataStorage.getFirstMetricGroup());
+    assertEquals(Collections.emptyList(), dataStorage.getFirstMetricGroup(1));
   }
 
   @Test
@@ -0,0 +1,133 @@
+package io.bitrise.trace.data.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.platform.app.InstrumentationRegistry;
+import io.bitrise.trace.data.metric.MetricConverter;
+import io.bitrise.trace.data.trace.Trace;
+import io.bitrise.trace.data.trace.TraceConverter;
+import io.bitrise.trace.test.MetricTestProvider;
+import io.bitrise.trace.test.TraceTestProvider;
+import io.opencensus.proto.metrics.v1.Metric;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Instrumented tests for the {@link TraceDatabaseMigrations}.
+ */
+public class TraceDatabaseMigrationInstrumentedTest {
+
+  private static final String TEST_DATABASE_NAME = "trace-database-migration-test";
+  private static final String SESSION_ID = "01F0V3VMFR5KBS1F9CR91P11K3";
+
+  @Rule
+  public MigrationTestHelper migrationTestHelper = new MigrationTestHelper(
+      InstrumentationRegistry.getInstrumentation(), TraceDatabase.class.getCanonicalName(),
+      new FrameworkSQLiteOpenHelperFactory());
+
+  /**
+   * Asserts that the Metrics and Traces stored as JSON in version 2 can be read from their
+   * binary format after migrating to version 3.
+   *
+   * @throws IOException if the test database cannot be created.
+   */
+  @Test
+  public void migrate2To3_shouldKeepMetricsAndTraces() throws IOException {
+    final Metric metric = MetricTestProvider.getApplicationStartUpMetric();
+    final Trace trace = new Trace("traceId", SESSION_ID, Arrays.asList(
+        TraceTestProvider.createActivityViewSpan(), TraceTestProvider.createNetworkSpan()));
+
+    try (SupportSQLiteDatabase database =
+             migrationTestHelper.createDatabase(TEST_DATABASE_NAME, 2)) {
+      final ContentValues metricValues = new ContentValues();
+      metricValues.put("metric", MetricConverter.toString(metric));
+      metricValues.put("metricId", "metricId");
+      metricValues.put("sessionId", SESSION_ID);
+      metricValues.put("timeStamp", 1L);
+      database.insert("MetricEntity", SQLiteDatabase.CONFLICT_REPLACE, metricValues);
+
+      final ContentValues traceValues = new ContentValues();
+      traceValues.put("traceId", trace.getTraceId());
+      traceValues.put("trace", TraceConverter.toString(trace));
+      traceValues.put("timeStamp", 2L);
+      traceValues.put("sessionId", SESSION_ID);
+      database.insert("TraceEntity", SQLiteDatabase.CONFLICT_REPLACE, traceValues);
+    }
+
+    final SupportSQLiteDatabase database = migrationTestHelper.runMigrationsAndValidate(
+        TEST_DATABASE_NAME, 3, true, TraceDatabaseMigrations.MIGRATION_2_3);
+
+    try (Cursor cursor = database.query(
+        "SELECT `metric`, `sessionId`, `timeStamp` FROM `MetricEntity` WHERE `metricId` = ?",
+        new Object[]{"metricId"})) {
+      assertTrue(cursor.moveToFirst());
+      assertEquals(metric, MetricConverter.toMetric(cursor.getBlob(0)));
+      assertEquals(SESSION_ID, cursor.getString(1));
+      assertEquals(1L, cursor.getLong(2));
+    }
+
+    try (Cursor cursor = database.query(
+        "SELECT `trace`, `timeStamp` FROM `TraceEntity` WHERE `traceId` = ?",
+        new Object[]{trace.getTraceId()})) {
+      assertTrue(cursor.moveToFirst());
+      assertEquals(trace, TraceConverter.toTrace(cursor.getBlob(0)));
+      assertEquals(2L, cursor.getLong(1));
+    }
+  }
+
+  /**
+   * Asserts that after migrating from version 3 to 4 the database has the indices of version 4.
+   *
+   * @throws IOException if the test database cannot be created.
+   */
+  @Test
+  public void migrate3To4_shouldAddIndices() throws IOException {
+    migrationTestHelper.createDatabase(TEST_DATABASE_NAME, 3).close();
+
+    migrationTestHelper.runMigrationsAndValidate(TEST_DATABASE_NAME, 4, true,
+        TraceDatabaseMigrations.MIGRATION_3_4);
+  }
+
+  /**
+   * Asserts that the Traces stored in version 4 become the first segments of the Traces after
+   * migrating to version 5.
+   *
+   * @throws IOException if the test database cannot be created.
+   */
+  @Test
+  public void migrate4To5_shouldKeepTracesAsFirstSegments() throws IOException {
+    final Trace trace = new Trace("traceId", SESSION_ID, Arrays.asList(
+        TraceTestProvider.createActivityViewSpan(), TraceTestProvider.createNetworkSpan()));
+
+    try (SupportSQLiteDatabase database =
+             migrationTestHelper.createDatabase(TEST_DATABASE_NAME, 4)) {
+      final ContentValues traceValues = new ContentValues();
+      traceValues.put("traceId", trace.getTraceId());
+      traceValues.put("trace", TraceConverter.toByteArray(trace));
+      traceValues.put("timeStamp", 2L);
+      traceValues.put("sessionId", SESSION_ID);
+      database.insert("TraceEntity", SQLiteDatabase.CONFLICT_REPLACE, traceValues);
+    }
+
+    final SupportSQLiteDatabase database = migrationTestHelper.runMigrationsAndValidate(
+        TEST_DATABASE_NAME, 5, true, TraceDatabaseMigrations.MIGRATION_4_5);
+
+    try (Cursor cursor = database.query(
+        "SELECT `traceId`, `trace`, `timeStamp` FROM `TraceEntity` WHERE `segmentId` = ?",
+        new Object[]{trace.getSegmentId()})) {
+      assertTrue(cursor.moveToFirst());
+      assertEquals(trace.getTraceId(), cursor.getString(0));
+      assertEquals(trace, TraceConverter.toTrace(cursor.getBlob(1)));
+      assertEquals(2L, cursor.getLong(2));
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package io.bitrise.trace;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Holds the current {@link TraceSpan} of each thread, and propagates it to the work that is
+ * executed on other threads. Wrap the {@link Runnable}s, {@link Callable}s or the
+ * {@link Executor}s with it, so the TraceSpans started in the background work become the
+ * children of the TraceSpan that was current when the work was submitted.
+ */
+public final class TraceContext {
+
+  private static final ThreadLocal<TraceSpan> currentSpan = new ThreadLocal<>();
+
+  private TraceContext() {
+    throw new UnsupportedOperationException("Private constructor for class.");
+  }
+
+  /**
+   * Gets the current {@link TraceSpan} of the calling thread.
+   *
+   * @return the current TraceSpan, or {@code null} if there is none.
+   */
+  @Nullable
+  public static TraceSpan getCurrentSpan() {
+    return currentSpan.get();
+  }
+
+  /**
+   * Makes the given {@link TraceSpan} the current one on the calling thread.
+   *
+   * @param span the TraceSpan, or {@code null} if there should be no current TraceSpan.
+   * @return the TraceScope that restores the previous current TraceSpan when it is closed.
+   */
+  @NonNull
+  static TraceScope attach(@Nullable final TraceSpan span) {
+    final TraceScope traceScope = new TraceScope(getCurrentSpan());
+    setCurrentSpan(span);
+    return traceScope;
+  }
+
+  /**
+   * Sets the current {@link TraceSpan} of the calling thread. The ThreadLocal value is removed
+   * when there is no current TraceSpan, so the pooled threads do not keep it.
+   *
+   * @param span the TraceSpan, or {@code null} if there should be no current TraceSpan.
+   */
+  static void setCurrentSpan(@Nullable final TraceSpan span) {
+    if (span == null) {
+      currentSpan.remove();
+    } else {
+      currentSpan.set(span);
+    }
+  }
+
+  /**
+   * Wraps the given {@link Runnable}, so it runs with the {@link TraceSpan} that is current at
+   * the time of this call.
+   *
+   * @param runnable the Runnable to wrap.
+   * @return the wrapped Runnable.
+   */
+  @NonNull
+  public static Runnable wrap(@NonNull final Runnable runnable) {
+    final TraceSpan span = getCurrentSpan();
+    return () -> {
+      try (TraceScope ignored = attach(span)) {
+        runnable.run();
+      }
+    };
+  }
+
+  /**
+   * Wraps the given {@link Callable}, so it runs with the {@link TraceSpan} that is current at
+   * the time of this call.
+   *
+   * @param callable the Callable to wrap.
+   * @param <T>      the type of the result of the Callable.
+   * @return the wrapped Callable.
+   */
+  @NonNull
+  public static <T> Callable<T> wrap(@NonNull final Callable<T> callable) {
+    final TraceSpan span = getCurrentSpan();
+    return () -> {
+      try (TraceScope ignored = attach(span)) {
+        return callable.call();
+      }
+    };
+  }
+
+  /**
+   * Wraps the given {@link Executor}, so each task executed by it runs with the
+   * {@link TraceSpan} that was current when the task was submitted.
+   *
+   * @param executor the Executor to wrap.
+   * @return the wrapped Executor.
+   */
+  @NonNull
+  public static Executor wrap(@NonNull final Executor executor) {
+    return runnable -> executor.execute(wrap(runnable));
+  }
+}
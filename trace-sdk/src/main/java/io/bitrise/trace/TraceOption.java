@@ -31,6 +31,73 @@ public class TraceOption {
     }
   }
 
+  /**
+   * Option object for compressing the bodies of the requests sent to the backend with gzip.
+   * Reduces the amount of data sent, which is useful on metered connections. Disabled by
+   * default.
+   */
+  public static class RequestCompression extends TraceOption {
+    public RequestCompression(boolean isEnabled) {
+      super(isEnabled);
+    }
+  }
+
+  /**
+   * Option object for sending the Metrics and Traces to the backend in the binary protobuf
+   * format instead of JSON. Falls back to JSON when the backend rejects the binary format.
+   * Disabled by default.
+   */
+  public static class ProtobufTransport extends TraceOption {
+    public ProtobufTransport(boolean isEnabled) {
+      super(isEnabled);
+    }
+  }
+
+  /**
+   * Option object for uploading the backlog of the stored data only on unmetered networks. A
+   * backlog is left behind when an upload run reaches its size or time limit. The backlog is
+   * uploaded on any available network after the {@link UploadMaxStaleness}. Disabled by
+   * default.
+   */
+  public static class UnmeteredBacklogUpload extends TraceOption {
+    public UnmeteredBacklogUpload(boolean isEnabled) {
+      super(isEnabled);
+    }
+  }
+
+  /**
+   * Option object for uploading the backlog of the stored data only while the device is
+   * charging. The backlog is uploaded without charging, on any available network, after the
+   * {@link UploadMaxStaleness}. Disabled by default.
+   */
+  public static class ChargingBacklogUpload extends TraceOption {
+    public ChargingBacklogUpload(boolean isEnabled) {
+      super(isEnabled);
+    }
+  }
+
+  /**
+   * Option object for the minimum time in milliseconds between two upload runs. The data
+   * collected in this window is coalesced into a single run, so the radio of the device is woken
+   * up less often. Crash reports are always sent immediately. The default is 60 seconds.
+   */
+  public static class UploadBatchingWindow extends TraceOption {
+    public UploadBatchingWindow(long windowMs) {
+      super(windowMs);
+    }
+  }
+
+  /**
+   * Option object for the maximum time in milliseconds a backlog upload waits for the
+   * constraints of the {@link UnmeteredBacklogUpload} and {@link ChargingBacklogUpload} options,
+   * before it is uploaded on any available network. The default is 6 hours, 0 means no limit.
+   */
+  public static class UploadMaxStaleness extends TraceOption {
+    public UploadMaxStaleness(long maxStalenessMs) {
+      super(maxStalenessMs);
+    }
+  }
+
   /**
    * Option object for putting trace into a debug mode - currently this will mean more
    * debug level log messages.
@@ -1,6 +1,8 @@
 package io.bitrise.trace;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import io.bitrise.trace.scheduler.UploadPolicy;
 import java.util.List;
 
 /**
@@ -52,4 +54,78 @@ public class TraceOptionsUtil {
     return false;
   }
 
+  /**
+   * Determines if the sdk should compress the bodies of the requests.
+   *
+   * @param options the complete list of options provided when the sdk was initialised.
+   * @return false by default, and true if the {@link TraceOption.RequestCompression} object has
+   *     been created and set to true.
+   */
+  protected static boolean determineIfRequestCompression(
+      @Nullable final List<TraceOption> options) {
+    if (options == null || options.size() == 0) {
+      return false;
+    }
+
+    for (TraceOption option : options) {
+      if (option instanceof TraceOption.RequestCompression) {
+        return (Boolean) option.getValue();
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Determines if the sdk should send the data in the binary protobuf format.
+   *
+   * @param options the complete list of options provided when the sdk was initialised.
+   * @return false by default, and true if the {@link TraceOption.ProtobufTransport} object has
+   *     been created and set to true.
+   */
+  protected static boolean determineIfProtobufTransport(
+      @Nullable final List<TraceOption> options) {
+    if (options == null || options.size() == 0) {
+      return false;
+    }
+
+    for (TraceOption option : options) {
+      if (option instanceof TraceOption.ProtobufTransport) {
+        return (Boolean) option.getValue();
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Determines the {@link UploadPolicy} from the upload scheduling options.
+   *
+   * @param options the complete list of options provided when the sdk was initialised.
+   * @return the UploadPolicy, with the defaults of {@link UploadPolicy#getDefault()} for the
+   *     options that have not been created.
+   */
+  @NonNull
+  protected static UploadPolicy determineUploadPolicy(@Nullable final List<TraceOption> options) {
+    boolean unmeteredBacklog = false;
+    boolean chargingBacklog = false;
+    long batchingWindowMs = UploadPolicy.DEFAULT_BATCHING_WINDOW_MS;
+    long maxStalenessMs = UploadPolicy.DEFAULT_MAX_STALENESS_MS;
+    if (options != null) {
+      for (TraceOption option : options) {
+        if (option instanceof TraceOption.UnmeteredBacklogUpload) {
+          unmeteredBacklog = (Boolean) option.getValue();
+        } else if (option instanceof TraceOption.ChargingBacklogUpload) {
+          chargingBacklog = (Boolean) option.getValue();
+        } else if (option instanceof TraceOption.UploadBatchingWindow) {
+          batchingWindowMs = (Long) option.getValue();
+        } else if (option instanceof TraceOption.UploadMaxStaleness) {
+          maxStalenessMs = (Long) option.getValue();
+        }
+      }
+    }
+
+    return new UploadPolicy(unmeteredBacklog, chargingBacklog, batchingWindowMs, maxStalenessMs);
+  }
+
 }
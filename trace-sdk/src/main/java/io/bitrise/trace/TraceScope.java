@@ -0,0 +1,37 @@
+package io.bitrise.trace;
+
+import androidx.annotation.Nullable;
+
+/**
+ * The scope in which a {@link TraceSpan} is the current one on a thread, see
+ * {@link TraceSpan#makeCurrent()}. Closing it restores the previous current TraceSpan, so it
+ * should be closed on the same thread, preferably with a try-with-resources statement.
+ */
+public final class TraceScope implements AutoCloseable {
+
+  @Nullable
+  private final TraceSpan previousSpan;
+
+  private boolean closed;
+
+  /**
+   * Constructor for class.
+   *
+   * @param previousSpan the TraceSpan that was the current one before this scope.
+   */
+  TraceScope(@Nullable final TraceSpan previousSpan) {
+    this.previousSpan = previousSpan;
+  }
+
+  /**
+   * Restores the previous current {@link TraceSpan}. Only the first call has effect.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    TraceContext.setCurrentSpan(previousSpan);
+  }
+}
@@ -12,6 +12,10 @@ import io.bitrise.trace.data.management.DataManager;
 import io.bitrise.trace.data.management.StartupMonitor;
 import io.bitrise.trace.data.storage.TraceDataStorage;
 import io.bitrise.trace.data.trace.ApplicationTraceManager;
+import io.bitrise.trace.data.trace.TraceManager;
+import io.bitrise.trace.network.NetworkClient;
+import io.bitrise.trace.network.RetryPolicy;
+import io.bitrise.trace.scheduler.ServiceScheduler;
 import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.session.SessionManager;
 import io.bitrise.trace.utils.TraceException;
@@ -40,6 +44,14 @@ public class TraceSdk {
   @Nullable
   static volatile TraceSdk traceSdk;
 
+  /**
+   * The {@link TraceManager} that the {@link TraceSpan}s are reported to, or {@code null} when
+   * the SDK is not initialised.
+   */
+  @VisibleForTesting
+  @Nullable
+  static volatile TraceManager traceManager;
+
   /**
    * Boolean to determine if the customer enabled debug mode for the TraceSdk.
    */
@@ -88,12 +100,19 @@ public class TraceSdk {
       traceSdk = new TraceSdk();
 
       TraceLog.i(LogMessageConstants.TRACE_SDK_SUCCESSFULLY_INITIALISED);
+      NetworkClient.setRequestCompressionEnabled(
+          TraceOptionsUtil.determineIfRequestCompression(options));
+      NetworkClient.setProtobufTransportEnabled(
+          TraceOptionsUtil.determineIfProtobufTransport(options));
+      ServiceScheduler.setUploadPolicy(TraceOptionsUtil.determineUploadPolicy(options));
       initSessionManager();
       initDataCollection(context);
+      traceManager = ApplicationTraceManager.getInstance(context);
       initLifeCycleListener(context);
       initNetworkTracing(options);
       TraceLog.i(String.format(LogMessageConstants.TRACE_DEBUG_FLAG_STATUS, isDebugModeEnabled));
-      StartupMonitor.checkSavedCrashes(TraceDataStorage.getInstance(context));
+      StartupMonitor.checkSavedCrashes(TraceDataStorage.getInstance(context),
+          RetryPolicy.getInstance(context));
     } else {
       TraceLog.e(new TraceException.TraceConfigNotInitialisedException());
     }
@@ -137,6 +156,7 @@ public class TraceSdk {
   @VisibleForTesting
   public static synchronized void reset() {
     traceSdk = null;
+    traceManager = null;
     DataManager.reset();
     ApplicationSessionManager.reset();
     TraceActivityLifecycleTracker.reset();
@@ -145,6 +165,21 @@ public class TraceSdk {
     isNetworkTracingEnabled = false;
   }
 
+  /**
+   * Starts a {@link TraceSpan} to measure an operation of the application in the active trace.
+   * Its parent is the current TraceSpan of the calling thread, see
+   * {@link TraceContext#getCurrentSpan()}, or the root Span of the active trace if there is no
+   * current one. The TraceSpan is recorded when {@link TraceSpan#end()} is called. When the SDK
+   * is not initialised, the returned TraceSpan can be used, but it is not recorded.
+   *
+   * @param name the name of the TraceSpan.
+   * @return the started TraceSpan.
+   */
+  @NonNull
+  public static TraceSpan startSpan(@NonNull final String name) {
+    return new TraceSpan(name, traceManager, TraceContext.getCurrentSpan());
+  }
+
   /**
    * Initializes the build configuration for the plugin.
    *
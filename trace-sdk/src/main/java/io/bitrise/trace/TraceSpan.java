@@ -0,0 +1,181 @@
+package io.bitrise.trace;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.google.protobuf.ByteString;
+import io.bitrise.trace.data.dto.DataValues;
+import io.bitrise.trace.data.trace.TraceManager;
+import io.bitrise.trace.utils.ByteStringConverter;
+import io.bitrise.trace.utils.TraceClock;
+import io.bitrise.trace.utils.UniqueIdGenerator;
+import io.bitrise.trace.utils.log.LogMessageConstants;
+import io.bitrise.trace.utils.log.TraceLog;
+import io.opencensus.proto.trace.v1.AttributeValue;
+import io.opencensus.proto.trace.v1.Span;
+import io.opencensus.proto.trace.v1.TruncatableString;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A manually measured operation of the application, e.g. a database query or an image decode.
+ * It is started with {@link TraceSdk#startSpan(String)}, and it is added to the active trace,
+ * next to the automatically created Spans, when {@link #end()} is called.
+ *
+ * <p>The parent of the TraceSpan is the {@link TraceContext#getCurrentSpan() current} TraceSpan
+ * of the thread it is started on, or the root Span of the active trace if there is none. To make
+ * a TraceSpan the parent of the ones started inside it, make it current with
+ * {@link #makeCurrent()}:
+ *
+ * <pre>{@code
+ * final TraceSpan span = TraceSdk.startSpan("loadUsers");
+ * try (TraceScope scope = span.makeCurrent()) {
+ *   // the measured operation
+ * } finally {
+ *   span.end();
+ * }
+ * }</pre>
+ */
+public final class TraceSpan {
+
+  @VisibleForTesting
+  static final String SPAN_TYPE_ATTRIBUTE = DataValues.getName(DataValues.span, DataValues.type);
+
+  @NonNull
+  private final String name;
+
+  @NonNull
+  private final ByteString spanId;
+
+  @Nullable
+  private final ByteString parentSpanId;
+
+  /**
+   * The TraceManager to report the TraceSpan to, or {@code null} if the SDK is not initialised.
+   */
+  @Nullable
+  private final TraceManager traceManager;
+
+  private final long startTimeMs;
+
+  @NonNull
+  private final AtomicBoolean ended = new AtomicBoolean();
+
+  /**
+   * Constructor for class. Use {@link TraceSdk#startSpan(String)} to start a TraceSpan.
+   *
+   * @param name         the name of the TraceSpan.
+   * @param traceManager the TraceManager to report the TraceSpan to, or {@code null} if it should
+   *                     not be reported.
+   * @param parent       the parent TraceSpan, or {@code null} if the root Span of the active
+   *                     trace should be the parent.
+   */
+  TraceSpan(@NonNull final String name, @Nullable final TraceManager traceManager,
+            @Nullable final TraceSpan parent) {
+    this.name = name;
+    this.traceManager = traceManager;
+    this.spanId = UniqueIdGenerator.makeSpanIdByteString();
+    this.parentSpanId = parent != null ? parent.spanId : getRootSpanId(traceManager);
+    this.startTimeMs = TraceClock.getCurrentTimeMillis();
+  }
+
+  @Nullable
+  private static ByteString getRootSpanId(@Nullable final TraceManager traceManager) {
+    if (traceManager == null) {
+      return null;
+    }
+    final String rootSpanId = traceManager.getRootSpanId();
+    return rootSpanId == null ? null : ByteStringConverter.toByteString(rootSpanId);
+  }
+
+  @NonNull
+  public String getName() {
+    return name;
+  }
+
+  @NonNull
+  public String getSpanId() {
+    return ByteStringConverter.toString(spanId);
+  }
+
+  @Nullable
+  public String getParentSpanId() {
+    return parentSpanId == null ? null : ByteStringConverter.toString(parentSpanId);
+  }
+
+  /**
+   * Checks if the TraceSpan has been ended.
+   *
+   * @return {@code true} if {@link #end()} was called, {@code false} otherwise.
+   */
+  public boolean isEnded() {
+    return ended.get();
+  }
+
+  /**
+   * Makes this TraceSpan the current one on the calling thread, until the returned
+   * {@link TraceScope} is closed. The TraceSpans started in the meantime on this thread, or in
+   * the tasks wrapped with {@link TraceContext}, will be the children of this TraceSpan.
+   *
+   * @return the TraceScope, that should be closed on the same thread.
+   */
+  @NonNull
+  public TraceScope makeCurrent() {
+    return TraceContext.attach(this);
+  }
+
+  /**
+   * Ends the TraceSpan and adds it to the active trace. Only the first call has effect.
+   */
+  public void end() {
+    if (!ended.compareAndSet(false, true)) {
+      return;
+    }
+    if (traceManager == null) {
+      TraceLog.w(String.format(LogMessageConstants.TRACE_SPAN_NOT_RECORDED, name));
+      return;
+    }
+    traceManager.addSpanToActiveTrace(toSpan(TraceClock.getCurrentTimeMillis()));
+  }
+
+  /**
+   * Creates the {@link Span} of this TraceSpan. It has a span type attribute, so it is not
+   * mistaken for the Span of a view, that do not have attributes.
+   *
+   * @param endTimeMs the end time of the TraceSpan in milliseconds.
+   * @return the Span.
+   */
+  @VisibleForTesting
+  @NonNull
+  Span toSpan(final long endTimeMs) {
+    final Span.Builder span =
+        Span.newBuilder()
+            .setStartTime(TraceClock.createTimestamp(startTimeMs))
+            .setEndTime(TraceClock.createTimestamp(Math.max(startTimeMs, endTimeMs)))
+            .setName(TruncatableString.newBuilder().setValue(name).build())
+            .setSpanId(spanId)
+            .setAttributes(createAttributes())
+            .setKind(Span.SpanKind.SPAN_KIND_UNSPECIFIED);
+    if (parentSpanId != null) {
+      span.setParentSpanId(parentSpanId);
+    }
+    return span.build();
+  }
+
+  /**
+   * Creates the {@link Span.Attributes} of the Span, that mark it as a custom Span.
+   *
+   * @return the attributes object.
+   */
+  @NonNull
+  private static Span.Attributes createAttributes() {
+    final AttributeValue spanType =
+        AttributeValue.newBuilder()
+                      .setStringValue(TruncatableString.newBuilder()
+                                                       .setValue(DataValues.custom)
+                                                       .build())
+                      .build();
+    return Span.Attributes.newBuilder()
+                          .putAttributeMap(SPAN_TYPE_ATTRIBUTE, spanType)
+                          .build();
+  }
+}
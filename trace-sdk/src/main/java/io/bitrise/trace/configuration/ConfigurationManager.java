@@ -11,6 +11,8 @@ import io.bitrise.trace.data.collector.DataListener;
 import io.bitrise.trace.data.collector.application.ApplicationVersionCodeDataCollector;
 import io.bitrise.trace.data.collector.application.ApplicationVersionNameDataCollector;
 import io.bitrise.trace.data.collector.cpu.ApplicationCpuUsageDataCollector;
+import io.bitrise.trace.data.collector.cpu.ApplicationThreadCpuUsageDataCollector;
+import io.bitrise.trace.data.collector.cpu.SystemCpuCoreUsageDataCollector;
 import io.bitrise.trace.data.collector.cpu.SystemCpuUsageDataCollector;
 import io.bitrise.trace.data.collector.crash.TraceCrashDataListener;
 import io.bitrise.trace.data.collector.device.DeviceCarrierDataCollector;
@@ -20,7 +22,9 @@ import io.bitrise.trace.data.collector.device.DeviceModelDataCollector;
 import io.bitrise.trace.data.collector.device.DeviceNetworkTypeDataCollector;
 import io.bitrise.trace.data.collector.device.DeviceOsVersionDataCollector;
 import io.bitrise.trace.data.collector.device.DeviceRootedDataCollector;
+import io.bitrise.trace.data.collector.memory.ApplicationRuntimeMemoryDataCollector;
 import io.bitrise.trace.data.collector.memory.ApplicationUsedMemoryDataCollector;
+import io.bitrise.trace.data.collector.memory.MemoryTrimDataListener;
 import io.bitrise.trace.data.collector.memory.SystemMemoryDataCollector;
 import io.bitrise.trace.data.collector.network.okhttp.OkHttpDataListener;
 import io.bitrise.trace.data.collector.view.ActivityStateDataListener;
@@ -261,9 +265,12 @@ public class ConfigurationManager {
   public Set<DataCollector> getRecurringDataCollectors(@NonNull final Context context) {
     final Set<DataCollector> dataCollectors = new HashSet<>();
     dataCollectors.add(new ApplicationUsedMemoryDataCollector(context));
+    dataCollectors.add(new ApplicationRuntimeMemoryDataCollector());
     dataCollectors.add(new SystemMemoryDataCollector(context));
     dataCollectors.add(new SystemCpuUsageDataCollector());
     dataCollectors.add(new ApplicationCpuUsageDataCollector());
+    dataCollectors.add(new SystemCpuCoreUsageDataCollector());
+    dataCollectors.add(new ApplicationThreadCpuUsageDataCollector());
     return dataCollectors;
   }
 
@@ -313,6 +320,7 @@ public class ConfigurationManager {
         .add(new ApplicationStartUpDataListener(context, applicationForegroundStateDataListener));
     dataListeners.add(applicationForegroundStateDataListener);
     dataListeners.add(new FragmentStateDataListener(context, activityStateDataListener));
+    dataListeners.add(new MemoryTrimDataListener(context));
     dataListeners.add(new OkHttpDataListener(context));
     dataListeners.add(new TraceCrashDataListener(context));
     return dataListeners;
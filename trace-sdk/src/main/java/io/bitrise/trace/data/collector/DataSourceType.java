@@ -4,6 +4,8 @@ import androidx.annotation.NonNull;
 import io.bitrise.trace.data.collector.application.ApplicationVersionCodeDataCollector;
 import io.bitrise.trace.data.collector.application.ApplicationVersionNameDataCollector;
 import io.bitrise.trace.data.collector.cpu.ApplicationCpuUsageDataCollector;
+import io.bitrise.trace.data.collector.cpu.ApplicationThreadCpuUsageDataCollector;
+import io.bitrise.trace.data.collector.cpu.SystemCpuCoreUsageDataCollector;
 import io.bitrise.trace.data.collector.cpu.SystemCpuUsageDataCollector;
 import io.bitrise.trace.data.collector.device.DeviceCarrierDataCollector;
 import io.bitrise.trace.data.collector.device.DeviceIdDataCollector;
@@ -12,7 +14,9 @@ import io.bitrise.trace.data.collector.device.DeviceModelDataCollector;
 import io.bitrise.trace.data.collector.device.DeviceNetworkTypeDataCollector;
 import io.bitrise.trace.data.collector.device.DeviceOsVersionDataCollector;
 import io.bitrise.trace.data.collector.device.DeviceRootedDataCollector;
+import io.bitrise.trace.data.collector.memory.ApplicationRuntimeMemoryDataCollector;
 import io.bitrise.trace.data.collector.memory.ApplicationUsedMemoryDataCollector;
+import io.bitrise.trace.data.collector.memory.MemoryTrimDataListener;
 import io.bitrise.trace.data.collector.memory.SystemMemoryDataCollector;
 import io.bitrise.trace.data.collector.network.okhttp.OkHttpDataListener;
 import io.bitrise.trace.data.collector.view.ActivityStateDataListener;
@@ -25,7 +29,10 @@ import io.bitrise.trace.data.collector.view.FragmentStateDataListener;
 public enum DataSourceType {
   ACTIVITY_STATE(ActivityStateDataListener.class.getName()),
   APP_CPU_USAGE(ApplicationCpuUsageDataCollector.class.getName()),
+  APP_MEMORY_TRIM(MemoryTrimDataListener.class.getName()),
+  APP_RUNTIME_MEMORY(ApplicationRuntimeMemoryDataCollector.class.getName()),
   APP_START(ApplicationStartUpDataListener.class.getName()),
+  APP_THREAD_CPU_USAGE(ApplicationThreadCpuUsageDataCollector.class.getName()),
   APP_USED_MEMORY(ApplicationUsedMemoryDataCollector.class.getName()),
   APP_VERSION_CODE(ApplicationVersionCodeDataCollector.class.getName()),
   APP_VERSION_NAME(ApplicationVersionNameDataCollector.class.getName()),
@@ -38,6 +45,7 @@ public enum DataSourceType {
   FRAGMENT_STATE(FragmentStateDataListener.class.getName()),
   NETWORK_CALL_OKHTTP(OkHttpDataListener.class.getName()),
   NETWORK_TYPE(DeviceNetworkTypeDataCollector.class.getName()),
+  SYSTEM_CPU_CORE_USAGE(SystemCpuCoreUsageDataCollector.class.getName()),
   SYSTEM_CPU_USAGE(SystemCpuUsageDataCollector.class.getName()),
   SYSTEM_USED_MEMORY(SystemMemoryDataCollector.class.getName());
 
@@ -8,13 +8,17 @@ import io.bitrise.trace.data.dto.Data;
 import io.bitrise.trace.utils.TraceClock;
 import io.bitrise.trace.utils.log.LogMessageConstants;
 import io.bitrise.trace.utils.log.TraceLog;
-import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.util.concurrent.TimeUnit;
 
 /**
  * {@link DataCollector} type, that collects the Applications usage of the CPU. For information
- * about how CPUs work on Linux based system see linked article. CPU usage data is parsed from
- * "stat" files, see linked manual for the format of these files.
+ * about how CPUs work on Linux based system see linked article. The CPU time of the process is
+ * parsed from the proc/self/stat file, see linked manual for the format of the file. The usage is
+ * the CPU time used since the previous sample, in the percentage of the time elapsed in between,
+ * measured with the monotonic {@link TraceClock#getElapsedRealtimeNanos()} clock.
+ *
+ * <p>Collecting never blocks: when no time has elapsed since the previous sample, no usage is
+ * reported, and the next collection covers the whole interval.
  *
  * @see
  * <a href="https://www.opsdash.com/blog/cpu-usage-linux.html">https://www.opsdash.com/blog/cpu-usage-linux.html</a>
@@ -23,161 +27,129 @@ import java.io.RandomAccessFile;
  */
 public class ApplicationCpuUsageDataCollector extends CpuUsageDataCollector {
 
-  // region Index for different CPU status information fields from proc/[pid]/stat
-  private static final int PROC_PID_STAT_UTIME = 13;
-  private static final int PROC_PID_STAT_STIME = 14;
-  private static final int PROC_PID_STAT_CUTIME = 15;
-  private static final int PROC_PID_STAT_CSTIME = 16;
-  private static final int PROC_PID_STAT_START_TIME = 21;
-  private static final int CPU_MEASUREMENT_DEFAULT_SLEEP_AMOUNT = 100;
-  private static Integer userHZ;
-  // endregion
-  @VisibleForTesting
-  CpuUsageData.PidCpuStatWithUptime previousAverageApplicationStats;
+  /**
+   * The shortest interval between two samples in milliseconds, that is considered to be
+   * {@link CpuUsageData.SampleQuality#ACCURATE}. Below it the rounding to whole clock ticks can
+   * distort the usage by more than a percent.
+   */
+  static final long MIN_ACCURATE_SAMPLE_INTERVAL_MS = 1000;
 
-  public ApplicationCpuUsageDataCollector() {
-    previousAverageApplicationStats = getApplicationCpuUsage();
-  }
+  @NonNull
+  private final ProcStatSampler procStatSampler;
 
   /**
-   * Gets the uptime of the CPU.
-   *
-   * @return the uptime.
+   * The CPU time of the process in clock ticks at the previous sample, or -1 if there is no
+   * previous sample.
    */
-  @VisibleForTesting
-  static float getUptime(final float cpuStartTime, final float elapsedSeconds) {
-    return elapsedSeconds
-        - (cpuStartTime / getNumberOfClockTicksPerSecond(elapsedSeconds, cpuStartTime));
+  private long previousTicks = -1;
+
+  private long previousTimeNanos;
+
+  public ApplicationCpuUsageDataCollector() {
+    this(ProcStatSampler.getInstance());
   }
 
   /**
-   * Gets the USER_HZ constant. By default it is 100 for most Android devices, but it can be
-   * altered.
+   * Constructor for class. Takes the first sample, so the first collection can already report the
+   * usage.
    *
-   * @param elapsedSeconds the elapsed seconds since boot.
-   * @param startTime      The time the process started after system boot. In kernels before
-   *                       Linux 2.6, this value was expressed in jiffies.  Since Linux 2.6, the
-   *                       value is expressed in clock ticks (divide by sysconf(_SC_CLK_TCK)).
-   *                       This means elapsedTime= ticks/USER_HZ -> USER_HZ = startTime/elapsedTime.
-   * @return the USER_HZ.
+   * @param procStatSampler the {@link ProcStatSampler} that reads the proc/self/stat file.
    */
   @VisibleForTesting
-  static int getNumberOfClockTicksPerSecond(final float elapsedSeconds, final float startTime) {
-    if (userHZ == null) {
-      userHZ = Math.round(startTime / elapsedSeconds);
-    }
-
-    return 100;
+  ApplicationCpuUsageDataCollector(@NonNull final ProcStatSampler procStatSampler) {
+    this.procStatSampler = procStatSampler;
+    getApplicationCpuUsage();
   }
 
   @NonNull
   @Override
   public Data collectData() {
     final Data data = new Data(this);
-    data.setContent(getApplicationCpuUsagePercentage(previousAverageApplicationStats));
+    data.setContent(getApplicationCpuUsage());
     return data;
   }
 
   /**
-   * Gets the CPU usage percentage for the application as a Double value. Works the following way:
+   * Gets the CPU usage of the application since the previous sample. Works the following way:
    * <ul>
-   *     <li>Gets current usage proc/self/stat file</li>
-   *     <li>From the previous measure it calculates the change since the last measure</li>
+   *     <li>Gets the current CPU time of the process from the proc/self/stat file</li>
+   *     <li>From the previous sample it calculates the change of the CPU time and the elapsed
+   *     time</li>
    *     <li>Calculates and returns the percentage of usage</li>
    * </ul>
    *
-   * <p>If the proc/self/stat file cannot be read, the IOException is caught and logged, and {@code
-   * null} is returned.
-   *
-   * @return the CPU usage percentage, or {@code null} when it cannot be read.
+   * @return the {@link CpuUsageData.ApplicationCpuUsage}, or {@code null} when there is no
+   *     previous sample, no time has elapsed since it, or the file cannot be read.
    */
   @Nullable
   @VisibleForTesting
-  Double getApplicationCpuUsagePercentage(
-      @NonNull final CpuUsageData.PidCpuStatWithUptime previousPidCpuStatWithUptime) {
-    final CpuUsageData.PidCpuStatWithUptime pidCpuStatWithUptime = getApplicationCpuUsage();
-    final CpuUsageData.PidCpuStat currentStats = pidCpuStatWithUptime.getPidCpuStat();
-    final CpuUsageData.PidCpuStat previousStats = previousPidCpuStatWithUptime.getPidCpuStat();
-
-    final double totalTime = currentStats.getUtime() + currentStats.getStime()
-        + currentStats.getCstime() + currentStats.getCutime();
-    final double previousTotalTime = previousStats.getUtime() + previousStats.getStime()
-        + previousStats.getCstime() + previousStats.getCutime();
-    final double totalTimeDiff = totalTime - previousTotalTime;
-
-    final double upTimeDiff =
-        pidCpuStatWithUptime.getUptime() - previousPidCpuStatWithUptime.getUptime();
-    final double clkTck = getNumberOfClockTicksPerSecond(pidCpuStatWithUptime.getElapsedSeconds(),
-        currentStats.getStarttime());
-
-    if (upTimeDiff == 0) {
-      try {
-        Thread.sleep(CPU_MEASUREMENT_DEFAULT_SLEEP_AMOUNT);
-      } catch (final InterruptedException e) {
-        // nop
-      }
-      return getApplicationCpuUsagePercentage(previousPidCpuStatWithUptime);
+  synchronized CpuUsageData.ApplicationCpuUsage getApplicationCpuUsage() {
+    final CpuUsageData.PidCpuStat pidCpuStat = procStatSampler.getProcessCpuStat();
+    final Long currentTimeNanos = getElapsedRealtimeNanos();
+    if (pidCpuStat == null || currentTimeNanos == null) {
+      previousTicks = -1;
+      return null;
     }
-    previousAverageApplicationStats = pidCpuStatWithUptime;
-
-    final double result = 100 * (totalTimeDiff / clkTck) / upTimeDiff;
 
-    // filter out invalid values
-    if (result < 0 || result > 100) {
-      TraceLog.w(LogMessageConstants.FAILED_TO_READ_CPU_STATS);
+    final long currentTicks = (long) (pidCpuStat.getUtime() + pidCpuStat.getStime()
+        + pidCpuStat.getCutime() + pidCpuStat.getCstime());
+    final long elapsedNanos = currentTimeNanos - previousTimeNanos;
+    if (previousTicks >= 0 && elapsedNanos <= 0) {
       return null;
     }
 
-    return result;
+    final long tickDiff = currentTicks - previousTicks;
+    final boolean hasPrevious = previousTicks >= 0;
+    previousTicks = currentTicks;
+    previousTimeNanos = currentTimeNanos;
+    if (!hasPrevious) {
+      return null;
+    }
+    return calculateUsage(tickDiff, elapsedNanos);
   }
 
   /**
-   * Gets the usage of the CPU for a given application (process).
+   * Calculates the CPU usage from the used clock ticks and the elapsed time.
    *
-   * @return a {@link CpuUsageData.PidCpuStatWithUptime} containing the data.
-   * @see
-   * <a href="https://man7.org/linux/man-pages/man5/proc.5.html">https://man7.org/linux/man-pages/man5/proc.5.html</a>
+   * @param ticks        the clock ticks used by the process since the previous sample.
+   * @param elapsedNanos the time elapsed since the previous sample in nanoseconds.
+   * @return the {@link CpuUsageData.ApplicationCpuUsage}, or {@code null} if the usage is not
+   *     between 0 and 100 percent.
    */
   @Nullable
   @VisibleForTesting
-  CpuUsageData.PidCpuStatWithUptime getApplicationCpuUsage() {
-    try {
-      return parsePidCpuStat(new RandomAccessFile("/proc/self/stat", "r").readLine());
-    } catch (final IOException e) {
-      TraceLog.w(e, LogMessageConstants.FAILED_TO_READ_APPLICATION_CPU_STATS);
+  static CpuUsageData.ApplicationCpuUsage calculateUsage(final long ticks,
+                                                         final long elapsedNanos) {
+    final double cpuTimeNanos =
+        ticks * (double) TimeUnit.SECONDS.toNanos(1) / CLOCK_TICKS_PER_SECOND;
+    final double usage = cpuTimeNanos * 100 / elapsedNanos;
+
+    // filter out invalid values
+    if (usage < 0 || usage > 100) {
+      TraceLog.w(LogMessageConstants.FAILED_TO_READ_CPU_STATS);
+      return null;
     }
-    return null;
-  }
 
+    final CpuUsageData.SampleQuality sampleQuality =
+        elapsedNanos < TimeUnit.MILLISECONDS.toNanos(MIN_ACCURATE_SAMPLE_INTERVAL_MS)
+            ? CpuUsageData.SampleQuality.LOW_RESOLUTION
+            : CpuUsageData.SampleQuality.ACCURATE;
+    return new CpuUsageData.ApplicationCpuUsage(usage, sampleQuality);
+  }
 
   /**
-   * Parses the given String from a given process stat File and returns a
-   * {@link CpuUsageData.PidCpuStatWithUptime} from it.
+   * Gets the current time of the monotonic clock.
    *
-   * @param line the String line to parse.
-   * @return the PidCpuStatWithUptime parsed from it, or {@code null} if it could not be read
-   *     (e.g. CPU offline).
+   * @return the elapsed time since boot in nanoseconds, or {@code null} if it cannot be read.
    */
   @Nullable
   @VisibleForTesting
-  CpuUsageData.PidCpuStatWithUptime parsePidCpuStat(@NonNull final String line) {
-    CpuUsageData.PidCpuStatWithUptime pidCpuStatWithUptime = null;
+  Long getElapsedRealtimeNanos() {
     try {
-      final String[] usage = line.split(" +");
-      final CpuUsageData.PidCpuStat pidCpuStat = new CpuUsageData.PidCpuStat(
-          Float.parseFloat(usage[PROC_PID_STAT_UTIME]),
-          Float.parseFloat(usage[PROC_PID_STAT_STIME]),
-          Float.parseFloat(usage[PROC_PID_STAT_CUTIME]),
-          Float.parseFloat(usage[PROC_PID_STAT_CSTIME]),
-          Float.parseFloat(usage[PROC_PID_STAT_START_TIME])
-      );
-      final long elapsedSeconds = TraceClock.getElapsedSeconds();
-      final double uptime = getUptime(pidCpuStat.getStarttime(), elapsedSeconds);
-      pidCpuStatWithUptime =
-          new CpuUsageData.PidCpuStatWithUptime(pidCpuStat, uptime, elapsedSeconds);
+      return TraceClock.getElapsedRealtimeNanos();
     } catch (final Exception e) {
       TraceLog.w(e, LogMessageConstants.FAILED_TO_READ_APPLICATION_CPU_STATS);
+      return null;
     }
-    return pidCpuStatWithUptime;
   }
 }
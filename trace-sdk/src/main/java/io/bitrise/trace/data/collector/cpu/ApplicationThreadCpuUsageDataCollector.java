@@ -0,0 +1,295 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.bitrise.trace.data.collector.DataCollector;
+import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.utils.log.LogMessageConstants;
+import io.bitrise.trace.utils.log.TraceLog;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DataCollector} type, that collects the CPU usage of the threads of the Application, from
+ * the proc/self/task/[tid]/stat files. The usage of the threads with the same name (e.g. the
+ * threads of a pool) are summed, and only the threads that used the CPU the most since the
+ * previous collection are reported. The trailing numbers of the names are removed before the
+ * grouping, so the numbered threads of a pool (e.g. "pool-3-thread-7") are reported together.
+ * The usage is expressed in the percentage of a single core, so a thread that keeps a core busy
+ * during the whole period has a usage of 100%. The stat files of the threads are kept open
+ * between the collections, see {@link StatFile}.
+ *
+ * @see
+ * <a href="https://man7.org/linux/man-pages/man5/proc.5.html">https://man7.org/linux/man-pages/man5/proc.5.html</a>
+ */
+public class ApplicationThreadCpuUsageDataCollector extends CpuUsageDataCollector {
+
+  /**
+   * The maximum number of thread names reported in a single collection.
+   */
+  static final int MAX_REPORTED_THREADS = 10;
+
+  /**
+   * The maximum number of stat files kept open. The files of the further threads are opened and
+   * closed on each collection, so a process with a lot of threads does not run out of File
+   * descriptors.
+   */
+  static final int MAX_OPEN_STAT_FILES = 128;
+
+  private static final String TASK_DIRECTORY_PATH = "/proc/self/task";
+
+  private static final String STAT_FILE_NAME = "stat";
+
+  /**
+   * The size of the read buffer, a stat file of a thread is a single line.
+   */
+  private static final int BUFFER_SIZE = 1024;
+
+  @NonNull
+  private final File taskDirectory;
+
+  @NonNull
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+
+  @NonNull
+  private final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+
+  /**
+   * The open stat files of the threads, by thread id.
+   */
+  @NonNull
+  private final Map<Integer, StatFile> statFiles = new HashMap<>();
+
+  @NonNull
+  private final long[] values = new long[ProcStatParser.THREAD_STAT_FIELD_COUNT];
+
+  /**
+   * The total CPU time of the threads in clock ticks at the previous collection, by thread id.
+   */
+  @Nullable
+  private Map<Integer, Long> previousThreadTicks;
+
+  private long previousTimeNanos;
+
+  public ApplicationThreadCpuUsageDataCollector() {
+    this(new File(TASK_DIRECTORY_PATH));
+  }
+
+  /**
+   * Constructor for class.
+   *
+   * @param taskDirectory the directory that contains a directory for each thread of the process.
+   */
+  @VisibleForTesting
+  ApplicationThreadCpuUsageDataCollector(@NonNull final File taskDirectory) {
+    this.taskDirectory = taskDirectory;
+  }
+
+  @NonNull
+  @Override
+  public Data collectData() {
+    final Data data = new Data(this);
+    data.setContent(getThreadCpuUsage());
+    return data;
+  }
+
+  /**
+   * Gets the CPU usage of the threads since the previous call. The first call only records the
+   * current CPU times of the threads.
+   *
+   * @return the array of {@link CpuUsageData.ThreadCpuUsage}s ordered by the usage in descending
+   *     order, or {@code null} when there is no previous measurement, or the files cannot be
+   *     read.
+   */
+  @Nullable
+  @VisibleForTesting
+  synchronized CpuUsageData.ThreadCpuUsage[] getThreadCpuUsage() {
+    final long currentTimeNanos = getCurrentTimeNanos();
+    final String[] threadIds = taskDirectory.list();
+    if (threadIds == null) {
+      TraceLog.w(LogMessageConstants.FAILED_TO_READ_THREAD_CPU_STATS);
+      previousThreadTicks = null;
+      closeStatFiles(Collections.<Integer>emptySet());
+      return null;
+    }
+
+    final Map<Integer, Long> currentThreadTicks = new HashMap<>();
+    final Map<String, Long> ticksByName = new HashMap<>();
+    for (@NonNull final String threadId : threadIds) {
+      final int tid;
+      try {
+        tid = Integer.parseInt(threadId);
+      } catch (final NumberFormatException e) {
+        continue;
+      }
+      final int length = readStatFile(tid, threadId);
+      if (length <= 0 || !ProcStatParser.parseThreadStat(buffer, length, values)) {
+        continue;
+      }
+      final String rawName = ProcStatParser.parseName(buffer, length);
+      if (rawName == null) {
+        continue;
+      }
+      final String name = normalizeThreadName(rawName);
+
+      final long ticks = values[0] + values[1];
+      currentThreadTicks.put(tid, ticks);
+      if (previousThreadTicks == null) {
+        continue;
+      }
+      final Long previousTicks = previousThreadTicks.get(tid);
+      final long tickDiff = previousTicks == null ? ticks : ticks - previousTicks;
+      if (tickDiff > 0) {
+        final Long ticksOfName = ticksByName.get(name);
+        ticksByName.put(name, ticksOfName == null ? tickDiff : ticksOfName + tickDiff);
+      }
+    }
+
+    closeStatFiles(currentThreadTicks.keySet());
+    final boolean hasPrevious = previousThreadTicks != null;
+    final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(currentTimeNanos - previousTimeNanos);
+    previousThreadTicks = currentThreadTicks;
+    previousTimeNanos = currentTimeNanos;
+    if (!hasPrevious || elapsedMs <= 0) {
+      return null;
+    }
+    return calculateThreadCpuUsages(ticksByName, elapsedMs);
+  }
+
+  /**
+   * Reads the stat file of the given thread into the buffer. The file is kept open for the next
+   * collection, unless {@link #MAX_OPEN_STAT_FILES} files are already open.
+   *
+   * @param tid      the id of the thread.
+   * @param threadId the name of the directory of the thread.
+   * @return the number of bytes read, or -1 if the file cannot be read (e.g. the thread has
+   *     finished since the directory was listed).
+   */
+  private int readStatFile(final int tid, @NonNull final String threadId) {
+    StatFile statFile = statFiles.get(tid);
+    if (statFile == null) {
+      statFile = new StatFile(new File(new File(taskDirectory, threadId), STAT_FILE_NAME));
+      if (statFiles.size() >= MAX_OPEN_STAT_FILES) {
+        final int length = statFile.read(byteBuffer, null);
+        statFile.close();
+        return length;
+      }
+      statFiles.put(tid, statFile);
+    }
+    return statFile.read(byteBuffer, null);
+  }
+
+  /**
+   * Closes the stat files of the threads that were not read in the current collection, e.g. the
+   * threads that have finished.
+   *
+   * @param readThreadIds the ids of the threads that were read.
+   */
+  private void closeStatFiles(@NonNull final Set<Integer> readThreadIds) {
+    final Iterator<Map.Entry<Integer, StatFile>> iterator = statFiles.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<Integer, StatFile> entry = iterator.next();
+      if (!readThreadIds.contains(entry.getKey())) {
+        entry.getValue().close();
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Gets the number of the open stat files.
+   *
+   * @return the number of the open stat files.
+   */
+  @VisibleForTesting
+  synchronized int getOpenStatFileCount() {
+    return statFiles.size();
+  }
+
+  /**
+   * Removes the trailing numbers, and the separators before them, from the given thread name,
+   * so the threads of a pool have the same name. For example "pool-3-thread-7" becomes
+   * "pool-3-thread", and "Binder:1234_5" becomes "Binder". A name that consists of numbers
+   * only is kept.
+   *
+   * @param name the name of the thread.
+   * @return the normalized name.
+   */
+  @NonNull
+  @VisibleForTesting
+  static String normalizeThreadName(@NonNull final String name) {
+    int end = name.length();
+    while (true) {
+      int start = end;
+      while (start > 0 && Character.isDigit(name.charAt(start - 1))) {
+        start--;
+      }
+      if (start == end) {
+        break;
+      }
+      while (start > 0 && isThreadNameSeparator(name.charAt(start - 1))) {
+        start--;
+      }
+      if (start == 0) {
+        break;
+      }
+      end = start;
+    }
+    return end == name.length() ? name : name.substring(0, end);
+  }
+
+  private static boolean isThreadNameSeparator(final char character) {
+    return character == '-' || character == '_' || character == '#' || character == ':'
+        || character == ' ';
+  }
+
+  /**
+   * Calculates the CPU usage of the threads from the used clock ticks.
+   *
+   * @param ticksByName the clock ticks used by the threads since the previous collection, by
+   *                    thread name.
+   * @param elapsedMs   the time elapsed since the previous collection in milliseconds.
+   * @return the array of {@link CpuUsageData.ThreadCpuUsage}s of the top
+   *     {@link #MAX_REPORTED_THREADS} thread names, ordered by the usage in descending order.
+   */
+  @NonNull
+  @VisibleForTesting
+  static CpuUsageData.ThreadCpuUsage[] calculateThreadCpuUsages(
+      @NonNull final Map<String, Long> ticksByName, final long elapsedMs) {
+    final List<CpuUsageData.ThreadCpuUsage> threadCpuUsages = new ArrayList<>();
+    for (@NonNull final Map.Entry<String, Long> entry : ticksByName.entrySet()) {
+      final double cpuTimeMs = entry.getValue() * 1000d / CLOCK_TICKS_PER_SECOND;
+      threadCpuUsages.add(
+          new CpuUsageData.ThreadCpuUsage(entry.getKey(), cpuTimeMs * 100 / elapsedMs));
+    }
+    Collections.sort(threadCpuUsages, new Comparator<CpuUsageData.ThreadCpuUsage>() {
+      @Override
+      public int compare(final CpuUsageData.ThreadCpuUsage first,
+                         final CpuUsageData.ThreadCpuUsage second) {
+        return Double.compare(second.getUsage(), first.getUsage());
+      }
+    });
+    final int count = Math.min(threadCpuUsages.size(), MAX_REPORTED_THREADS);
+    return threadCpuUsages.subList(0, count).toArray(new CpuUsageData.ThreadCpuUsage[0]);
+  }
+
+  /**
+   * Gets the current time of a monotonic clock.
+   *
+   * @return the current time in nanoseconds.
+   */
+  @VisibleForTesting
+  long getCurrentTimeNanos() {
+    return System.nanoTime();
+  }
+}
@@ -223,54 +223,188 @@ public class CpuUsageData {
   }
 
   /**
-   * A {@link PidCpuStat} data class with the uptime.
+   * The quality of a CPU usage sample.
    */
-  public static class PidCpuStatWithUptime {
+  public enum SampleQuality {
 
+    /**
+     * The sample covers a long enough interval, that the resolution of the CPU time does not
+     * distort it.
+     */
+    ACCURATE("accurate"),
+
+    /**
+     * The sample covers a short interval, so the CPU time that is counted in whole clock ticks
+     * can distort the usage notably.
+     */
+    LOW_RESOLUTION("low_resolution");
+
+    @NonNull
+    private final String name;
+
+    SampleQuality(@NonNull final String name) {
+      this.name = name;
+    }
+
+    /**
+     * Gets the name of the quality, as it is reported in the metrics.
+     *
+     * @return the name.
+     */
     @NonNull
-    private final PidCpuStat pidCpuStat;
-    private double uptime;
+    public String getName() {
+      return name;
+    }
+  }
+
+  /**
+   * Data class for the CPU usage of the application between two samples.
+   */
+  public static class ApplicationCpuUsage {
+
+    private final double usage;
+
+    @NonNull
+    private final SampleQuality sampleQuality;
+
+    /**
+     * Constructor for class.
+     *
+     * @param usage         the CPU usage in percent.
+     * @param sampleQuality the {@link SampleQuality} of the sample.
+     */
+    public ApplicationCpuUsage(final double usage, @NonNull final SampleQuality sampleQuality) {
+      this.usage = usage;
+      this.sampleQuality = sampleQuality;
+    }
+
+    public double getUsage() {
+      return usage;
+    }
+
+    @NonNull
+    public SampleQuality getSampleQuality() {
+      return sampleQuality;
+    }
+
+    @Override
+    public String toString() {
+      return "ApplicationCpuUsage{"
+          + "usage=" + usage
+          + ", sampleQuality=" + sampleQuality
+          + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ApplicationCpuUsage)) {
+        return false;
+      }
+      final ApplicationCpuUsage that = (ApplicationCpuUsage) o;
+      return Double.compare(that.usage, usage) == 0
+          && sampleQuality == that.sampleQuality;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(usage, sampleQuality);
+    }
+  }
+
+  /**
+   * Data class for the CPU usage of a single core of the system, from proc/stat.
+   */
+  public static class CoreCpuUsage {
 
-    private float elapsedSeconds;
+    private final int core;
+
+    private final double usage;
 
     /**
      * Constructor for class.
      *
-     * @param pidCpuStat     the given {@link PidCpuStat}.
-     * @param uptime         the uptime.
-     * @param elapsedSeconds the elapsed time in seconds.
+     * @param core  the number of the core.
+     * @param usage the percentage of the time the core was not idle.
      */
-    public PidCpuStatWithUptime(@NonNull final PidCpuStat pidCpuStat,
-                                final double uptime,
-                                final float elapsedSeconds) {
-      this.pidCpuStat = pidCpuStat;
-      this.uptime = uptime;
-      this.elapsedSeconds = elapsedSeconds;
+    public CoreCpuUsage(final int core, final double usage) {
+      this.core = core;
+      this.usage = usage;
+    }
+
+    public int getCore() {
+      return core;
     }
 
-    public PidCpuStatWithUptime() {
-      this.pidCpuStat = new PidCpuStat();
+    public double getUsage() {
+      return usage;
     }
 
-    public double getUptime() {
-      return uptime;
+    @Override
+    public String toString() {
+      return "CoreCpuUsage{"
+          + "core=" + core
+          + ", usage=" + usage
+          + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CoreCpuUsage)) {
+        return false;
+      }
+      final CoreCpuUsage that = (CoreCpuUsage) o;
+      return core == that.core
+          && Double.compare(that.usage, usage) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(core, usage);
+    }
+  }
+
+  /**
+   * Data class for the CPU usage of the threads of the application with the same name, from
+   * proc/self/task/[tid]/stat.
+   */
+  public static class ThreadCpuUsage {
+
+    @NonNull
+    private final String name;
+
+    private final double usage;
+
+    /**
+     * Constructor for class.
+     *
+     * @param name  the name of the thread(s).
+     * @param usage the CPU usage of the thread(s) in the percentage of a single core.
+     */
+    public ThreadCpuUsage(@NonNull final String name, final double usage) {
+      this.name = name;
+      this.usage = usage;
     }
 
     @NonNull
-    public PidCpuStat getPidCpuStat() {
-      return pidCpuStat;
+    public String getName() {
+      return name;
     }
 
-    public float getElapsedSeconds() {
-      return elapsedSeconds;
+    public double getUsage() {
+      return usage;
     }
 
     @Override
     public String toString() {
-      return "PidCpuStatWithUptime{"
-          + "pidCpuStat=" + pidCpuStat
-          + ", uptime=" + uptime
-          + ", elapsedSeconds=" + elapsedSeconds
+      return "ThreadCpuUsage{"
+          + "name='" + name + '\''
+          + ", usage=" + usage
           + '}';
     }
 
@@ -279,18 +413,17 @@ public class CpuUsageData {
       if (this == o) {
         return true;
       }
-      if (!(o instanceof PidCpuStatWithUptime)) {
+      if (!(o instanceof ThreadCpuUsage)) {
         return false;
       }
-      final PidCpuStatWithUptime that = (PidCpuStatWithUptime) o;
-      return Double.compare(that.uptime, uptime) == 0
-          && Float.compare(that.elapsedSeconds, elapsedSeconds) == 0
-          && pidCpuStat.equals(that.pidCpuStat);
+      final ThreadCpuUsage that = (ThreadCpuUsage) o;
+      return Double.compare(that.usage, usage) == 0
+          && name.equals(that.name);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(pidCpuStat, uptime, elapsedSeconds);
+      return Objects.hash(name, usage);
     }
   }
 }
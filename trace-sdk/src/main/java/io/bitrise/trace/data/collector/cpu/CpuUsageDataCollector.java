@@ -8,6 +8,12 @@ import io.bitrise.trace.data.collector.DataCollector;
  */
 public abstract class CpuUsageDataCollector implements DataCollector {
 
+  /**
+   * The number of clock ticks per second (USER_HZ), the unit of the CPU times in the "stat"
+   * files. It is 100 for most Android devices.
+   */
+  static final int CLOCK_TICKS_PER_SECOND = 100;
+
   @Override
   public long getIntervalMs() {
     return 15000;
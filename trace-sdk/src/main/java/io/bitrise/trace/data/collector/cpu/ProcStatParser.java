@@ -0,0 +1,289 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses the content of the "stat" files of the proc filesystem directly from their bytes,
+ * without creating Strings or other intermediate objects, so the parsing does not generate
+ * garbage on each collection. The parser does not depend on Android, it can be run against
+ * fixture files on any JVM.
+ *
+ * @see
+ * <a href="https://man7.org/linux/man-pages/man5/proc.5.html">https://man7.org/linux/man-pages/man5/proc.5.html</a>
+ */
+final class ProcStatParser {
+
+  /**
+   * The number of fields parsed from each "cpu" line of the proc/stat file: user, nice, system,
+   * idle, iowait, irq, softirq and steal.
+   */
+  static final int SYSTEM_STAT_FIELD_COUNT = 8;
+
+  /**
+   * The number of fields parsed from the proc/[pid]/stat file: utime, stime, cutime, cstime and
+   * starttime.
+   */
+  static final int PROCESS_STAT_FIELD_COUNT = 5;
+
+  /**
+   * The number of fields parsed from the proc/[pid]/task/[tid]/stat file: utime and stime.
+   */
+  static final int THREAD_STAT_FIELD_COUNT = 2;
+
+  // region Index for different CPU status information fields from proc/[pid]/stat
+  private static final int PROC_PID_STAT_STATE = 2;
+  private static final int PROC_PID_STAT_UTIME = 13;
+  private static final int PROC_PID_STAT_STIME = 14;
+  private static final int PROC_PID_STAT_CUTIME = 15;
+  private static final int PROC_PID_STAT_CSTIME = 16;
+  private static final int PROC_PID_STAT_START_TIME = 21;
+  // endregion
+
+  private static final int[] PROCESS_STAT_FIELDS = {PROC_PID_STAT_UTIME, PROC_PID_STAT_STIME,
+      PROC_PID_STAT_CUTIME, PROC_PID_STAT_CSTIME, PROC_PID_STAT_START_TIME};
+
+  private static final int[] THREAD_STAT_FIELDS = {PROC_PID_STAT_UTIME, PROC_PID_STAT_STIME};
+
+  private static final byte[] CPU_PREFIX = {'c', 'p', 'u'};
+
+  private ProcStatParser() {
+    throw new UnsupportedOperationException("Private constructor for class!");
+  }
+
+  /**
+   * Parses the "cpu" lines of the proc/stat file. The line of the total usage is stored as the
+   * first row of the given array, the line of the core N as the row N + 1. Each row has
+   * {@link #SYSTEM_STAT_FIELD_COUNT} elements. The rows of the cores that are not present in
+   * the file (e.g. CPU offline) are filled with -1.
+   *
+   * <p>An example for proc/stat file content:
+   * cpu  123456 12345 12345 12345 1234 1 1234 0 0 0
+   * cpu0 100000 10000 10000 10000 1000 1 1234 0 0 0
+   * cpu2 23456 2345 2345 2345 234 0 0 0 0 0
+   *
+   * @param buffer the content of the file.
+   * @param length the number of valid bytes in the buffer.
+   * @param ticks  the array to store the parsed values in.
+   * @return the number of rows required to store all the "cpu" lines, it can be larger than the
+   *     capacity of the given array, in which case the rows that do not fit are skipped; or 0 if
+   *     there is no valid "cpu" line.
+   */
+  static int parseSystemStat(@NonNull final byte[] buffer, final int length,
+                             @NonNull final long[] ticks) {
+    final int capacity = ticks.length / SYSTEM_STAT_FIELD_COUNT;
+    for (int i = 0; i < capacity * SYSTEM_STAT_FIELD_COUNT; i += SYSTEM_STAT_FIELD_COUNT) {
+      ticks[i] = -1;
+    }
+
+    int rowCount = 0;
+    int position = 0;
+    while (position < length && startsWith(buffer, length, position, CPU_PREFIX)) {
+      position += CPU_PREFIX.length;
+      final int row = parseRow(buffer, length, position);
+      position = skipToken(buffer, length, position);
+
+      if (row >= capacity) {
+        rowCount = Math.max(rowCount, row + 1);
+      } else if (row >= 0) {
+        final int offset = row * SYSTEM_STAT_FIELD_COUNT;
+        for (int i = 0; i < SYSTEM_STAT_FIELD_COUNT; i++) {
+          position = skipSpaces(buffer, length, position);
+          final long value = parseNumber(buffer, length, position);
+          if (value < 0) {
+            ticks[offset] = -1;
+            break;
+          }
+          ticks[offset + i] = value;
+          position = skipToken(buffer, length, position);
+        }
+        if (ticks[offset] >= 0) {
+          rowCount = Math.max(rowCount, row + 1);
+        }
+      }
+      position = skipLine(buffer, length, position);
+    }
+    return rowCount;
+  }
+
+  /**
+   * Gets the row of a "cpu" line: 0 for the total usage, N + 1 for the core N.
+   *
+   * @param buffer   the buffer.
+   * @param length   the number of valid bytes in the buffer.
+   * @param position the position right after the "cpu" prefix.
+   * @return the row, or -1 if it is not a valid "cpu" line.
+   */
+  private static int parseRow(@NonNull final byte[] buffer, final int length,
+                              final int position) {
+    if (position < length && buffer[position] == ' ') {
+      return 0;
+    }
+    final long core = parseNumber(buffer, length, position);
+    return core < 0 || core >= Integer.MAX_VALUE ? -1 : (int) core + 1;
+  }
+
+  /**
+   * Parses the proc/[pid]/stat file. The second field of the file is the name of the executable
+   * in parentheses, which can contain spaces and parentheses itself, so the fields are counted
+   * from the last closing parenthesis.
+   *
+   * @param buffer the content of the file.
+   * @param length the number of valid bytes in the buffer.
+   * @param values the array to store the utime, stime, cutime, cstime and starttime values in, in
+   *               this order. It should have at least {@link #PROCESS_STAT_FIELD_COUNT} elements.
+   * @return {@code true} if all the values were parsed, {@code false} otherwise.
+   */
+  static boolean parseProcessStat(@NonNull final byte[] buffer, final int length,
+                                  @NonNull final long[] values) {
+    return parseFields(buffer, length, PROCESS_STAT_FIELDS, values);
+  }
+
+  /**
+   * Parses the proc/[pid]/task/[tid]/stat file of a thread, which has the same format as the
+   * proc/[pid]/stat file.
+   *
+   * @param buffer the content of the file.
+   * @param length the number of valid bytes in the buffer.
+   * @param values the array to store the utime and stime values in, in this order. It should have
+   *               at least {@link #THREAD_STAT_FIELD_COUNT} elements.
+   * @return {@code true} if all the values were parsed, {@code false} otherwise.
+   */
+  static boolean parseThreadStat(@NonNull final byte[] buffer, final int length,
+                                 @NonNull final long[] values) {
+    return parseFields(buffer, length, THREAD_STAT_FIELDS, values);
+  }
+
+  /**
+   * Gets the name of the executable, or of the thread from the proc/[pid]/stat or the
+   * proc/[pid]/task/[tid]/stat file, which is the text between the first opening and the last
+   * closing parenthesis.
+   *
+   * @param buffer the content of the file.
+   * @param length the number of valid bytes in the buffer.
+   * @return the name, or {@code null} if it cannot be found.
+   */
+  @Nullable
+  static String parseName(@NonNull final byte[] buffer, final int length) {
+    int start = 0;
+    while (start < length && buffer[start] != '(') {
+      start++;
+    }
+    int end = length - 1;
+    while (end > start && buffer[end] != ')') {
+      end--;
+    }
+    if (end <= start) {
+      return null;
+    }
+    return new String(buffer, start + 1, end - start - 1, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Parses the given fields of a proc/[pid]/stat formatted file. The fields are counted from the
+   * last closing parenthesis, as the name of the executable can contain spaces and parentheses.
+   *
+   * @param buffer the content of the file.
+   * @param length the number of valid bytes in the buffer.
+   * @param fields the indexes of the fields to parse, in ascending order.
+   * @param values the array to store the values in, in the order of the fields.
+   * @return {@code true} if all the values were parsed, {@code false} otherwise.
+   */
+  private static boolean parseFields(@NonNull final byte[] buffer, final int length,
+                                     @NonNull final int[] fields, @NonNull final long[] values) {
+    int position = length - 1;
+    while (position >= 0 && buffer[position] != ')') {
+      position--;
+    }
+    if (position < 0) {
+      return false;
+    }
+    position++;
+
+    int valueIndex = 0;
+    for (int field = PROC_PID_STAT_STATE; valueIndex < fields.length; field++) {
+      position = skipSpaces(buffer, length, position);
+      if (position >= length) {
+        return false;
+      }
+      if (field == fields[valueIndex]) {
+        final long value = parseNumber(buffer, length, position);
+        if (value < 0) {
+          return false;
+        }
+        values[valueIndex++] = value;
+      }
+      position = skipToken(buffer, length, position);
+    }
+    return true;
+  }
+
+  /**
+   * Parses a non-negative decimal number. The number should be terminated by a whitespace,
+   * otherwise it is considered to be invalid (e.g. it was truncated by the end of the buffer).
+   *
+   * @param buffer   the buffer.
+   * @param length   the number of valid bytes in the buffer.
+   * @param position the position of the first digit.
+   * @return the parsed number, or -1 if it is not a valid number.
+   */
+  private static long parseNumber(@NonNull final byte[] buffer, final int length,
+                                  final int position) {
+    long result = 0;
+    int i = position;
+    while (i < length && isDigit(buffer[i])) {
+      if (result > (Long.MAX_VALUE - 9) / 10) {
+        return -1;
+      }
+      result = result * 10 + (buffer[i] - '0');
+      i++;
+    }
+    if (i == position || i >= length || !isWhitespace(buffer[i])) {
+      return -1;
+    }
+    return result;
+  }
+
+  private static boolean startsWith(@NonNull final byte[] buffer, final int length,
+                                    final int position, @NonNull final byte[] prefix) {
+    if (position + prefix.length > length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (buffer[position + i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int skipSpaces(@NonNull final byte[] buffer, final int length, int position) {
+    while (position < length && buffer[position] == ' ') {
+      position++;
+    }
+    return position;
+  }
+
+  private static int skipToken(@NonNull final byte[] buffer, final int length, int position) {
+    while (position < length && !isWhitespace(buffer[position])) {
+      position++;
+    }
+    return position;
+  }
+
+  private static int skipLine(@NonNull final byte[] buffer, final int length, int position) {
+    while (position < length && buffer[position] != '\n') {
+      position++;
+    }
+    return position + 1;
+  }
+
+  private static boolean isDigit(final byte value) {
+    return value >= '0' && value <= '9';
+  }
+
+  private static boolean isWhitespace(final byte value) {
+    return value == ' ' || value == '\n';
+  }
+}
@@ -0,0 +1,226 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.bitrise.trace.utils.log.LogMessageConstants;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Singleton;
+
+/**
+ * Samples the proc/stat and the proc/self/stat files for the CPU {@link CpuUsageDataCollector}s.
+ * The files are kept open between the samples, and they are read with a positional read into a
+ * reusable buffer, so a sample does not create new File descriptors or garbage. A single sample
+ * reads both of the files, and it is shared by the collectors that request it within
+ * {@link #DEFAULT_MAX_SAMPLE_AGE_MS}, so the collectors that run on the same tick are served by
+ * one pass.
+ *
+ * <p>From {@link android.os.Build.VERSION_CODES#O} the proc/stat file cannot be read without root
+ * permission. When a file cannot be opened, it is not tried again until {@link #close()} is
+ * called.
+ */
+public class ProcStatSampler {
+
+  /**
+   * The maximum age of a sample in milliseconds that can be served without reading the files
+   * again.
+   */
+  static final long DEFAULT_MAX_SAMPLE_AGE_MS = 1000;
+
+  /**
+   * The size of the read buffer. Only the beginning of the proc/stat file is required, the "cpu"
+   * lines of even a large number of cores fit in it.
+   */
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  private static final String SYSTEM_STAT_PATH = "/proc/stat";
+
+  private static final String PROCESS_STAT_PATH = "/proc/self/stat";
+
+  @Singleton
+  @Nullable
+  private static ProcStatSampler procStatSampler;
+
+  @NonNull
+  private final StatFile systemStatFile;
+
+  @NonNull
+  private final StatFile processStatFile;
+
+  private final long maxSampleAgeNanos;
+
+  @NonNull
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+
+  @NonNull
+  private final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+
+  /**
+   * The parsed ticks of the proc/stat file, see {@link ProcStatParser#parseSystemStat}.
+   */
+  @NonNull
+  private long[] systemTicks;
+
+  private int systemRowCount;
+
+  /**
+   * The parsed values of the proc/self/stat file, see {@link ProcStatParser#parseProcessStat}.
+   */
+  @NonNull
+  private final long[] processValues = new long[ProcStatParser.PROCESS_STAT_FIELD_COUNT];
+
+  private boolean isProcessStatValid;
+
+  private long lastSampleTimeNanos;
+
+  private boolean hasSample;
+
+  /**
+   * Constructor for class.
+   *
+   * @param systemStatFile  the proc/stat File.
+   * @param processStatFile the proc/[pid]/stat File.
+   * @param maxSampleAgeMs  the maximum age of a sample in milliseconds that can be served without
+   *                        reading the files again.
+   */
+  @VisibleForTesting
+  ProcStatSampler(@NonNull final File systemStatFile, @NonNull final File processStatFile,
+                  final long maxSampleAgeMs) {
+    this.systemStatFile = new StatFile(systemStatFile);
+    this.processStatFile = new StatFile(processStatFile);
+    this.maxSampleAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxSampleAgeMs);
+    this.systemTicks =
+        new long[(Runtime.getRuntime().availableProcessors() + 1)
+            * ProcStatParser.SYSTEM_STAT_FIELD_COUNT];
+  }
+
+  /**
+   * Gets the singleton instance from the class, that samples the files of the current process.
+   *
+   * @return the singleton instance.
+   */
+  @NonNull
+  public static synchronized ProcStatSampler getInstance() {
+    if (procStatSampler == null) {
+      procStatSampler = new ProcStatSampler(new File(SYSTEM_STAT_PATH),
+          new File(PROCESS_STAT_PATH), DEFAULT_MAX_SAMPLE_AGE_MS);
+    }
+    return procStatSampler;
+  }
+
+  /**
+   * Gets the total CPU usage of the system from the current sample.
+   *
+   * @return the {@link CpuUsageData.CpuStat} of the total usage in clock ticks, or {@code null}
+   *     when it cannot be read.
+   */
+  @Nullable
+  public synchronized CpuUsageData.CpuStat getSystemCpuStat() {
+    sampleIfRequired();
+    return getCpuStat(0);
+  }
+
+  /**
+   * Gets the CPU usage of each core of the system from the current sample.
+   *
+   * @return the array of the {@link CpuUsageData.CpuStat}s in clock ticks, indexed by the number
+   *     of the core. An element is {@code null} when the given core is switched off. The array is
+   *     empty when the proc/stat file cannot be read.
+   */
+  @NonNull
+  public synchronized CpuUsageData.CpuStat[] getCoreCpuStats() {
+    sampleIfRequired();
+    final CpuUsageData.CpuStat[] cpuStats =
+        new CpuUsageData.CpuStat[Math.max(systemRowCount - 1, 0)];
+    for (int i = 0; i < cpuStats.length; i++) {
+      cpuStats[i] = getCpuStat(i + 1);
+    }
+    return cpuStats;
+  }
+
+  /**
+   * Creates a {@link CpuUsageData.CpuStat} from the given row of the parsed proc/stat file.
+   *
+   * @param row the row, 0 for the total usage, N + 1 for the core N.
+   * @return the CpuStat, or {@code null} if the row is not present.
+   */
+  @Nullable
+  private CpuUsageData.CpuStat getCpuStat(final int row) {
+    final int offset = row * ProcStatParser.SYSTEM_STAT_FIELD_COUNT;
+    if (row >= systemRowCount || systemTicks[offset] < 0) {
+      return null;
+    }
+    return new CpuUsageData.CpuStat(
+        systemTicks[offset],
+        systemTicks[offset + 1],
+        systemTicks[offset + 2],
+        systemTicks[offset + 3],
+        systemTicks[offset + 4],
+        systemTicks[offset + 5],
+        systemTicks[offset + 6],
+        systemTicks[offset + 7]);
+  }
+
+  /**
+   * Gets the CPU usage of the current process from the current sample.
+   *
+   * @return the {@link CpuUsageData.PidCpuStat} in clock ticks, or {@code null} when it cannot be
+   *     read.
+   */
+  @Nullable
+  public synchronized CpuUsageData.PidCpuStat getProcessCpuStat() {
+    sampleIfRequired();
+    if (!isProcessStatValid) {
+      return null;
+    }
+    return new CpuUsageData.PidCpuStat(
+        processValues[0],
+        processValues[1],
+        processValues[2],
+        processValues[3],
+        processValues[4]);
+  }
+
+  /**
+   * Closes the open files. The following sample opens them again.
+   */
+  public synchronized void close() {
+    systemStatFile.close();
+    processStatFile.close();
+    hasSample = false;
+  }
+
+  /**
+   * Reads and parses the files, if there is no sample yet, or the current one is too old.
+   */
+  private void sampleIfRequired() {
+    final long now = System.nanoTime();
+    if (hasSample && now - lastSampleTimeNanos <= maxSampleAgeNanos) {
+      return;
+    }
+    sample();
+    lastSampleTimeNanos = now;
+    hasSample = true;
+  }
+
+  /**
+   * Reads and parses both of the files.
+   */
+  @VisibleForTesting
+  synchronized void sample() {
+    int length = systemStatFile.read(byteBuffer,
+        LogMessageConstants.FAILED_TO_READ_SYSTEM_CPU_STATS);
+    systemRowCount = length > 0 ? ProcStatParser.parseSystemStat(buffer, length, systemTicks) : 0;
+    if (systemRowCount * ProcStatParser.SYSTEM_STAT_FIELD_COUNT > systemTicks.length) {
+      systemTicks = new long[systemRowCount * ProcStatParser.SYSTEM_STAT_FIELD_COUNT];
+      systemRowCount = ProcStatParser.parseSystemStat(buffer, length, systemTicks);
+    }
+
+    length = processStatFile.read(byteBuffer,
+        LogMessageConstants.FAILED_TO_READ_APPLICATION_CPU_STATS);
+    isProcessStatValid = length > 0
+        && ProcStatParser.parseProcessStat(buffer, length, processValues);
+  }
+}
@@ -0,0 +1,96 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.bitrise.trace.utils.log.TraceLog;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A file of the proc filesystem, that is kept open between the reads. It is read with a
+ * positional read into the given buffer, so a read does not create new File descriptors or
+ * garbage.
+ */
+class StatFile {
+
+  @NonNull
+  private final File file;
+
+  @Nullable
+  private RandomAccessFile randomAccessFile;
+
+  @Nullable
+  private FileChannel fileChannel;
+
+  /**
+   * Indicates that the file could not be opened, so it should not be tried again until it is
+   * closed.
+   */
+  private boolean isUnavailable;
+
+  StatFile(@NonNull final File file) {
+    this.file = file;
+  }
+
+  /**
+   * Reads the beginning of the file into the given buffer, up to its capacity.
+   *
+   * @param byteBuffer   the buffer to read into.
+   * @param errorMessage the message to log when the file cannot be read, or {@code null} if the
+   *                     failure is expected, e.g. the file of a thread that has finished.
+   * @return the number of bytes read, or -1 if the file cannot be read.
+   */
+  int read(@NonNull final ByteBuffer byteBuffer, @Nullable final String errorMessage) {
+    if (isUnavailable) {
+      return -1;
+    }
+    if (fileChannel == null) {
+      try {
+        randomAccessFile = new RandomAccessFile(file, "r");
+        fileChannel = randomAccessFile.getChannel();
+      } catch (final IOException | SecurityException e) {
+        logFailure(e, errorMessage);
+        isUnavailable = true;
+        return -1;
+      }
+    }
+
+    byteBuffer.clear();
+    try {
+      int bytesRead;
+      do {
+        bytesRead = fileChannel.read(byteBuffer, byteBuffer.position());
+      } while (bytesRead > 0 && byteBuffer.hasRemaining());
+    } catch (final IOException e) {
+      logFailure(e, errorMessage);
+      close();
+      return -1;
+    }
+    return byteBuffer.position();
+  }
+
+  private static void logFailure(@NonNull final Exception e, @Nullable final String errorMessage) {
+    if (errorMessage != null) {
+      TraceLog.w(e, errorMessage);
+    }
+  }
+
+  /**
+   * Closes the file, and allows to open it again.
+   */
+  void close() {
+    isUnavailable = false;
+    if (randomAccessFile != null) {
+      try {
+        randomAccessFile.close();
+      } catch (final IOException e) {
+        // nop
+      }
+    }
+    randomAccessFile = null;
+    fileChannel = null;
+  }
+}
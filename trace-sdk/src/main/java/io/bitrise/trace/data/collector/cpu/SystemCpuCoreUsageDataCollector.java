@@ -0,0 +1,103 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.bitrise.trace.data.collector.DataCollector;
+import io.bitrise.trace.data.dto.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link DataCollector} type, that collects the usage of each core of the CPU. The usage of a
+ * core is the percentage of the time it was not idle since the previous collection, calculated
+ * from the "cpuN" lines of the proc/stat file. Cores that are switched off are not reported.
+ *
+ * @see
+ * <a href="https://man7.org/linux/man-pages/man5/proc.5.html">https://man7.org/linux/man-pages/man5/proc.5.html</a>
+ */
+public class SystemCpuCoreUsageDataCollector extends CpuUsageDataCollector {
+
+  @NonNull
+  private final ProcStatSampler procStatSampler;
+
+  @NonNull
+  @VisibleForTesting
+  CpuUsageData.CpuStat[] previousCoreStats;
+
+  public SystemCpuCoreUsageDataCollector() {
+    this(ProcStatSampler.getInstance());
+  }
+
+  /**
+   * Constructor for class.
+   *
+   * @param procStatSampler the {@link ProcStatSampler} that reads the proc/stat file.
+   */
+  @VisibleForTesting
+  SystemCpuCoreUsageDataCollector(@NonNull final ProcStatSampler procStatSampler) {
+    this.procStatSampler = procStatSampler;
+    this.previousCoreStats = procStatSampler.getCoreCpuStats();
+  }
+
+  @NonNull
+  @Override
+  public Data collectData() {
+    final Data data = new Data(this);
+    data.setContent(getCoreCpuUsage());
+    return data;
+  }
+
+  /**
+   * Gets the usage of each core since the previous call.
+   *
+   * @return the array of {@link CpuUsageData.CoreCpuUsage}s, or {@code null} when the proc/stat
+   *     file cannot be read, or there is no core that was online during the whole period.
+   */
+  @Nullable
+  @VisibleForTesting
+  CpuUsageData.CoreCpuUsage[] getCoreCpuUsage() {
+    final CpuUsageData.CpuStat[] currentCoreStats = procStatSampler.getCoreCpuStats();
+    final List<CpuUsageData.CoreCpuUsage> coreCpuUsages = new ArrayList<>();
+    for (int core = 0; core < currentCoreStats.length && core < previousCoreStats.length;
+        core++) {
+      final CpuUsageData.CpuStat current = currentCoreStats[core];
+      final CpuUsageData.CpuStat previous = previousCoreStats[core];
+      if (current == null || previous == null) {
+        continue;
+      }
+      final Double usage = calculateUsage(current, previous);
+      if (usage != null) {
+        coreCpuUsages.add(new CpuUsageData.CoreCpuUsage(core, usage));
+      }
+    }
+    previousCoreStats = currentCoreStats;
+
+    if (coreCpuUsages.isEmpty()) {
+      return null;
+    }
+    return coreCpuUsages.toArray(new CpuUsageData.CoreCpuUsage[0]);
+  }
+
+  /**
+   * Calculates the percentage of the time a core was not idle between two samples.
+   *
+   * @param current  the current {@link CpuUsageData.CpuStat} of the core.
+   * @param previous the previous CpuStat of the core.
+   * @return the usage percentage, or {@code null} if no time has passed between the samples, or
+   *     the counters of the core were reset (e.g. it was switched off in the meantime).
+   */
+  @Nullable
+  @VisibleForTesting
+  static Double calculateUsage(@NonNull final CpuUsageData.CpuStat current,
+                               @NonNull final CpuUsageData.CpuStat previous) {
+    final CpuUsageData.CpuStat diff =
+        SystemCpuUsageDataCollector.calculateDiff(current, previous);
+    final float total = SystemCpuUsageDataCollector.getTotalUsage(diff);
+    final float idle = diff.getIdle() + diff.getIoWait();
+    if (total <= 0 || idle < 0 || idle > total) {
+      return null;
+    }
+    return (total - idle) * 100d / total;
+  }
+}
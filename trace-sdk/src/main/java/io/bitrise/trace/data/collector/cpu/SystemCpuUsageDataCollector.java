@@ -1,17 +1,10 @@
 package io.bitrise.trace.data.collector.cpu;
 
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import io.bitrise.trace.data.collector.DataCollector;
 import io.bitrise.trace.data.dto.Data;
-import io.bitrise.trace.utils.log.LogMessageConstants;
-import io.bitrise.trace.utils.log.TraceLog;
-import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * {@link DataCollector} type, that collects the usage of the CPU. For information about how CPUs
@@ -25,29 +18,24 @@ import java.util.List;
  */
 public class SystemCpuUsageDataCollector extends CpuUsageDataCollector {
 
-  // region Index for different CPU status information fields from proc/stat
-  private static final int PROC_STAT_TOTAL_USAGE_INDEX = 0;
-  private static final int PROC_STAT_USER = 1;
-  private static final int PROC_STAT_NICE = 2;
-  private static final int PROC_STAT_SYSTEM = 3;
-  private static final int PROC_STAT_IDLE = 4;
-  private static final int PROC_STAT_IO_WAIT = 5;
-  private static final int PROC_STAT_IRQ = 6;
-  private static final int PROC_STAT_SOFT_IRQ = 7;
-  private static final int PROC_STAT_STEAL = 8;
+  @NonNull
+  private final ProcStatSampler procStatSampler;
 
   @VisibleForTesting
   CpuUsageData.CpuStat previousAverageSystemStats = new CpuUsageData.CpuStat();
-  // endregion
+
+  public SystemCpuUsageDataCollector() {
+    this(ProcStatSampler.getInstance());
+  }
 
   /**
-   * Gets the number of cores available in this device, across all processors.
+   * Constructor for class.
    *
-   * @return the number of cores.
+   * @param procStatSampler the {@link ProcStatSampler} that reads the proc/stat file.
    */
   @VisibleForTesting
-  static int getNumberOfCores() {
-    return Runtime.getRuntime().availableProcessors();
+  SystemCpuUsageDataCollector(@NonNull final ProcStatSampler procStatSampler) {
+    this.procStatSampler = procStatSampler;
   }
 
   /**
@@ -112,45 +100,6 @@ public class SystemCpuUsageDataCollector extends CpuUsageDataCollector {
     );
   }
 
-  /**
-   * Parses the given String from the system stat File and returns a {@link CpuUsageData.CpuStat}
-   * from it.
-   *
-   * @param coreNumber the number of the core.
-   * @param line       the String line to parse.
-   * @return the CpuStat parsed from it, or {@code null} if it could not be read (e.g. CPU offline).
-   */
-  @Nullable
-  @VisibleForTesting
-  static CpuUsageData.CpuStat parseSystemCpuStat(final int coreNumber, @NonNull final String line) {
-    CpuUsageData.CpuStat cpuStat = null;
-    try {
-      String cpuStr;
-      if (coreNumber > 0) {
-        cpuStr = "cpu" + (coreNumber - 1) + " ";
-      } else {
-        cpuStr = "cpu ";
-      }
-
-      if (line.contains(cpuStr)) {
-        final String[] usage = line.substring(cpuStr.length()).trim().split(" +");
-        cpuStat = new CpuUsageData.CpuStat(
-            Float.parseFloat(usage[PROC_STAT_USER]),
-            Float.parseFloat(usage[PROC_STAT_NICE]),
-            Float.parseFloat(usage[PROC_STAT_SYSTEM]),
-            Float.parseFloat(usage[PROC_STAT_IDLE]),
-            Float.parseFloat(usage[PROC_STAT_IO_WAIT]),
-            Float.parseFloat(usage[PROC_STAT_IRQ]),
-            Float.parseFloat(usage[PROC_STAT_SOFT_IRQ]),
-            Float.parseFloat(usage[PROC_STAT_STEAL])
-        );
-      }
-    } catch (final Exception e) {
-      TraceLog.w(e, LogMessageConstants.FAILED_TO_READ_SYSTEM_CPU_STATS);
-    }
-    return cpuStat;
-  }
-
   @NonNull
   @Override
   public Data collectData() {
@@ -192,64 +141,17 @@ public class SystemCpuUsageDataCollector extends CpuUsageDataCollector {
   }
 
   /**
-   * Gets the CPU usage for the system as a {@link CpuUsageData.CpuStat}. Works the following way:
-   * <ul>
-   *     <li>Gets current usage proc/stat file</li>
-   *     <li>Reads the total usage from it</li>
-   * </ul>
+   * Gets the CPU usage for the system as a {@link CpuUsageData.CpuStat}, from the total usage line
+   * of the proc/stat file. The file is read by the shared {@link ProcStatSampler}.
    *
-   * <p>If the proc/stat file cannot be read, the IOException is caught and logged, and {@code
-   * null} is returned.
+   * <p>If the proc/stat file cannot be read, the failure is logged by the ProcStatSampler, and
+   * {@code null} is returned.
    *
    * @return the total CPU usage, or {@code null} when it cannot be read.
    */
   @Nullable
   @VisibleForTesting
   CpuUsageData.CpuStat getSystemCpuUsage() {
-    final int numberOfCores = getNumberOfCores();
-    final List<CpuUsageData.CpuStat> currentUsage;
-    try {
-      currentUsage = getCoresUsage(new RandomAccessFile("/proc/stat", "r"), numberOfCores);
-      return currentUsage.get(PROC_STAT_TOTAL_USAGE_INDEX);
-    } catch (final IOException e) {
-      TraceLog.w(e, LogMessageConstants.FAILED_TO_READ_SYSTEM_CPU_STATS);
-    }
-    return null;
-  }
-
-  /**
-   * Gets the current usage of the cores of the CPU.
-   *
-   * <p>An example for proc/stat file content:
-   * cpu  123456 12345 12345 12345 1234 1 1234 0 0 0
-   * cpu0 100000 10000 10000 10000 1000 1 1234 0 0 0
-   * cpu2 23456 2345 2345 2345 234 0 0 0 0 0
-   *
-   * <p>As seen, the first line is the total, the rest are for each core.
-   *
-   * @param randomAccessFile the RandomAccessFile to read from.
-   * @param numberOfCores    the number of cores.
-   * @return an ArrayList of each CPU core stat, element can be {@code null} when the given core
-   *     is switched off.
-   * @throws IOException if the given RandomAccessFile cannot be read.
-   */
-  @NonNull
-  @VisibleForTesting
-  List<CpuUsageData.CpuStat> getCoresUsage(@NonNull final RandomAccessFile randomAccessFile,
-                                           final int numberOfCores) throws IOException {
-    final List<CpuUsageData.CpuStat> cpuStats = new ArrayList<>();
-    String line = randomAccessFile.readLine();
-
-    for (int i = 0; i <= numberOfCores + 1; i++) {
-      if (line == null || !line.contains("cpu")) {
-        break;
-      }
-      final CpuUsageData.CpuStat currentCpuStat = parseSystemCpuStat(i, line);
-      if (currentCpuStat != null) {
-        cpuStats.add(currentCpuStat);
-        line = randomAccessFile.readLine();
-      }
-    }
-    return cpuStats;
+    return procStatSampler.getSystemCpuStat();
   }
 }
@@ -0,0 +1,150 @@
+package io.bitrise.trace.data.collector.memory;
+
+import android.os.Build;
+import android.os.Debug;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.bitrise.trace.data.collector.DataCollector;
+import io.bitrise.trace.data.dto.Data;
+import java.util.Arrays;
+
+/**
+ * {@link DataCollector} type, that collects the memory statistics of the runtime of the
+ * Application: the used and the maximum size of the Java heap, the allocated size of the native
+ * heap, and the garbage collections since the previous collection. Unlike the PSS of the
+ * {@link ApplicationUsedMemoryDataCollector}, none of these require an IPC call, so they are
+ * cheap to collect.
+ *
+ * <p>The garbage collection statistics are only available from {@link Build.VERSION_CODES#M}.
+ *
+ * @see
+ * <a href="https://developer.android.com/reference/android/os/Debug#getRuntimeStat(java.lang.String)">https://developer.android.com/reference/android/os/Debug#getRuntimeStat(java.lang.String)</a>
+ */
+public class ApplicationRuntimeMemoryDataCollector extends MemoryDataCollector {
+
+  // region Names of the runtime statistics, see Debug#getRuntimeStat
+  private static final String GC_COUNT_STAT = "art.gc.gc-count";
+  private static final String GC_TIME_STAT = "art.gc.gc-time";
+  private static final String BLOCKING_GC_COUNT_STAT = "art.gc.blocking-gc-count";
+  private static final String BLOCKING_GC_TIME_STAT = "art.gc.blocking-gc-time";
+  // endregion
+
+  private static final String[] GC_STATS =
+      {GC_COUNT_STAT, GC_TIME_STAT, BLOCKING_GC_COUNT_STAT, BLOCKING_GC_TIME_STAT};
+
+  /**
+   * The values of the {@link #GC_STATS} at the previous collection, -1 for the ones that could
+   * not be read.
+   */
+  @NonNull
+  private final long[] previousGcStats = new long[GC_STATS.length];
+
+  @NonNull
+  private final long[] currentGcStats = new long[GC_STATS.length];
+
+  /**
+   * Constructor for class. Reads the current garbage collection statistics, so the first
+   * collection can already report the changes.
+   */
+  public ApplicationRuntimeMemoryDataCollector() {
+    readGcStats(previousGcStats);
+  }
+
+  @NonNull
+  @Override
+  public Data collectData() {
+    final Data data = new Data(this);
+    data.setContent(getRuntimeMemoryData());
+    return data;
+  }
+
+  @NonNull
+  @Override
+  public String[] getPermissions() {
+    return new String[0];
+  }
+
+  /**
+   * Gets the current memory statistics of the runtime.
+   *
+   * @return the {@link RuntimeMemoryData}.
+   */
+  @NonNull
+  @VisibleForTesting
+  synchronized RuntimeMemoryData getRuntimeMemoryData() {
+    final Runtime runtime = Runtime.getRuntime();
+    readGcStats(currentGcStats);
+    final RuntimeMemoryData runtimeMemoryData = new RuntimeMemoryData(
+        runtime.totalMemory() - runtime.freeMemory(),
+        runtime.maxMemory(),
+        getNativeHeapAllocatedSize(),
+        getGcStatDiff(0),
+        getGcStatDiff(1),
+        getGcStatDiff(2),
+        getGcStatDiff(3));
+    System.arraycopy(currentGcStats, 0, previousGcStats, 0, GC_STATS.length);
+    return runtimeMemoryData;
+  }
+
+  /**
+   * Gets the change of a garbage collection statistic since the previous collection.
+   *
+   * @param index the index of the statistic in {@link #GC_STATS}.
+   * @return the change, or {@code null} if either of the values could not be read.
+   */
+  @Nullable
+  private Long getGcStatDiff(final int index) {
+    if (currentGcStats[index] < 0 || previousGcStats[index] < 0
+        || currentGcStats[index] < previousGcStats[index]) {
+      return null;
+    }
+    return currentGcStats[index] - previousGcStats[index];
+  }
+
+  /**
+   * Reads the garbage collection statistics into the given array.
+   *
+   * @param gcStats the array to store the values of the {@link #GC_STATS} in, -1 for the ones that
+   *                cannot be read.
+   */
+  private void readGcStats(@NonNull final long[] gcStats) {
+    Arrays.fill(gcStats, -1);
+    for (int i = 0; i < GC_STATS.length; i++) {
+      final String value = getRuntimeStat(GC_STATS[i]);
+      if (value == null) {
+        continue;
+      }
+      try {
+        gcStats[i] = Long.parseLong(value);
+      } catch (final NumberFormatException e) {
+        // nop, the statistic is not available
+      }
+    }
+  }
+
+  /**
+   * Gets the allocated size of the native heap.
+   *
+   * @return the size in bytes.
+   */
+  @VisibleForTesting
+  long getNativeHeapAllocatedSize() {
+    return Debug.getNativeHeapAllocatedSize();
+  }
+
+  /**
+   * Gets the value of a runtime statistic.
+   *
+   * @param statName the name of the statistic.
+   * @return the value, or {@code null} if it is not available.
+   */
+  @Nullable
+  @VisibleForTesting
+  String getRuntimeStat(@NonNull final String statName) {
+    if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+      return null;
+    }
+    return Debug.getRuntimeStat(statName);
+  }
+}
@@ -4,12 +4,16 @@ import static android.content.Context.ACTIVITY_SERVICE;
 
 import android.app.ActivityManager;
 import android.content.Context;
+import android.os.Build;
 import android.os.Debug;
 import android.os.Process;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import io.bitrise.trace.data.collector.DataCollector;
 import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.utils.TraceClock;
+import java.util.concurrent.TimeUnit;
 
 /**
  * {@link DataCollector} type, that collects Total amount of used memory by the Application.
@@ -23,16 +27,42 @@ import io.bitrise.trace.data.dto.Data;
  */
 public class ApplicationUsedMemoryDataCollector extends MemoryDataCollector {
 
+  /**
+   * The rate limit of {@link ActivityManager#getProcessMemoryInfo} in milliseconds. From
+   * {@link Build.VERSION_CODES#Q} a call within this window returns the result of the previous
+   * call, so the previous value is reused instead of making the IPC call.
+   */
+  static final long PSS_RATE_LIMIT_MS = TimeUnit.MINUTES.toMillis(5);
+
   @NonNull
   private final Context context;
 
+  private final long pssRateLimitMs;
+
+  @Nullable
+  private Long cachedPss;
+
+  private long cachedPssTimeMs;
+
   /**
    * Constructor for class.
    *
    * @param context the Android Context.
    */
   public ApplicationUsedMemoryDataCollector(@NonNull final Context context) {
+    this(context, Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q ? PSS_RATE_LIMIT_MS : 0);
+  }
+
+  /**
+   * Constructor for class.
+   *
+   * @param context        the Android Context.
+   * @param pssRateLimitMs the time in milliseconds while a read PSS value is reused.
+   */
+  @VisibleForTesting
+  ApplicationUsedMemoryDataCollector(@NonNull final Context context, final long pssRateLimitMs) {
     this.context = context;
+    this.pssRateLimitMs = pssRateLimitMs;
   }
 
   @NonNull
@@ -50,13 +80,34 @@ public class ApplicationUsedMemoryDataCollector extends MemoryDataCollector {
   }
 
   /**
-   * Gets the total amount of used memory for the application.
+   * Gets the total amount of used memory for the application. Within the rate limit window of
+   * the {@link ActivityManager#getProcessMemoryInfo} the previously read value is returned.
+   *
+   * @return the long value of the memory amount, or {@code null}, when we cannot access to the
+   *     {@link Context#ACTIVITY_SERVICE}.
+   */
+  @Nullable
+  @VisibleForTesting
+  synchronized Long getAppUsedMemory() {
+    final long now = getElapsedRealtimeMs();
+    if (cachedPss != null && now - cachedPssTimeMs < pssRateLimitMs) {
+      return cachedPss;
+    }
+
+    cachedPss = readPss();
+    cachedPssTimeMs = now;
+    return cachedPss;
+  }
+
+  /**
+   * Reads the total PSS of the application with an IPC call.
    *
    * @return the long value of the memory amount, or {@code null}, when we cannot access to the
    *     {@link Context#ACTIVITY_SERVICE}.
    */
   @Nullable
-  private Long getAppUsedMemory() {
+  @VisibleForTesting
+  Long readPss() {
     final ActivityManager activityManager =
         (ActivityManager) context.getSystemService(ACTIVITY_SERVICE);
     if (activityManager == null) {
@@ -68,4 +119,14 @@ public class ApplicationUsedMemoryDataCollector extends MemoryDataCollector {
     final Debug.MemoryInfo[] memoryInfo = activityManager.getProcessMemoryInfo(new int[] {myPid});
     return (long) memoryInfo[0].getTotalPss();
   }
+
+  /**
+   * Gets the time since boot, including the time spent in deep sleep.
+   *
+   * @return the time in milliseconds.
+   */
+  @VisibleForTesting
+  long getElapsedRealtimeMs() {
+    return TimeUnit.NANOSECONDS.toMillis(TraceClock.getElapsedRealtimeNanos());
+  }
 }
@@ -0,0 +1,71 @@
+package io.bitrise.trace.data.collector.memory;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import androidx.annotation.NonNull;
+import io.bitrise.trace.data.collector.BaseDataListener;
+import io.bitrise.trace.data.collector.DataListener;
+import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.data.management.DataManager;
+
+/**
+ * {@link DataListener} implementation for listening to the memory trim requests of the system,
+ * see {@link ComponentCallbacks2#onTrimMemory(int)}. The level of each request is reported, a
+ * {@link ComponentCallbacks2#onLowMemory()} call is reported as
+ * {@link ComponentCallbacks2#TRIM_MEMORY_COMPLETE}.
+ */
+public class MemoryTrimDataListener extends BaseDataListener implements ComponentCallbacks2 {
+
+  @NonNull
+  private final Context context;
+
+  /**
+   * Constructor for class.
+   *
+   * @param context the Android Context.
+   */
+  public MemoryTrimDataListener(@NonNull final Context context) {
+    this.context = context;
+    this.dataManager = DataManager.getInstance(context);
+  }
+
+  @Override
+  public void startCollecting() {
+    context.registerComponentCallbacks(this);
+    setActive(true);
+  }
+
+  @Override
+  public void stopCollecting() {
+    context.unregisterComponentCallbacks(this);
+    setActive(false);
+  }
+
+  @NonNull
+  @Override
+  public String[] getPermissions() {
+    return new String[0];
+  }
+
+  @Override
+  public void onTrimMemory(final int level) {
+    if (!isActive()) {
+      return;
+    }
+
+    final Data data = new Data(this);
+    data.setContent(level);
+    onDataCollected(data);
+  }
+
+  @Override
+  public void onLowMemory() {
+    onTrimMemory(TRIM_MEMORY_COMPLETE);
+  }
+
+  @Override
+  public void onConfigurationChanged(@NonNull final Configuration newConfig) {
+    // nop
+  }
+}
@@ -0,0 +1,130 @@
+package io.bitrise.trace.data.collector.memory;
+
+import androidx.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Data class for {@link ApplicationRuntimeMemoryDataCollector}. The heap sizes are the values at
+ * the time of the collection, the garbage collection statistics are the changes since the
+ * previous collection.
+ */
+public class RuntimeMemoryData {
+
+  private final long javaHeapUsedBytes;
+
+  private final long javaHeapMaxBytes;
+
+  private final long nativeHeapUsedBytes;
+
+  @Nullable
+  private final Long gcCount;
+
+  @Nullable
+  private final Long gcTimeMs;
+
+  @Nullable
+  private final Long blockingGcCount;
+
+  @Nullable
+  private final Long blockingGcTimeMs;
+
+  /**
+   * Constructor for class.
+   *
+   * @param javaHeapUsedBytes   the used size of the Java heap in bytes.
+   * @param javaHeapMaxBytes    the maximum size of the Java heap in bytes.
+   * @param nativeHeapUsedBytes the allocated size of the native heap in bytes.
+   * @param gcCount             the number of garbage collections, or {@code null} if it is not
+   *                            available.
+   * @param gcTimeMs            the time spent with garbage collections in milliseconds, or
+   *                            {@code null} if it is not available.
+   * @param blockingGcCount     the number of blocking garbage collections, or {@code null} if it
+   *                            is not available.
+   * @param blockingGcTimeMs    the time spent with blocking garbage collections in milliseconds,
+   *                            or {@code null} if it is not available.
+   */
+  public RuntimeMemoryData(final long javaHeapUsedBytes,
+                           final long javaHeapMaxBytes,
+                           final long nativeHeapUsedBytes,
+                           @Nullable final Long gcCount,
+                           @Nullable final Long gcTimeMs,
+                           @Nullable final Long blockingGcCount,
+                           @Nullable final Long blockingGcTimeMs) {
+    this.javaHeapUsedBytes = javaHeapUsedBytes;
+    this.javaHeapMaxBytes = javaHeapMaxBytes;
+    this.nativeHeapUsedBytes = nativeHeapUsedBytes;
+    this.gcCount = gcCount;
+    this.gcTimeMs = gcTimeMs;
+    this.blockingGcCount = blockingGcCount;
+    this.blockingGcTimeMs = blockingGcTimeMs;
+  }
+
+  public long getJavaHeapUsedBytes() {
+    return javaHeapUsedBytes;
+  }
+
+  public long getJavaHeapMaxBytes() {
+    return javaHeapMaxBytes;
+  }
+
+  public long getNativeHeapUsedBytes() {
+    return nativeHeapUsedBytes;
+  }
+
+  @Nullable
+  public Long getGcCount() {
+    return gcCount;
+  }
+
+  @Nullable
+  public Long getGcTimeMs() {
+    return gcTimeMs;
+  }
+
+  @Nullable
+  public Long getBlockingGcCount() {
+    return blockingGcCount;
+  }
+
+  @Nullable
+  public Long getBlockingGcTimeMs() {
+    return blockingGcTimeMs;
+  }
+
+  @Override
+  public String toString() {
+    return "RuntimeMemoryData{"
+        + "javaHeapUsedBytes=" + javaHeapUsedBytes
+        + ", javaHeapMaxBytes=" + javaHeapMaxBytes
+        + ", nativeHeapUsedBytes=" + nativeHeapUsedBytes
+        + ", gcCount=" + gcCount
+        + ", gcTimeMs=" + gcTimeMs
+        + ", blockingGcCount=" + blockingGcCount
+        + ", blockingGcTimeMs=" + blockingGcTimeMs
+        + '}';
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof RuntimeMemoryData)) {
+      return false;
+    }
+    final RuntimeMemoryData that = (RuntimeMemoryData) o;
+    return javaHeapUsedBytes == that.javaHeapUsedBytes
+        && javaHeapMaxBytes == that.javaHeapMaxBytes
+        && nativeHeapUsedBytes == that.nativeHeapUsedBytes
+        && Objects.equals(gcCount, that.gcCount)
+        && Objects.equals(gcTimeMs, that.gcTimeMs)
+        && Objects.equals(blockingGcCount, that.blockingGcCount)
+        && Objects.equals(blockingGcTimeMs, that.blockingGcTimeMs);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(javaHeapUsedBytes, javaHeapMaxBytes, nativeHeapUsedBytes, gcCount,
+        gcTimeMs, blockingGcCount, blockingGcTimeMs);
+  }
+}
@@ -3,6 +3,8 @@ package io.bitrise.trace.data.collector.network;
 import android.content.Context;
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
+import io.bitrise.trace.TraceContext;
+import io.bitrise.trace.TraceSpan;
 import io.bitrise.trace.data.collector.DataListener;
 import io.bitrise.trace.data.dto.Data;
 import io.bitrise.trace.data.dto.NetworkData;
@@ -41,13 +43,20 @@ public abstract class NetworkDataListener implements DataListener {
   }
 
   /**
-   * Temporary workaround method to provide a non null root ID, when there is none. This is
-   * needed, because in some cases there will be no root spans, for example in case of Services.
+   * Gets the ID of the parent Span for the network Span. It is the current {@link TraceSpan} of
+   * the calling thread when there is one, otherwise the root Span. The network calls are
+   * processed with the TraceSpan that was current when the call was made, also when the
+   * interceptor runs on another thread. Provides a non null ID when there is neither, because
+   * in some cases there will be no root spans, for example in case of Services.
    *
-   * @return the ID of the root Span.
+   * @return the ID of the parent Span.
    */
   @NonNull
   protected String getRootSpanId() {
+    final TraceSpan currentSpan = TraceContext.getCurrentSpan();
+    if (currentSpan != null) {
+      return currentSpan.getSpanId();
+    }
     // TODO remove this, when there will be always a parent span (e.g: services will be spans too).
     final String rootSpanId = traceManager.getRootSpanId();
     return rootSpanId == null ? "" : rootSpanId;
@@ -0,0 +1,83 @@
+package io.bitrise.trace.data.collector.network.okhttp;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.bitrise.trace.TraceContext;
+import io.bitrise.trace.TraceSpan;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import okhttp3.Call;
+import okhttp3.EventListener;
+
+/**
+ * An {@link EventListener.Factory} implementation that captures the current {@link TraceSpan}
+ * of the thread that creates a {@link Call}. The {@link TraceOkHttpInterceptor} runs on the
+ * dispatcher thread of OkHttp for the calls made with {@link Call#enqueue(okhttp3.Callback)},
+ * where the TraceSpan of the caller is not current, so it looks up the captured one instead.
+ * The EventListener creation is delegated to the original factory of the client.
+ */
+public class TraceEventListenerFactory implements EventListener.Factory {
+
+  /**
+   * The captured TraceSpans. The keys are weak, so the finished Calls are not kept.
+   */
+  @NonNull
+  private static final Map<Call, TraceSpan> callSpans =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  @NonNull
+  private final EventListener.Factory delegate;
+
+  /**
+   * Constructor for class, for the clients that have no EventListener.Factory.
+   */
+  public TraceEventListenerFactory() {
+    this(call -> EventListener.NONE);
+  }
+
+  /**
+   * Constructor for class.
+   *
+   * @param delegate the original EventListener.Factory of the client.
+   */
+  public TraceEventListenerFactory(@NonNull final EventListener.Factory delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Wraps the given {@link EventListener.Factory} unless it is already a
+   * TraceEventListenerFactory, so building a client more than once does not nest the factories.
+   *
+   * @param factory the EventListener.Factory of the client.
+   * @return the wrapped EventListener.Factory.
+   */
+  @NonNull
+  public static EventListener.Factory wrap(@NonNull final EventListener.Factory factory) {
+    if (factory instanceof TraceEventListenerFactory) {
+      return factory;
+    }
+    return new TraceEventListenerFactory(factory);
+  }
+
+  /**
+   * Gets the {@link TraceSpan} that was current when the given {@link Call} was created.
+   *
+   * @param call the Call, or {@code null} if it is not known.
+   * @return the captured TraceSpan, or {@code null} if there was none.
+   */
+  @Nullable
+  public static TraceSpan getCallSpan(@Nullable final Call call) {
+    return call == null ? null : callSpans.get(call);
+  }
+
+  @NonNull
+  @Override
+  public EventListener create(@NonNull final Call call) {
+    final TraceSpan currentSpan = TraceContext.getCurrentSpan();
+    if (currentSpan != null) {
+      callSpans.put(call, currentSpan);
+    }
+    return delegate.create(call);
+  }
+}
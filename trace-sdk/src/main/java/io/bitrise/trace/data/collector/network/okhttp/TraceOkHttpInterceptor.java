@@ -1,6 +1,8 @@
 package io.bitrise.trace.data.collector.network.okhttp;
 
 import androidx.annotation.NonNull;
+import io.bitrise.trace.TraceScope;
+import io.bitrise.trace.TraceSpan;
 import io.bitrise.trace.data.collector.network.TraceNetworkListener;
 import io.bitrise.trace.utils.TraceClock;
 import java.io.IOException;
@@ -9,7 +11,10 @@ import okhttp3.Request;
 import okhttp3.Response;
 
 /**
- * An {@link Interceptor} implementation for interception of okHttp calls.
+ * An {@link Interceptor} implementation for interception of okHttp calls. The call is processed
+ * with the {@link TraceSpan} that was current when the call was created, see
+ * {@link TraceEventListenerFactory}, so the network Span has the same parent for the
+ * asynchronous calls as for the synchronous ones.
  */
 public class TraceOkHttpInterceptor implements Interceptor {
 
@@ -19,7 +24,14 @@ public class TraceOkHttpInterceptor implements Interceptor {
     final Request request = chain.request();
     final Response response = chain.proceed(request);
     final long end = TraceClock.getCurrentTimeMillis();
-    TraceNetworkListener.getInstance().processOkHttpCall(request, response, start, end);
+    final TraceSpan callSpan = TraceEventListenerFactory.getCallSpan(chain.call());
+    if (callSpan == null) {
+      TraceNetworkListener.getInstance().processOkHttpCall(request, response, start, end);
+    } else {
+      try (TraceScope ignored = callSpan.makeCurrent()) {
+        TraceNetworkListener.getInstance().processOkHttpCall(request, response, start, end);
+      }
+    }
     return response;
   }
 }
@@ -9,6 +9,9 @@ import io.bitrise.trace.data.TraceActivityLifecycleTracker;
 import io.bitrise.trace.data.collector.BaseDataListener;
 import io.bitrise.trace.data.collector.DataListener;
 import io.bitrise.trace.data.collector.TraceActivityLifecycleSink;
+import io.bitrise.trace.data.management.IngestPipeline;
+import io.bitrise.trace.data.storage.DataStorage;
+import io.bitrise.trace.data.storage.TraceDataStorage;
 import io.bitrise.trace.data.trace.ApplicationTraceManager;
 import io.bitrise.trace.data.trace.TraceManager;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -26,6 +29,16 @@ public class ApplicationForegroundStateDataListener extends BaseDataListener
   @NonNull
   private final TraceActivityLifecycleTracker traceActivityLifecycleTracker;
 
+  @NonNull
+  private final DataStorage dataStorage;
+
+  /**
+   * The {@link ForegroundStateCallback} to notify when the application goes to the foreground
+   * or to the background.
+   */
+  @Nullable
+  private volatile ForegroundStateCallback foregroundStateCallback;
+
   /**
    * Constructor for class.
    *
@@ -34,6 +47,7 @@ public class ApplicationForegroundStateDataListener extends BaseDataListener
   public ApplicationForegroundStateDataListener(@NonNull final Context context) {
     this.traceActivityLifecycleTracker = TraceActivityLifecycleTracker.getInstance(context);
     this.traceManager = ApplicationTraceManager.getInstance(context);
+    this.dataStorage = TraceDataStorage.getInstance(context);
   }
 
   /**
@@ -45,6 +59,17 @@ public class ApplicationForegroundStateDataListener extends BaseDataListener
     return activityCounter.get() == 1;
   }
 
+  /**
+   * Sets the {@link ForegroundStateCallback} to notify when the application goes to the
+   * foreground or to the background.
+   *
+   * @param foregroundStateCallback the ForegroundStateCallback, or {@code null} to remove it.
+   */
+  public void setForegroundStateCallback(
+      @Nullable final ForegroundStateCallback foregroundStateCallback) {
+    this.foregroundStateCallback = foregroundStateCallback;
+  }
+
   @Override
   public void startCollecting() {
     traceActivityLifecycleTracker.registerTraceActivityLifecycleSink(this);
@@ -77,6 +102,7 @@ public class ApplicationForegroundStateDataListener extends BaseDataListener
 
     if (activityCounter.getAndIncrement() == 0) {
       traceManager.startTrace();
+      notifyForegroundStateChanged(true);
     }
   }
 
@@ -98,6 +124,8 @@ public class ApplicationForegroundStateDataListener extends BaseDataListener
 
     if (activityCounter.decrementAndGet() == 0) {
       traceManager.startTrace();
+      IngestPipeline.getInstance().executeReliably(dataStorage::flushPendingWrites);
+      notifyForegroundStateChanged(false);
     }
   }
 
@@ -111,4 +139,25 @@ public class ApplicationForegroundStateDataListener extends BaseDataListener
   public void onActivityDestroyed(@NonNull final Activity activity) {
     // nop
   }
+
+  private void notifyForegroundStateChanged(final boolean isInForeground) {
+    final ForegroundStateCallback callback = foregroundStateCallback;
+    if (callback != null) {
+      callback.onForegroundStateChanged(isInForeground);
+    }
+  }
+
+  /**
+   * Callback for the changes of the foreground state of the application.
+   */
+  public interface ForegroundStateCallback {
+
+    /**
+     * Called when the application goes to the foreground or to the background.
+     *
+     * @param isInForeground {@code true} if the application went to the foreground,
+     *                       {@code false} if it went to the background.
+     */
+    void onForegroundStateChanged(boolean isInForeground);
+  }
 }
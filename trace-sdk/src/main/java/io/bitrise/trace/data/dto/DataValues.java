@@ -12,23 +12,33 @@ import io.bitrise.trace.utils.StringUtils;
 public final class DataValues {
 
   public static final String app = "app";
+  public static final String blocking = "blocking";
   public static final String br = "br";
   public static final String build = "build";
   public static final String bytes = "bytes";
   public static final String carrier = "carrier";
+  public static final String core = "core";
+  public static final String count = "count";
   public static final String cpu = "cpu";
+  public static final String custom = "custom";
   public static final String device = "device";
+  public static final String gc = "gc";
   public static final String http = "http";
   public static final String id = "id";
   public static final String idle = "idle";
   public static final String ioWait = "ioWait";
   public static final String irq = "irq";
+  public static final String java_heap = "java_heap";
   public static final String key = "key";
   public static final String latency = "latency";
+  public static final String level = "level";
   public static final String locale = "locale";
+  public static final String max = "max";
   public static final String memory = "memory";
   public static final String method = "method";
   public static final String ms = "ms";
+  public static final String name = "name";
+  public static final String native_heap = "native_heap";
   public static final String network = "network";
   public static final String nice = "nice";
   public static final String os = "os";
@@ -36,18 +46,25 @@ public final class DataValues {
   public static final String percent = "percent";
   public static final String platform = "platform";
   public static final String process = "process";
+  public static final String quality = "quality";
   public static final String res = "res";
   public static final String rooted = "rooted";
+  public static final String sample = "sample";
   public static final String session = "session";
   public static final String softIrq = "softIrq";
+  public static final String span = "span";
   public static final String start = "start";
   public static final String startup = "startup";
   public static final String state = "state";
   public static final String status_code = "status_code";
   public static final String steal = "steal";
   public static final String system = "system";
+  public static final String thread = "thread";
+  public static final String time = "time";
+  public static final String trim = "trim";
   public static final String type = "type";
   public static final String url = "url";
+  public static final String used = "used";
   public static final String user = "user";
   public static final String version = "version";
 
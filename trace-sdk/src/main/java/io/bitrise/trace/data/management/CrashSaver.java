@@ -25,21 +25,32 @@ import javax.annotation.Nonnull;
  */
 public class CrashSaver {
 
+  /**
+   * The maximum time in milliseconds to wait for the tasks of the {@link IngestPipeline}, e.g.
+   * the last segment of the Trace. The crash may have happened on a worker of the pipeline, in
+   * that case its task never finishes.
+   */
+  static final long INGEST_PIPELINE_TIMEOUT_MS = 2000;
+
   /**
    * Validates if we have enough data to create a {@link CrashRequest} and then stores it in the
-   * {@link DataStorage}.
+   * {@link DataStorage}. Before that, it waits for the queued tasks of the {@link IngestPipeline},
+   * e.g. saving the last segment of the Trace and the flushed Metrics, and flushes the pending
+   * writes of the DataStorage, so they are not lost when the process is killed.
    *
-   * @param resource    the current sessions {@link Resource}.
-   * @param session     the current {@link Session}.
-   * @param activeTrace the currently active {@link Trace}.
-   * @param crashReport the crash report created by the {@link CrashDataFormatter}
-   * @param dataStorage access to the current {@link DataStorage}.
+   * @param resource       the current sessions {@link Resource}.
+   * @param session        the current {@link Session}.
+   * @param activeTrace    the currently active {@link Trace}.
+   * @param crashReport    the crash report created by the {@link CrashDataFormatter}
+   * @param dataStorage    access to the current {@link DataStorage}.
+   * @param ingestPipeline the {@link IngestPipeline} that saves the collected data.
    */
   static void saveCrash(@Nullable final Resource resource,
                         @Nullable final Session session,
                         @Nullable final Trace activeTrace,
                         @Nonnull final CrashReport crashReport,
-                        @Nonnull final DataStorage dataStorage) {
+                        @Nonnull final DataStorage dataStorage,
+                        @Nonnull final IngestPipeline ingestPipeline) {
 
     if (session == null) {
       TraceLog.d("Crash Saver: active session was null.");
@@ -70,6 +81,14 @@ public class CrashSaver {
 
     final ExecutorService service = Executors.newFixedThreadPool(1);
     Future<?> future = service.submit(() -> {
+      try {
+        if (!ingestPipeline.awaitIdle(INGEST_PIPELINE_TIMEOUT_MS)) {
+          TraceLog.d("Crash Saver: timed out waiting for the ingest pipeline.");
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      dataStorage.flushPendingWrites();
       dataStorage.saveCrashRequest(request);
     });
 
@@ -9,6 +9,8 @@ import io.bitrise.trace.data.dto.FormattedData;
 import io.bitrise.trace.data.management.formatter.application.ApplicationVersionCodeDataFormatter;
 import io.bitrise.trace.data.management.formatter.application.ApplicationVersionNameDataFormatter;
 import io.bitrise.trace.data.management.formatter.cpu.ApplicationCpuDataFormatter;
+import io.bitrise.trace.data.management.formatter.cpu.ApplicationThreadCpuDataFormatter;
+import io.bitrise.trace.data.management.formatter.cpu.SystemCpuCoreDataFormatter;
 import io.bitrise.trace.data.management.formatter.cpu.SystemCpuDataFormatter;
 import io.bitrise.trace.data.management.formatter.device.DeviceCarrierDataFormatter;
 import io.bitrise.trace.data.management.formatter.device.DeviceIdDataFormatter;
@@ -17,7 +19,9 @@ import io.bitrise.trace.data.management.formatter.device.DeviceModelDataFormatte
 import io.bitrise.trace.data.management.formatter.device.DeviceNetworkTypeDataFormatter;
 import io.bitrise.trace.data.management.formatter.device.DeviceOsDataFormatter;
 import io.bitrise.trace.data.management.formatter.device.DeviceRootedDataFormatter;
+import io.bitrise.trace.data.management.formatter.memory.ApplicationRuntimeMemoryDataFormatter;
 import io.bitrise.trace.data.management.formatter.memory.ApplicationUsedMemoryDataFormatter;
+import io.bitrise.trace.data.management.formatter.memory.MemoryTrimDataFormatter;
 import io.bitrise.trace.data.management.formatter.memory.SystemMemoryDataFormatter;
 import io.bitrise.trace.data.management.formatter.network.NetworkDataFormatter;
 import io.bitrise.trace.data.management.formatter.view.ActivityStateDataFormatter;
@@ -95,9 +99,18 @@ public class DataFormatterDelegator {
       case APP_CPU_USAGE:
         formatter = new ApplicationCpuDataFormatter();
         break;
+      case APP_MEMORY_TRIM:
+        formatter = new MemoryTrimDataFormatter();
+        break;
+      case APP_RUNTIME_MEMORY:
+        formatter = new ApplicationRuntimeMemoryDataFormatter();
+        break;
       case APP_START:
         formatter = new ApplicationStartUpDataFormatter();
         break;
+      case APP_THREAD_CPU_USAGE:
+        formatter = new ApplicationThreadCpuDataFormatter();
+        break;
       case APP_USED_MEMORY:
         formatter = new ApplicationUsedMemoryDataFormatter();
         break;
@@ -134,6 +147,9 @@ public class DataFormatterDelegator {
       case NETWORK_TYPE:
         formatter = new DeviceNetworkTypeDataFormatter();
         break;
+      case SYSTEM_CPU_CORE_USAGE:
+        formatter = new SystemCpuCoreDataFormatter();
+        break;
       case SYSTEM_CPU_USAGE:
         formatter = new SystemCpuDataFormatter();
         break;
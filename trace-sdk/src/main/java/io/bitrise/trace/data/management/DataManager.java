@@ -8,12 +8,16 @@ import io.bitrise.trace.configuration.ConfigurationManager;
 import io.bitrise.trace.data.collector.DataCollector;
 import io.bitrise.trace.data.collector.DataListener;
 import io.bitrise.trace.data.collector.DataSource;
+import io.bitrise.trace.data.collector.DataSourceType;
 import io.bitrise.trace.data.collector.crash.TraceCrashDataListener;
+import io.bitrise.trace.data.collector.view.ApplicationForegroundStateDataListener;
 import io.bitrise.trace.data.dto.CrashData;
 import io.bitrise.trace.data.dto.CrashReport;
 import io.bitrise.trace.data.dto.Data;
 import io.bitrise.trace.data.dto.FormattedData;
 import io.bitrise.trace.data.management.formatter.crash.CrashDataFormatter;
+import io.bitrise.trace.data.metric.MetricAggregator;
+import io.bitrise.trace.data.metric.MetricEntity;
 import io.bitrise.trace.data.storage.DataStorage;
 import io.bitrise.trace.data.storage.TraceDataStorage;
 import io.bitrise.trace.data.trace.ApplicationTraceManager;
@@ -23,6 +27,7 @@ import io.bitrise.trace.network.DataSender;
 import io.bitrise.trace.network.MetricSender;
 import io.bitrise.trace.network.TraceSender;
 import io.bitrise.trace.scheduler.ExecutorScheduler;
+import io.bitrise.trace.scheduler.MultiplexedScheduler;
 import io.bitrise.trace.scheduler.ServiceScheduler;
 import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.session.Session;
@@ -30,9 +35,10 @@ import io.bitrise.trace.utils.log.LogMessageConstants;
 import io.bitrise.trace.utils.log.TraceLog;
 import io.opencensus.proto.metrics.v1.Metric;
 import io.opencensus.proto.resource.v1.Resource;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Executors;
 import javax.inject.Singleton;
 
 /**
@@ -59,6 +65,20 @@ public class DataManager {
    */
   @NonNull
   private static final Object activeDataCollectorLock = new Object();
+  /**
+   * The {@link DataSourceType}s whose {@link Metric}s are sampled periodically, and are
+   * aggregated with the {@link #metricAggregator} before saving them.
+   */
+  @VisibleForTesting
+  @NonNull
+  static final Set<DataSourceType> AGGREGATED_DATA_SOURCE_TYPES = EnumSet.of(
+      DataSourceType.APP_CPU_USAGE,
+      DataSourceType.APP_RUNTIME_MEMORY,
+      DataSourceType.APP_THREAD_CPU_USAGE,
+      DataSourceType.APP_USED_MEMORY,
+      DataSourceType.SYSTEM_CPU_CORE_USAGE,
+      DataSourceType.SYSTEM_CPU_USAGE,
+      DataSourceType.SYSTEM_USED_MEMORY);
   /**
    * The instance for the {@link DataManager}.
    */
@@ -106,17 +126,31 @@ public class DataManager {
   @NonNull
   ConfigurationManager configurationManager;
   /**
-   * The {@link ExecutorScheduler} to be able to schedule recurring events.
+   * The {@link MultiplexedScheduler} that runs all the recurring {@link DataCollector}s on a
+   * single thread.
    */
   @VisibleForTesting
   @Nullable
-  ExecutorScheduler executorScheduler;
+  MultiplexedScheduler collectorScheduler;
   /**
    * The {@link DataStorage} for the formatter.
    */
   @VisibleForTesting
   @NonNull
   DataStorage dataStorage;
+  /**
+   * The {@link IngestPipeline} for pushing the formatted data to the {@link DataStorage}.
+   */
+  @VisibleForTesting
+  @NonNull
+  IngestPipeline ingestPipeline;
+  /**
+   * The {@link MetricAggregator} that folds the samples of the
+   * {@link #AGGREGATED_DATA_SOURCE_TYPES} into time windows.
+   */
+  @VisibleForTesting
+  @NonNull
+  MetricAggregator metricAggregator;
 
   @NonNull
   Context context;
@@ -131,6 +165,8 @@ public class DataManager {
     this.dataStorage = TraceDataStorage.getInstance(context);
     this.dataFormatterDelegator = DataFormatterDelegator.getInstance();
     this.traceManager = ApplicationTraceManager.getInstance(context);
+    this.ingestPipeline = IngestPipeline.getInstance();
+    this.metricAggregator = new MetricAggregator();
     this.context = context;
   }
 
@@ -182,9 +218,9 @@ public class DataManager {
       }
 
       dataManager.stopCollection();
-      if (dataManager.executorScheduler != null) {
-        dataManager.executorScheduler.cancelAll();
-        dataManager.executorScheduler = null;
+      if (dataManager.collectorScheduler != null) {
+        dataManager.collectorScheduler.cancelAll();
+        dataManager.collectorScheduler = null;
       }
 
       if (dataManager.metricServiceScheduler != null) {
@@ -220,16 +256,28 @@ public class DataManager {
   }
 
   /**
-   * Stops the Data collection.
+   * Stops the Data collection. The {@link Metric}s that are still being aggregated are saved.
    */
   public void stopCollection() {
     TraceLog.d(LogMessageConstants.DATA_MANAGER_STOP_COLLECTING);
     stopEventDrivenDataCollection();
     stopRecurringDataCollection();
+    flushAggregatedMetrics();
+  }
+
+  /**
+   * Saves the {@link Metric}s that are still being aggregated by the {@link #metricAggregator},
+   * without waiting for the end of their time window.
+   */
+  public void flushAggregatedMetrics() {
+    saveMetricEntities(metricAggregator.flush());
   }
 
   /**
-   * Starts the recurring collection of non-event driven data.
+   * Starts the recurring collection of non-event driven data. All the {@link DataCollector}s run
+   * on the single thread of the {@link #collectorScheduler}, and the ones with the same interval
+   * are collected in the same wake-up. The active {@link Trace} is checkpointed on the same
+   * thread, see {@link TraceManager#checkpointActiveTrace()}.
    *
    * @param context the Android Context.
    */
@@ -241,12 +289,40 @@ public class DataManager {
       }
 
       activeDataCollectors.addAll(configurationManager.getRecurringDataCollectors(context));
+      if (collectorScheduler == null) {
+        collectorScheduler = new MultiplexedScheduler(context);
+      }
       for (@NonNull final DataCollector dataCollector : activeDataCollectors) {
-        final Runnable collectDataRunnable = () -> handleReceivedData(dataCollector.collectData());
-        executorScheduler = new ExecutorScheduler(context, collectDataRunnable, 0,
+        collectorScheduler.addTask(() -> handleReceivedData(dataCollector.collectData()),
             dataCollector.getIntervalMs());
-        executorScheduler.schedule();
       }
+      collectorScheduler.addTask(traceManager::checkpointActiveTrace,
+          ApplicationTraceManager.CHECKPOINT_INTERVAL_MS);
+      collectorScheduler.schedule();
+    }
+  }
+
+  /**
+   * Called when the application goes to the foreground or to the background. The recurring
+   * collection of data is paused while the application is in the background, so the aggregated
+   * {@link Metric}s are saved when it goes to the background.
+   *
+   * @param isInForeground {@code true} if the application went to the foreground, {@code false}
+   *                       if it went to the background.
+   */
+  @VisibleForTesting
+  void onForegroundStateChanged(final boolean isInForeground) {
+    synchronized (activeDataCollectorLock) {
+      if (collectorScheduler != null) {
+        if (isInForeground) {
+          collectorScheduler.resume();
+        } else {
+          collectorScheduler.pause();
+        }
+      }
+    }
+    if (!isInForeground) {
+      flushAggregatedMetrics();
     }
   }
 
@@ -276,6 +352,10 @@ public class DataManager {
       }
       activeDataListeners.addAll(configurationManager.getDataListeners(context));
       for (@NonNull final DataListener dataListener : activeDataListeners) {
+        if (dataListener instanceof ApplicationForegroundStateDataListener) {
+          ((ApplicationForegroundStateDataListener) dataListener)
+              .setForegroundStateCallback(this::onForegroundStateChanged);
+        }
         dataListener.startCollecting();
       }
     }
@@ -286,8 +366,8 @@ public class DataManager {
    */
   private void stopRecurringDataCollection() {
     synchronized (activeDataCollectorLock) {
-      if (executorScheduler != null) {
-        executorScheduler.cancelAll();
+      if (collectorScheduler != null) {
+        collectorScheduler.cancelAll();
       }
 
       getActiveDataCollectors().clear();
@@ -372,7 +452,8 @@ public class DataManager {
   /**
    * Handles the received {@link Data}. Formats it using the {@link DataFormatterDelegator}, then
    * {@link Metric}s and {@link Resource}s are forwarded to the to the {@link DataStorage}, Spans
-   * to the {@link TraceManager}.
+   * to the {@link TraceManager}. The Metrics of the {@link #AGGREGATED_DATA_SOURCE_TYPES} are
+   * forwarded to the {@link #metricAggregator} first, and only the completed aggregates are saved.
    *
    * @param data the given Data.
    */
@@ -389,11 +470,16 @@ public class DataManager {
       if (formattedData.getSpan() != null) {
         traceManager.addSpanToActiveTrace(formattedData.getSpan());
       } else if (formattedData.getMetricEntity() != null) {
-        Executors.newSingleThreadExecutor()
-                 .execute(() -> dataStorage.saveMetric(formattedData.getMetricEntity()));
+        final MetricEntity metricEntity = formattedData.getMetricEntity();
+        if (AGGREGATED_DATA_SOURCE_TYPES.contains(data.getDataSourceType())
+            && MetricAggregator.isAggregatable(metricEntity.getMetric())) {
+          saveMetricEntities(metricAggregator.add(metricEntity));
+        } else {
+          ingestPipeline.execute(() -> dataStorage.saveMetric(metricEntity));
+        }
       } else if (formattedData.getResourceEntity() != null) {
-        Executors.newSingleThreadExecutor()
-                 .execute(() -> dataStorage.saveResourceEntity(formattedData.getResourceEntity()));
+        ingestPipeline.executeReliably(
+            () -> dataStorage.saveResourceEntity(formattedData.getResourceEntity()));
 
         final Session session = ApplicationSessionManager.getInstance().getActiveSession();
         if (session != null) {
@@ -403,6 +489,24 @@ public class DataManager {
     }
   }
 
+  /**
+   * Saves the given {@link MetricEntity}s with the {@link #ingestPipeline}. They are the results
+   * of the {@link #metricAggregator}, each of them replaces many samples, so they are saved
+   * reliably.
+   *
+   * @param metricEntities the MetricEntities to save.
+   */
+  private void saveMetricEntities(@NonNull final List<MetricEntity> metricEntities) {
+    if (metricEntities.isEmpty()) {
+      return;
+    }
+    ingestPipeline.executeReliably(() -> {
+      for (@NonNull final MetricEntity metricEntity : metricEntities) {
+        dataStorage.saveMetric(metricEntity);
+      }
+    });
+  }
+
   /**
    * Handles a received {@link CrashData} from the {@link TraceCrashDataListener} and ensures
    * it's sent to the server asap.
@@ -411,18 +515,19 @@ public class DataManager {
    */
   public void handleReceivedCrash(final @NonNull CrashData crashData) {
 
-    //end any current spans and traces
+    //end any current spans and traces, the active trace is kept to link the crash to it
     stopCollection();
+    final Trace activeTrace = ApplicationTraceManager.getInstance(context).getActiveTrace();
     ApplicationTraceManager.getInstance(context).stopTrace();
 
     final CrashReport crashReport = CrashDataFormatter.formatCrashData(crashData);
-    final Trace activeTrace = ApplicationTraceManager.getInstance(context).getActiveTrace();
     final Session session = ApplicationSessionManager.getInstance().getActiveSession();
     Resource resource = null;
     if (session != null) {
       resource = session.getResources();
     }
 
-    CrashSaver.saveCrash(resource, session, activeTrace, crashReport, dataStorage);
+    CrashSaver.saveCrash(resource, session, activeTrace, crashReport, dataStorage,
+        ingestPipeline);
   }
 }
@@ -0,0 +1,350 @@
+package io.bitrise.trace.data.management;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.bitrise.trace.data.storage.DataStorage;
+import io.bitrise.trace.utils.log.LogMessageConstants;
+import io.bitrise.trace.utils.log.TraceLog;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Singleton;
+
+/**
+ * SDK wide pipeline for the asynchronous work that pushes collected data to the
+ * {@link DataStorage} (e.g. saving Metrics, Resources, Traces or updating crash reports). Uses
+ * a fixed number of worker threads and a bounded queue, so the number of threads and the
+ * amount of pending work does not grow with the amount of collected data.
+ *
+ * <p>Only the tasks submitted with {@link #execute(Runnable)}, e.g. saving metric samples, can
+ * be dropped. When the queue is full the configured {@link OverflowPolicy} decides which of
+ * them is dropped, dropped tasks are counted and can be queried with
+ * {@link #getDroppedTaskCount()}. The tasks submitted with {@link #executeReliably(Runnable)},
+ * e.g. saving Traces or crash reports, are never dropped: when the queue is full, they take the
+ * place of a droppable task, or if there is none, they are handed to the workers through an
+ * unbounded overflow queue. They never run on the calling thread, which can be the main thread.
+ *
+ * <p>{@link #awaitIdle(long)} waits for the submitted tasks, e.g. to save the queued data before
+ * a crash report.
+ */
+@Singleton
+public class IngestPipeline {
+
+  /**
+   * The number of worker threads.
+   */
+  static final int WORKER_COUNT = 2;
+
+  /**
+   * The maximum number of tasks that can wait in the queue.
+   */
+  static final int QUEUE_CAPACITY = 256;
+
+  /**
+   * The time in milliseconds after idle worker threads are terminated.
+   */
+  static final long KEEP_ALIVE_TIME_MS = 30000;
+
+  @NonNull
+  private static final Object ingestPipelineLock = new Object();
+
+  @Nullable
+  private static volatile IngestPipeline ingestPipeline;
+
+  /**
+   * The {@link ThreadPoolExecutor} that runs the submitted tasks.
+   */
+  @VisibleForTesting
+  @NonNull
+  final ThreadPoolExecutor executor;
+
+  /**
+   * The {@link OverflowPolicy} applied when the queue is full.
+   */
+  @NonNull
+  private final OverflowPolicy overflowPolicy;
+
+  /**
+   * The number of tasks that have been dropped since the creation of this pipeline.
+   */
+  @NonNull
+  private final AtomicLong droppedTaskCount = new AtomicLong();
+
+  /**
+   * The reliable tasks that did not fit into the queue of the {@link #executor}. The workers run
+   * them after their current task, see {@link #runOverflowTasks()}.
+   */
+  @NonNull
+  private final Queue<Runnable> overflowQueue = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Task that makes an idle worker run the tasks of the {@link #overflowQueue}.
+   */
+  @NonNull
+  private final Runnable overflowDrainTask = this::runOverflowTasks;
+
+  /**
+   * The number of submitted tasks that have not finished and have not been dropped.
+   */
+  @NonNull
+  private final AtomicInteger pendingTaskCount = new AtomicInteger();
+
+  @NonNull
+  private final Object idleLock = new Object();
+
+  /**
+   * Constructor for class. Use {@link #getInstance()} to get an instance.
+   *
+   * @param workerCount    the number of worker threads.
+   * @param queueCapacity  the maximum number of tasks waiting for execution.
+   * @param overflowPolicy the {@link OverflowPolicy} to apply when the queue is full.
+   */
+  @VisibleForTesting
+  IngestPipeline(final int workerCount, final int queueCapacity,
+                 @NonNull final OverflowPolicy overflowPolicy) {
+    this.overflowPolicy = overflowPolicy;
+    this.executor = new ThreadPoolExecutor(workerCount, workerCount, KEEP_ALIVE_TIME_MS,
+        TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), new IngestThreadFactory(),
+        new OverflowHandler()) {
+      @Override
+      protected void afterExecute(@NonNull final Runnable task, @Nullable final Throwable t) {
+        if (task != overflowDrainTask) {
+          onTaskFinished();
+        }
+        runOverflowTasks();
+      }
+    };
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Gets the instance of the IngestPipeline. Singleton item.
+   *
+   * @return the IngestPipeline.
+   */
+  @NonNull
+  public static IngestPipeline getInstance() {
+    synchronized (ingestPipelineLock) {
+      if (ingestPipeline == null) {
+        ingestPipeline = new IngestPipeline(WORKER_COUNT, QUEUE_CAPACITY,
+            OverflowPolicy.DROP_OLDEST);
+      }
+      return ingestPipeline;
+    }
+  }
+
+  /**
+   * Submits the given droppable task for asynchronous execution. When the queue is full, the
+   * {@link OverflowPolicy} decides if this or the oldest waiting droppable task will be dropped.
+   *
+   * @param task the task to execute.
+   */
+  public void execute(@NonNull final Runnable task) {
+    pendingTaskCount.incrementAndGet();
+    executor.execute(new DroppableTask(task));
+  }
+
+  /**
+   * Submits the given task for asynchronous execution, that must not be dropped. When the
+   * queue is full, the oldest waiting droppable task is dropped to make space for it, or if
+   * there is no droppable task in the queue, it is put to the overflow queue of the workers.
+   *
+   * @param task the task to execute.
+   */
+  public void executeReliably(@NonNull final Runnable task) {
+    pendingTaskCount.incrementAndGet();
+    executor.execute(task);
+  }
+
+  /**
+   * Waits until every submitted task has finished or has been dropped. Must not be called from
+   * a task of the pipeline, as it would wait for itself.
+   *
+   * @param timeoutMs the maximum time to wait in milliseconds.
+   * @return {@code true} if the pipeline became idle, {@code false} if the time elapsed.
+   * @throws InterruptedException if the waiting thread is interrupted.
+   */
+  public boolean awaitIdle(final long timeoutMs) throws InterruptedException {
+    final long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    synchronized (idleLock) {
+      while (pendingTaskCount.get() > 0) {
+        final long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNs - System.nanoTime());
+        if (remainingMs <= 0) {
+          return false;
+        }
+        idleLock.wait(remainingMs);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the number of tasks that were dropped, because the queue was full.
+   *
+   * @return the number of dropped tasks.
+   */
+  public long getDroppedTaskCount() {
+    return droppedTaskCount.get();
+  }
+
+  /**
+   * Gets the number of tasks that are waiting for execution.
+   *
+   * @return the number of queued tasks.
+   */
+  public int getQueuedTaskCount() {
+    return executor.getQueue().size() + overflowQueue.size();
+  }
+
+  /**
+   * Records a dropped task.
+   */
+  private void onTaskDropped() {
+    final long count = droppedTaskCount.incrementAndGet();
+    TraceLog.d(String.format(Locale.ENGLISH, LogMessageConstants.INGEST_PIPELINE_TASK_DROPPED,
+        overflowPolicy.name(), count));
+    onTaskFinished();
+  }
+
+  /**
+   * Records a finished or dropped task, and wakes up the threads in {@link #awaitIdle(long)} when
+   * there are no more pending tasks.
+   */
+  private void onTaskFinished() {
+    if (pendingTaskCount.decrementAndGet() == 0) {
+      synchronized (idleLock) {
+        idleLock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Runs the tasks of the {@link #overflowQueue} on the current worker thread. A failing task
+   * does not prevent the rest of them from running.
+   */
+  private void runOverflowTasks() {
+    Runnable task;
+    while ((task = overflowQueue.poll()) != null) {
+      try {
+        task.run();
+      } catch (final RuntimeException e) {
+        TraceLog.w(e, LogMessageConstants.INGEST_PIPELINE_OVERFLOW_TASK_FAILED);
+      } finally {
+        onTaskFinished();
+      }
+    }
+  }
+
+  /**
+   * Removes the oldest droppable task from the given queue.
+   *
+   * @param queue the queue of the executor.
+   * @return {@code true} if a task was removed, {@code false} otherwise.
+   */
+  private boolean dropOldestDroppable(@NonNull final BlockingQueue<Runnable> queue) {
+    final Iterator<Runnable> iterator = queue.iterator();
+    while (iterator.hasNext()) {
+      final Runnable queuedTask = iterator.next();
+      if (queuedTask instanceof DroppableTask && queue.remove(queuedTask)) {
+        onTaskDropped();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The policies for handling new droppable tasks when the queue of the pipeline is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The new task is dropped, the already queued tasks are kept.
+     */
+    DROP_NEWEST,
+    /**
+     * The oldest queued droppable task is dropped to make space for the new one.
+     */
+    DROP_OLDEST
+  }
+
+  /**
+   * Marks the tasks that can be dropped when the queue is full.
+   */
+  private static class DroppableTask implements Runnable {
+
+    @NonNull
+    private final Runnable task;
+
+    DroppableTask(@NonNull final Runnable task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      task.run();
+    }
+  }
+
+  /**
+   * {@link RejectedExecutionHandler} that applies the {@link #overflowPolicy} to the droppable
+   * tasks, and makes sure that the other tasks are executed by the workers.
+   */
+  private class OverflowHandler implements RejectedExecutionHandler {
+
+    @Override
+    public void rejectedExecution(@NonNull final Runnable task,
+                                  @NonNull final ThreadPoolExecutor executor) {
+      if (task == overflowDrainTask) {
+        // the queue is full, so a busy worker runs the overflow tasks after its current task
+        return;
+      }
+      if (executor.isShutdown()) {
+        onTaskDropped();
+        return;
+      }
+
+      final BlockingQueue<Runnable> queue = executor.getQueue();
+      if (!(task instanceof DroppableTask)) {
+        if (!dropOldestDroppable(queue) || !queue.offer(task)) {
+          overflowQueue.offer(task);
+          TraceLog.d(LogMessageConstants.INGEST_PIPELINE_TASK_OVERFLOWED);
+          executor.execute(overflowDrainTask);
+        }
+        return;
+      }
+
+      if (overflowPolicy == OverflowPolicy.DROP_NEWEST || !dropOldestDroppable(queue)
+          || !queue.offer(task)) {
+        onTaskDropped();
+      }
+    }
+  }
+
+  /**
+   * {@link ThreadFactory} that creates named daemon threads for the pipeline, so they do not
+   * prevent the process from exiting.
+   */
+  private static class IngestThreadFactory implements ThreadFactory {
+
+    @NonNull
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(@NonNull final Runnable runnable) {
+      final Thread thread = new Thread(runnable,
+          "trace-ingest-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -3,6 +3,7 @@ package io.bitrise.trace.data.management;
 import io.bitrise.trace.data.storage.DataStorage;
 import io.bitrise.trace.network.CrashRequest;
 import io.bitrise.trace.network.CrashSender;
+import io.bitrise.trace.network.RetryPolicy;
 import io.bitrise.trace.utils.log.TraceLog;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -20,8 +21,10 @@ public abstract class StartupMonitor {
    * Checks if there are any saved crash requests and sends them.
    *
    * @param dataStorage the current trace data storage.
+   * @param retryPolicy the {@link RetryPolicy} that decides when the crashes can be sent.
    */
-  public static void checkSavedCrashes(@Nonnull final DataStorage dataStorage) {
+  public static void checkSavedCrashes(@Nonnull final DataStorage dataStorage,
+                                       @Nonnull final RetryPolicy retryPolicy) {
 
     final ExecutorService service = Executors.newFixedThreadPool(1);
     service.submit(() -> {
@@ -35,7 +38,7 @@ public abstract class StartupMonitor {
       TraceLog.d("Number of crash requests saved: " + savedRequests.size());
 
       for (CrashRequest request : savedRequests) {
-        new CrashSender(request, dataStorage).send();
+        new CrashSender(request, dataStorage, retryPolicy).send();
       }
     });
   }
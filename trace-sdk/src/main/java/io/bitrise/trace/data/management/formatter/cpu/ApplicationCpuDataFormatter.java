@@ -5,14 +5,19 @@ import static io.bitrise.trace.data.dto.DataValues.getName;
 import static io.bitrise.trace.data.dto.DataValues.pct;
 import static io.bitrise.trace.data.dto.DataValues.percent;
 import static io.bitrise.trace.data.dto.DataValues.process;
+import static io.bitrise.trace.data.dto.DataValues.quality;
+import static io.bitrise.trace.data.dto.DataValues.sample;
 
 import androidx.annotation.NonNull;
 import com.google.protobuf.Timestamp;
 import io.bitrise.trace.data.collector.DataSourceType;
+import io.bitrise.trace.data.collector.cpu.CpuUsageData.ApplicationCpuUsage;
 import io.bitrise.trace.data.dto.Data;
 import io.bitrise.trace.data.dto.FormattedData;
 import io.bitrise.trace.data.management.Formatter;
 import io.bitrise.trace.data.management.formatter.DataFormatter;
+import io.opencensus.proto.metrics.v1.LabelKey;
+import io.opencensus.proto.metrics.v1.LabelValue;
 import io.opencensus.proto.metrics.v1.Metric;
 import io.opencensus.proto.metrics.v1.MetricDescriptor;
 import io.opencensus.proto.metrics.v1.Point;
@@ -26,12 +31,12 @@ public class ApplicationCpuDataFormatter extends DataFormatter {
   /**
    * Creates a {@link Metric} for the CPU usage of the Application.
    *
-   * @param cpuUsagePercent the percentage of CPU usage.
-   * @param timestamp       the {@link Timestamp} of the measurement.
+   * @param applicationCpuUsage the {@link ApplicationCpuUsage} of the sample.
+   * @param timestamp           the {@link Timestamp} of the measurement.
    * @return the created Metric.
    */
   @NonNull
-  public static Metric createAppCpuMetric(final double cpuUsagePercent,
+  public static Metric createAppCpuMetric(@NonNull final ApplicationCpuUsage applicationCpuUsage,
                                           @NonNull final Timestamp timestamp) {
     final Metric.Builder builder = Metric.newBuilder();
     final MetricDescriptor.Builder cpuDescriptorBuilder =
@@ -39,29 +44,37 @@ public class ApplicationCpuDataFormatter extends DataFormatter {
                         .setDescription("Application CPU Usage")
                         .setName(getName(process, cpu, pct))
                         .setUnit(percent)
-                        .setType(MetricDescriptor.Type.GAUGE_DOUBLE);
+                        .setType(MetricDescriptor.Type.GAUGE_DOUBLE)
+                        .addLabelKeys(LabelKey.newBuilder()
+                                              .setKey(getName(sample, quality))
+                                              .build());
 
-    final TimeSeries appTimeSeries = createCpuTimeSeriesEntry(timestamp, cpuUsagePercent);
+    final TimeSeries appTimeSeries = createCpuTimeSeriesEntry(timestamp, applicationCpuUsage);
     builder.setMetricDescriptor(cpuDescriptorBuilder.build());
     builder.addTimeseries(appTimeSeries);
     return builder.build();
   }
 
   /**
-   * Creates a {@link TimeSeries} entry with the given label name and value.
+   * Creates a {@link TimeSeries} entry for the given usage, labelled with its sample quality.
    *
-   * @param timestamp the {@link Timestamp}.
-   * @param value     the float value.
+   * @param timestamp           the {@link Timestamp}.
+   * @param applicationCpuUsage the {@link ApplicationCpuUsage}.
    * @return the created TimeSeries.
    */
   @NonNull
-  private static TimeSeries createCpuTimeSeriesEntry(@NonNull final Timestamp timestamp,
-                                                     final double value) {
+  private static TimeSeries createCpuTimeSeriesEntry(
+      @NonNull final Timestamp timestamp,
+      @NonNull final ApplicationCpuUsage applicationCpuUsage) {
     return TimeSeries.newBuilder()
+                     .addLabelValues(
+                         LabelValue.newBuilder()
+                                   .setValue(applicationCpuUsage.getSampleQuality().getName())
+                                   .build())
                      .addPoints(
                          Point.newBuilder()
                               .setTimestamp(timestamp)
-                              .setDoubleValue(value)
+                              .setDoubleValue(applicationCpuUsage.getUsage())
                               .build())
                      .build();
   }
@@ -69,12 +82,12 @@ public class ApplicationCpuDataFormatter extends DataFormatter {
   @NonNull
   @Override
   public FormattedData[] formatData(@NonNull final Data data) {
-    if (!(data.getContent() instanceof Double)) {
+    if (!(data.getContent() instanceof ApplicationCpuUsage)) {
       return new FormattedData[] {};
     }
-    final Double appCpuStat = (Double) data.getContent();
+    final ApplicationCpuUsage applicationCpuUsage = (ApplicationCpuUsage) data.getContent();
     final Timestamp timestamp = getTimestamp();
-    final Metric appCpuMetric = createAppCpuMetric(appCpuStat, timestamp);
+    final Metric appCpuMetric = createAppCpuMetric(applicationCpuUsage, timestamp);
 
     return new FormattedData[] {new FormattedData(appCpuMetric)};
   }
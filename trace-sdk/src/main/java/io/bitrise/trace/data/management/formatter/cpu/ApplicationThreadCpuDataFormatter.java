@@ -0,0 +1,99 @@
+package io.bitrise.trace.data.management.formatter.cpu;
+
+import static io.bitrise.trace.data.dto.DataValues.cpu;
+import static io.bitrise.trace.data.dto.DataValues.getName;
+import static io.bitrise.trace.data.dto.DataValues.name;
+import static io.bitrise.trace.data.dto.DataValues.pct;
+import static io.bitrise.trace.data.dto.DataValues.percent;
+import static io.bitrise.trace.data.dto.DataValues.process;
+import static io.bitrise.trace.data.dto.DataValues.thread;
+
+import androidx.annotation.NonNull;
+import com.google.protobuf.Timestamp;
+import io.bitrise.trace.data.collector.DataSourceType;
+import io.bitrise.trace.data.collector.cpu.CpuUsageData.ThreadCpuUsage;
+import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.data.dto.FormattedData;
+import io.bitrise.trace.data.management.Formatter;
+import io.bitrise.trace.data.management.formatter.DataFormatter;
+import io.opencensus.proto.metrics.v1.LabelKey;
+import io.opencensus.proto.metrics.v1.LabelValue;
+import io.opencensus.proto.metrics.v1.Metric;
+import io.opencensus.proto.metrics.v1.MetricDescriptor;
+import io.opencensus.proto.metrics.v1.Point;
+import io.opencensus.proto.metrics.v1.TimeSeries;
+
+/**
+ * {@link Formatter} implementation, to handle formatting for
+ * {@link DataSourceType#APP_THREAD_CPU_USAGE}.
+ */
+public class ApplicationThreadCpuDataFormatter extends DataFormatter {
+
+  /**
+   * Creates a {@link Metric} for the CPU usage of the threads of the Application.
+   *
+   * @param threadCpuUsages the {@link ThreadCpuUsage}s of the threads.
+   * @param timestamp       the {@link Timestamp} of the measurement.
+   * @return the created Metric.
+   */
+  @NonNull
+  public static Metric createAppThreadCpuMetric(
+      @NonNull final ThreadCpuUsage[] threadCpuUsages, @NonNull final Timestamp timestamp) {
+    final Metric.Builder builder = Metric.newBuilder();
+    final MetricDescriptor.Builder cpuDescriptorBuilder =
+        MetricDescriptor.newBuilder()
+                        .setDescription("Application CPU Usage per Thread")
+                        .setName(getName(process, thread, cpu, pct))
+                        .setUnit(percent)
+                        .setType(MetricDescriptor.Type.GAUGE_DOUBLE)
+                        .addLabelKeys(LabelKey.newBuilder()
+                                              .setKey(getName(thread, name))
+                                              .build());
+
+    builder.setMetricDescriptor(cpuDescriptorBuilder.build());
+    for (@NonNull final ThreadCpuUsage threadCpuUsage : threadCpuUsages) {
+      builder.addTimeseries(createThreadTimeSeriesEntry(timestamp, threadCpuUsage));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Creates a {@link TimeSeries} entry for the given thread.
+   *
+   * @param timestamp      the {@link Timestamp}.
+   * @param threadCpuUsage the {@link ThreadCpuUsage} of the thread.
+   * @return the created TimeSeries.
+   */
+  @NonNull
+  private static TimeSeries createThreadTimeSeriesEntry(
+      @NonNull final Timestamp timestamp, @NonNull final ThreadCpuUsage threadCpuUsage) {
+    return TimeSeries.newBuilder()
+                     .addLabelValues(
+                         LabelValue.newBuilder()
+                                   .setValue(threadCpuUsage.getName())
+                                   .build())
+                     .addPoints(
+                         Point.newBuilder()
+                              .setTimestamp(timestamp)
+                              .setDoubleValue(threadCpuUsage.getUsage())
+                              .build())
+                     .build();
+  }
+
+  @NonNull
+  @Override
+  public FormattedData[] formatData(@NonNull final Data data) {
+    if (!(data.getContent() instanceof ThreadCpuUsage[])) {
+      return new FormattedData[] {};
+    }
+
+    final ThreadCpuUsage[] threadCpuUsages = (ThreadCpuUsage[]) data.getContent();
+    if (threadCpuUsages.length == 0) {
+      return new FormattedData[] {};
+    }
+    final Timestamp timestamp = getTimestamp();
+    final Metric threadCpuMetric = createAppThreadCpuMetric(threadCpuUsages, timestamp);
+
+    return new FormattedData[] {new FormattedData(threadCpuMetric)};
+  }
+}
@@ -0,0 +1,98 @@
+package io.bitrise.trace.data.management.formatter.cpu;
+
+import static io.bitrise.trace.data.dto.DataValues.core;
+import static io.bitrise.trace.data.dto.DataValues.cpu;
+import static io.bitrise.trace.data.dto.DataValues.getName;
+import static io.bitrise.trace.data.dto.DataValues.pct;
+import static io.bitrise.trace.data.dto.DataValues.percent;
+import static io.bitrise.trace.data.dto.DataValues.system;
+
+import androidx.annotation.NonNull;
+import com.google.protobuf.Timestamp;
+import io.bitrise.trace.data.collector.DataSourceType;
+import io.bitrise.trace.data.collector.cpu.CpuUsageData.CoreCpuUsage;
+import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.data.dto.FormattedData;
+import io.bitrise.trace.data.management.Formatter;
+import io.bitrise.trace.data.management.formatter.DataFormatter;
+import io.opencensus.proto.metrics.v1.LabelKey;
+import io.opencensus.proto.metrics.v1.LabelValue;
+import io.opencensus.proto.metrics.v1.Metric;
+import io.opencensus.proto.metrics.v1.MetricDescriptor;
+import io.opencensus.proto.metrics.v1.Point;
+import io.opencensus.proto.metrics.v1.TimeSeries;
+
+/**
+ * {@link Formatter} implementation, to handle formatting for
+ * {@link DataSourceType#SYSTEM_CPU_CORE_USAGE}.
+ */
+public class SystemCpuCoreDataFormatter extends DataFormatter {
+
+  /**
+   * Creates a {@link Metric} for the CPU usage of the cores of the System.
+   *
+   * @param coreCpuUsages the {@link CoreCpuUsage}s of the cores.
+   * @param timestamp     the {@link Timestamp} of the measurement.
+   * @return the created Metric.
+   */
+  @NonNull
+  public static Metric createSystemCpuCoreMetric(@NonNull final CoreCpuUsage[] coreCpuUsages,
+                                                 @NonNull final Timestamp timestamp) {
+    final Metric.Builder builder = Metric.newBuilder();
+    final MetricDescriptor.Builder cpuDescriptorBuilder =
+        MetricDescriptor.newBuilder()
+                        .setDescription("System CPU Usage per Core")
+                        .setName(getName(system, cpu, core, pct))
+                        .setUnit(percent)
+                        .setType(MetricDescriptor.Type.GAUGE_DOUBLE)
+                        .addLabelKeys(LabelKey.newBuilder()
+                                              .setKey(getName(cpu, core))
+                                              .build());
+
+    builder.setMetricDescriptor(cpuDescriptorBuilder.build());
+    for (@NonNull final CoreCpuUsage coreCpuUsage : coreCpuUsages) {
+      builder.addTimeseries(createCoreTimeSeriesEntry(timestamp, coreCpuUsage));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Creates a {@link TimeSeries} entry for the given core.
+   *
+   * @param timestamp    the {@link Timestamp}.
+   * @param coreCpuUsage the {@link CoreCpuUsage} of the core.
+   * @return the created TimeSeries.
+   */
+  @NonNull
+  private static TimeSeries createCoreTimeSeriesEntry(@NonNull final Timestamp timestamp,
+                                                      @NonNull final CoreCpuUsage coreCpuUsage) {
+    return TimeSeries.newBuilder()
+                     .addLabelValues(
+                         LabelValue.newBuilder()
+                                   .setValue(String.valueOf(coreCpuUsage.getCore()))
+                                   .build())
+                     .addPoints(
+                         Point.newBuilder()
+                              .setTimestamp(timestamp)
+                              .setDoubleValue(coreCpuUsage.getUsage())
+                              .build())
+                     .build();
+  }
+
+  @NonNull
+  @Override
+  public FormattedData[] formatData(@NonNull final Data data) {
+    if (!(data.getContent() instanceof CoreCpuUsage[])) {
+      return new FormattedData[] {};
+    }
+
+    final CoreCpuUsage[] coreCpuUsages = (CoreCpuUsage[]) data.getContent();
+    if (coreCpuUsages.length == 0) {
+      return new FormattedData[] {};
+    }
+    final Timestamp timestamp = getTimestamp();
+    final Metric coreCpuMetric = createSystemCpuCoreMetric(coreCpuUsages, timestamp);
+
+    return new FormattedData[] {new FormattedData(coreCpuMetric)};
+  }
+}
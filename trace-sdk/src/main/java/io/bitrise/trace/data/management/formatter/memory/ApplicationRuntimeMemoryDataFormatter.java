@@ -0,0 +1,64 @@
+package io.bitrise.trace.data.management.formatter.memory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.protobuf.Timestamp;
+import io.bitrise.trace.data.collector.DataSourceType;
+import io.bitrise.trace.data.collector.memory.RuntimeMemoryData;
+import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.data.dto.FormattedData;
+import io.bitrise.trace.data.management.Formatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link Formatter} implementation, to handle formatting for
+ * {@link DataSourceType#APP_RUNTIME_MEMORY}. Each value of the {@link RuntimeMemoryData} is
+ * formatted to a separate Metric, the ones that are not available are skipped.
+ */
+public class ApplicationRuntimeMemoryDataFormatter extends MemoryDataFormatter {
+
+  @NonNull
+  @Override
+  public FormattedData[] formatData(@NonNull final Data data) {
+    if (!(data.getContent() instanceof RuntimeMemoryData)) {
+      return new FormattedData[] {};
+    }
+    final RuntimeMemoryData runtimeMemoryData = (RuntimeMemoryData) data.getContent();
+    final Timestamp timestamp = getTimestamp();
+
+    final List<FormattedData> formattedData = new ArrayList<>();
+    addFormattedData(formattedData, runtimeMemoryData.getJavaHeapUsedBytes(),
+        MemoryType.JAVA_HEAP_USED, timestamp);
+    addFormattedData(formattedData, runtimeMemoryData.getJavaHeapMaxBytes(),
+        MemoryType.JAVA_HEAP_MAX, timestamp);
+    addFormattedData(formattedData, runtimeMemoryData.getNativeHeapUsedBytes(),
+        MemoryType.NATIVE_HEAP_USED, timestamp);
+    addFormattedData(formattedData, runtimeMemoryData.getGcCount(), MemoryType.GC_COUNT,
+        timestamp);
+    addFormattedData(formattedData, runtimeMemoryData.getGcTimeMs(), MemoryType.GC_TIME,
+        timestamp);
+    addFormattedData(formattedData, runtimeMemoryData.getBlockingGcCount(),
+        MemoryType.BLOCKING_GC_COUNT, timestamp);
+    addFormattedData(formattedData, runtimeMemoryData.getBlockingGcTimeMs(),
+        MemoryType.BLOCKING_GC_TIME, timestamp);
+    return formattedData.toArray(new FormattedData[0]);
+  }
+
+  /**
+   * Adds a {@link FormattedData} for the given value to the list, if the value is available.
+   *
+   * @param formattedData the list of FormattedData.
+   * @param value         the value, or {@code null} if it is not available.
+   * @param memoryType    the {@link MemoryType} of the value.
+   * @param timestamp     the {@link Timestamp} of the collection.
+   */
+  private static void addFormattedData(@NonNull final List<FormattedData> formattedData,
+                                       @Nullable final Long value,
+                                       @NonNull final MemoryType memoryType,
+                                       @NonNull final Timestamp timestamp) {
+    if (value != null) {
+      formattedData.add(createFormattedData(value, memoryType, timestamp));
+    }
+  }
+}
@@ -1,14 +1,26 @@
 package io.bitrise.trace.data.management.formatter.memory;
 
 import static io.bitrise.trace.data.dto.DataValues.app;
+import static io.bitrise.trace.data.dto.DataValues.blocking;
 import static io.bitrise.trace.data.dto.DataValues.bytes;
+import static io.bitrise.trace.data.dto.DataValues.count;
+import static io.bitrise.trace.data.dto.DataValues.gc;
 import static io.bitrise.trace.data.dto.DataValues.getName;
+import static io.bitrise.trace.data.dto.DataValues.java_heap;
+import static io.bitrise.trace.data.dto.DataValues.level;
+import static io.bitrise.trace.data.dto.DataValues.max;
 import static io.bitrise.trace.data.dto.DataValues.memory;
+import static io.bitrise.trace.data.dto.DataValues.ms;
+import static io.bitrise.trace.data.dto.DataValues.native_heap;
 import static io.bitrise.trace.data.dto.DataValues.res;
 import static io.bitrise.trace.data.dto.DataValues.state;
 import static io.bitrise.trace.data.dto.DataValues.system;
+import static io.bitrise.trace.data.dto.DataValues.time;
+import static io.bitrise.trace.data.dto.DataValues.trim;
+import static io.bitrise.trace.data.dto.DataValues.used;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import com.google.protobuf.Timestamp;
 import io.bitrise.trace.data.collector.memory.MemoryDataCollector;
 import io.bitrise.trace.data.dto.Data;
@@ -31,22 +43,41 @@ public abstract class MemoryDataFormatter extends DataFormatter {
    * Creates a {@link TimeSeries} for the memory value.
    *
    * @param memoryValue the value of memory at the point in time.
+   * @param memoryType  the type of memory collection event e.g. system.
    * @param timestamp   the timestamp of the memory collection event.
    * @return the TimeSeries.
    */
   private static TimeSeries createTimeSeries(final long memoryValue,
+                                             @NonNull final MemoryType memoryType,
                                              @NonNull final Timestamp timestamp) {
-    return TimeSeries.newBuilder()
-                     .addLabelValues(
-                         LabelValue.newBuilder()
-                                   .setValue(res)
-                                   .build())
-                     .addPoints(
-                         Point.newBuilder()
-                              .setTimestamp(timestamp)
-                              .setInt64Value(memoryValue)
-                              .build())
-                     .build();
+    final TimeSeries.Builder timeSeries = TimeSeries.newBuilder();
+    if (memoryType.getState() != null) {
+      timeSeries.addLabelValues(
+          LabelValue.newBuilder()
+                    .setValue(memoryType.getState())
+                    .build());
+    }
+    return timeSeries.addPoints(
+        Point.newBuilder()
+             .setTimestamp(timestamp)
+             .setInt64Value(memoryValue)
+             .build())
+        .build();
+  }
+
+  /**
+   * Creates a {@link FormattedData} from the memory value with the given {@link Timestamp}, so
+   * the values that belong to the same collection share their timestamp.
+   *
+   * @param value      the long value for the memory measurement.
+   * @param memoryType the type of memory collection event e.g. system.
+   * @param timestamp  the timestamp of the memory collection event.
+   * @return the FormattedData.
+   */
+  @NonNull
+  static FormattedData createFormattedData(final long value, final @NonNull MemoryType memoryType,
+                                           @NonNull final Timestamp timestamp) {
+    return new FormattedData(createMemoryMetric(value, memoryType, timestamp));
   }
 
   /**
@@ -57,30 +88,17 @@ public abstract class MemoryDataFormatter extends DataFormatter {
    */
   @NonNull
   private static MetricDescriptor createMetricDescriptor(final @NonNull MemoryType memoryType) {
-    final MetricDescriptor.Builder metricDescriptor = MetricDescriptor.newBuilder();
-
-    switch (memoryType) {
-      case APPLICATION:
-        metricDescriptor
-            .setDescription("App Memory Usage")
-            .setName(getName(app, memory, bytes));
-        break;
-      case SYSTEM:
-        metricDescriptor
-            .setDescription("System Memory Usage")
-            .setName(getName(system, memory, bytes));
-        break;
-      default:
-        // nop.
+    final MetricDescriptor.Builder metricDescriptor =
+        MetricDescriptor.newBuilder()
+                        .setDescription(memoryType.getDescription())
+                        .setName(memoryType.getMetricName())
+                        .setUnit(memoryType.getUnit())
+                        .setType(MetricDescriptor.Type.GAUGE_INT64);
+    if (memoryType.getState() != null) {
+      metricDescriptor.addLabelKeys(LabelKey.newBuilder()
+                                            .setKey(getName(memory, state))
+                                            .build());
     }
-
-    metricDescriptor
-        .setUnit(bytes)
-        .setType(MetricDescriptor.Type.GAUGE_INT64)
-        .addLabelKeys(LabelKey.newBuilder()
-                              .setKey(getName(memory, state))
-                              .build());
-
     return metricDescriptor.build();
   }
 
@@ -98,7 +116,7 @@ public abstract class MemoryDataFormatter extends DataFormatter {
                                           @NonNull final Timestamp timestamp) {
     return Metric.newBuilder()
                  .setMetricDescriptor(createMetricDescriptor(memoryType))
-                 .addTimeseries(createTimeSeries(memoryValue, timestamp))
+                 .addTimeseries(createTimeSeries(memoryValue, memoryType, timestamp))
                  .build();
   }
 
@@ -118,9 +136,72 @@ public abstract class MemoryDataFormatter extends DataFormatter {
   }
 
   /**
-   * Represents what kind of memory used formatter is needed.
+   * Represents what kind of memory used formatter is needed. Each type is reported as a separate
+   * {@link Metric}.
    */
   public enum MemoryType {
-    APPLICATION, SYSTEM
+    APPLICATION("App Memory Usage", getName(app, memory, bytes), bytes, res),
+    SYSTEM("System Memory Usage", getName(system, memory, bytes), bytes, res),
+    JAVA_HEAP_USED("App Java Heap Usage", getName(app, memory, java_heap, used, bytes), bytes,
+        null),
+    JAVA_HEAP_MAX("App Java Heap Limit", getName(app, memory, java_heap, max, bytes), bytes, null),
+    NATIVE_HEAP_USED("App Native Heap Usage", getName(app, memory, native_heap, used, bytes),
+        bytes, null),
+    GC_COUNT("App Garbage Collection Count", getName(app, gc, count), count, null),
+    GC_TIME("App Garbage Collection Time", getName(app, gc, time, ms), ms, null),
+    BLOCKING_GC_COUNT("App Blocking Garbage Collection Count", getName(app, gc, blocking, count),
+        count, null),
+    BLOCKING_GC_TIME("App Blocking Garbage Collection Time",
+        getName(app, gc, blocking, time, ms), ms, null),
+    TRIM_LEVEL("App Memory Trim Level", getName(app, memory, trim, level), level, null);
+
+    @NonNull
+    private final String description;
+
+    @NonNull
+    private final String metricName;
+
+    @NonNull
+    private final String unit;
+
+    @Nullable
+    private final String state;
+
+    /**
+     * Constructor for enum.
+     *
+     * @param description the description of the Metric.
+     * @param metricName  the name of the Metric.
+     * @param unit        the unit of the Metric.
+     * @param state       the value of the memory state label, or {@code null} if the Metric has
+     *                    no labels.
+     */
+    MemoryType(@NonNull final String description, @NonNull final String metricName,
+               @NonNull final String unit, @Nullable final String state) {
+      this.description = description;
+      this.metricName = metricName;
+      this.unit = unit;
+      this.state = state;
+    }
+
+    @NonNull
+    public String getDescription() {
+      return description;
+    }
+
+    @NonNull
+    public String getMetricName() {
+      return metricName;
+    }
+
+    @NonNull
+    public String getUnit() {
+      return unit;
+    }
+
+    @Nullable
+    public String getState() {
+      return state;
+    }
   }
 }
@@ -0,0 +1,24 @@
+package io.bitrise.trace.data.management.formatter.memory;
+
+import androidx.annotation.NonNull;
+import io.bitrise.trace.data.collector.DataSourceType;
+import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.data.dto.FormattedData;
+import io.bitrise.trace.data.management.Formatter;
+
+/**
+ * {@link Formatter} implementation, to handle formatting for
+ * {@link DataSourceType#APP_MEMORY_TRIM}.
+ */
+public class MemoryTrimDataFormatter extends MemoryDataFormatter {
+
+  @NonNull
+  @Override
+  public FormattedData[] formatData(@NonNull final Data data) {
+    if (!(data.getContent() instanceof Integer)) {
+      return new FormattedData[] {};
+    }
+
+    return handleMemoryFormatting((Integer) data.getContent(), MemoryType.TRIM_LEVEL);
+  }
+}
@@ -0,0 +1,302 @@
+package io.bitrise.trace.data.metric;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import com.google.protobuf.DoubleValue;
+import com.google.protobuf.Int64Value;
+import com.google.protobuf.Timestamp;
+import io.opencensus.proto.metrics.v1.LabelValue;
+import io.opencensus.proto.metrics.v1.Metric;
+import io.opencensus.proto.metrics.v1.MetricDescriptor;
+import io.opencensus.proto.metrics.v1.Point;
+import io.opencensus.proto.metrics.v1.SummaryValue;
+import io.opencensus.proto.metrics.v1.TimeSeries;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates the samples of gauge {@link Metric}s on the device. The samples are folded into
+ * fixed time windows per Session, Metric name and label values, and each window is reported as a
+ * single {@link MetricDescriptor.Type#SUMMARY} Metric with the count, the sum, the minimum, the
+ * maximum and the estimated percentiles of the samples. This way the number of stored and sent
+ * Metrics depends on the elapsed time, not on the number of samples.
+ *
+ * <p>A window is completed when a sample arrives after its end, or when {@link #flush()} is
+ * called, e.g. when the collection stops or the application goes to the background. The
+ * timestamp of the reported {@link Point} is the timestamp of the last sample in the window,
+ * the start timestamp of the {@link TimeSeries} is the start of the window.
+ */
+public class MetricAggregator {
+
+  /**
+   * The default length of the aggregation windows in milliseconds.
+   */
+  public static final long DEFAULT_WINDOW_MS = TimeUnit.MINUTES.toMillis(1);
+
+  /**
+   * The percentiles reported for each window. The 0th and the 100th are the exact minimum and
+   * maximum, the others are estimated with a {@link QuantileSketch}.
+   */
+  @VisibleForTesting
+  static final double[] PERCENTILES = {0, 50, 90, 99, 100};
+
+  private final long windowMs;
+
+  /**
+   * The windows that are still open, by their key.
+   */
+  @NonNull
+  private final Map<String, Window> openWindows = new LinkedHashMap<>();
+
+  /**
+   * Constructor for class. Uses the {@link #DEFAULT_WINDOW_MS}.
+   */
+  public MetricAggregator() {
+    this(DEFAULT_WINDOW_MS);
+  }
+
+  /**
+   * Constructor for class.
+   *
+   * @param windowMs the length of the aggregation windows in milliseconds.
+   */
+  public MetricAggregator(final long windowMs) {
+    if (windowMs <= 0) {
+      throw new IllegalArgumentException("The window must be longer than 0 ms!");
+    }
+    this.windowMs = windowMs;
+  }
+
+  /**
+   * Checks if the given {@link Metric} can be aggregated. Only the gauge Metrics with numeric
+   * values can be aggregated.
+   *
+   * @param metric the Metric to check.
+   * @return {@code true} if it can be aggregated, {@code false} otherwise.
+   */
+  public static boolean isAggregatable(@NonNull final Metric metric) {
+    final MetricDescriptor.Type type = metric.getMetricDescriptor().getType();
+    return type == MetricDescriptor.Type.GAUGE_INT64 || type == MetricDescriptor.Type.GAUGE_DOUBLE;
+  }
+
+  /**
+   * Adds the samples of the given {@link MetricEntity} to the windows. The Metric of it should be
+   * aggregatable, see {@link #isAggregatable(Metric)}.
+   *
+   * @param metricEntity the MetricEntity to add.
+   * @return the MetricEntities of the windows, that were completed by the added samples.
+   */
+  @NonNull
+  public synchronized List<MetricEntity> add(@NonNull final MetricEntity metricEntity) {
+    final List<MetricEntity> completed = new ArrayList<>();
+    final Metric metric = metricEntity.getMetric();
+    for (@NonNull final TimeSeries timeSeries : metric.getTimeseriesList()) {
+      for (@NonNull final Point point : timeSeries.getPointsList()) {
+        final double value;
+        if (point.getValueCase() == Point.ValueCase.INT64_VALUE) {
+          value = point.getInt64Value();
+        } else if (point.getValueCase() == Point.ValueCase.DOUBLE_VALUE) {
+          value = point.getDoubleValue();
+        } else {
+          continue;
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+          continue;
+        }
+
+        final long sampleTimeMs = toMillis(point.getTimestamp());
+        completeWindowsBefore(sampleTimeMs, completed);
+
+        final String key = getKey(metricEntity.getSessionId(), metric, timeSeries);
+        Window window = openWindows.get(key);
+        if (window == null) {
+          final long windowStartMs = sampleTimeMs - sampleTimeMs % windowMs;
+          window = new Window(metricEntity.getSessionId(), metric.getMetricDescriptor(),
+              timeSeries.getLabelValuesList(), windowStartMs, windowStartMs + windowMs);
+          openWindows.put(key, window);
+        }
+        window.add(value, point.getTimestamp());
+      }
+    }
+    return completed;
+  }
+
+  /**
+   * Completes all the open windows.
+   *
+   * @return the MetricEntities of the completed windows.
+   */
+  @NonNull
+  public synchronized List<MetricEntity> flush() {
+    final List<MetricEntity> completed = new ArrayList<>();
+    for (@NonNull final Window window : openWindows.values()) {
+      completed.add(window.toMetricEntity());
+    }
+    openWindows.clear();
+    return completed;
+  }
+
+  /**
+   * Gets the number of the windows that are still open.
+   *
+   * @return the number of open windows.
+   */
+  public synchronized int getOpenWindowCount() {
+    return openWindows.size();
+  }
+
+  /**
+   * Completes the open windows that end before or at the given time.
+   *
+   * @param timeMs    the time in milliseconds.
+   * @param completed the List to add the MetricEntities of the completed windows to.
+   */
+  private void completeWindowsBefore(final long timeMs,
+                                     @NonNull final List<MetricEntity> completed) {
+    final Iterator<Window> iterator = openWindows.values().iterator();
+    while (iterator.hasNext()) {
+      final Window window = iterator.next();
+      if (window.endMs <= timeMs) {
+        completed.add(window.toMetricEntity());
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Creates the key of the window for the given sample.
+   *
+   * @param sessionId  the ID of the Session the sample belongs to.
+   * @param metric     the Metric of the sample.
+   * @param timeSeries the TimeSeries of the sample.
+   * @return the key.
+   */
+  @NonNull
+  private static String getKey(@NonNull final String sessionId, @NonNull final Metric metric,
+                               @NonNull final TimeSeries timeSeries) {
+    final StringBuilder key = new StringBuilder(sessionId)
+        .append('\u0000')
+        .append(metric.getMetricDescriptor().getName());
+    for (@NonNull final LabelValue labelValue : timeSeries.getLabelValuesList()) {
+      key.append('\u0000').append(labelValue.getValue());
+    }
+    return key.toString();
+  }
+
+  private static long toMillis(@NonNull final Timestamp timestamp) {
+    return TimeUnit.SECONDS.toMillis(timestamp.getSeconds())
+        + TimeUnit.NANOSECONDS.toMillis(timestamp.getNanos());
+  }
+
+  @NonNull
+  private static Timestamp toTimestamp(final long timeMs) {
+    return Timestamp.newBuilder()
+                    .setSeconds(TimeUnit.MILLISECONDS.toSeconds(timeMs))
+                    .setNanos((int) TimeUnit.MILLISECONDS.toNanos(timeMs % 1000))
+                    .build();
+  }
+
+  /**
+   * The samples of a single time window of a single {@link TimeSeries}.
+   */
+  private static class Window {
+
+    @NonNull
+    private final String sessionId;
+
+    @NonNull
+    private final MetricDescriptor metricDescriptor;
+
+    @NonNull
+    private final List<LabelValue> labelValues;
+
+    private final long startMs;
+
+    private final long endMs;
+
+    @NonNull
+    private final QuantileSketch sketch = new QuantileSketch();
+
+    @NonNull
+    private Timestamp lastTimestamp = Timestamp.getDefaultInstance();
+
+    private double sum;
+
+    private double min = Double.POSITIVE_INFINITY;
+
+    private double max = Double.NEGATIVE_INFINITY;
+
+    Window(@NonNull final String sessionId, @NonNull final MetricDescriptor metricDescriptor,
+           @NonNull final List<LabelValue> labelValues, final long startMs, final long endMs) {
+      this.sessionId = sessionId;
+      this.metricDescriptor = metricDescriptor;
+      this.labelValues = labelValues;
+      this.startMs = startMs;
+      this.endMs = endMs;
+    }
+
+    void add(final double value, @NonNull final Timestamp timestamp) {
+      sketch.add(value);
+      sum += value;
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+      if (toMillis(timestamp) >= toMillis(lastTimestamp)) {
+        lastTimestamp = timestamp;
+      }
+    }
+
+    /**
+     * Gets the value at the given percentile. The 0th and the 100th percentile are the exact
+     * minimum and maximum, the others are estimated and clamped to this range.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @return the value.
+     */
+    private double getPercentileValue(final double percentile) {
+      if (percentile <= 0) {
+        return min;
+      }
+      if (percentile >= 100) {
+        return max;
+      }
+      return Math.max(min, Math.min(max, sketch.getQuantile(percentile / 100)));
+    }
+
+    @NonNull
+    MetricEntity toMetricEntity() {
+      final SummaryValue.Snapshot.Builder snapshot =
+          SummaryValue.Snapshot.newBuilder()
+                               .setCount(Int64Value.of(sketch.getCount()))
+                               .setSum(DoubleValue.of(sum));
+      for (final double percentile : PERCENTILES) {
+        snapshot.addPercentileValues(SummaryValue.Snapshot.ValueAtPercentile.newBuilder()
+            .setPercentile(percentile)
+            .setValue(getPercentileValue(percentile))
+            .build());
+      }
+
+      final SummaryValue summaryValue =
+          SummaryValue.newBuilder()
+                      .setCount(Int64Value.of(sketch.getCount()))
+                      .setSum(DoubleValue.of(sum))
+                      .setSnapshot(snapshot)
+                      .build();
+      final Metric metric =
+          Metric.newBuilder()
+                .setMetricDescriptor(metricDescriptor.toBuilder()
+                                                     .setType(MetricDescriptor.Type.SUMMARY))
+                .addTimeseries(TimeSeries.newBuilder()
+                                         .setStartTimestamp(toTimestamp(startMs))
+                                         .addAllLabelValues(labelValues)
+                                         .addPoints(Point.newBuilder()
+                                                         .setTimestamp(lastTimestamp)
+                                                         .setSummaryValue(summaryValue)))
+                .build();
+      return new MetricEntity(metric, sessionId);
+    }
+  }
+}
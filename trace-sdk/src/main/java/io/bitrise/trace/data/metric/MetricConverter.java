@@ -4,15 +4,19 @@ import androidx.annotation.NonNull;
 import androidx.room.TypeConverter;
 import com.google.gson.Gson;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
 import io.bitrise.trace.network.NetworkClient;
 import io.bitrise.trace.utils.log.LogMessageConstants;
 import io.bitrise.trace.utils.log.TraceLog;
 import io.opencensus.proto.metrics.v1.Metric;
+import java.util.Locale;
 
 /**
  * Converter for {@link Metric} to store it in
- * {@link io.bitrise.trace.data.storage.TraceDatabase}. Due to an existing GSON issue, we cannot
- * convert directly to Metric and back, first we have to convert to a {@link ByteString}.
+ * {@link io.bitrise.trace.data.storage.TraceDatabase}. From database version 3 the Metrics are
+ * stored in their binary protobuf format, the JSON conversion is kept for migrating the
+ * records of the earlier versions. Due to an existing GSON issue, we cannot convert directly to
+ * Metric and back from JSON, first we have to convert to a {@link ByteString}.
  *
  * @see <a href="https://github.com/google/gson/issues/1084">Related Github issue</a>
  */
@@ -21,13 +25,44 @@ public class MetricConverter {
   private static final Gson gson = NetworkClient.getGson();
 
   /**
-   * Converts the given String value to a {@link Metric}.
+   * Converts the given binary protobuf value to a {@link Metric}.
    *
    * @param value the value to convert.
    * @return the Metric for the given value.
    */
   @NonNull
   @TypeConverter
+  public static Metric toMetric(@NonNull final byte[] value) {
+    try {
+      return Metric.parseFrom(value);
+    } catch (InvalidProtocolBufferException e) {
+      TraceLog.w(e);
+      TraceLog.d(String.format(Locale.ENGLISH, LogMessageConstants.CONVERTER_FAILED_WITH_SIZE,
+          value.length));
+      return Metric.newBuilder().build();
+    }
+  }
+
+  /**
+   * Converts the given {@link Metric} to its binary protobuf value.
+   *
+   * @param metric the Metric to convert.
+   * @return the binary value of the given Metric.
+   */
+  @NonNull
+  @TypeConverter
+  public static byte[] toByteArray(@NonNull final Metric metric) {
+    return metric.toByteArray();
+  }
+
+  /**
+   * Converts the given JSON String value to a {@link Metric}. Used for the records that were
+   * stored before database version 3.
+   *
+   * @param value the value to convert.
+   * @return the Metric for the given value.
+   */
+  @NonNull
   public static Metric toMetric(@NonNull final String value) {
     try {
 
@@ -47,12 +82,11 @@ public class MetricConverter {
   }
 
   /**
-   * Converts the given {@link Metric} to a String value.
+   * Converts the given {@link Metric} to a JSON String value.
    *
    * @param metric the Metric to convert.
    * @return the String value of the given Metric.
    */
-  @TypeConverter
   public static String toString(@NonNull final Metric metric) {
     return gson.toJson(metric, Metric.class);
   }
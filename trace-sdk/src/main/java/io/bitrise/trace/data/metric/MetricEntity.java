@@ -4,19 +4,20 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.TypeConverters;
 import io.bitrise.trace.data.storage.TraceDatabase;
 import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.session.Session;
+import io.bitrise.trace.utils.UniqueIdGenerator;
 import io.opencensus.proto.metrics.v1.Metric;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  * An {@link Entity} decorator to be able to store {@link Metric} in the {@link TraceDatabase}.
  */
-@Entity
+@Entity(indices = {@Index("sessionId"), @Index("timeStamp")})
 public class MetricEntity {
 
   @TypeConverters(MetricConverter.class)
@@ -40,11 +41,26 @@ public class MetricEntity {
   @Ignore
   public MetricEntity(@NonNull final Metric metric) {
     this.metric = metric;
-    this.metricId = UUID.randomUUID().toString().substring(0, 16);
+    this.metricId = UniqueIdGenerator.makeMetricId();
     this.sessionId = getCurrentSessionId();
     this.timeStamp = System.currentTimeMillis();
   }
 
+  /**
+   * Constructor for class. Use this when the {@link Metric} belongs to a given {@link Session},
+   * that is not necessarily the active one, e.g. for aggregated Metrics.
+   *
+   * @param metric    the {@link Metric}.
+   * @param sessionId the ID of the Session.
+   */
+  @Ignore
+  public MetricEntity(@NonNull final Metric metric, @NonNull final String sessionId) {
+    this.metric = metric;
+    this.metricId = UniqueIdGenerator.makeMetricId();
+    this.sessionId = sessionId;
+    this.timeStamp = System.currentTimeMillis();
+  }
+
   /**
    * Constructor required for Room.
    *
@@ -0,0 +1,151 @@
+package io.bitrise.trace.data.metric;
+
+import androidx.annotation.NonNull;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sketch of the distribution of non-negative values, that estimates its quantiles with a bounded
+ * relative error, in the manner of the DDSketch. The values are counted in buckets, whose bounds
+ * grow exponentially, so the memory used depends on the range of the values and not on the
+ * number of them. Values that are not positive are counted separately as zeros. When the number
+ * of buckets exceeds the {@link #maxBucketCount}, the lowest buckets are collapsed, so only the
+ * accuracy of the lowest quantiles suffers.
+ *
+ * <p>This class is not thread safe.
+ *
+ * @see
+ * <a href="https://arxiv.org/abs/1908.10693">https://arxiv.org/abs/1908.10693</a>
+ */
+class QuantileSketch {
+
+  /**
+   * The default relative accuracy of the estimated quantiles.
+   */
+  static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+  /**
+   * The default maximum number of buckets.
+   */
+  static final int DEFAULT_MAX_BUCKET_COUNT = 128;
+
+  /**
+   * The ratio of the upper and lower bound of a bucket.
+   */
+  private final double gamma;
+
+  private final double logGamma;
+
+  private final int maxBucketCount;
+
+  /**
+   * The counts of the buckets by their index. The bucket with index i contains the values in the
+   * (gamma^(i-1), gamma^i] range.
+   */
+  @NonNull
+  private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+
+  private long zeroCount;
+
+  private long count;
+
+  /**
+   * Constructor for class. Uses the {@link #DEFAULT_RELATIVE_ACCURACY} and the
+   * {@link #DEFAULT_MAX_BUCKET_COUNT}.
+   */
+  QuantileSketch() {
+    this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BUCKET_COUNT);
+  }
+
+  /**
+   * Constructor for class.
+   *
+   * @param relativeAccuracy the relative accuracy of the estimated quantiles, between 0 and 1.
+   * @param maxBucketCount   the maximum number of buckets.
+   */
+  QuantileSketch(final double relativeAccuracy, final int maxBucketCount) {
+    if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+      throw new IllegalArgumentException("The relative accuracy must be between 0 and 1!");
+    }
+    if (maxBucketCount < 1) {
+      throw new IllegalArgumentException("There must be at least one bucket!");
+    }
+    this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    this.logGamma = Math.log(gamma);
+    this.maxBucketCount = maxBucketCount;
+  }
+
+  /**
+   * Adds a value to the sketch.
+   *
+   * @param value the value to add.
+   */
+  void add(final double value) {
+    count++;
+    if (!(value > 0)) {
+      zeroCount++;
+      return;
+    }
+
+    final int index = (int) Math.ceil(Math.log(value) / logGamma);
+    final Long bucketCount = buckets.get(index);
+    buckets.put(index, bucketCount == null ? 1 : bucketCount + 1);
+    if (buckets.size() > maxBucketCount) {
+      collapseLowestBuckets();
+    }
+  }
+
+  /**
+   * Gets the estimated value at the given quantile.
+   *
+   * @param quantile the quantile, between 0 and 1.
+   * @return the estimated value, or 0 if the sketch is empty.
+   */
+  double getQuantile(final double quantile) {
+    if (count == 0) {
+      return 0;
+    }
+
+    final double rank = quantile * (count - 1);
+    long cumulativeCount = zeroCount;
+    if (cumulativeCount > rank) {
+      return 0;
+    }
+    int index = 0;
+    for (@NonNull final Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+      index = bucket.getKey();
+      cumulativeCount += bucket.getValue();
+      if (cumulativeCount > rank) {
+        break;
+      }
+    }
+    return 2 * Math.pow(gamma, index) / (gamma + 1);
+  }
+
+  /**
+   * Gets the number of values added to the sketch.
+   *
+   * @return the number of values.
+   */
+  long getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the number of buckets currently in use.
+   *
+   * @return the number of buckets.
+   */
+  int getBucketCount() {
+    return buckets.size();
+  }
+
+  /**
+   * Merges the two lowest buckets into the higher one.
+   */
+  private void collapseLowestBuckets() {
+    final Map.Entry<Integer, Long> lowest = buckets.pollFirstEntry();
+    final Map.Entry<Integer, Long> next = buckets.firstEntry();
+    buckets.put(next.getKey(), next.getValue() + lowest.getValue());
+  }
+}
@@ -4,6 +4,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import io.bitrise.trace.data.storage.DataStorage;
 import io.bitrise.trace.session.ApplicationSessionManager;
@@ -14,7 +15,7 @@ import java.util.Objects;
  * {@link androidx.room.Entity} for storing {@link io.opencensus.proto.resource.v1.Resource}
  * labels in {@link DataStorage}.
  */
-@Entity
+@Entity(indices = {@Index("sessionId")})
 public class ResourceEntity {
 
   @PrimaryKey
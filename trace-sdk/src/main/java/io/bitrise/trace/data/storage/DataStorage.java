@@ -29,6 +29,14 @@ public abstract class DataStorage {
   static volatile DataStorage dataStorage;
   TraceDatabase traceDatabase;
 
+  /**
+   * The {@link WriteBehindBuffer} that collects the {@link MetricEntity}, {@link ResourceEntity}
+   * and {@link TraceEntity} writes and saves them in a single transaction.
+   */
+  @VisibleForTesting
+  @NonNull
+  final WriteBehindBuffer writeBehindBuffer = new WriteBehindBuffer(this::writeBatch);
+
   /**
    * Check if the {@link #dataStorage} is already instantiated or not.
    *
@@ -40,7 +48,8 @@ public abstract class DataStorage {
   }
 
   /**
-   * Saves the given {@link MetricEntity} to the storage.
+   * Saves the given {@link MetricEntity} to the storage. The write is buffered in the
+   * {@link #writeBehindBuffer}.
    *
    * <p>Should not be called on the main thread.
    *
@@ -48,12 +57,13 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public void saveMetric(@NonNull final MetricEntity metricEntity) {
-    traceDatabase.getMetricDao().insertAll(metricEntity);
+    writeBehindBuffer.addMetric(metricEntity);
     TraceLog.d(LogMessageConstants.SAVE_METRIC);
   }
 
   /**
-   * Saves the given {@link Trace}s to the storage.
+   * Saves the given {@link Trace}s to the storage. The writes are buffered in the
+   * {@link #writeBehindBuffer}.
    *
    * <p>Should not be called on the main thread.
    *
@@ -63,14 +73,15 @@ public abstract class DataStorage {
   public void saveTraces(@NonNull final Trace... traces) {
     for (Trace trace : traces) {
       TraceLog.debugV(trace.getDebugLoggingInfo());
-      traceDatabase.getTraceDao().insertAll(new TraceEntity(trace));
+      writeBehindBuffer.addTrace(new TraceEntity(trace));
     }
 
     TraceLog.d(LogMessageConstants.SAVE_TRACE);
   }
 
   /**
-   * Saves the given {@link ResourceEntity} to the storage.
+   * Saves the given {@link ResourceEntity} to the storage. The write is buffered in the
+   * {@link #writeBehindBuffer}.
    *
    * <p>Should not be called on the main thread.
    *
@@ -78,7 +89,7 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public void saveResourceEntity(@NonNull final ResourceEntity resourceEntity) {
-    traceDatabase.getResourceDao().insertAll(resourceEntity);
+    writeBehindBuffer.addResource(resourceEntity);
     TraceLog.d(LogMessageConstants.SAVE_RESOURCE_ENTITY);
   }
 
@@ -106,12 +117,14 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public void deleteMetric(@NonNull final MetricEntity metricEntity) {
+    flushPendingWrites();
     traceDatabase.getMetricDao().deleteById(metricEntity.getMetricId());
     TraceLog.d(LogMessageConstants.DELETE_METRIC);
   }
 
   /**
-   * Deletes the {@link Trace} with the given ID.
+   * Deletes the given {@link Trace}. When the Trace was split into segments, only the given
+   * segment is deleted.
    *
    * <p>Should not be called on the main thread.
    *
@@ -119,7 +132,8 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public void deleteTrace(@NonNull final Trace trace) {
-    traceDatabase.getTraceDao().deleteById(trace.getTraceId());
+    flushPendingWrites();
+    traceDatabase.getTraceDao().deleteBySegmentId(trace.getSegmentId());
     TraceLog.d(LogMessageConstants.DELETE_TRACE);
   }
 
@@ -132,6 +146,7 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public void deleteResourcesWithSessionId(@NonNull final String sessionId) {
+    flushPendingWrites();
     traceDatabase.getResourceDao().deleteBySessionId(sessionId);
     TraceLog.d(String.format(LogMessageConstants.DELETE_RESOURCE_WITH_SESSION_ID, sessionId));
   }
@@ -147,6 +162,7 @@ public abstract class DataStorage {
   @WorkerThread
   @Nullable
   public MetricEntity getMetricById(@NonNull final String metricId) {
+    flushPendingWrites();
     return traceDatabase.getMetricDao().getById(metricId);
   }
 
@@ -161,7 +177,13 @@ public abstract class DataStorage {
   @WorkerThread
   @Nullable
   public Trace getTrace(@NonNull final TraceEntity traceEntity) {
-    return getTraceById(traceEntity.getTraceId());
+    flushPendingWrites();
+    final TraceEntity storedTraceEntity =
+        traceDatabase.getTraceDao().getBySegmentId(traceEntity.getSegmentId());
+    if (storedTraceEntity == null) {
+      return null;
+    }
+    return storedTraceEntity.getTrace();
   }
 
   /**
@@ -175,6 +197,7 @@ public abstract class DataStorage {
   @WorkerThread
   @Nullable
   public Trace getTraceById(@NonNull final String id) {
+    flushPendingWrites();
     final TraceEntity traceEntity = traceDatabase.getTraceDao().getById(id);
     if (traceEntity == null) {
       return null;
@@ -192,6 +215,7 @@ public abstract class DataStorage {
   @WorkerThread
   @NonNull
   public List<ResourceEntity> getResourcesWithSessionId(@NonNull final String sessionId) {
+    flushPendingWrites();
     return traceDatabase.getResourceDao().getAllWithSessionId(sessionId);
   }
 
@@ -205,9 +229,23 @@ public abstract class DataStorage {
   @WorkerThread
   @NonNull
   public List<MetricEntity> getAllMetrics() {
+    flushPendingWrites();
     return traceDatabase.getMetricDao().getAll();
   }
 
+  /**
+   * Checks if there is any {@link MetricEntity} in the database, without loading them.
+   *
+   * <p>Should not be called on the main thread.
+   *
+   * @return {@code true} if yes, {@code false} otherwise.
+   */
+  @WorkerThread
+  public boolean hasMetrics() {
+    flushPendingWrites();
+    return traceDatabase.getMetricDao().hasAny();
+  }
+
   /**
    * Gets all the {@link Trace}s from the database.
    *
@@ -218,42 +256,68 @@ public abstract class DataStorage {
   @WorkerThread
   @NonNull
   public List<Trace> getAllTraces() {
+    flushPendingWrites();
     return TraceUtils.toTraceList(traceDatabase.getTraceDao().getAll());
   }
 
   /**
-   * Gets the list of {@link Trace}s with the same {@link Session} ID.
+   * Checks if there is any {@link Trace} in the database, without loading them.
    *
    * <p>Should not be called on the main thread.
    *
+   * @return {@code true} if yes, {@code false} otherwise.
+   */
+  @WorkerThread
+  public boolean hasTraces() {
+    flushPendingWrites();
+    return traceDatabase.getTraceDao().hasAny();
+  }
+
+  /**
+   * Gets the list of {@link Trace}s with the same {@link Session} ID. The Session of the oldest
+   * Trace is used, and at most the given number of Traces are returned, so a single send does not
+   * depend on the size of the backlog. The remaining ones will be returned by the next call,
+   * after these were deleted.
+   *
+   * <p>Should not be called on the main thread.
+   *
+   * @param limit the maximum number of Traces to return, it should be the most a single request
+   *              can contain.
    * @return the List of Traces.
    */
   @WorkerThread
   @NonNull
-  public List<Trace> getFirstTraceGroup() {
-    final List<String> sessionIds = traceDatabase.getTraceDao().getSessionIds();
-    if (sessionIds.isEmpty()) {
+  public List<Trace> getFirstTraceGroup(final int limit) {
+    flushPendingWrites();
+    final String sessionId = traceDatabase.getTraceDao().getOldestSessionId();
+    if (sessionId == null) {
       return Collections.emptyList();
     }
-    return TraceUtils
-        .toTraceList(traceDatabase.getTraceDao().getBySessionId(sessionIds.iterator().next()));
+    return TraceUtils.toTraceList(
+        traceDatabase.getTraceDao().getBySessionId(sessionId, limit, 0));
   }
 
   /**
-   * Gets the list of {@link Trace}s with the same {@link Session} ID.
+   * Gets the list of {@link MetricEntity}s with the same {@link Session} ID. The Session of the
+   * oldest MetricEntity is used, and at most the given number of MetricEntities are returned, so
+   * a single send does not depend on the size of the backlog. The remaining ones will be
+   * returned by the next call, after these were deleted.
    *
    * <p>Should not be called on the main thread.
    *
-   * @return the List of Traces.
+   * @param limit the maximum number of MetricEntities to return, it should be the most a single
+   *              request can contain.
+   * @return the List of MetricEntities.
    */
   @WorkerThread
   @NonNull
-  public List<MetricEntity> getFirstMetricGroup() {
-    final List<String> sessionIds = traceDatabase.getMetricDao().getSessionIds();
-    if (sessionIds.isEmpty()) {
+  public List<MetricEntity> getFirstMetricGroup(final int limit) {
+    flushPendingWrites();
+    final String sessionId = traceDatabase.getMetricDao().getOldestSessionId();
+    if (sessionId == null) {
       return Collections.emptyList();
     }
-    return traceDatabase.getMetricDao().getBySessionId(sessionIds.iterator().next());
+    return traceDatabase.getMetricDao().getBySessionId(sessionId, limit, 0);
   }
 
   /**
@@ -266,11 +330,12 @@ public abstract class DataStorage {
   @WorkerThread
   @NonNull
   public List<ResourceEntity> getAllResources() {
+    flushPendingWrites();
     return traceDatabase.getResourceDao().getAll();
   }
 
   /**
-   * Deletes all the given {@link MetricEntity}s from the database.
+   * Deletes all the given {@link MetricEntity}s from the database in a single transaction.
    *
    * <p>Should not be called on the main thread.
    *
@@ -278,14 +343,19 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public void deleteMetrics(@NonNull final List<MetricEntity> metricEntityList) {
+    flushPendingWrites();
+    final List<String> metricIds = new ArrayList<>(metricEntityList.size());
     for (@NonNull final MetricEntity metricEntity : metricEntityList) {
-      deleteMetric(metricEntity);
+      metricIds.add(metricEntity.getMetricId());
     }
+    traceDatabase.getMetricDao().deleteByIds(metricIds);
     TraceLog.d(LogMessageConstants.DELETE_METRICS);
   }
 
   /**
-   * Deletes all the given {@link Trace}s from the database.
+   * Deletes all the given {@link Trace}s from the database in a single transaction. When a
+   * Trace was split into segments, only the given segments are deleted, so the segments that
+   * were stored in the meantime are kept.
    *
    * <p>Should not be called on the main thread.
    *
@@ -293,9 +363,12 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public void deleteTraces(@NonNull final List<Trace> traceList) {
+    flushPendingWrites();
+    final List<String> segmentIds = new ArrayList<>(traceList.size());
     for (@NonNull final Trace trace : traceList) {
-      traceDatabase.getTraceDao().deleteById(trace.getTraceId());
+      segmentIds.add(trace.getSegmentId());
     }
+    traceDatabase.getTraceDao().deleteBySegmentIds(segmentIds);
     TraceLog.d(LogMessageConstants.DELETE_TRACES);
   }
 
@@ -308,6 +381,7 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public void deleteResources(@NonNull final List<ResourceEntity> resourceEntities) {
+    flushPendingWrites();
     for (@NonNull final ResourceEntity resourceEntity : resourceEntities) {
       traceDatabase.getResourceDao().deleteById(resourceEntity.getId());
     }
@@ -325,10 +399,9 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public boolean hasReference(@NonNull final String sessionId) {
-    final int metricReferenceCount =
-        traceDatabase.getMetricDao().getBySessionId(sessionId).size();
-    final int traceReferenceCount = traceDatabase.getTraceDao().getBySessionId(sessionId).size();
-    return metricReferenceCount > 0 || traceReferenceCount > 0;
+    flushPendingWrites();
+    return traceDatabase.getMetricDao().hasSessionId(sessionId)
+        || traceDatabase.getTraceDao().hasSessionId(sessionId);
   }
 
   /**
@@ -338,6 +411,7 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public void deleteAllTraces() {
+    flushPendingWrites();
     traceDatabase.getTraceDao().deleteAll();
     TraceLog.d(LogMessageConstants.DELETE_ALL_TRACES);
   }
@@ -349,6 +423,7 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public void deleteAllMetrics() {
+    flushPendingWrites();
     traceDatabase.getMetricDao().deleteAll();
     TraceLog.d(LogMessageConstants.DELETE_ALL_METRICS);
   }
@@ -360,10 +435,50 @@ public abstract class DataStorage {
    */
   @WorkerThread
   public void deleteAllResources() {
+    flushPendingWrites();
     traceDatabase.getResourceDao().deleteAll();
     TraceLog.d(LogMessageConstants.DELETE_ALL_RESOURCE_ENTITIES);
   }
 
+  /**
+   * Writes all the buffered {@link MetricEntity}, {@link ResourceEntity} and {@link TraceEntity}
+   * writes of the {@link #writeBehindBuffer} to the database. Called before every read and
+   * delete, and should be called when the application goes to the background or crashes.
+   *
+   * <p>Should not be called on the main thread.
+   */
+  @WorkerThread
+  public void flushPendingWrites() {
+    writeBehindBuffer.flush();
+  }
+
+  /**
+   * Writes the given entities to the database in a single transaction.
+   *
+   * <p>Should not be called on the main thread.
+   *
+   * @param metricEntities   the MetricEntities to write.
+   * @param resourceEntities the ResourceEntities to write.
+   * @param traceEntities    the TraceEntities to write.
+   */
+  @WorkerThread
+  private void writeBatch(@NonNull final List<MetricEntity> metricEntities,
+                          @NonNull final List<ResourceEntity> resourceEntities,
+                          @NonNull final List<TraceEntity> traceEntities) {
+    traceDatabase.runInTransaction(() -> {
+      if (!metricEntities.isEmpty()) {
+        traceDatabase.getMetricDao().insertAll(metricEntities.toArray(new MetricEntity[0]));
+      }
+      if (!resourceEntities.isEmpty()) {
+        traceDatabase.getResourceDao()
+                     .insertAll(resourceEntities.toArray(new ResourceEntity[0]));
+      }
+      if (!traceEntities.isEmpty()) {
+        traceDatabase.getTraceDao().insertAll(traceEntities.toArray(new TraceEntity[0]));
+      }
+    });
+  }
+
   /**
    * Sets the trace database to use.
    *
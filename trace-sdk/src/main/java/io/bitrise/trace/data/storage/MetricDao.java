@@ -6,6 +6,7 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import io.bitrise.trace.data.metric.MetricEntity;
 import io.bitrise.trace.session.Session;
 import java.util.List;
@@ -26,14 +27,41 @@ public interface MetricDao {
   List<MetricEntity> getAll();
 
   /**
-   * Gets all the IDs of the {@link Session}s of the {@link MetricEntity}s.
+   * Checks if there is any {@link MetricEntity} in the database, without loading them.
+   *
+   * @return {@code true} if yes, {@code false} otherwise.
+   */
+  @Query("SELECT EXISTS(SELECT 1 FROM MetricEntity)")
+  boolean hasAny();
+
+  /**
+   * Checks if there is any {@link MetricEntity} with the given {@link Session} ID in the
+   * database, without loading them.
+   *
+   * @param sessionId the given Session ID.
+   * @return {@code true} if yes, {@code false} otherwise.
+   */
+  @Query("SELECT EXISTS(SELECT 1 FROM MetricEntity WHERE sessionId = :sessionId)")
+  boolean hasSessionId(@NonNull String sessionId);
+
+  /**
+   * Gets the distinct IDs of the {@link Session}s of the {@link MetricEntity}s.
    *
    * @return the List of Session IDs.
    */
   @NonNull
-  @Query("SELECT sessionId FROM MetricEntity")
+  @Query("SELECT DISTINCT sessionId FROM MetricEntity")
   List<String> getSessionIds();
 
+  /**
+   * Gets the ID of the {@link Session} of the oldest {@link MetricEntity}.
+   *
+   * @return the Session ID, or {@code null} when there are no MetricEntities.
+   */
+  @Nullable
+  @Query("SELECT sessionId FROM MetricEntity ORDER BY timeStamp ASC LIMIT 1")
+  String getOldestSessionId();
+
   /**
    * Gets all the {@link MetricEntity}s with the given {@link Session} ID.
    *
@@ -44,6 +72,20 @@ public interface MetricDao {
   @Query("SELECT * FROM MetricEntity WHERE sessionId IN (:sessionId)")
   List<MetricEntity> getBySessionId(@NonNull String sessionId);
 
+  /**
+   * Gets a page of the {@link MetricEntity}s with the given {@link Session} ID, ordered by their
+   * time stamps.
+   *
+   * @param sessionId the given Session ID.
+   * @param limit     the maximum number of MetricEntities to return.
+   * @param offset    the number of MetricEntities to skip.
+   * @return the MetricEntities with the given Session ID on the given page.
+   */
+  @NonNull
+  @Query("SELECT * FROM MetricEntity WHERE sessionId = :sessionId ORDER BY timeStamp ASC "
+      + "LIMIT :limit OFFSET :offset")
+  List<MetricEntity> getBySessionId(@NonNull String sessionId, int limit, int offset);
+
   /**
    * Gets the {@link MetricEntity} from the database.
    *
@@ -70,6 +112,31 @@ public interface MetricDao {
   @Query("DELETE FROM MetricEntity WHERE metricId IN (:metricId)")
   void deleteById(@NonNull String metricId);
 
+  /**
+   * Deletes the {@link MetricEntity}s with the given IDs from the database in a single
+   * statement. The number of IDs should not exceed {@link TraceDatabase#MAX_BIND_PARAMETERS},
+   * use {@link #deleteByIds(List)} for larger sets.
+   *
+   * @param metricIds the IDs of the MetricEntities to delete.
+   */
+  @Query("DELETE FROM MetricEntity WHERE metricId IN (:metricIds)")
+  void deleteByIdChunk(@NonNull List<String> metricIds);
+
+  /**
+   * Deletes the {@link MetricEntity}s with the given IDs from the database in a single
+   * transaction. The IDs are split into chunks of {@link TraceDatabase#MAX_BIND_PARAMETERS}.
+   *
+   * @param metricIds the IDs of the MetricEntities to delete.
+   */
+  @Transaction
+  default void deleteByIds(@NonNull final List<String> metricIds) {
+    final int size = metricIds.size();
+    for (int i = 0; i < size; i += TraceDatabase.MAX_BIND_PARAMETERS) {
+      final int end = Math.min(size, i + TraceDatabase.MAX_BIND_PARAMETERS);
+      deleteByIdChunk(metricIds.subList(i, end));
+    }
+  }
+
   /**
    * Deletes all the {@link MetricEntity}s from the database.
    */
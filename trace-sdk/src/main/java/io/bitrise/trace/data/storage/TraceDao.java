@@ -6,6 +6,7 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import io.bitrise.trace.data.trace.TraceEntity;
 import io.bitrise.trace.session.Session;
 import java.util.List;
@@ -26,14 +27,41 @@ public interface TraceDao {
   List<TraceEntity> getAll();
 
   /**
-   * Gets all the IDs of the {@link Session}s of the {@link TraceEntity}s.
+   * Checks if there is any {@link TraceEntity} in the database, without loading them.
+   *
+   * @return {@code true} if yes, {@code false} otherwise.
+   */
+  @Query("SELECT EXISTS(SELECT 1 FROM TraceEntity)")
+  boolean hasAny();
+
+  /**
+   * Checks if there is any {@link TraceEntity} with the given {@link Session} ID in the
+   * database, without loading them.
+   *
+   * @param sessionId the given Session ID.
+   * @return {@code true} if yes, {@code false} otherwise.
+   */
+  @Query("SELECT EXISTS(SELECT 1 FROM TraceEntity WHERE sessionId = :sessionId)")
+  boolean hasSessionId(@NonNull String sessionId);
+
+  /**
+   * Gets the distinct IDs of the {@link Session}s of the {@link TraceEntity}s.
    *
    * @return the List of Session IDs.
    */
   @NonNull
-  @Query("SELECT sessionId FROM TraceEntity")
+  @Query("SELECT DISTINCT sessionId FROM TraceEntity")
   List<String> getSessionIds();
 
+  /**
+   * Gets the ID of the {@link Session} of the oldest {@link TraceEntity}.
+   *
+   * @return the Session ID, or {@code null} when there are no TraceEntities.
+   */
+  @Nullable
+  @Query("SELECT sessionId FROM TraceEntity ORDER BY timeStamp ASC LIMIT 1")
+  String getOldestSessionId();
+
   /**
    * Gets all the {@link TraceEntity}s with the given {@link Session} ID.
    *
@@ -45,7 +73,23 @@ public interface TraceDao {
   List<TraceEntity> getBySessionId(@NonNull String sessionId);
 
   /**
-   * Gets the {@link TraceEntity} with the given ID from the database.
+   * Gets a page of the {@link TraceEntity}s with the given {@link Session} ID, ordered by their
+   * time stamps.
+   *
+   * @param sessionId the given Session ID.
+   * @param limit     the maximum number of TraceEntities to return.
+   * @param offset    the number of TraceEntities to skip.
+   * @return the TraceEntities with the given Session ID on the given page.
+   */
+  @NonNull
+  @Query("SELECT * FROM TraceEntity WHERE sessionId = :sessionId ORDER BY timeStamp ASC "
+      + "LIMIT :limit OFFSET :offset")
+  List<TraceEntity> getBySessionId(@NonNull String sessionId, int limit, int offset);
+
+  /**
+   * Gets a {@link TraceEntity} with the given Trace ID from the database. When the Trace was
+   * split into segments, any of its segments can be returned, use
+   * {@link #getBySegmentId(String)} to get a given segment.
    *
    * @param traceId the ID to search for.
    * @return the Trace, or {@code null} when not found.
@@ -54,6 +98,16 @@ public interface TraceDao {
   @Query("SELECT * FROM TraceEntity WHERE traceId IN (:traceId)")
   TraceEntity getById(@NonNull String traceId);
 
+  /**
+   * Gets the {@link TraceEntity} with the given segment ID from the database.
+   *
+   * @param segmentId the segment ID to search for.
+   * @return the Trace, or {@code null} when not found.
+   */
+  @Nullable
+  @Query("SELECT * FROM TraceEntity WHERE segmentId = :segmentId")
+  TraceEntity getBySegmentId(@NonNull String segmentId);
+
   /**
    * Inserts the given {@link TraceEntity}s to the database. Replaces if there is a conflict.
    *
@@ -63,12 +117,38 @@ public interface TraceDao {
   void insertAll(@NonNull TraceEntity... traceEntities);
 
   /**
-   * Deletes the given {@link TraceEntity} from the database.
+   * Deletes the given segment of a {@link TraceEntity} from the database. The other segments
+   * of the same Trace are kept.
+   *
+   * @param segmentId the segment ID of the Trace to delete.
+   */
+  @Query("DELETE FROM TraceEntity WHERE segmentId = :segmentId")
+  void deleteBySegmentId(@NonNull String segmentId);
+
+  /**
+   * Deletes the {@link TraceEntity}s with the given segment IDs from the database in a single
+   * statement. The number of IDs should not exceed {@link TraceDatabase#MAX_BIND_PARAMETERS},
+   * use {@link #deleteBySegmentIds(List)} for larger sets.
+   *
+   * @param segmentIds the segment IDs of the TraceEntities to delete.
+   */
+  @Query("DELETE FROM TraceEntity WHERE segmentId IN (:segmentIds)")
+  void deleteBySegmentIdChunk(@NonNull List<String> segmentIds);
+
+  /**
+   * Deletes the {@link TraceEntity}s with the given segment IDs from the database in a single
+   * transaction. The IDs are split into chunks of {@link TraceDatabase#MAX_BIND_PARAMETERS}.
    *
-   * @param traceId the ID of the Trace to delete.
+   * @param segmentIds the segment IDs of the TraceEntities to delete.
    */
-  @Query("DELETE FROM TraceEntity WHERE traceId = :traceId")
-  void deleteById(@NonNull String traceId);
+  @Transaction
+  default void deleteBySegmentIds(@NonNull final List<String> segmentIds) {
+    final int size = segmentIds.size();
+    for (int i = 0; i < size; i += TraceDatabase.MAX_BIND_PARAMETERS) {
+      final int end = Math.min(size, i + TraceDatabase.MAX_BIND_PARAMETERS);
+      deleteBySegmentIdChunk(segmentIds.subList(i, end));
+    }
+  }
 
   /**
    * Deletes all the {@link TraceEntity}s from the database.
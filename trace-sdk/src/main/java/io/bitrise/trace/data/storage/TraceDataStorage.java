@@ -28,7 +28,9 @@ public class TraceDataStorage extends DataStorage {
    */
   private TraceDataStorage(@NonNull final Context context) {
     this.traceDatabase =
-        Room.databaseBuilder(context, TraceDatabase.class, "trace-database").build();
+        Room.databaseBuilder(context, TraceDatabase.class, "trace-database")
+            .addMigrations(TraceDatabaseMigrations.ALL_MIGRATIONS)
+            .build();
   }
 
   /**
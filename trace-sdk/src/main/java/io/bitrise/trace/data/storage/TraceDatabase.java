@@ -11,16 +11,24 @@ import io.bitrise.trace.data.trace.TraceEntity;
 /**
  * Database class for storing {@link TraceEntity}s, {@link MetricEntity}s and
  * {@link ResourceEntity}s. Each entity will have it's own table in the database. Each member in
- * the given entities will be the columns in the tables.
+ * the given entities will be the columns in the tables. The
+ * {@link androidx.room.migration.Migration}s between the versions are in
+ * {@link TraceDatabaseMigrations}.
  */
 @Database(entities = {
     TraceEntity.class,
     MetricEntity.class,
     ResourceEntity.class,
     CrashEntity.class
-}, version = 2)
+}, version = 5)
 public abstract class TraceDatabase extends RoomDatabase {
 
+  /**
+   * The maximum number of values bound in a single query. SQLite limits the number of host
+   * parameters to 999 on older versions, so larger sets have to be split into chunks.
+   */
+  public static final int MAX_BIND_PARAMETERS = 900;
+
   /**
    * Gets the {@link TraceDao} to interact with {@link TraceEntity}s.
    *
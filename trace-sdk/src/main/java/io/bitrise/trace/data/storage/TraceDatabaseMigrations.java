@@ -0,0 +1,155 @@
+package io.bitrise.trace.data.storage;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import io.bitrise.trace.data.metric.MetricConverter;
+import io.bitrise.trace.data.metric.MetricEntity;
+import io.bitrise.trace.data.resource.ResourceEntity;
+import io.bitrise.trace.data.trace.Trace;
+import io.bitrise.trace.data.trace.TraceConverter;
+import io.bitrise.trace.data.trace.TraceEntity;
+
+/**
+ * The {@link Migration}s between the versions of the {@link TraceDatabase}.
+ */
+public final class TraceDatabaseMigrations {
+
+  /**
+   * Migrates the {@link MetricEntity} and {@link TraceEntity} tables from storing the Metrics
+   * and Traces as JSON text to storing them in their binary protobuf format.
+   */
+  @NonNull
+  public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+    @Override
+    public void migrate(@NonNull final SupportSQLiteDatabase database) {
+      migrateMetricsToBlob(database);
+      migrateTracesToBlob(database);
+    }
+  };
+
+  /**
+   * Adds indices for the sessionId columns of the {@link MetricEntity}, {@link TraceEntity} and
+   * {@link ResourceEntity} tables, and for the timeStamp columns of the MetricEntity and
+   * TraceEntity tables.
+   */
+  @NonNull
+  public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+    @Override
+    public void migrate(@NonNull final SupportSQLiteDatabase database) {
+      database.execSQL("CREATE INDEX IF NOT EXISTS `index_TraceEntity_sessionId` "
+          + "ON `TraceEntity` (`sessionId`)");
+      database.execSQL("CREATE INDEX IF NOT EXISTS `index_TraceEntity_timeStamp` "
+          + "ON `TraceEntity` (`timeStamp`)");
+      database.execSQL("CREATE INDEX IF NOT EXISTS `index_MetricEntity_sessionId` "
+          + "ON `MetricEntity` (`sessionId`)");
+      database.execSQL("CREATE INDEX IF NOT EXISTS `index_MetricEntity_timeStamp` "
+          + "ON `MetricEntity` (`timeStamp`)");
+      database.execSQL("CREATE INDEX IF NOT EXISTS `index_ResourceEntity_sessionId` "
+          + "ON `ResourceEntity` (`sessionId`)");
+    }
+  };
+
+  /**
+   * Recreates the {@link TraceEntity} table with a segmentId primary key, so a Trace can be
+   * stored in multiple segments. The stored Traces become the first segments, their segment ID
+   * is their trace ID.
+   */
+  @NonNull
+  public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+    @Override
+    public void migrate(@NonNull final SupportSQLiteDatabase database) {
+      database.execSQL("CREATE TABLE IF NOT EXISTS `TraceEntity_new` (`segmentId` TEXT NOT NULL, "
+          + "`traceId` TEXT NOT NULL, `trace` BLOB NOT NULL, `timeStamp` INTEGER NOT NULL, "
+          + "`sessionId` TEXT NOT NULL, PRIMARY KEY(`segmentId`))");
+      database.execSQL("INSERT INTO `TraceEntity_new` "
+          + "(`segmentId`, `traceId`, `trace`, `timeStamp`, `sessionId`) "
+          + "SELECT `traceId`, `traceId`, `trace`, `timeStamp`, `sessionId` FROM `TraceEntity`");
+      database.execSQL("DROP TABLE `TraceEntity`");
+      database.execSQL("ALTER TABLE `TraceEntity_new` RENAME TO `TraceEntity`");
+      database.execSQL("CREATE INDEX IF NOT EXISTS `index_TraceEntity_traceId` "
+          + "ON `TraceEntity` (`traceId`)");
+      database.execSQL("CREATE INDEX IF NOT EXISTS `index_TraceEntity_sessionId` "
+          + "ON `TraceEntity` (`sessionId`)");
+      database.execSQL("CREATE INDEX IF NOT EXISTS `index_TraceEntity_timeStamp` "
+          + "ON `TraceEntity` (`timeStamp`)");
+    }
+  };
+
+  /**
+   * All the Migrations of the TraceDatabase, in the order of the versions.
+   */
+  @NonNull
+  static final Migration[] ALL_MIGRATIONS = {MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5};
+
+  /**
+   * Constructor to prevent instantiation outside of the class.
+   */
+  private TraceDatabaseMigrations() {
+    // nop
+  }
+
+  /**
+   * Recreates the MetricEntity table with a BLOB metric column and converts the stored JSON
+   * values with the {@link MetricConverter}.
+   *
+   * @param database the database to migrate.
+   */
+  private static void migrateMetricsToBlob(@NonNull final SupportSQLiteDatabase database) {
+    database.execSQL("CREATE TABLE IF NOT EXISTS `MetricEntity_new` (`metric` BLOB NOT NULL, "
+        + "`metricId` TEXT NOT NULL, `sessionId` TEXT NOT NULL, `timeStamp` INTEGER NOT NULL, "
+        + "PRIMARY KEY(`metricId`))");
+
+    try (Cursor cursor = database.query(
+        "SELECT `metric`, `metricId`, `sessionId`, `timeStamp` FROM `MetricEntity`")) {
+      while (cursor.moveToNext()) {
+        final ContentValues values = new ContentValues();
+        values.put("metric",
+            MetricConverter.toByteArray(MetricConverter.toMetric(cursor.getString(0))));
+        values.put("metricId", cursor.getString(1));
+        values.put("sessionId", cursor.getString(2));
+        values.put("timeStamp", cursor.getLong(3));
+        database.insert("MetricEntity_new", SQLiteDatabase.CONFLICT_REPLACE, values);
+      }
+    }
+
+    database.execSQL("DROP TABLE `MetricEntity`");
+    database.execSQL("ALTER TABLE `MetricEntity_new` RENAME TO `MetricEntity`");
+  }
+
+  /**
+   * Recreates the TraceEntity table with a BLOB trace column and converts the stored JSON
+   * values with the {@link TraceConverter}. The trace and session IDs are taken from the
+   * columns of the table, as they are the same as the ones in the stored JSON.
+   *
+   * @param database the database to migrate.
+   */
+  private static void migrateTracesToBlob(@NonNull final SupportSQLiteDatabase database) {
+    database.execSQL("CREATE TABLE IF NOT EXISTS `TraceEntity_new` (`traceId` TEXT NOT NULL, "
+        + "`trace` BLOB NOT NULL, `timeStamp` INTEGER NOT NULL, `sessionId` TEXT NOT NULL, "
+        + "PRIMARY KEY(`traceId`))");
+
+    try (Cursor cursor = database.query(
+        "SELECT `traceId`, `trace`, `timeStamp`, `sessionId` FROM `TraceEntity`")) {
+      while (cursor.moveToNext()) {
+        final String traceId = cursor.getString(0);
+        final String sessionId = cursor.getString(3);
+        final Trace trace =
+            new Trace(traceId, sessionId, TraceConverter.toSpanList(cursor.getString(1)));
+
+        final ContentValues values = new ContentValues();
+        values.put("traceId", traceId);
+        values.put("trace", TraceConverter.toByteArray(trace));
+        values.put("timeStamp", cursor.getLong(2));
+        values.put("sessionId", sessionId);
+        database.insert("TraceEntity_new", SQLiteDatabase.CONFLICT_REPLACE, values);
+      }
+    }
+
+    database.execSQL("DROP TABLE `TraceEntity`");
+    database.execSQL("ALTER TABLE `TraceEntity_new` RENAME TO `TraceEntity`");
+  }
+}
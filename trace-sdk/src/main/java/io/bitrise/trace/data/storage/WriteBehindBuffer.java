@@ -0,0 +1,279 @@
+package io.bitrise.trace.data.storage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+import io.bitrise.trace.data.metric.MetricEntity;
+import io.bitrise.trace.data.resource.ResourceEntity;
+import io.bitrise.trace.data.trace.TraceEntity;
+import io.bitrise.trace.utils.log.LogMessageConstants;
+import io.bitrise.trace.utils.log.TraceLog;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In memory buffer in front of the {@link DataStorage}. Collects the {@link MetricEntity},
+ * {@link ResourceEntity} and {@link TraceEntity} writes and hands them over to a
+ * {@link BatchWriter} in a single batch, when the number of pending entities reaches the
+ * {@link #maxSize}, or when the oldest pending entity is older than the {@link #maxAgeMs}.
+ * {@link #flush()} can be called to write the pending entities synchronously, e.g. before
+ * reading from the storage, when the application goes to the background or when it crashes.
+ */
+public class WriteBehindBuffer {
+
+  /**
+   * The default number of pending entities that triggers a flush.
+   */
+  static final int DEFAULT_MAX_SIZE = 50;
+
+  /**
+   * The default maximum time in milliseconds an entity can wait in the buffer.
+   */
+  static final long DEFAULT_MAX_AGE_MS = 5000;
+
+  /**
+   * Lock object for the pending entities.
+   */
+  @NonNull
+  private final Object bufferLock = new Object();
+
+  /**
+   * Lock object to make sure that only one flush writes to the storage at the same time.
+   */
+  @NonNull
+  private final Object flushLock = new Object();
+
+  @NonNull
+  private final BatchWriter batchWriter;
+
+  private final int maxSize;
+
+  private final long maxAgeMs;
+
+  @NonNull
+  private List<MetricEntity> pendingMetrics = new ArrayList<>();
+
+  @NonNull
+  private List<ResourceEntity> pendingResources = new ArrayList<>();
+
+  @NonNull
+  private List<TraceEntity> pendingTraces = new ArrayList<>();
+
+  /**
+   * The {@link ScheduledExecutorService} that runs the triggered flushes.
+   */
+  @VisibleForTesting
+  @Nullable
+  ScheduledExecutorService flushExecutor;
+
+  /**
+   * The ScheduledFuture of the flush that is triggered by the {@link #maxAgeMs}.
+   */
+  @Nullable
+  private ScheduledFuture<?> scheduledFlush;
+
+  /**
+   * Constructor for class. Uses the {@link #DEFAULT_MAX_SIZE} and {@link #DEFAULT_MAX_AGE_MS}.
+   *
+   * @param batchWriter the {@link BatchWriter} that writes the pending entities.
+   */
+  public WriteBehindBuffer(@NonNull final BatchWriter batchWriter) {
+    this(batchWriter, DEFAULT_MAX_SIZE, DEFAULT_MAX_AGE_MS);
+  }
+
+  /**
+   * Constructor for class.
+   *
+   * @param batchWriter the {@link BatchWriter} that writes the pending entities.
+   * @param maxSize     the number of pending entities that triggers a flush.
+   * @param maxAgeMs    the maximum time in milliseconds an entity can wait in the buffer.
+   */
+  public WriteBehindBuffer(@NonNull final BatchWriter batchWriter, final int maxSize,
+                           final long maxAgeMs) {
+    this.batchWriter = batchWriter;
+    this.maxSize = maxSize;
+    this.maxAgeMs = maxAgeMs;
+  }
+
+  /**
+   * Adds the given {@link MetricEntity} to the buffer.
+   *
+   * @param metricEntity the MetricEntity to add.
+   */
+  public void addMetric(@NonNull final MetricEntity metricEntity) {
+    synchronized (bufferLock) {
+      pendingMetrics.add(metricEntity);
+      onEntityAdded();
+    }
+  }
+
+  /**
+   * Adds the given {@link ResourceEntity} to the buffer.
+   *
+   * @param resourceEntity the ResourceEntity to add.
+   */
+  public void addResource(@NonNull final ResourceEntity resourceEntity) {
+    synchronized (bufferLock) {
+      pendingResources.add(resourceEntity);
+      onEntityAdded();
+    }
+  }
+
+  /**
+   * Adds the given {@link TraceEntity} to the buffer.
+   *
+   * @param traceEntity the TraceEntity to add.
+   */
+  public void addTrace(@NonNull final TraceEntity traceEntity) {
+    synchronized (bufferLock) {
+      pendingTraces.add(traceEntity);
+      onEntityAdded();
+    }
+  }
+
+  /**
+   * Gets the number of entities that are waiting to be written.
+   *
+   * @return the number of pending entities.
+   */
+  public int getPendingCount() {
+    synchronized (bufferLock) {
+      return pendingMetrics.size() + pendingResources.size() + pendingTraces.size();
+    }
+  }
+
+  /**
+   * Writes all the pending entities with the {@link BatchWriter} on the calling thread. When
+   * the write fails, the entities are kept in the buffer for the next flush, and the failure is
+   * thrown.
+   *
+   * <p>Should not be called on the main thread.
+   */
+  @WorkerThread
+  public void flush() {
+    synchronized (flushLock) {
+      final List<MetricEntity> metrics;
+      final List<ResourceEntity> resources;
+      final List<TraceEntity> traces;
+      synchronized (bufferLock) {
+        if (scheduledFlush != null) {
+          scheduledFlush.cancel(false);
+          scheduledFlush = null;
+        }
+        if (pendingMetrics.isEmpty() && pendingResources.isEmpty() && pendingTraces.isEmpty()) {
+          return;
+        }
+        metrics = pendingMetrics;
+        resources = pendingResources;
+        traces = pendingTraces;
+        pendingMetrics = new ArrayList<>();
+        pendingResources = new ArrayList<>();
+        pendingTraces = new ArrayList<>();
+      }
+
+      try {
+        batchWriter.writeBatch(metrics, resources, traces);
+      } catch (final RuntimeException e) {
+        requeue(metrics, resources, traces);
+        throw e;
+      }
+      TraceLog.d(String.format(Locale.ENGLISH, LogMessageConstants.WRITE_BEHIND_BUFFER_FLUSHED,
+          metrics.size(), resources.size(), traces.size()));
+    }
+  }
+
+  /**
+   * Puts back a batch that could not be written in front of the entities that were added
+   * during the write, so they keep their order, and schedules a retry within the
+   * {@link #maxAgeMs}.
+   *
+   * @param metrics   the MetricEntities of the failed batch.
+   * @param resources the ResourceEntities of the failed batch.
+   * @param traces    the TraceEntities of the failed batch.
+   */
+  private void requeue(@NonNull final List<MetricEntity> metrics,
+                       @NonNull final List<ResourceEntity> resources,
+                       @NonNull final List<TraceEntity> traces) {
+    synchronized (bufferLock) {
+      metrics.addAll(pendingMetrics);
+      resources.addAll(pendingResources);
+      traces.addAll(pendingTraces);
+      pendingMetrics = metrics;
+      pendingResources = resources;
+      pendingTraces = traces;
+      if (scheduledFlush == null || scheduledFlush.isDone()) {
+        scheduledFlush =
+            getFlushExecutor().schedule(this::flushQuietly, maxAgeMs, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  /**
+   * Called after an entity was added to the buffer. Triggers an immediate flush when the
+   * {@link #maxSize} is reached, otherwise makes sure a flush is scheduled within the
+   * {@link #maxAgeMs}. Should be called while holding the {@link #bufferLock}.
+   */
+  private void onEntityAdded() {
+    final int pendingCount =
+        pendingMetrics.size() + pendingResources.size() + pendingTraces.size();
+    if (pendingCount >= maxSize) {
+      if (scheduledFlush != null) {
+        scheduledFlush.cancel(false);
+      }
+      scheduledFlush =
+          getFlushExecutor().schedule(this::flushQuietly, 0, TimeUnit.MILLISECONDS);
+    } else if (scheduledFlush == null || scheduledFlush.isDone()) {
+      scheduledFlush =
+          getFlushExecutor().schedule(this::flushQuietly, maxAgeMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Calls {@link #flush()} and logs the failures instead of throwing them, as the exceptions
+   * of the scheduled flushes would be swallowed by the {@link #flushExecutor}.
+   */
+  @WorkerThread
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (final RuntimeException e) {
+      TraceLog.w(e);
+    }
+  }
+
+  @NonNull
+  private ScheduledExecutorService getFlushExecutor() {
+    if (flushExecutor == null) {
+      flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "trace-write-behind");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return flushExecutor;
+  }
+
+  /**
+   * Writes a batch of entities to the storage.
+   */
+  public interface BatchWriter {
+
+    /**
+     * Writes the given entities to the storage, preferably in a single transaction.
+     *
+     * @param metricEntities   the MetricEntities to write.
+     * @param resourceEntities the ResourceEntities to write.
+     * @param traceEntities    the TraceEntities to write.
+     */
+    @WorkerThread
+    void writeBatch(@NonNull List<MetricEntity> metricEntities,
+                    @NonNull List<ResourceEntity> resourceEntities,
+                    @NonNull List<TraceEntity> traceEntities);
+  }
+}
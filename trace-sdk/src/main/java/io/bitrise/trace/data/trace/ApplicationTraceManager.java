@@ -4,23 +4,48 @@ import android.content.Context;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
-import com.google.protobuf.ByteString;
+import io.bitrise.trace.data.management.IngestPipeline;
 import io.bitrise.trace.data.storage.DataStorage;
 import io.bitrise.trace.data.storage.TraceDataStorage;
 import io.bitrise.trace.utils.UniqueIdGenerator;
 import io.bitrise.trace.utils.log.LogMessageConstants;
 import io.bitrise.trace.utils.log.TraceLog;
 import io.opencensus.proto.trace.v1.Span;
-import java.nio.charset.Charset;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Singleton;
 
 /**
- * Implementation for {@link TraceManager}.
+ * Implementation for {@link TraceManager}. Adding {@link Span}s does not take a lock, so the
+ * network, lifecycle and user threads can report Spans without contending with each other, only
+ * starting and stopping the active {@link Trace} is synchronized.
+ *
+ * <p>When the Spans of the active Trace reach {@link #MAX_SEGMENT_SPAN_COUNT} or
+ * {@link #MAX_SEGMENT_BYTES}, the current segment of the Trace is closed and saved in the
+ * background, and the Trace continues in a new segment with the same trace ID. This way the
+ * memory used by a long running Trace stays bounded, and every Span is still delivered. The
+ * same happens on each {@link #checkpointActiveTrace() checkpoint}, that should be called every
+ * {@link #CHECKPOINT_INTERVAL_MS}, so the Spans are stored and can be sent while the Trace is
+ * still running, and they are not lost when the process is killed.
  */
 @Singleton
 public class ApplicationTraceManager implements TraceManager {
 
+  /**
+   * The maximum number of {@link Span}s kept in the memory for a segment of a {@link Trace}.
+   */
+  public static final int MAX_SEGMENT_SPAN_COUNT = 500;
+
+  /**
+   * The maximum size in bytes of the {@link Span}s kept in the memory for a segment of a
+   * {@link Trace}.
+   */
+  public static final long MAX_SEGMENT_BYTES = 256 * 1024;
+
+  /**
+   * The interval of the {@link #checkpointActiveTrace() checkpoints} in milliseconds.
+   */
+  public static final long CHECKPOINT_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);
+
   @NonNull
   private static final Object applicationTraceManagerLock = new Object();
   @NonNull
@@ -31,7 +56,7 @@ public class ApplicationTraceManager implements TraceManager {
   @NonNull
   DataStorage dataStorage;
   @Nullable
-  private Trace activeTrace;
+  private volatile Trace activeTrace;
   @Nullable
   private String rootSpanId;
 
@@ -117,18 +142,106 @@ public class ApplicationTraceManager implements TraceManager {
 
   @Override
   public void addSpanToActiveTrace(@NonNull final Span span) {
+    while (true) {
+      final Trace trace = getOrStartActiveTrace();
+      final Span updatedSpan = span.getTraceId().equals(trace.getTraceIdByteString())
+          ? span
+          : span.toBuilder().setTraceId(trace.getTraceIdByteString()).build();
+      if (trace.addSpan(updatedSpan)) {
+        if (trace.isLimitReached(getMaxSegmentSpanCount(), getMaxSegmentBytes())) {
+          startNextSegment(trace);
+        }
+        return;
+      }
+      // the Trace was stopped in the meantime, the Span belongs to the next one
+    }
+  }
+
+  @Override
+  public void checkpointActiveTrace() {
+    final Trace trace = activeTrace;
+    if (trace != null && trace.getAddedSpanCount() > 0) {
+      startNextSegment(trace);
+    }
+  }
+
+  /**
+   * Gets the maximum number of {@link Span}s of a segment of a {@link Trace}.
+   *
+   * @return the maximum number of Spans.
+   */
+  @VisibleForTesting
+  int getMaxSegmentSpanCount() {
+    return MAX_SEGMENT_SPAN_COUNT;
+  }
+
+  /**
+   * Gets the maximum size in bytes of the {@link Span}s of a segment of a {@link Trace}.
+   *
+   * @return the maximum size in bytes.
+   */
+  @VisibleForTesting
+  long getMaxSegmentBytes() {
+    return MAX_SEGMENT_BYTES;
+  }
+
+  /**
+   * Closes and saves the given segment of the active {@link Trace}, and continues the Trace in
+   * a new segment. The last view Span of the closed segment is carried over to the new one, so
+   * a crash can still be linked to it. Does nothing if the given segment is no longer active,
+   * e.g. another thread already started the next segment, or the Trace was stopped.
+   *
+   * @param segment the segment to save.
+   */
+  private synchronized void startNextSegment(@NonNull final Trace segment) {
+    synchronized (activeTraceLock) {
+      if (activeTrace != segment) {
+        return;
+      }
+      final Trace nextSegment = segment.createNextSegment();
+      activeTrace = nextSegment;
+      segment.close();
+      nextSegment.setPreviousSegmentViewSpan(segment.getLastActiveViewSpan());
+      IngestPipeline.getInstance().executeReliably(() -> dataStorage.saveTraces(segment));
+      TraceLog.d(LogMessageConstants.APPLICATION_TRACE_SEGMENT_SAVED);
+    }
+  }
+
+  /**
+   * Gets the active {@link Trace}, or starts a new one if there is none.
+   *
+   * @return the active Trace.
+   */
+  @NonNull
+  private Trace getOrStartActiveTrace() {
+    final Trace trace = activeTrace;
+    if (trace != null) {
+      return trace;
+    }
+    return startTraceIfNotActive();
+  }
+
+  /**
+   * Starts a new {@link Trace} if there is no active one. Locks in the same order as
+   * {@link #startTrace()} and {@link #stopTrace()}.
+   *
+   * @return the active Trace.
+   */
+  @NonNull
+  private synchronized Trace startTraceIfNotActive() {
     synchronized (activeTraceLock) {
       if (activeTrace == null) {
         startTrace();
       }
-      final Span updatedSpan = span.toBuilder()
-                                   .setTraceId(ByteString.copyFrom(activeTrace.getTraceId(),
-                                       Charset.defaultCharset()))
-                                   .build();
-      activeTrace.addSpan(updatedSpan);
+      return activeTrace;
     }
   }
 
+  /**
+   * Stops the active {@link Trace} and saves its last segment. A later segment without
+   * {@link Span}s is not saved, e.g. when the Trace is stopped right after a checkpoint, as the
+   * previous segments already contain every Span of the Trace.
+   */
   @Override
   public synchronized void stopTrace() {
     synchronized (activeTraceLock) {
@@ -138,7 +251,10 @@ public class ApplicationTraceManager implements TraceManager {
       final Trace traceToSave = activeTrace;
       activeTrace = null;
       rootSpanId = null;
-      Executors.newSingleThreadExecutor().submit(() -> dataStorage.saveTraces(traceToSave));
+      traceToSave.close();
+      if (traceToSave.getSegmentIndex() == 0 || traceToSave.getAddedSpanCount() > 0) {
+        IngestPipeline.getInstance().executeReliably(() -> dataStorage.saveTraces(traceToSave));
+      }
       TraceLog.d(LogMessageConstants.APPLICATION_TRACE_STOPPED);
     }
   }
@@ -4,6 +4,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.room.Ignore;
+import com.google.protobuf.ByteString;
 import io.bitrise.trace.data.storage.TraceDatabase;
 import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.session.Session;
@@ -12,11 +13,26 @@ import io.bitrise.trace.utils.TraceClock;
 import io.bitrise.trace.utils.UniqueIdGenerator;
 import io.opencensus.proto.trace.v1.Span;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Data class for Traces.
+ *
+ * <p>{@link #addSpan(Span)} can be called from multiple threads without locking: the added
+ * {@link Span}s are put to a lock-free queue, and they are moved to the {@link #spanList} only
+ * when it is read. Readers get a snapshot of the Span List, see {@link #getSpanList()}. When
+ * the Trace is {@link #close() closed}, no more Spans can be added to it, so the Span List does
+ * not change any more. The fields used for this are transient, as they are not part of the
+ * stored value.
+ *
+ * <p>A long running Trace can be split into segments, to keep the number of Spans in the memory
+ * bounded, see {@link #createNextSegment()}. The segments share the trace ID, and each of them is
+ * stored separately with its own {@link #getSegmentId() segment ID}.
  */
 public class Trace {
 
@@ -38,6 +54,51 @@ public class Trace {
   @NonNull
   private String sessionId;
 
+  /**
+   * The index of this segment of the Trace, 0 for the first segment. It is stored by the
+   * {@link TraceConverter} in the binary format, the earlier JSON format did not have segments.
+   */
+  private transient int segmentIndex;
+
+  /**
+   * The {@link Span}s that were added, but not yet moved to the {@link #spanList}.
+   */
+  @NonNull
+  private final transient ConcurrentLinkedQueue<Span> pendingSpans = new ConcurrentLinkedQueue<>();
+
+  /**
+   * The number of {@link #addSpan(Span)} calls in progress.
+   */
+  @NonNull
+  private final transient AtomicInteger activeWriterCount = new AtomicInteger();
+
+  /**
+   * The approximate size in bytes of the {@link Span}s added with {@link #addSpan(Span)}.
+   */
+  @NonNull
+  private final transient AtomicLong addedSpanBytes = new AtomicLong();
+
+  /**
+   * The number of {@link Span}s added with {@link #addSpan(Span)}.
+   */
+  @NonNull
+  private final transient AtomicInteger addedSpanCount = new AtomicInteger();
+
+  private transient volatile boolean closed;
+
+  /**
+   * The {@link #traceId} as a ByteString, created only once for all the Spans of the Trace.
+   */
+  @Nullable
+  private transient volatile ByteString traceIdByteString;
+
+  /**
+   * The last view {@link Span} of the previous segments of the Trace, see
+   * {@link #getLastActiveViewSpan()}.
+   */
+  @Nullable
+  private transient volatile Span previousSegmentViewSpan;
+
   /**
    * Constructor for class. Used by {@link TraceDatabase}. This enables Room to create Trace
    * objects.
@@ -61,6 +122,37 @@ public class Trace {
     this.spanList = spanList;
   }
 
+  /**
+   * Constructor for restoring stored Traces. Does not require an active {@link Session}.
+   *
+   * @param traceId   the ID of the Trace.
+   * @param sessionId the ID of the Session of the Trace.
+   * @param spanList  the List of {@link Span}s for this Trace.
+   */
+  @Ignore
+  public Trace(@NonNull final String traceId, @NonNull final String sessionId,
+               @NonNull final List<Span> spanList) {
+    this(traceId, sessionId, spanList, 0);
+  }
+
+  /**
+   * Constructor for restoring stored segments of Traces. Does not require an active
+   * {@link Session}.
+   *
+   * @param traceId      the ID of the Trace.
+   * @param sessionId    the ID of the Session of the Trace.
+   * @param spanList     the List of {@link Span}s for this segment of the Trace.
+   * @param segmentIndex the index of the segment, 0 for the first segment.
+   */
+  @Ignore
+  public Trace(@NonNull final String traceId, @NonNull final String sessionId,
+               @NonNull final List<Span> spanList, final int segmentIndex) {
+    this.traceId = traceId;
+    this.sessionId = sessionId;
+    this.spanList = spanList;
+    this.segmentIndex = segmentIndex;
+  }
+
   /**
    * Gets the active {@link Session}'s ID, or throws IllegalStateException when there is no
    * active Session.
@@ -87,7 +179,8 @@ public class Trace {
     final Trace trace = (Trace) o;
     return traceId.equals(trace.traceId)
         && sessionId.equals(trace.sessionId)
-        && spanList.equals(trace.spanList);
+        && segmentIndex == trace.segmentIndex
+        && getSpanList().equals(trace.getSpanList());
   }
 
   @NonNull
@@ -97,6 +190,53 @@ public class Trace {
 
   public void setTraceId(@NonNull final String traceId) {
     this.traceId = traceId;
+    this.traceIdByteString = null;
+  }
+
+  /**
+   * Gets the {@link #traceId} as a {@link ByteString}, as it is required for the {@link Span}s.
+   * It is created only once, and shared by the Spans of this Trace.
+   *
+   * @return the ID of the Trace as a ByteString.
+   */
+  @NonNull
+  public ByteString getTraceIdByteString() {
+    ByteString byteString = traceIdByteString;
+    if (byteString == null) {
+      byteString = ByteStringConverter.toByteString(traceId);
+      traceIdByteString = byteString;
+    }
+    return byteString;
+  }
+
+  /**
+   * Gets the index of this segment of the Trace.
+   *
+   * @return the index of the segment, 0 for the first segment.
+   */
+  public int getSegmentIndex() {
+    return segmentIndex;
+  }
+
+  /**
+   * Gets the ID that identifies this segment of the Trace in the storage. It is the trace ID for
+   * the first segment, so the Traces that are not split are stored under their trace ID.
+   *
+   * @return the ID of the segment.
+   */
+  @NonNull
+  public String getSegmentId() {
+    return segmentIndex == 0 ? traceId : traceId + "-" + segmentIndex;
+  }
+
+  /**
+   * Creates the next, empty segment of this Trace, with the same trace and {@link Session} IDs.
+   *
+   * @return the next segment.
+   */
+  @NonNull
+  public Trace createNextSegment() {
+    return new Trace(traceId, sessionId, new ArrayList<>(), segmentIndex + 1);
   }
 
   @NonNull
@@ -109,22 +249,74 @@ public class Trace {
     this.sessionId = sessionId;
   }
 
+  /**
+   * Gets the List of {@link Span}s, including the ones that were added since the previous call.
+   * The returned List is an unmodifiable snapshot, that is copied under the lock, so it can be
+   * iterated while other threads add Spans to the Trace.
+   *
+   * @return the List of Spans.
+   */
   @NonNull
-  public List<Span> getSpanList() {
-    return spanList;
+  public synchronized List<Span> getSpanList() {
+    drainPendingSpans();
+    return Collections.unmodifiableList(new ArrayList<>(spanList));
   }
 
-  public void setSpanList(@NonNull final List<Span> spanList) {
+  public synchronized void setSpanList(@NonNull final List<Span> spanList) {
     this.spanList = spanList;
   }
 
   /**
-   * Finds the last active view style {@link Span}, or null if none can be found.
+   * Moves the {@link #pendingSpans} to the {@link #spanList}, keeping the order they were added.
+   */
+  private synchronized void drainPendingSpans() {
+    Span span;
+    while ((span = pendingSpans.poll()) != null) {
+      spanList.add(span);
+    }
+  }
+
+  /**
+   * Sets the last view {@link Span} of the previous segments of the Trace, so it is found by
+   * {@link #getLastActiveViewSpan()} when this segment does not have a later one.
+   *
+   * @param viewSpan the last view Span of the previous segment, or {@code null} if it has none.
+   */
+  public void setPreviousSegmentViewSpan(@Nullable final Span viewSpan) {
+    this.previousSegmentViewSpan = viewSpan;
+  }
+
+  /**
+   * Finds the last active view style {@link Span} of the Trace, including the previous segments
+   * of it, or null if none can be found.
    *
    * @return the Span that represents the last view on the screen.
    */
   @Nullable
   public Span getLastActiveViewSpan() {
+    final Span segmentViewSpan = findLastActiveViewSpan(getSpanList());
+    final Span previousViewSpan = previousSegmentViewSpan;
+    if (segmentViewSpan == null) {
+      return previousViewSpan;
+    }
+    if (previousViewSpan != null
+        && TraceClock.timestampToMillis(previousViewSpan.getStartTime())
+        > TraceClock.timestampToMillis(segmentViewSpan.getStartTime())) {
+      return previousViewSpan;
+    }
+    return segmentViewSpan;
+  }
+
+  /**
+   * Finds the last active view style {@link Span} in the given List, or null if none can be
+   * found.
+   *
+   * @param spanList the List of Spans.
+   * @return the Span that represents the last view on the screen.
+   */
+  @Nullable
+  private static Span findLastActiveViewSpan(@NonNull final List<Span> spanList) {
+
     // if we have zero spans - return null
     if (spanList.isEmpty()) {
       return null;
@@ -185,25 +377,82 @@ public class Trace {
   }
 
   /**
-   * Adds the given {@link Span} to the {@link #spanList}.
+   * Adds the given {@link Span} to the Trace, if it is not closed yet. Does not block, can be
+   * called from multiple threads.
    *
    * @param span the Span to add.
+   * @return {@code true} if the Span was added, {@code false} if the Trace was already closed.
+   */
+  public boolean addSpan(@NonNull final Span span) {
+    activeWriterCount.incrementAndGet();
+    try {
+      if (closed) {
+        return false;
+      }
+      pendingSpans.offer(span);
+      addedSpanCount.incrementAndGet();
+      addedSpanBytes.addAndGet(span.getSerializedSize());
+      return true;
+    } finally {
+      activeWriterCount.decrementAndGet();
+    }
+  }
+
+  /**
+   * Closes the Trace, so no more {@link Span}s can be added to it. Waits for the
+   * {@link #addSpan(Span)} calls in progress, so every Span that was reported as added is part of
+   * the {@link #getSpanList()} after this call.
+   */
+  public void close() {
+    closed = true;
+    while (activeWriterCount.get() > 0) {
+      Thread.yield();
+    }
+    drainPendingSpans();
+  }
+
+  /**
+   * Gets the number of {@link Span}s added with {@link #addSpan(Span)}.
+   *
+   * @return the number of added Spans.
+   */
+  public int getAddedSpanCount() {
+    return addedSpanCount.get();
+  }
+
+  /**
+   * Checks if the {@link Span}s added with {@link #addSpan(Span)} reached any of the given
+   * limits.
+   *
+   * @param maxSpanCount the maximum number of Spans.
+   * @param maxBytes     the maximum size of the Spans in bytes.
+   * @return {@code true} if any of the limits was reached, {@code false} otherwise.
+   */
+  public boolean isLimitReached(final int maxSpanCount, final long maxBytes) {
+    return addedSpanCount.get() >= maxSpanCount || addedSpanBytes.get() >= maxBytes;
+  }
+
+  /**
+   * Checks if the Trace is closed, see {@link #close()}.
+   *
+   * @return {@code true} if it is closed, {@code false} otherwise.
    */
-  public void addSpan(@NonNull final Span span) {
-    spanList.add(span);
+  public boolean isClosed() {
+    return closed;
   }
 
   @Override
   public String toString() {
     return "Trace{"
         + "traceId='" + traceId + '\''
-        + ", spanList=" + spanList
+        + ", spanList=" + getSpanList()
         + ", sessionId='" + sessionId + '\''
+        + ", segmentIndex=" + segmentIndex
         + '}';
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(traceId, spanList, sessionId);
+    return Objects.hash(traceId, getSpanList(), sessionId, segmentIndex);
   }
 }
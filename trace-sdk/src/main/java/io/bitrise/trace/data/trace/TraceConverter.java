@@ -3,24 +3,137 @@ package io.bitrise.trace.data.trace;
 import androidx.annotation.NonNull;
 import androidx.room.TypeConverter;
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.WireFormat;
 import io.bitrise.trace.network.NetworkClient;
 import io.bitrise.trace.utils.log.LogMessageConstants;
 import io.bitrise.trace.utils.log.TraceLog;
+import io.opencensus.proto.trace.v1.Span;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * Converter for {@link Trace} to store it in {@link io.bitrise.trace.data.storage.TraceDatabase}.
+ * From database version 3 the Traces are stored in a binary protobuf format, where the trace ID
+ * is field 1, the session ID is field 2 and the {@link Span}s are the repeated field 3. From
+ * database version 5 the index of the segment of the Trace is field 4, it is omitted for the
+ * first segment. The JSON conversion is kept for migrating the records of the earlier versions.
  */
 public class TraceConverter {
   private static final Gson gson = NetworkClient.getGson();
 
+  private static final int TRACE_ID_FIELD_NUMBER = 1;
+  private static final int SESSION_ID_FIELD_NUMBER = 2;
+  private static final int SPAN_FIELD_NUMBER = 3;
+  private static final int SEGMENT_INDEX_FIELD_NUMBER = 4;
+
+  private static final String SPAN_LIST_JSON_NAME = "span_list";
+
+  private static final Type SPAN_LIST_TYPE = new TypeToken<List<Span>>() {
+  }.getType();
+
   /**
-   * Converts the given String value to a {@link Trace}.
+   * Converts the given binary protobuf value to a {@link Trace}.
    *
    * @param value the value to convert.
    * @return the Trace for the given value.
    */
   @NonNull
   @TypeConverter
+  public static Trace toTrace(@NonNull final byte[] value) {
+    String traceId = "";
+    String sessionId = "";
+    int segmentIndex = 0;
+    final List<Span> spanList = new ArrayList<>();
+    try {
+      final CodedInputStream input = CodedInputStream.newInstance(value);
+      boolean done = false;
+      while (!done) {
+        final int tag = input.readTag();
+        switch (WireFormat.getTagFieldNumber(tag)) {
+          case 0:
+            done = true;
+            break;
+          case TRACE_ID_FIELD_NUMBER:
+            traceId = input.readStringRequireUtf8();
+            break;
+          case SESSION_ID_FIELD_NUMBER:
+            sessionId = input.readStringRequireUtf8();
+            break;
+          case SPAN_FIELD_NUMBER:
+            spanList.add(input.readMessage(Span.parser(),
+                ExtensionRegistryLite.getEmptyRegistry()));
+            break;
+          case SEGMENT_INDEX_FIELD_NUMBER:
+            segmentIndex = input.readInt32();
+            break;
+          default:
+            done = !input.skipField(tag);
+            break;
+        }
+      }
+    } catch (IOException e) {
+      TraceLog.w(e);
+      TraceLog.d(String.format(Locale.ENGLISH, LogMessageConstants.CONVERTER_FAILED_WITH_SIZE,
+          value.length));
+    }
+    return new Trace(traceId, sessionId, spanList, segmentIndex);
+  }
+
+  /**
+   * Converts the given {@link Trace} to its binary protobuf value.
+   *
+   * @param trace the Trace to convert.
+   * @return the binary value of the given Trace.
+   */
+  @NonNull
+  @TypeConverter
+  public static byte[] toByteArray(@NonNull final Trace trace) {
+    int size = CodedOutputStream.computeStringSize(TRACE_ID_FIELD_NUMBER, trace.getTraceId())
+        + CodedOutputStream.computeStringSize(SESSION_ID_FIELD_NUMBER, trace.getSessionId());
+    for (final Span span : trace.getSpanList()) {
+      size += CodedOutputStream.computeMessageSize(SPAN_FIELD_NUMBER, span);
+    }
+    if (trace.getSegmentIndex() != 0) {
+      size += CodedOutputStream.computeInt32Size(SEGMENT_INDEX_FIELD_NUMBER,
+          trace.getSegmentIndex());
+    }
+
+    final byte[] result = new byte[size];
+    final CodedOutputStream output = CodedOutputStream.newInstance(result);
+    try {
+      output.writeString(TRACE_ID_FIELD_NUMBER, trace.getTraceId());
+      output.writeString(SESSION_ID_FIELD_NUMBER, trace.getSessionId());
+      for (final Span span : trace.getSpanList()) {
+        output.writeMessage(SPAN_FIELD_NUMBER, span);
+      }
+      if (trace.getSegmentIndex() != 0) {
+        output.writeInt32(SEGMENT_INDEX_FIELD_NUMBER, trace.getSegmentIndex());
+      }
+      output.checkNoSpaceLeft();
+    } catch (IOException e) {
+      // writing to a byte array of the computed size should never fail
+      throw new IllegalStateException(e);
+    }
+    return result;
+  }
+
+  /**
+   * Converts the given JSON String value to a {@link Trace}. Used for the records that were
+   * stored before database version 3.
+   *
+   * @param value the value to convert.
+   * @return the Trace for the given value.
+   */
+  @NonNull
   public static Trace toTrace(@NonNull final String value) {
     try {
 
@@ -40,12 +153,35 @@ public class TraceConverter {
   }
 
   /**
-   * Converts the given {@link Trace} to a String value.
+   * Gets the {@link Span}s from the given JSON String value of a {@link Trace}. Unlike
+   * {@link #toTrace(String)} it does not require an active
+   * {@link io.bitrise.trace.session.Session}, so it can be used for migrating the records that
+   * were stored before database version 3.
+   *
+   * @param value the value to convert.
+   * @return the List of Spans, or an empty List if the value cannot be converted.
+   */
+  @NonNull
+  public static List<Span> toSpanList(@NonNull final String value) {
+    try {
+      final JsonObject jsonObject = gson.fromJson(value, JsonObject.class);
+      final JsonElement spanListElement =
+          jsonObject == null ? null : jsonObject.get(SPAN_LIST_JSON_NAME);
+      final List<Span> spanList = gson.fromJson(spanListElement, SPAN_LIST_TYPE);
+      return spanList == null ? new ArrayList<>() : spanList;
+    } catch (Exception e) {
+      TraceLog.w(e);
+      TraceLog.d(String.format(LogMessageConstants.CONVERTER_FAILED_WITH_VALUE, value));
+      return new ArrayList<>();
+    }
+  }
+
+  /**
+   * Converts the given {@link Trace} to a JSON String value.
    *
    * @param trace the Trace to convert.
    * @return the String value of the given Trace.
    */
-  @TypeConverter
   public static String toString(@NonNull final Trace trace) {
     return gson.toJson(trace, Trace.class);
   }
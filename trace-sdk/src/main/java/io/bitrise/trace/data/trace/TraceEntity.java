@@ -4,6 +4,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.TypeConverters;
 import io.bitrise.trace.session.Session;
@@ -11,14 +12,20 @@ import io.bitrise.trace.session.Session;
 /**
  * Wrapper {@link Entity} class for {@link Trace}.
  */
-@Entity
+@Entity(indices = {@Index("traceId"), @Index("sessionId"), @Index("timeStamp")})
 public class TraceEntity {
 
   /**
-   * The String ID of the Trace.
+   * The ID of the segment of the Trace, see {@link Trace#getSegmentId()}.
    */
   @NonNull
   @PrimaryKey
+  private String segmentId;
+
+  /**
+   * The String ID of the Trace. The segments of the same Trace have the same ID.
+   */
+  @NonNull
   private String traceId;
   /**
    * The {@link Trace} object that this entity holds.
@@ -50,11 +57,21 @@ public class TraceEntity {
   @Ignore
   public TraceEntity(@NonNull final Trace trace) {
     this.trace = trace;
+    this.segmentId = trace.getSegmentId();
     this.traceId = trace.getTraceId();
     this.sessionId = trace.getSessionId();
     this.timeStamp = System.currentTimeMillis();
   }
 
+  @NonNull
+  public String getSegmentId() {
+    return segmentId;
+  }
+
+  public void setSegmentId(@NonNull final String segmentId) {
+    this.segmentId = segmentId;
+  }
+
   @NonNull
   public String getTraceId() {
     return traceId;
@@ -105,7 +122,8 @@ public class TraceEntity {
   @Override
   public String toString() {
     return "TraceEntity{"
-        + "traceId='" + traceId + '\''
+        + "segmentId='" + segmentId + '\''
+        + ", traceId='" + traceId + '\''
         + ", trace=" + trace
         + ", timeStamp=" + timeStamp
         + ", sessionId='" + sessionId + '\''
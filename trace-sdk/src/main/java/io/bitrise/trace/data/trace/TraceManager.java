@@ -36,6 +36,13 @@ public interface TraceManager {
    */
   void addSpanToActiveTrace(@NonNull Span span);
 
+  /**
+   * Saves the {@link Span}s of the active Trace that were added since the previous checkpoint,
+   * and continues the Trace in a new segment with the same ID. Does nothing if there is no
+   * active Trace, or no Span was added to it since the previous checkpoint.
+   */
+  void checkpointActiveTrace();
+
   /**
    * Gets the ID of the root {@link Span}.
    *
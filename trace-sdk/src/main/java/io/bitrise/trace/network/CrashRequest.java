@@ -120,6 +120,16 @@ public class CrashRequest extends NetworkRequest {
       return uuid;
     }
 
+    @NonNull
+    public String getTraceId() {
+      return traceId;
+    }
+
+    @NonNull
+    public String getSpanId() {
+      return spanId;
+    }
+
     @Override
     public boolean equals(@Nullable Object obj) {
       if (obj == this) {
@@ -1,10 +1,9 @@
 package io.bitrise.trace.network;
 
 import androidx.annotation.NonNull;
+import io.bitrise.trace.data.management.IngestPipeline;
 import io.bitrise.trace.data.storage.DataStorage;
 import io.bitrise.trace.utils.log.TraceLog;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import javax.annotation.Nonnull;
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -17,22 +16,34 @@ public class CrashSender {
 
   @NonNull final CrashRequest request;
   @NonNull final DataStorage dataStorage;
+  @NonNull final RetryPolicy retryPolicy;
 
   /**
    * Creates an object that can send crash reports.
    *
-   * @param request - the {@link CrashRequest} object to send.
+   * @param request     - the {@link CrashRequest} object to send.
+   * @param dataStorage - the {@link DataStorage} that holds the saved crash reports.
+   * @param retryPolicy - the {@link RetryPolicy} that decides when the report can be sent.
    */
   public CrashSender(@NonNull final CrashRequest request,
-                     @Nonnull final DataStorage dataStorage) {
+                     @Nonnull final DataStorage dataStorage,
+                     @NonNull final RetryPolicy retryPolicy) {
     this.request = request;
     this.dataStorage = dataStorage;
+    this.retryPolicy = retryPolicy;
   }
 
   /**
-   * Send the {@link CrashRequest} to the backend server.
+   * Send the {@link CrashRequest} to the backend server. Crash reports are not backed off by the
+   * {@link RetryPolicy}, an attempt is only refused when the server asked for a delay with a
+   * "Retry-After" header. In that case the report is kept in the {@link DataStorage} without
+   * counting an attempt, and it is sent on a later start of the application.
    */
   public void send() {
+    if (!retryPolicy.isAttemptAllowed(RetryPolicy.Endpoint.CRASHES)) {
+      return;
+    }
+
     NetworkClient.getCommunicator().sendCrash(request).enqueue(new Callback<Void>() {
       @Override
       public void onResponse(@NonNull final Call<Void> call,
@@ -40,9 +51,11 @@ public class CrashSender {
         if (response.isSuccessful()) {
           TraceLog.d("Crash report sent successfully: "
               + response.headers().get("correlation-id"));
+          retryPolicy.onSuccess(RetryPolicy.Endpoint.CRASHES);
           removeCrash();
         } else {
           TraceLog.e("Crash report failed to send: " + response.code());
+          retryPolicy.onFailure(RetryPolicy.Endpoint.CRASHES, response);
           updateSentAttemptsCounter();
         }
       }
@@ -51,22 +64,19 @@ public class CrashSender {
       public void onFailure(@NonNull final Call<Void> call,
                             @NonNull final Throwable t) {
         TraceLog.e("Crash report failed to send: " + t.getLocalizedMessage());
+        retryPolicy.onNetworkError(RetryPolicy.Endpoint.CRASHES);
         updateSentAttemptsCounter();
       }
     });
   }
 
   private void removeCrash() {
-    final ExecutorService service = Executors.newFixedThreadPool(1);
-    service.submit(() -> {
-      dataStorage.deleteCrashRequest(request.getMetadata().getUuid());
-    });
+    IngestPipeline.getInstance().executeReliably(
+        () -> dataStorage.deleteCrashRequest(request.getMetadata().getUuid()));
   }
 
   private void updateSentAttemptsCounter() {
-    final ExecutorService service = Executors.newFixedThreadPool(1);
-    service.submit(() -> {
-      dataStorage.updateCrashRequestSentAttemptCounter(request.getMetadata().getUuid());
-    });
+    IngestPipeline.getInstance().executeReliably(
+        () -> dataStorage.updateCrashRequestSentAttemptCounter(request.getMetadata().getUuid()));
   }
 }
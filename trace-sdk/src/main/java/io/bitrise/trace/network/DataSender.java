@@ -14,12 +14,16 @@ import io.bitrise.trace.data.resource.ResourceEntity;
 import io.bitrise.trace.data.resource.ResourceLabel;
 import io.bitrise.trace.data.storage.DataStorage;
 import io.bitrise.trace.data.storage.TraceDataStorage;
+import io.bitrise.trace.scheduler.ServiceScheduler;
 import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.session.Session;
+import io.bitrise.trace.utils.log.LogMessageConstants;
+import io.bitrise.trace.utils.log.TraceLog;
 import io.opencensus.proto.metrics.v1.Metric;
 import io.opencensus.proto.resource.v1.Resource;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -69,6 +73,18 @@ public abstract class DataSender extends JobService {
   @Nullable
   private DataManager dataManager;
 
+  /**
+   * The {@link RetryPolicy} that decides when the data can be sent.
+   */
+  @Nullable
+  private RetryPolicy retryPolicy;
+
+  /**
+   * The {@link DrainBudget} of the current, or the last run of {@link #send(JobParameters)}.
+   */
+  @Nullable
+  private volatile DrainBudget drainBudget;
+
   /**
    * Indicates that the DataSender has been stopped.
    */
@@ -114,7 +130,10 @@ public abstract class DataSender extends JobService {
   }
 
   /**
-   * Sends the data to the server.
+   * Sends the data to the server. Keeps sending the stored data in batches, until the
+   * {@link DataStorage} is empty, the job is stopped, the {@link DrainBudget} of the run is
+   * exhausted, or the {@link RetryPolicy} does not allow an attempt. The number of sent batches
+   * can be queried with {@link #getDrainedBatchCount()}.
    *
    * @param params the {@link JobParameters} of this {@link JobService}.
    * @return a Future with the {@link Result} of the sending.
@@ -122,8 +141,12 @@ public abstract class DataSender extends JobService {
   public abstract Future<Result> send(@NonNull final JobParameters params);
 
   /**
-   * Callback when the sending was successful.
+   * Callback when the sending of a batch was successful. Removes the sent data from the
+   * {@link DataStorage}, so the next batch can be sent.
+   *
+   * <p>Should not be called on the main thread.
    */
+  @WorkerThread
   public abstract void onSuccess();
 
   public boolean isStopped() {
@@ -233,6 +256,98 @@ public abstract class DataSender extends JobService {
     jobFinished(jobParameters, shouldReschedule);
   }
 
+  /**
+   * Called when a run of {@link #send(JobParameters)} is finished. The job is finished without
+   * the system backoff, and the next run is scheduled explicitly, so the constraints of the
+   * {@link io.bitrise.trace.scheduler.UploadPolicy} are applied to it. The next run is delayed
+   * by the {@link RetryPolicy} and by the batching window, or when the {@link DrainBudget} of the
+   * run was exhausted with data left in the {@link DataStorage}, it is scheduled as a backlog
+   * upload.
+   *
+   * <p>Should not be called on the main thread.
+   *
+   * @param jobParameters       the JobParameters.
+   * @param finishedDrainBudget the DrainBudget of the finished run.
+   */
+  @WorkerThread
+  void finishSending(@Nullable final JobParameters jobParameters,
+                     @NonNull final DrainBudget finishedDrainBudget) {
+    final boolean shouldReschedule = isRescheduleNeeded();
+    onSendingFinished(jobParameters, false);
+    if (!shouldReschedule || isStopped()) {
+      return;
+    }
+    final boolean isBacklog = finishedDrainBudget.isExhausted() && hasData();
+    scheduleNextRun(getRetryPolicy().getRemainingDelayMs(getEndpoint()), isBacklog);
+  }
+
+  /**
+   * Cancels the other pending run of this DataSender, when a run is started. The regular and
+   * the relaxed run of a backlog upload are both scheduled, only the first one should run, see
+   * {@link ServiceScheduler#scheduleDelayed(long, boolean)}.
+   *
+   * @param jobParameters the JobParameters of the started run.
+   */
+  void cancelOtherRun(@Nullable final JobParameters jobParameters) {
+    if (jobParameters != null) {
+      new ServiceScheduler(getContext(), getClass()).cancelOtherRun(jobParameters.getJobId());
+    }
+  }
+
+  /**
+   * Schedules the next run of this DataSender.
+   *
+   * @param delayMs   the delay of the next run in milliseconds.
+   * @param isBacklog {@code true} if the next run uploads the backlog of this run.
+   */
+  void scheduleNextRun(final long delayMs, final boolean isBacklog) {
+    new ServiceScheduler(getContext(), getClass()).scheduleDelayed(delayMs, isBacklog);
+  }
+
+  /**
+   * Gets the {@link RetryPolicy.Endpoint} this DataSender sends the data to.
+   *
+   * @return the Endpoint.
+   */
+  @NonNull
+  abstract RetryPolicy.Endpoint getEndpoint();
+
+  /**
+   * Starts a new run of sending batches, see {@link #send(JobParameters)}. A run keeps sending
+   * batches until the {@link DataStorage} is empty, the job is stopped, or the returned
+   * {@link DrainBudget} is exhausted.
+   *
+   * @return the DrainBudget of the new run.
+   */
+  @NonNull
+  DrainBudget startDrain() {
+    final DrainBudget newDrainBudget = new DrainBudget();
+    drainBudget = newDrainBudget;
+    return newDrainBudget;
+  }
+
+  /**
+   * Called when a run of sending batches is finished. Logs the amount of data sent in the run.
+   *
+   * @param finishedDrainBudget the DrainBudget of the finished run.
+   */
+  void onDrainFinished(@NonNull final DrainBudget finishedDrainBudget) {
+    TraceLog.d(String.format(Locale.ENGLISH, LogMessageConstants.DATA_SENDER_DRAINED,
+        getClass().getSimpleName(), finishedDrainBudget.getBatchCount(),
+        finishedDrainBudget.getSentBytes(), finishedDrainBudget.getElapsedMs()));
+  }
+
+  /**
+   * Gets the number of batches that were sent in the current, or the last run of
+   * {@link #send(JobParameters)}.
+   *
+   * @return the number of sent batches.
+   */
+  public int getDrainedBatchCount() {
+    final DrainBudget currentDrainBudget = drainBudget;
+    return currentDrainBudget == null ? 0 : currentDrainBudget.getBatchCount();
+  }
+
   /**
    * Determines if the given DataSender has any data in the {@link DataStorage} to send, or not.
    *
@@ -289,6 +404,18 @@ public abstract class DataSender extends JobService {
     this.dataManager = dataManager;
   }
 
+  @NonNull
+  RetryPolicy getRetryPolicy() {
+    if (retryPolicy == null) {
+      retryPolicy = RetryPolicy.getInstance(getContext());
+    }
+    return retryPolicy;
+  }
+
+  void setRetryPolicy(@NonNull final RetryPolicy retryPolicy) {
+    this.retryPolicy = retryPolicy;
+  }
+
   @NonNull
   ExecutorService getExecutor() {
     if (executor == null) {
@@ -0,0 +1,121 @@
+package io.bitrise.trace.network;
+
+import androidx.annotation.NonNull;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.RequestBody;
+import retrofit2.Response;
+
+/**
+ * Limits the amount of data a single run of a {@link DataSender} sends, when it keeps sending
+ * batches until the storage is empty. The run should stop when either the number of sent bytes
+ * reaches the {@link #maxBytes}, or the elapsed time reaches the {@link #maxDurationMs}. Also
+ * counts the batches that were sent during the run.
+ */
+class DrainBudget {
+
+  /**
+   * The default maximum number of bytes a single run can send.
+   */
+  static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+  /**
+   * The default maximum time in milliseconds a single run can keep sending.
+   */
+  static final long DEFAULT_MAX_DURATION_MS = TimeUnit.MINUTES.toMillis(2);
+
+  private final long maxBytes;
+
+  private final long maxDurationMs;
+
+  private final long startTimeNanos;
+
+  private volatile int batchCount;
+
+  private volatile long sentBytes;
+
+  /**
+   * Constructor for class. Uses the {@link #DEFAULT_MAX_BYTES} and
+   * {@link #DEFAULT_MAX_DURATION_MS}.
+   */
+  DrainBudget() {
+    this(DEFAULT_MAX_BYTES, DEFAULT_MAX_DURATION_MS);
+  }
+
+  /**
+   * Constructor for class. The time budget starts with the creation of the object.
+   *
+   * @param maxBytes      the maximum number of bytes the run can send.
+   * @param maxDurationMs the maximum time in milliseconds the run can keep sending.
+   */
+  DrainBudget(final long maxBytes, final long maxDurationMs) {
+    this.maxBytes = maxBytes;
+    this.maxDurationMs = maxDurationMs;
+    this.startTimeNanos = System.nanoTime();
+  }
+
+  /**
+   * Records a successfully sent batch.
+   *
+   * @param batchBytes the size of the sent request body in bytes.
+   */
+  void onBatchSent(final long batchBytes) {
+    batchCount++;
+    sentBytes += Math.max(batchBytes, 0);
+  }
+
+  /**
+   * Checks if the run used up its byte or time budget.
+   *
+   * @return {@code true} if no more batches should be sent, {@code false} otherwise.
+   */
+  boolean isExhausted() {
+    return sentBytes >= maxBytes || getElapsedMs() >= maxDurationMs;
+  }
+
+  /**
+   * Gets the number of batches that were sent during the run.
+   *
+   * @return the number of sent batches.
+   */
+  int getBatchCount() {
+    return batchCount;
+  }
+
+  /**
+   * Gets the number of bytes that were sent during the run.
+   *
+   * @return the number of sent bytes.
+   */
+  long getSentBytes() {
+    return sentBytes;
+  }
+
+  /**
+   * Gets the time elapsed since the start of the run.
+   *
+   * @return the elapsed time in milliseconds.
+   */
+  long getElapsedMs() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos);
+  }
+
+  /**
+   * Gets the size of the request body that was sent on the wire for the given {@link Response}.
+   * When the request was compressed, this is the compressed size.
+   *
+   * @param response the Response of the request.
+   * @return the size of the request body in bytes, or 0 if it is not known.
+   */
+  static long getRequestSize(@NonNull final Response<?> response) {
+    final RequestBody requestBody = response.raw().request().body();
+    if (requestBody == null) {
+      return 0;
+    }
+    try {
+      return Math.max(requestBody.contentLength(), 0);
+    } catch (final IOException e) {
+      return 0;
+    }
+  }
+}
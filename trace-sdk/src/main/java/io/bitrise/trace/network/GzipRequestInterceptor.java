@@ -0,0 +1,92 @@
+package io.bitrise.trace.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * {@link Interceptor} that compresses the body of the requests with gzip and sets the
+ * "Content-Encoding" header. Bodies smaller than the {@link #minSizeBytes} are sent as they are,
+ * as compressing them would not save enough to be worth it. The compressed body is buffered, so
+ * the "Content-Length" header of the request reflects the compressed size.
+ */
+public class GzipRequestInterceptor implements Interceptor {
+
+  /**
+   * The default minimum size of the body in bytes, below which it is not compressed.
+   */
+  static final long DEFAULT_MIN_SIZE_BYTES = 1024;
+
+  private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+  private static final String CONTENT_LENGTH_HEADER = "Content-Length";
+  private static final String GZIP = "gzip";
+
+  private final long minSizeBytes;
+
+  /**
+   * Constructor for class. Uses the {@link #DEFAULT_MIN_SIZE_BYTES}.
+   */
+  public GzipRequestInterceptor() {
+    this(DEFAULT_MIN_SIZE_BYTES);
+  }
+
+  /**
+   * Constructor for class.
+   *
+   * @param minSizeBytes the minimum size of the body in bytes, below which it is not
+   *                     compressed.
+   */
+  @VisibleForTesting
+  GzipRequestInterceptor(final long minSizeBytes) {
+    this.minSizeBytes = minSizeBytes;
+  }
+
+  @Override
+  @NonNull
+  public Response intercept(@NonNull final Chain chain) throws IOException {
+    final Request request = chain.request();
+    final RequestBody body = request.body();
+    if (body == null || request.header(CONTENT_ENCODING_HEADER) != null) {
+      return chain.proceed(request);
+    }
+
+    final long contentLength = body.contentLength();
+    if (contentLength >= 0 && contentLength < minSizeBytes) {
+      return chain.proceed(request);
+    }
+
+    final RequestBody compressedBody = compress(body);
+    final Request compressedRequest =
+        request.newBuilder()
+               .header(CONTENT_ENCODING_HEADER, GZIP)
+               .header(CONTENT_LENGTH_HEADER, String.valueOf(compressedBody.contentLength()))
+               .method(request.method(), compressedBody)
+               .build();
+    return chain.proceed(compressedRequest);
+  }
+
+  /**
+   * Compresses the given {@link RequestBody} with gzip into memory, so the length of the
+   * compressed body is known before it is sent.
+   *
+   * @param body the RequestBody to compress.
+   * @return the compressed RequestBody.
+   * @throws IOException if the body cannot be written.
+   */
+  @NonNull
+  private static RequestBody compress(@NonNull final RequestBody body) throws IOException {
+    final Buffer buffer = new Buffer();
+    try (BufferedSink gzipSink = Okio.buffer(new GzipSink(buffer))) {
+      body.writeTo(gzipSink);
+    }
+    return RequestBody.create(body.contentType(), buffer.readByteString());
+  }
+}
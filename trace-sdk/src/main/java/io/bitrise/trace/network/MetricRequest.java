@@ -2,6 +2,7 @@ package io.bitrise.trace.network;
 
 import androidx.annotation.NonNull;
 import com.google.gson.annotations.SerializedName;
+import io.opencensus.proto.agent.metrics.v1.ExportMetricsServiceRequest;
 import io.opencensus.proto.metrics.v1.Metric;
 import io.opencensus.proto.resource.v1.Resource;
 import java.util.List;
@@ -24,4 +25,18 @@ public class MetricRequest extends NetworkRequest {
   public List<Metric> getMetrics() {
     return metrics;
   }
+
+  /**
+   * Converts this request to an {@link ExportMetricsServiceRequest} for the binary protobuf
+   * transport.
+   *
+   * @return the ExportMetricsServiceRequest with the same Resource and Metrics.
+   */
+  @NonNull
+  public ExportMetricsServiceRequest toExportRequest() {
+    return ExportMetricsServiceRequest.newBuilder()
+                                      .setResource(resource)
+                                      .addAllMetrics(metrics)
+                                      .build();
+  }
 }
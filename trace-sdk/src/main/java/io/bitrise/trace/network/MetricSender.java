@@ -29,6 +29,29 @@ public class MetricSender extends DataSender {
   static String METRIC_HEADER_ACCEPTED_COUNT = "accepted-metrics-count";
   static String METRIC_HEADER_ACCEPTED_LABELS = "accepted-metrics-labels";
 
+  /**
+   * The {@link RequestChunker} that limits the size of a single {@link MetricRequest}.
+   */
+  @NonNull
+  private static final RequestChunker requestChunker = new RequestChunker();
+
+  /**
+   * Measures the {@link MetricEntity}s for the {@link #requestChunker}.
+   */
+  @NonNull
+  private static final RequestChunker.Measurer<MetricEntity> metricEntityMeasurer =
+      new RequestChunker.Measurer<MetricEntity>() {
+        @Override
+        public int getItemCount(@NonNull final MetricEntity element) {
+          return 1;
+        }
+
+        @Override
+        public long getByteSize(@NonNull final MetricEntity element) {
+          return element.getMetric().getSerializedSize();
+        }
+      };
+
   /**
    * The List of Metrics that will be sent.
    */
@@ -86,59 +109,94 @@ public class MetricSender extends DataSender {
     setResultSettableFuture(SettableFuture.create());
     final SettableFuture<Result> settableFuture = getResultSettableFuture();
     getExecutor().execute(() -> {
+      final DrainBudget drainBudget = startDrain();
       try {
         if (isStopped()) {
           settableFuture.set(Result.FAILURE);
           return;
         }
 
-        final MetricRequest metricRequest = getNetworkRequest();
-        if (!validateNetworkRequest(metricRequest)) {
-          settableFuture.set(Result.FAILURE);
-          return;
-        }
-
-        final Response<Void> response =
-            getNetworkCommunicator().sendMetrics(metricRequest).execute();
-        if (response.isSuccessful()) {
+        Result result = Result.FAILURE;
+        while (!isStopped() && !drainBudget.isExhausted()) {
+          final MetricRequest metricRequest = getNetworkRequest();
+          if (!validateNetworkRequest(metricRequest)) {
+            break;
+          }
+
+          if (!getRetryPolicy().isAttemptAllowed(getEndpoint())) {
+            break;
+          }
+
+          final Response<Void> response = executeRequest(metricRequest);
+          if (!response.isSuccessful()) {
+            getRetryPolicy().onFailure(getEndpoint(), response);
+            TraceLog.w(new TraceException.MetricSenderFailedException(response.code(),
+                response.message()));
+            result = Result.FAILURE;
+            break;
+          }
+
+          getRetryPolicy().onSuccess(getEndpoint());
           onSuccess();
           countHeaderComparisonDifference(metricRequest, response);
-        } else {
-          TraceLog.w(
-              new TraceException.MetricSenderFailedException(response.code(), response.message()));
-          settableFuture.set(Result.FAILURE);
+          drainBudget.onBatchSent(DrainBudget.getRequestSize(response));
+          result = Result.SUCCESS;
         }
+        settableFuture.set(result);
       } catch (final IOException e) {
         TraceLog.w(e);
-        getResultSettableFuture().setException(e);
+        getRetryPolicy().onNetworkError(getEndpoint());
+        settableFuture.setException(e);
       } catch (final IllegalStateException e) {
         TraceLog.w(e);
         if (!isStopped()) {
           throw e;
         }
       } finally {
-        onSendingFinished(params, isRescheduleNeeded());
+        onDrainFinished(drainBudget);
+        finishSending(params, drainBudget);
       }
     });
     return settableFuture;
   }
 
+  /**
+   * Sends the given {@link MetricRequest} in the binary protobuf format when it is enabled,
+   * otherwise as JSON. When the server rejects the protobuf request, it is sent again as JSON.
+   *
+   * @param metricRequest the MetricRequest to send.
+   * @return the Response received from the backend.
+   * @throws IOException if the request could not be executed.
+   */
+  @VisibleForTesting
+  @NonNull
+  @WorkerThread
+  Response<Void> executeRequest(@NonNull final MetricRequest metricRequest) throws IOException {
+    if (NetworkClient.isProtobufTransportEnabled()) {
+      final Response<Void> response = getNetworkCommunicator()
+          .sendMetricsProtobuf(metricRequest.toExportRequest()).execute();
+      if (!NetworkClient.checkProtobufTransportRejected(response.code())) {
+        return response;
+      }
+    }
+    return getNetworkCommunicator().sendMetrics(metricRequest).execute();
+  }
+
   @Override
-  @SuppressLint("infer")
+  @WorkerThread
   public void onSuccess() {
     TraceLog.i(LogMessageConstants.METRIC_SENT_SUCCESSFULLY);
-    getExecutor().execute(() -> {
-      getDataStorage().deleteMetrics(getMetricEntityList());
-      removeResources(getMetricEntityList().get(0).getSessionId());
-      getResultSettableFuture().set(Result.SUCCESS);
-    });
+    getDataStorage().deleteMetrics(getMetricEntityList());
+    removeResources(getMetricEntityList().get(0).getSessionId());
   }
 
   @Override
   @Nullable
   @WorkerThread
   MetricRequest getNetworkRequest() {
-    setMetricEntityList(getDataStorage().getFirstMetricGroup());
+    setMetricEntityList(
+        requestChunker.takeChunk(getDataStorage().getFirstMetricGroup(
+            requestChunker.getMaxItemCount()), metricEntityMeasurer));
     if (getMetricEntityList().isEmpty()) {
       return null;
     }
@@ -150,14 +208,21 @@ public class MetricSender extends DataSender {
     return new MetricRequest(resource, batchedMetricList);
   }
 
+  @NonNull
+  @Override
+  RetryPolicy.Endpoint getEndpoint() {
+    return RetryPolicy.Endpoint.METRICS;
+  }
+
   @Override
   @WorkerThread
   boolean hasData() {
-    return getDataStorage().getAllMetrics().size() > 0;
+    return getDataStorage().hasMetrics();
   }
 
   @Override
   public boolean onStartJob(@Nullable final JobParameters params) {
+    cancelOtherRun(params);
     send(params);
     return true;
   }
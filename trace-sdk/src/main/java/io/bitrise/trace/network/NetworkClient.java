@@ -3,6 +3,7 @@ package io.bitrise.trace.network;
 import android.os.Build;
 import android.os.LocaleList;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
@@ -19,17 +20,22 @@ import io.bitrise.trace.network.adapters.PointAdapter;
 import io.bitrise.trace.network.adapters.ResourceAdapter;
 import io.bitrise.trace.network.adapters.SpanAdapter;
 import io.bitrise.trace.network.adapters.SpanAttributeAdapter;
+import io.bitrise.trace.network.adapters.SummaryValueAdapter;
 import io.bitrise.trace.network.adapters.TimeSeriesAdapter;
 import io.bitrise.trace.network.adapters.TimestampAdapter;
 import io.bitrise.trace.network.adapters.TruncatableStringAdapter;
+import io.bitrise.trace.utils.log.LogMessageConstants;
+import io.bitrise.trace.utils.log.TraceLog;
 import io.opencensus.proto.metrics.v1.Metric;
 import io.opencensus.proto.metrics.v1.MetricDescriptor;
 import io.opencensus.proto.metrics.v1.Point;
+import io.opencensus.proto.metrics.v1.SummaryValue;
 import io.opencensus.proto.metrics.v1.TimeSeries;
 import io.opencensus.proto.resource.v1.Resource;
 import io.opencensus.proto.trace.v1.Span;
 import io.opencensus.proto.trace.v1.TruncatableString;
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -70,6 +76,30 @@ public final class NetworkClient {
    */
   @VisibleForTesting
   static volatile NetworkCommunicator networkCommunicator;
+  /**
+   * Whether the bodies of the requests should be compressed with the
+   * {@link GzipRequestInterceptor}.
+   */
+  private static volatile boolean isRequestCompressionEnabled = false;
+  /**
+   * Whether the Metrics and Traces should be sent in the binary protobuf format.
+   */
+  private static volatile boolean isProtobufTransportEnabled = false;
+  /**
+   * Whether the server rejected a request in the binary protobuf format. When set, the requests
+   * are sent as JSON for the rest of the process.
+   */
+  private static volatile boolean isProtobufTransportRejected = false;
+  /**
+   * Lock object for the lazy initialisation of the {@link #gson}.
+   */
+  @NonNull
+  private static final Object gsonLock = new Object();
+  /**
+   * The shared {@link Gson} instance, see {@link #getGson()}.
+   */
+  @Nullable
+  private static volatile Gson gson;
 
   /**
    * Constructor to prevent instantiation outside of the class.
@@ -93,17 +123,74 @@ public final class NetworkClient {
     return retrofit;
   }
 
+  /**
+   * Sets whether the bodies of the requests should be compressed with gzip. Should be called
+   * before the first request is sent, as the client is created only once.
+   *
+   * @param isEnabled {@code true} to compress the request bodies, {@code false} otherwise.
+   */
+  public static void setRequestCompressionEnabled(final boolean isEnabled) {
+    isRequestCompressionEnabled = isEnabled;
+  }
+
+  /**
+   * Sets whether the Metrics and Traces should be sent in the binary protobuf format instead of
+   * JSON.
+   *
+   * @param isEnabled {@code true} to use the binary protobuf format, {@code false} otherwise.
+   */
+  public static void setProtobufTransportEnabled(final boolean isEnabled) {
+    isProtobufTransportEnabled = isEnabled;
+    isProtobufTransportRejected = false;
+  }
+
+  /**
+   * Checks if the Metrics and Traces should be sent in the binary protobuf format. Returns
+   * {@code false} when it is enabled, but the server already rejected a protobuf request.
+   *
+   * @return {@code true} if the binary protobuf format should be used, {@code false} otherwise.
+   */
+  public static boolean isProtobufTransportEnabled() {
+    return isProtobufTransportEnabled && !isProtobufTransportRejected;
+  }
+
+  /**
+   * Checks if the given response code means that the server does not accept the binary
+   * protobuf format. If so, the binary protobuf format is disabled for the rest of the process
+   * and the request should be sent again as JSON. Only the "406 Not Acceptable" and the "415
+   * Unsupported Media Type" codes count, a "400 Bad Request" can have other causes.
+   *
+   * @param responseCode the HTTP code of the response to the protobuf request.
+   * @return {@code true} if the request should be sent again as JSON, {@code false} otherwise.
+   */
+  public static boolean checkProtobufTransportRejected(final int responseCode) {
+    if (responseCode != HttpURLConnection.HTTP_NOT_ACCEPTABLE
+        && responseCode != HttpURLConnection.HTTP_UNSUPPORTED_TYPE) {
+      return false;
+    }
+    isProtobufTransportRejected = true;
+    TraceLog.w(String.format(Locale.ENGLISH, LogMessageConstants.PROTOBUF_TRANSPORT_REJECTED,
+        responseCode));
+    return true;
+  }
+
   /**
    * Gets a {@link OkHttpClient.Builder} with the common settings for network communications.
+   * When request compression is enabled, the {@link GzipRequestInterceptor} is added before the
+   * call Interceptor, so the "Content-Length" header is set to the compressed size.
    *
    * @return the builder.
    */
   @NonNull
   static OkHttpClient.Builder getBaseClientBuilder() {
-    return new OkHttpClient.Builder().addInterceptor(getLoggingInterceptor())
-                                     .addInterceptor(getCallInterceptor())
-                                     .connectTimeout(15, TimeUnit.SECONDS)
-                                     .readTimeout(15, TimeUnit.SECONDS);
+    final OkHttpClient.Builder builder =
+        new OkHttpClient.Builder().addInterceptor(getLoggingInterceptor());
+    if (isRequestCompressionEnabled) {
+      builder.addInterceptor(new GzipRequestInterceptor());
+    }
+    return builder.addInterceptor(getCallInterceptor())
+                  .connectTimeout(15, TimeUnit.SECONDS)
+                  .readTimeout(15, TimeUnit.SECONDS);
   }
 
   /**
@@ -120,24 +207,48 @@ public final class NetworkClient {
   }
 
   /**
-   * Gets the current Gson serializer with configured naming strategies and overrides.
+   * Gets the Gson serializer with configured naming strategies and overrides. The instance is
+   * created on the first call and shared afterwards, as Gson and the registered adapters are
+   * immutable and thread safe.
    *
    * @return Gson serializer that is used for all network requests.
    */
   @NonNull
   public static Gson getGson() {
+    Gson result = gson;
+    if (result == null) {
+      synchronized (gsonLock) {
+        result = gson;
+        if (result == null) {
+          result = createGson();
+          gson = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Creates a new Gson serializer with configured naming strategies and overrides.
+   *
+   * @return the new Gson serializer.
+   */
+  @VisibleForTesting
+  @NonNull
+  static Gson createGson() {
     return new GsonBuilder()
         .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
-        .registerTypeHierarchyAdapter(ByteString.class, new ByteStringAdapter())
-        .registerTypeAdapter(Point.class, new PointAdapter())
-        .registerTypeAdapter(Span.Attributes.class, new SpanAttributeAdapter())
-        .registerTypeAdapter(Resource.class, new ResourceAdapter())
-        .registerTypeAdapter(Metric.class, new MetricAdapter())
-        .registerTypeAdapter(MetricDescriptor.class, new MetricDescriptorAdapter())
-        .registerTypeAdapter(Timestamp.class, new TimestampAdapter())
-        .registerTypeAdapter(TimeSeries.class, new TimeSeriesAdapter())
-        .registerTypeAdapter(Span.class, new SpanAdapter())
-        .registerTypeAdapter(TruncatableString.class, new TruncatableStringAdapter())
+        .registerTypeHierarchyAdapter(ByteString.class, new ByteStringAdapter().nullSafe())
+        .registerTypeAdapter(Point.class, new PointAdapter().nullSafe())
+        .registerTypeAdapter(Span.Attributes.class, new SpanAttributeAdapter().nullSafe())
+        .registerTypeAdapter(Resource.class, new ResourceAdapter().nullSafe())
+        .registerTypeAdapter(Metric.class, new MetricAdapter().nullSafe())
+        .registerTypeAdapter(MetricDescriptor.class, new MetricDescriptorAdapter().nullSafe())
+        .registerTypeAdapter(Timestamp.class, new TimestampAdapter().nullSafe())
+        .registerTypeAdapter(TimeSeries.class, new TimeSeriesAdapter().nullSafe())
+        .registerTypeAdapter(Span.class, new SpanAdapter().nullSafe())
+        .registerTypeAdapter(SummaryValue.class, new SummaryValueAdapter().nullSafe())
+        .registerTypeAdapter(TruncatableString.class, new TruncatableStringAdapter().nullSafe())
         .create();
   }
 
@@ -151,9 +262,25 @@ public final class NetworkClient {
    */
   @NonNull
   static Retrofit buildRetrofit(@NonNull final OkHttpClient client) {
+    return buildRetrofit(client, BASE_URL);
+  }
 
+  /**
+   * Builds a {@link Retrofit} with the given {@link OkHttpClient} and base Url. The
+   * {@link ProtobufConverterFactory} is added before the Gson converter, so the protobuf
+   * messages are sent in the binary format.
+   *
+   * @param client  the given client.
+   * @param baseUrl the base Url of the backend.
+   * @return the Retrofit.
+   */
+  @VisibleForTesting
+  @NonNull
+  static Retrofit buildRetrofit(@NonNull final OkHttpClient client,
+                                @NonNull final String baseUrl) {
     return new Retrofit.Builder()
-        .baseUrl(BASE_URL)
+        .baseUrl(baseUrl)
+        .addConverterFactory(new ProtobufConverterFactory())
         .addConverterFactory(GsonConverterFactory.create(getGson()))
         .client(client)
         .build();
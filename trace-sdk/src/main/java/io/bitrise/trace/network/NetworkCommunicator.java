@@ -2,6 +2,8 @@ package io.bitrise.trace.network;
 
 import androidx.annotation.NonNull;
 import io.bitrise.trace.data.trace.Trace;
+import io.opencensus.proto.agent.metrics.v1.ExportMetricsServiceRequest;
+import io.opencensus.proto.agent.trace.v1.ExportTraceServiceRequest;
 import io.opencensus.proto.metrics.v1.Metric;
 import javax.inject.Singleton;
 import retrofit2.Call;
@@ -32,6 +34,20 @@ public interface NetworkCommunicator {
   @POST("/api/metrics")
   Call<Void> sendMetrics(@Body @NonNull final MetricRequest metricRequest);
 
+  /**
+   * Sends the given {@link ExportMetricsServiceRequest} to the server in the binary protobuf
+   * format. See {@link NetworkClient#isProtobufTransportEnabled()}.
+   *
+   * @param exportRequest the ExportMetricsServiceRequest to send that contains the Metrics.
+   * @return the result of the Call.
+   */
+  @Headers({
+      "Accept: application/vnd.bitrise.trace-v1+json",
+      "Content-Type: application/x-protobuf"
+  })
+  @POST("/api/metrics")
+  Call<Void> sendMetricsProtobuf(@Body @NonNull final ExportMetricsServiceRequest exportRequest);
+
   /**
    * Sends the given List of {@link Trace} to the server.
    * Note: These headers are different to the metrics endpoint. When we have an updated endpoint
@@ -47,6 +63,20 @@ public interface NetworkCommunicator {
   @POST("/api/v1/trace")
   Call<Void> sendTraces(@Body @NonNull final TraceRequest traceRequest);
 
+  /**
+   * Sends the given {@link ExportTraceServiceRequest} to the server in the binary protobuf
+   * format. See {@link NetworkClient#isProtobufTransportEnabled()}.
+   *
+   * @param exportRequest the ExportTraceServiceRequest to send that contains the Spans.
+   * @return the result of the Call.
+   */
+  @Headers({
+      "Accept: application/json",
+      "Content-Type: application/x-protobuf"
+  })
+  @POST("/api/v1/trace")
+  Call<Void> sendTracesProtobuf(@Body @NonNull final ExportTraceServiceRequest exportRequest);
+
   @Headers({
       "Accept: application/vnd.bitrise.trace-v1+json",
       "Content-Type: application/vnd.bitrise.trace-v1+json"
@@ -0,0 +1,39 @@
+package io.bitrise.trace.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.protobuf.MessageLite;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * {@link Converter.Factory} that writes the protobuf {@link MessageLite} request bodies in the
+ * binary protobuf wire format. Should be added to the {@link Retrofit} before the converters
+ * that accept any type (e.g. Gson), otherwise those will serialize the messages.
+ */
+public class ProtobufConverterFactory extends Converter.Factory {
+
+  /**
+   * The media type of the binary protobuf request bodies.
+   */
+  static final String MEDIA_TYPE_PROTOBUF = "application/x-protobuf";
+
+  @NonNull
+  private static final MediaType mediaType = MediaType.get(MEDIA_TYPE_PROTOBUF);
+
+  @Nullable
+  @Override
+  public Converter<?, RequestBody> requestBodyConverter(
+      @NonNull final Type type, @NonNull final Annotation[] parameterAnnotations,
+      @NonNull final Annotation[] methodAnnotations, @NonNull final Retrofit retrofit) {
+    if (!(type instanceof Class<?>) || !MessageLite.class.isAssignableFrom((Class<?>) type)) {
+      return null;
+    }
+    return (Converter<MessageLite, RequestBody>) value ->
+        RequestBody.create(mediaType, value.toByteArray());
+  }
+}
@@ -0,0 +1,111 @@
+package io.bitrise.trace.network;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the stored data of a session into chunks that are small enough to be sent in a single
+ * {@link NetworkRequest}. A chunk is bounded by the number of items (e.g. Metrics or Spans) and
+ * by the serialized size of the items. The size is measured in the protobuf wire format, the
+ * JSON body of the same chunk is larger by a roughly constant factor. A chunk always contains at
+ * least one stored element, even if it exceeds the limits on its own, otherwise it could never
+ * be sent.
+ */
+class RequestChunker {
+
+  /**
+   * The default maximum number of items in a chunk.
+   */
+  static final int DEFAULT_MAX_ITEM_COUNT = 250;
+
+  /**
+   * The default maximum serialized size of the items in a chunk in bytes.
+   */
+  static final long DEFAULT_MAX_BYTES = 128 * 1024;
+
+  private final int maxItemCount;
+
+  private final long maxBytes;
+
+  /**
+   * Constructor for class. Uses the {@link #DEFAULT_MAX_ITEM_COUNT} and
+   * {@link #DEFAULT_MAX_BYTES}.
+   */
+  RequestChunker() {
+    this(DEFAULT_MAX_ITEM_COUNT, DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * Constructor for class.
+   *
+   * @param maxItemCount the maximum number of items in a chunk.
+   * @param maxBytes     the maximum serialized size of the items in a chunk in bytes.
+   */
+  RequestChunker(final int maxItemCount, final long maxBytes) {
+    this.maxItemCount = maxItemCount;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Gets the maximum number of items in a chunk. Each stored element adds at least one item, so
+   * no more elements than this should be read for a chunk.
+   *
+   * @return the maximum number of items.
+   */
+  int getMaxItemCount() {
+    return maxItemCount;
+  }
+
+  /**
+   * Gets the first chunk of the given elements. The order of the elements is kept, so the
+   * remaining elements can be sent in the following chunks.
+   *
+   * @param elements the stored elements of a session, in the order they should be sent.
+   * @param measurer the {@link Measurer} of the elements.
+   * @param <T>      the type of the stored elements.
+   * @return the first chunk, that is empty only when the given List is empty.
+   */
+  @NonNull
+  <T> List<T> takeChunk(@NonNull final List<T> elements, @NonNull final Measurer<T> measurer) {
+    final List<T> chunk = new ArrayList<>();
+    int itemCount = 0;
+    long byteSize = 0;
+    for (@NonNull final T element : elements) {
+      final int elementItemCount = measurer.getItemCount(element);
+      final long elementByteSize = measurer.getByteSize(element);
+      if (!chunk.isEmpty() && (itemCount + elementItemCount > maxItemCount
+          || byteSize + elementByteSize > maxBytes)) {
+        break;
+      }
+      chunk.add(element);
+      itemCount += elementItemCount;
+      byteSize += elementByteSize;
+    }
+    return chunk;
+  }
+
+  /**
+   * Measures the stored elements for the chunking.
+   *
+   * @param <T> the type of the stored elements.
+   */
+  interface Measurer<T> {
+
+    /**
+     * Gets the number of items the element adds to the request.
+     *
+     * @param element the stored element.
+     * @return the number of items.
+     */
+    int getItemCount(@NonNull T element);
+
+    /**
+     * Gets the serialized size of the element in bytes.
+     *
+     * @param element the stored element.
+     * @return the serialized size.
+     */
+    long getByteSize(@NonNull T element);
+  }
+}
@@ -0,0 +1,455 @@
+package io.bitrise.trace.network;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.bitrise.trace.utils.log.LogMessageConstants;
+import io.bitrise.trace.utils.log.TraceLog;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Singleton;
+import okhttp3.Headers;
+import retrofit2.Response;
+
+/**
+ * Decides when the next upload to an {@link Endpoint} of the server can be attempted. After a
+ * failed upload the next attempt is delayed with an exponential backoff, that is randomised with
+ * a jitter, so a fleet of devices does not retry in lockstep during an outage. A "Retry-After"
+ * header of the response is honoured, and after {@link #CIRCUIT_BREAKER_THRESHOLD} consecutive
+ * server errors the circuit is opened, and no attempt is made for {@link #CIRCUIT_OPEN_MS}. After
+ * that the circuit is half-open: a single probe attempt is allowed, and the other attempts wait
+ * for its result, at most for {@link #PROBE_TIMEOUT_MS}. The state of the Endpoints is kept on
+ * the disk, so it survives the restarts of the application.
+ *
+ * <p>Crash reports are sent immediately, so the {@link Endpoint#CRASHES} has no backoff and no
+ * circuit breaker, only the "Retry-After" header of the server delays the next attempt.
+ */
+@Singleton
+public class RetryPolicy {
+
+  /**
+   * The delay after the first failed attempt in milliseconds, before the jitter is applied.
+   */
+  static final long BASE_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+
+  /**
+   * The maximum delay of the exponential backoff in milliseconds.
+   */
+  static final long MAX_BACKOFF_MS = TimeUnit.HOURS.toMillis(1);
+
+  /**
+   * The number of consecutive server errors that opens the circuit.
+   */
+  static final int CIRCUIT_BREAKER_THRESHOLD = 5;
+
+  /**
+   * The minimum time in milliseconds while the circuit is kept open.
+   */
+  static final long CIRCUIT_OPEN_MS = TimeUnit.MINUTES.toMillis(30);
+
+  /**
+   * The maximum time in milliseconds the other attempts wait for the result of the probe attempt
+   * of a half-open circuit, e.g. when the process was killed during the probe.
+   */
+  static final long PROBE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+
+  /**
+   * The maximum delay in milliseconds that is accepted from a "Retry-After" header.
+   */
+  static final long MAX_RETRY_AFTER_MS = TimeUnit.HOURS.toMillis(24);
+
+  /**
+   * The name of the "Retry-After" header.
+   */
+  static final String RETRY_AFTER_HEADER = "Retry-After";
+
+  /**
+   * The file name of the SharedPreferences file, that holds the state of the Endpoints.
+   */
+  private static final String SHARED_PREFERENCES_FILE_NAME = "trace.retry";
+
+  @NonNull
+  private static final Object lock = new Object();
+
+  @Nullable
+  private static volatile RetryPolicy retryPolicy;
+
+  @NonNull
+  private final Store store;
+
+  @NonNull
+  private final Random random;
+
+  /**
+   * Constructor for class. Use {@link #getInstance(Context)} to get an instance.
+   *
+   * @param store  the {@link Store} of the state of the Endpoints.
+   * @param random the source of the jitter.
+   */
+  @VisibleForTesting
+  RetryPolicy(@NonNull final Store store, @NonNull final Random random) {
+    this.store = store;
+    this.random = random;
+  }
+
+  /**
+   * Gets an instance of the class. Use to prevent having multiple instances.
+   *
+   * @param context the Android Context.
+   * @return the RetryPolicy.
+   */
+  @NonNull
+  public static RetryPolicy getInstance(@NonNull final Context context) {
+    RetryPolicy instance = retryPolicy;
+    if (instance == null) {
+      synchronized (lock) {
+        instance = retryPolicy;
+        if (instance == null) {
+          instance = new RetryPolicy(new SharedPreferencesStore(context.getApplicationContext()),
+              new Random());
+          retryPolicy = instance;
+        }
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Checks if an upload to the given {@link Endpoint} can be attempted now. When the circuit of
+   * the Endpoint is half-open, only the first call is allowed as the probe attempt, the result
+   * of it should be recorded with {@link #onSuccess(Endpoint)} or with one of the failure
+   * callbacks.
+   *
+   * @param endpoint the Endpoint.
+   * @return {@code true} if it can be attempted, {@code false} otherwise.
+   */
+  public synchronized boolean isAttemptAllowed(@NonNull final Endpoint endpoint) {
+    final long remainingDelayMs = getRemainingDelayMs(endpoint);
+    if (remainingDelayMs > 0) {
+      TraceLog.d(String.format(Locale.ENGLISH, LogMessageConstants.RETRY_POLICY_ATTEMPT_DELAYED,
+          endpoint.getName(), remainingDelayMs));
+      return false;
+    }
+    final EndpointState state = store.read(endpoint);
+    if (state.serverErrorCount >= CIRCUIT_BREAKER_THRESHOLD) {
+      store.write(endpoint, new EndpointState(state.failureCount, state.serverErrorCount,
+          getCurrentTimeMillis() + PROBE_TIMEOUT_MS));
+      TraceLog.d(String.format(Locale.ENGLISH, LogMessageConstants.RETRY_POLICY_CIRCUIT_PROBE,
+          endpoint.getName()));
+    }
+    return true;
+  }
+
+  /**
+   * Gets the time until the next upload to the given {@link Endpoint} can be attempted. When
+   * the clock of the device was set back, the delay is never longer than
+   * {@link #MAX_RETRY_AFTER_MS}.
+   *
+   * @param endpoint the Endpoint.
+   * @return the remaining delay in milliseconds, or 0 if an attempt can be made now.
+   */
+  public synchronized long getRemainingDelayMs(@NonNull final Endpoint endpoint) {
+    final long remainingDelayMs =
+        store.read(endpoint).nextAttemptTimeMs - getCurrentTimeMillis();
+    return Math.max(0, Math.min(remainingDelayMs, MAX_RETRY_AFTER_MS));
+  }
+
+  /**
+   * Checks if the circuit of the given {@link Endpoint} is open or half-open, because of
+   * repeated server errors. An open circuit is closed by the next successful upload.
+   *
+   * @param endpoint the Endpoint.
+   * @return {@code true} if the circuit is open, {@code false} otherwise.
+   */
+  public synchronized boolean isCircuitOpen(@NonNull final Endpoint endpoint) {
+    return store.read(endpoint).serverErrorCount >= CIRCUIT_BREAKER_THRESHOLD;
+  }
+
+  /**
+   * Records a successful upload to the given {@link Endpoint}, the next upload can be attempted
+   * without any delay.
+   *
+   * @param endpoint the Endpoint.
+   */
+  public synchronized void onSuccess(@NonNull final Endpoint endpoint) {
+    final EndpointState state = store.read(endpoint);
+    if (state.failureCount != 0 || state.serverErrorCount != 0 || state.nextAttemptTimeMs != 0) {
+      store.write(endpoint, new EndpointState(0, 0, 0));
+    }
+  }
+
+  /**
+   * Records an upload to the given {@link Endpoint} that failed with an unsuccessful
+   * {@link Response}.
+   *
+   * @param endpoint the Endpoint.
+   * @param response the unsuccessful Response.
+   * @return the delay of the next attempt in milliseconds.
+   */
+  public long onFailure(@NonNull final Endpoint endpoint, @NonNull final Response<?> response) {
+    return onFailure(endpoint, response.code(), response.headers());
+  }
+
+  /**
+   * Records an upload to the given {@link Endpoint} that failed without a response from the
+   * server, e.g. the device is offline.
+   *
+   * @param endpoint the Endpoint.
+   * @return the delay of the next attempt in milliseconds.
+   */
+  public long onNetworkError(@NonNull final Endpoint endpoint) {
+    return onFailure(endpoint, 0, null);
+  }
+
+  /**
+   * Records a failed upload to the given {@link Endpoint} and calculates the delay of the next
+   * attempt. The delay is the longest of the exponential backoff, the "Retry-After" header, and
+   * the {@link #CIRCUIT_OPEN_MS} when the circuit is open. A failed probe attempt of a half-open
+   * circuit opens it again. For an Endpoint without backoff, only the "Retry-After" header
+   * delays the next attempt.
+   *
+   * @param endpoint     the Endpoint.
+   * @param responseCode the HTTP status code of the response, or 0 if there was no response.
+   * @param headers      the headers of the response, or {@code null} if there was no response.
+   * @return the delay of the next attempt in milliseconds.
+   */
+  @VisibleForTesting
+  synchronized long onFailure(@NonNull final Endpoint endpoint, final int responseCode,
+                              @Nullable final Headers headers) {
+    final long currentTimeMillis = getCurrentTimeMillis();
+    final EndpointState state = store.read(endpoint);
+    final int failureCount = state.failureCount + 1;
+    final long retryAfterMs =
+        headers == null ? -1 : getRetryAfterMs(headers.get(RETRY_AFTER_HEADER), currentTimeMillis);
+    if (!endpoint.hasBackoff()) {
+      final long delayMs = Math.max(retryAfterMs, 0);
+      TraceLog.d(String.format(Locale.ENGLISH, LogMessageConstants.RETRY_POLICY_BACKOFF,
+          endpoint.getName(), failureCount, delayMs));
+      store.write(endpoint, new EndpointState(failureCount, 0, currentTimeMillis + delayMs));
+      return delayMs;
+    }
+
+    final int serverErrorCount;
+    if (responseCode >= 500) {
+      serverErrorCount = state.serverErrorCount + 1;
+    } else if (responseCode > 0) {
+      serverErrorCount = 0;
+    } else {
+      serverErrorCount = state.serverErrorCount;
+    }
+
+    long delayMs = getBackoffDelayMs(failureCount);
+    if (retryAfterMs >= 0) {
+      delayMs = Math.max(delayMs, addJitter(retryAfterMs, retryAfterMs / 10));
+    }
+    if (serverErrorCount >= CIRCUIT_BREAKER_THRESHOLD) {
+      delayMs = Math.max(delayMs, addJitter(CIRCUIT_OPEN_MS, CIRCUIT_OPEN_MS / 2));
+      TraceLog.w(String.format(Locale.ENGLISH, LogMessageConstants.RETRY_POLICY_CIRCUIT_OPEN,
+          endpoint.getName(), serverErrorCount, delayMs));
+    } else {
+      TraceLog.d(String.format(Locale.ENGLISH, LogMessageConstants.RETRY_POLICY_BACKOFF,
+          endpoint.getName(), failureCount, delayMs));
+    }
+
+    store.write(endpoint,
+        new EndpointState(failureCount, serverErrorCount, currentTimeMillis + delayMs));
+    return delayMs;
+  }
+
+  /**
+   * Gets the jittered exponential backoff delay for the given number of consecutive failures.
+   * The exponential delay is doubled for each failure up to {@link #MAX_BACKOFF_MS}, and the
+   * returned delay is a random value between the half and the whole of it.
+   *
+   * @param failureCount the number of consecutive failures, at least 1.
+   * @return the delay in milliseconds.
+   */
+  @VisibleForTesting
+  long getBackoffDelayMs(final int failureCount) {
+    final int exponent = Math.min(Math.max(failureCount - 1, 0), 30);
+    final long exponentialDelayMs = Math.min(BASE_DELAY_MS << exponent, MAX_BACKOFF_MS);
+    return addJitter(exponentialDelayMs / 2, exponentialDelayMs / 2);
+  }
+
+  /**
+   * Adds a random jitter to the given delay.
+   *
+   * @param delayMs  the delay in milliseconds.
+   * @param jitterMs the maximum of the added jitter in milliseconds.
+   * @return the delay with the jitter.
+   */
+  private long addJitter(final long delayMs, final long jitterMs) {
+    return delayMs + (long) (random.nextDouble() * jitterMs);
+  }
+
+  /**
+   * Parses the value of a "Retry-After" header. The value is either a number of seconds, or an
+   * HTTP date.
+   *
+   * @param value             the value of the header.
+   * @param currentTimeMillis the current time in unix-time milliseconds.
+   * @return the requested delay in milliseconds, at most {@link #MAX_RETRY_AFTER_MS}, or -1 if
+   *     the value is missing or cannot be parsed.
+   */
+  @VisibleForTesting
+  static long getRetryAfterMs(@Nullable final String value, final long currentTimeMillis) {
+    if (value == null) {
+      return -1;
+    }
+    long retryAfterMs;
+    try {
+      retryAfterMs = TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+    } catch (final NumberFormatException e) {
+      final Date date = Headers.of(RETRY_AFTER_HEADER, value).getDate(RETRY_AFTER_HEADER);
+      if (date == null) {
+        return -1;
+      }
+      retryAfterMs = date.getTime() - currentTimeMillis;
+    }
+    return Math.max(0, Math.min(retryAfterMs, MAX_RETRY_AFTER_MS));
+  }
+
+  /**
+   * Gets the current time. The state of the Endpoints is kept across the restarts of the
+   * device, so the wall clock time is used.
+   *
+   * @return the current time in unix-time milliseconds.
+   */
+  @VisibleForTesting
+  long getCurrentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+
+  /**
+   * The endpoints of the server, that have a separate retry state.
+   */
+  public enum Endpoint {
+    METRICS("metrics", true),
+    TRACES("traces", true),
+    CRASHES("crashes", false);
+
+    @NonNull
+    private final String name;
+
+    private final boolean backoff;
+
+    Endpoint(@NonNull final String name, final boolean backoff) {
+      this.name = name;
+      this.backoff = backoff;
+    }
+
+    @NonNull
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Checks if the failed uploads to the Endpoint are backed off, and can open the circuit.
+     *
+     * @return {@code true} if the Endpoint has backoff, {@code false} otherwise.
+     */
+    public boolean hasBackoff() {
+      return backoff;
+    }
+  }
+
+  /**
+   * The retry state of an {@link Endpoint}.
+   */
+  static class EndpointState {
+
+    /**
+     * The number of consecutive failed uploads.
+     */
+    final int failureCount;
+
+    /**
+     * The number of consecutive failed uploads that were rejected with a server error.
+     */
+    final int serverErrorCount;
+
+    /**
+     * The time of the next allowed attempt in unix-time milliseconds.
+     */
+    final long nextAttemptTimeMs;
+
+    /**
+     * Constructor for class.
+     *
+     * @param failureCount      the number of consecutive failed uploads.
+     * @param serverErrorCount  the number of consecutive server errors.
+     * @param nextAttemptTimeMs the time of the next allowed attempt in unix-time milliseconds.
+     */
+    EndpointState(final int failureCount, final int serverErrorCount,
+                  final long nextAttemptTimeMs) {
+      this.failureCount = failureCount;
+      this.serverErrorCount = serverErrorCount;
+      this.nextAttemptTimeMs = nextAttemptTimeMs;
+    }
+  }
+
+  /**
+   * Persists the {@link EndpointState} of the {@link Endpoint}s.
+   */
+  interface Store {
+
+    /**
+     * Reads the state of the given Endpoint.
+     *
+     * @param endpoint the Endpoint.
+     * @return the stored state, or an empty state if nothing was stored yet.
+     */
+    @NonNull
+    EndpointState read(@NonNull Endpoint endpoint);
+
+    /**
+     * Writes the state of the given Endpoint.
+     *
+     * @param endpoint the Endpoint.
+     * @param state    the state to store.
+     */
+    void write(@NonNull Endpoint endpoint, @NonNull EndpointState state);
+  }
+
+  /**
+   * {@link Store} that keeps the state in a SharedPreferences file.
+   */
+  private static class SharedPreferencesStore implements Store {
+
+    private static final String FAILURE_COUNT_KEY = ".failureCount";
+    private static final String SERVER_ERROR_COUNT_KEY = ".serverErrorCount";
+    private static final String NEXT_ATTEMPT_TIME_KEY = ".nextAttemptTime";
+
+    @NonNull
+    private final SharedPreferences sharedPreferences;
+
+    SharedPreferencesStore(@NonNull final Context context) {
+      this.sharedPreferences =
+          context.getSharedPreferences(SHARED_PREFERENCES_FILE_NAME, Context.MODE_PRIVATE);
+    }
+
+    @NonNull
+    @Override
+    public EndpointState read(@NonNull final Endpoint endpoint) {
+      final String name = endpoint.getName();
+      return new EndpointState(
+          sharedPreferences.getInt(name + FAILURE_COUNT_KEY, 0),
+          sharedPreferences.getInt(name + SERVER_ERROR_COUNT_KEY, 0),
+          sharedPreferences.getLong(name + NEXT_ATTEMPT_TIME_KEY, 0));
+    }
+
+    @Override
+    public void write(@NonNull final Endpoint endpoint, @NonNull final EndpointState state) {
+      final String name = endpoint.getName();
+      sharedPreferences.edit()
+                       .putInt(name + FAILURE_COUNT_KEY, state.failureCount)
+                       .putInt(name + SERVER_ERROR_COUNT_KEY, state.serverErrorCount)
+                       .putLong(name + NEXT_ATTEMPT_TIME_KEY, state.nextAttemptTimeMs)
+                       .apply();
+    }
+  }
+}
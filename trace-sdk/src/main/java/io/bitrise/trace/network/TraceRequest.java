@@ -3,6 +3,7 @@ package io.bitrise.trace.network;
 import androidx.annotation.NonNull;
 import com.google.gson.annotations.SerializedName;
 import io.bitrise.trace.data.trace.Trace;
+import io.opencensus.proto.agent.trace.v1.ExportTraceServiceRequest;
 import io.opencensus.proto.resource.v1.Resource;
 import io.opencensus.proto.trace.v1.Span;
 import java.util.List;
@@ -26,4 +27,18 @@ public class TraceRequest extends NetworkRequest {
   public List<Span> getSpans() {
     return spans;
   }
+
+  /**
+   * Converts this request to an {@link ExportTraceServiceRequest} for the binary protobuf
+   * transport.
+   *
+   * @return the ExportTraceServiceRequest with the same Resource and Spans.
+   */
+  @NonNull
+  public ExportTraceServiceRequest toExportRequest() {
+    return ExportTraceServiceRequest.newBuilder()
+                                    .setResource(resource)
+                                    .addAllSpans(spans)
+                                    .build();
+  }
 }
@@ -17,7 +17,6 @@ import io.opencensus.proto.trace.v1.Span;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import retrofit2.Response;
 
@@ -26,6 +25,34 @@ import retrofit2.Response;
  */
 public class TraceSender extends DataSender {
 
+  /**
+   * The {@link RequestChunker} that limits the size of a single {@link TraceRequest}.
+   */
+  @NonNull
+  private static final RequestChunker requestChunker = new RequestChunker();
+
+  /**
+   * Measures the {@link Trace}s for the {@link #requestChunker}. A Trace is stored as a single
+   * entity, so it is never split between chunks.
+   */
+  @NonNull
+  private static final RequestChunker.Measurer<Trace> traceMeasurer =
+      new RequestChunker.Measurer<Trace>() {
+        @Override
+        public int getItemCount(@NonNull final Trace element) {
+          return element.getSpanList().size();
+        }
+
+        @Override
+        public long getByteSize(@NonNull final Trace element) {
+          long byteSize = 0;
+          for (@NonNull final Span span : element.getSpanList()) {
+            byteSize += span.getSerializedSize();
+          }
+          return byteSize;
+        }
+      };
+
   /**
    * The List of Traces that will be sent.
    */
@@ -39,28 +66,42 @@ public class TraceSender extends DataSender {
     setResultSettableFuture(SettableFuture.create());
     final SettableFuture<Result> settableFuture = getResultSettableFuture();
     getExecutor().execute(() -> {
+      final DrainBudget drainBudget = startDrain();
       try {
         if (isStopped()) {
           settableFuture.set(Result.FAILURE);
           return;
         }
 
-        final TraceRequest traceRequest = getNetworkRequest();
-        if (!validateNetworkRequest(traceRequest)) {
-          settableFuture.set(Result.FAILURE);
-          return;
-        }
-
-        final Response<Void> response = getNetworkCommunicator().sendTraces(traceRequest).execute();
-        if (response.isSuccessful()) {
+        Result result = Result.FAILURE;
+        while (!isStopped() && !drainBudget.isExhausted()) {
+          final TraceRequest traceRequest = getNetworkRequest();
+          if (!validateNetworkRequest(traceRequest)) {
+            break;
+          }
+
+          if (!getRetryPolicy().isAttemptAllowed(getEndpoint())) {
+            break;
+          }
+
+          final Response<Void> response = executeRequest(traceRequest);
+          if (!response.isSuccessful()) {
+            getRetryPolicy().onFailure(getEndpoint(), response);
+            TraceLog.w(new TraceException.TraceSenderFailedException(response.code(),
+                response.message()));
+            result = Result.FAILURE;
+            break;
+          }
+
+          getRetryPolicy().onSuccess(getEndpoint());
           onSuccess();
-        } else {
-          TraceLog.w(
-              new TraceException.TraceSenderFailedException(response.code(), response.message()));
-          settableFuture.set(Result.FAILURE);
+          drainBudget.onBatchSent(DrainBudget.getRequestSize(response));
+          result = Result.SUCCESS;
         }
+        settableFuture.set(result);
       } catch (final IOException e) {
         TraceLog.w(e);
+        getRetryPolicy().onNetworkError(getEndpoint());
         settableFuture.setException(e);
       } catch (final IllegalStateException e) {
         TraceLog.w(e);
@@ -68,31 +109,50 @@ public class TraceSender extends DataSender {
           throw e;
         }
       } finally {
-        onSendingFinished(params, isRescheduleNeeded());
+        onDrainFinished(drainBudget);
+        finishSending(params, drainBudget);
       }
     });
     return settableFuture;
   }
 
+  /**
+   * Sends the given {@link TraceRequest} in the binary protobuf format when it is enabled,
+   * otherwise as JSON. When the server rejects the protobuf request, it is sent again as JSON.
+   *
+   * @param traceRequest the TraceRequest to send.
+   * @return the Response received from the backend.
+   * @throws IOException if the request could not be executed.
+   */
+  @VisibleForTesting
+  @NonNull
+  @WorkerThread
+  Response<Void> executeRequest(@NonNull final TraceRequest traceRequest) throws IOException {
+    if (NetworkClient.isProtobufTransportEnabled()) {
+      final Response<Void> response = getNetworkCommunicator()
+          .sendTracesProtobuf(traceRequest.toExportRequest()).execute();
+      if (!NetworkClient.checkProtobufTransportRejected(response.code())) {
+        return response;
+      }
+    }
+    return getNetworkCommunicator().sendTraces(traceRequest).execute();
+  }
+
   @Override
-  @SuppressLint("infer")
+  @WorkerThread
   public void onSuccess() {
     TraceLog.i(LogMessageConstants.TRACE_SENT_SUCCESSFULLY);
-    getExecutor().execute(() -> {
-      if (!getTraceList().isEmpty()) {
-        getDataStorage().deleteTraces(getTraceList());
-        removeResources(getTraceList().get(0).getSessionId());
-      }
-
-      getResultSettableFuture().set(Result.SUCCESS);
-    });
+    if (!getTraceList().isEmpty()) {
+      getDataStorage().deleteTraces(getTraceList());
+      removeResources(getTraceList().get(0).getSessionId());
+    }
   }
 
   @Nullable
   @Override
   @WorkerThread
   TraceRequest getNetworkRequest() {
-    setTraceList(getDataStorage().getFirstTraceGroup());
+    setTraceList(getDataStorage().getFirstTraceGroup(requestChunker.getMaxItemCount()));
     if (getTraceList().isEmpty()) {
       return null;
     }
@@ -101,6 +161,7 @@ public class TraceSender extends DataSender {
     final List<Trace> emptyTraces = findEmptyTraces(getTraceList());
     removeEmptyTracesFromTraceList(emptyTraces);
     removeEmptyTracesFromDataStorage(emptyTraces);
+    setTraceList(requestChunker.takeChunk(getTraceList(), traceMeasurer));
 
     final List<Span> spans = TraceUtils.getSpans(getTraceList());
     if (spans.isEmpty()) {
@@ -140,26 +201,35 @@ public class TraceSender extends DataSender {
   }
 
   /**
-   * Removes Traces without spans from the dataStore.
+   * Removes Traces without spans from the dataStore. They are removed on the calling worker
+   * thread, so the next {@link #getNetworkRequest()} does not read them again.
    *
    * @param emptyTraces the list of traces to be removed from the dataStorage.
    */
+  @WorkerThread
   private void removeEmptyTracesFromDataStorage(@NonNull final List<Trace> emptyTraces) {
     if (emptyTraces.size() > 0) {
-      Executors.newSingleThreadExecutor().execute(() -> getDataStorage().deleteTraces(emptyTraces));
+      getDataStorage().deleteTraces(emptyTraces);
     }
   }
 
   @Override
   public boolean onStartJob(@Nullable final JobParameters params) {
+    cancelOtherRun(params);
     send(params);
     return true;
   }
 
+  @NonNull
+  @Override
+  RetryPolicy.Endpoint getEndpoint() {
+    return RetryPolicy.Endpoint.TRACES;
+  }
+
   @Override
   @WorkerThread
   boolean hasData() {
-    return getDataStorage().getAllTraces().size() > 0;
+    return getDataStorage().hasTraces();
   }
 
   @VisibleForTesting
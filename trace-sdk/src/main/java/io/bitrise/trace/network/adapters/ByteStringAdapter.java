@@ -1,28 +1,26 @@
 package io.bitrise.trace.network.adapters;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import androidx.annotation.NonNull;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.google.protobuf.ByteString;
 import io.bitrise.trace.utils.ByteStringConverter;
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * This adapter serializes and deserializes {@link ByteString} type fields.
  */
-public class ByteStringAdapter implements JsonSerializer<ByteString>, JsonDeserializer<ByteString> {
+public class ByteStringAdapter extends TypeAdapter<ByteString> {
+
   @Override
-  public ByteString deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
-      throws JsonParseException {
-    return ByteStringConverter.toByteString(json.getAsString());
+  public void write(@NonNull final JsonWriter out, @NonNull final ByteString value)
+      throws IOException {
+    out.value(ByteStringConverter.toString(value));
   }
 
   @Override
-  public JsonElement serialize(ByteString src, Type typeOfSrc, JsonSerializationContext context) {
-    return new JsonPrimitive(ByteStringConverter.toString(src));
+  public ByteString read(@NonNull final JsonReader in) throws IOException {
+    return ByteStringConverter.toByteString(in.nextString());
   }
 }
@@ -1,71 +1,71 @@
 package io.bitrise.trace.network.adapters;
 
 import androidx.annotation.NonNull;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
-import io.bitrise.trace.network.NetworkClient;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import io.opencensus.proto.metrics.v1.Metric;
 import io.opencensus.proto.metrics.v1.MetricDescriptor;
 import io.opencensus.proto.metrics.v1.TimeSeries;
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * This adapter serializes and deserializes {@link Metric} objects.
  */
-public class MetricAdapter implements JsonSerializer<Metric>, JsonDeserializer<Metric> {
+public class MetricAdapter extends TypeAdapter<Metric> {
 
   private static final String PROPERTY_METRIC_DESCRIPTOR = "metric_descriptor";
   private static final String PROPERTY_TIMESERIES = "timeseries";
 
+  @NonNull
+  private final MetricDescriptorAdapter metricDescriptorAdapter = new MetricDescriptorAdapter();
+
+  @NonNull
+  private final TimeSeriesAdapter timeSeriesAdapter = new TimeSeriesAdapter();
+
   @Override
-  public Metric deserialize(@NonNull final JsonElement json,
-                            @NonNull final Type typeOfT,
-                            @NonNull final JsonDeserializationContext context)
-      throws JsonParseException {
-    final JsonObject srcMetric = json.getAsJsonObject();
-    final Metric.Builder builder = Metric.newBuilder();
+  public void write(@NonNull final JsonWriter out, @NonNull final Metric value)
+      throws IOException {
+    out.beginObject();
 
-    if (srcMetric.has(PROPERTY_METRIC_DESCRIPTOR)) {
-      builder.setMetricDescriptor(NetworkClient.getGson().fromJson(
-          srcMetric.get(PROPERTY_METRIC_DESCRIPTOR), MetricDescriptor.class));
+    if (value.getMetricDescriptor() != MetricDescriptor.getDefaultInstance()) {
+      out.name(PROPERTY_METRIC_DESCRIPTOR);
+      metricDescriptorAdapter.write(out, value.getMetricDescriptor());
     }
 
-    if (srcMetric.has(PROPERTY_TIMESERIES)
-        && srcMetric.get(PROPERTY_TIMESERIES).isJsonArray()) {
-      final JsonArray jsonArray = srcMetric.get(PROPERTY_TIMESERIES).getAsJsonArray();
-      for (JsonElement jsonElement : jsonArray) {
-        builder.addTimeseries(NetworkClient.getGson().fromJson(
-            jsonElement.getAsJsonObject(), TimeSeries.class));
+    if (value.getTimeseriesCount() > 0) {
+      out.name(PROPERTY_TIMESERIES).beginArray();
+      for (final TimeSeries timeSeries : value.getTimeseriesList()) {
+        timeSeriesAdapter.write(out, timeSeries);
       }
+      out.endArray();
     }
-    return builder.build();
+
+    out.endObject();
   }
 
   @Override
-  public JsonElement serialize(@NonNull final Metric src,
-                               @NonNull final Type typeOfSrc,
-                               @NonNull final JsonSerializationContext context) {
-    final JsonObject jsonObject = new JsonObject();
-
-    if (src.getMetricDescriptor() != MetricDescriptor.getDefaultInstance()) {
-      jsonObject.add(PROPERTY_METRIC_DESCRIPTOR,
-          NetworkClient.getGson().toJsonTree(src.getMetricDescriptor()));
-    }
-
-    if (src.getTimeseriesCount() > 0) {
-      final JsonArray jsonTimeSeries = new JsonArray();
-      for (final TimeSeries timeSeries : src.getTimeseriesList()) {
-        jsonTimeSeries.add(NetworkClient.getGson().toJsonTree(timeSeries));
+  public Metric read(@NonNull final JsonReader in) throws IOException {
+    final Metric.Builder builder = Metric.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case PROPERTY_METRIC_DESCRIPTOR:
+          builder.setMetricDescriptor(metricDescriptorAdapter.read(in));
+          break;
+        case PROPERTY_TIMESERIES:
+          in.beginArray();
+          while (in.hasNext()) {
+            builder.addTimeseries(timeSeriesAdapter.read(in));
+          }
+          in.endArray();
+          break;
+        default:
+          in.skipValue();
+          break;
       }
-      jsonObject.add(PROPERTY_TIMESERIES, jsonTimeSeries);
     }
-
-    return jsonObject;
+    in.endObject();
+    return builder.build();
   }
 }
@@ -1,23 +1,17 @@
 package io.bitrise.trace.network.adapters;
 
 import androidx.annotation.NonNull;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import io.opencensus.proto.metrics.v1.LabelKey;
 import io.opencensus.proto.metrics.v1.MetricDescriptor;
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * This adapter serializes and deserializes {@link MetricDescriptor} objects.
  */
-public class MetricDescriptorAdapter implements JsonSerializer<MetricDescriptor>,
-    JsonDeserializer<MetricDescriptor> {
+public class MetricDescriptorAdapter extends TypeAdapter<MetricDescriptor> {
 
   private static final String PROPERTY_NAME = "name";
   private static final String PROPERTY_DESCRIPTION = "description";
@@ -27,64 +21,91 @@ public class MetricDescriptorAdapter implements JsonSerializer<MetricDescriptor>
   private static final String PROPERTY_KEY = "key";
 
   @Override
-  public MetricDescriptor deserialize(@NonNull final JsonElement json,
-                                      @NonNull final Type typeOfT,
-                                      @NonNull final JsonDeserializationContext context)
-      throws JsonParseException {
-    final JsonObject srcMetric = json.getAsJsonObject();
+  public void write(@NonNull final JsonWriter out, @NonNull final MetricDescriptor value)
+      throws IOException {
+    out.beginObject();
+    out.name(PROPERTY_NAME).value(value.getName());
+    out.name(PROPERTY_DESCRIPTION).value(value.getDescription());
+    out.name(PROPERTY_UNIT).value(value.getUnit());
+    out.name(PROPERTY_TYPE).value(value.getTypeValue());
+
+    if (value.getLabelKeysCount() > 0) {
+      out.name(PROPERTY_LABEL_KEYS).beginArray();
+      for (LabelKey key : value.getLabelKeysList()) {
+        out.beginObject();
+        out.name(PROPERTY_KEY).value(key.getKey());
 
-    final MetricDescriptor.Builder builder = MetricDescriptor.newBuilder();
-    builder.setName(srcMetric.get(PROPERTY_NAME).getAsString());
-    builder.setDescription(srcMetric.get(PROPERTY_DESCRIPTION).getAsString());
-    builder.setUnit(srcMetric.get(PROPERTY_UNIT).getAsString());
-    builder.setTypeValue(srcMetric.get(PROPERTY_TYPE).getAsInt());
-
-    if (srcMetric.has(PROPERTY_LABEL_KEYS)
-        && srcMetric.get(PROPERTY_LABEL_KEYS).isJsonArray()) {
-      final JsonArray srcLabels = srcMetric.get(PROPERTY_LABEL_KEYS).getAsJsonArray();
-
-      for (JsonElement jsonElement : srcLabels) {
-        final JsonObject jsonKey = jsonElement.getAsJsonObject();
-        final LabelKey.Builder labelKeyBuilder = LabelKey.newBuilder();
-        labelKeyBuilder.setKey(jsonKey.get(PROPERTY_KEY).getAsString());
-
-        if (jsonKey.has(PROPERTY_DESCRIPTION)) {
-          labelKeyBuilder.setDescription(jsonKey.get(PROPERTY_DESCRIPTION).getAsString());
+        if (key.getDescription().length() > 0) {
+          out.name(PROPERTY_DESCRIPTION).value(key.getDescription());
         }
 
-        builder.addLabelKeys(labelKeyBuilder);
+        out.endObject();
       }
+      out.endArray();
     }
 
-    return builder.build();
+    out.endObject();
   }
 
   @Override
-  public JsonElement serialize(@NonNull final MetricDescriptor src,
-                               @NonNull final Type typeOfSrc,
-                               @NonNull final JsonSerializationContext context) {
-
-    final JsonObject jsonObject = new JsonObject();
-    jsonObject.addProperty(PROPERTY_NAME, src.getName());
-    jsonObject.addProperty(PROPERTY_DESCRIPTION, src.getDescription());
-    jsonObject.addProperty(PROPERTY_UNIT, src.getUnit());
-    jsonObject.addProperty(PROPERTY_TYPE, src.getTypeValue());
-
-    if (src.getLabelKeysCount() > 0) {
-      final JsonArray jsonKeys = new JsonArray();
-      for (LabelKey key : src.getLabelKeysList()) {
-        final JsonObject jsonKey = new JsonObject();
-        jsonKey.addProperty(PROPERTY_KEY, key.getKey());
-
-        if (key.getDescription().length() > 0) {
-          jsonKey.addProperty(PROPERTY_DESCRIPTION, key.getDescription());
-        }
-
-        jsonKeys.add(jsonKey);
+  public MetricDescriptor read(@NonNull final JsonReader in) throws IOException {
+    final MetricDescriptor.Builder builder = MetricDescriptor.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case PROPERTY_NAME:
+          builder.setName(in.nextString());
+          break;
+        case PROPERTY_DESCRIPTION:
+          builder.setDescription(in.nextString());
+          break;
+        case PROPERTY_UNIT:
+          builder.setUnit(in.nextString());
+          break;
+        case PROPERTY_TYPE:
+          builder.setTypeValue(in.nextInt());
+          break;
+        case PROPERTY_LABEL_KEYS:
+          in.beginArray();
+          while (in.hasNext()) {
+            builder.addLabelKeys(readLabelKey(in));
+          }
+          in.endArray();
+          break;
+        default:
+          in.skipValue();
+          break;
       }
-      jsonObject.add(PROPERTY_LABEL_KEYS, jsonKeys);
     }
+    in.endObject();
+    return builder.build();
+  }
 
-    return jsonObject;
+  /**
+   * Reads a single {@link LabelKey} of the label key array.
+   *
+   * @param in the JsonReader positioned at the LabelKey.
+   * @return the LabelKey.
+   * @throws IOException if the LabelKey cannot be read.
+   */
+  @NonNull
+  private static LabelKey readLabelKey(@NonNull final JsonReader in) throws IOException {
+    final LabelKey.Builder labelKeyBuilder = LabelKey.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case PROPERTY_KEY:
+          labelKeyBuilder.setKey(in.nextString());
+          break;
+        case PROPERTY_DESCRIPTION:
+          labelKeyBuilder.setDescription(in.nextString());
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return labelKeyBuilder.build();
   }
 }
@@ -1,93 +1,50 @@
 package io.bitrise.trace.network.adapters;
 
 import androidx.annotation.NonNull;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
-import com.google.protobuf.Timestamp;
-import io.bitrise.trace.network.NetworkClient;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import io.opencensus.proto.metrics.v1.DistributionValue;
 import io.opencensus.proto.metrics.v1.Point;
 import io.opencensus.proto.metrics.v1.SummaryValue;
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * This adapter serializes and deserializes {@link Point} type fields.
  * This is required for the time being as the backend does not support double_value or int64_value
  * but instead requires value. This is because proto oneOfs are confusing.
  */
-public class PointAdapter implements JsonSerializer<Point>, JsonDeserializer<Point> {
+public class PointAdapter extends TypeAdapter<Point> {
 
   private static final String PROPERTY_VALUE = "value";
   private static final String PROPERTY_TIMESTAMP = "timestamp";
   private static final String PROPERTY_VALUE_CASE = "value_case";
 
-  @Override
-  public Point deserialize(@NonNull final JsonElement json,
-                           @NonNull final Type typeOfT,
-                           @NonNull final JsonDeserializationContext context)
-      throws JsonParseException {
-    final JsonObject srcPoint = json.getAsJsonObject();
-    final JsonElement srcValueCase = srcPoint.get(PROPERTY_VALUE_CASE);
-    final Point.Builder pointBuilder = Point.newBuilder();
-
-    if (srcValueCase != null) {
-      final Point.ValueCase valueCase = Point.ValueCase.forNumber(srcValueCase.getAsInt());
+  @NonNull
+  private final TimestampAdapter timestampAdapter = new TimestampAdapter();
 
-      if (valueCase != null) {
-        switch (valueCase) {
-          case INT64_VALUE:
-            pointBuilder.setInt64Value(srcPoint.get(PROPERTY_VALUE).getAsInt());
-            break;
-          case DOUBLE_VALUE:
-            pointBuilder.setDoubleValue(srcPoint.get(PROPERTY_VALUE).getAsDouble());
-            break;
-          case DISTRIBUTION_VALUE:
-            final DistributionValue distributionValue = NetworkClient.getGson().fromJson(
-                srcPoint.get(PROPERTY_VALUE), DistributionValue.class);
-            pointBuilder.setDistributionValue(distributionValue);
-            break;
-          case SUMMARY_VALUE:
-            final SummaryValue summaryValue = NetworkClient.getGson().fromJson(
-                srcPoint.get(PROPERTY_VALUE), SummaryValue.class);
-            pointBuilder.setSummaryValue(summaryValue);
-            break;
-          case VALUE_NOT_SET:
-            // we deliberately do not deserialize values that were not set.
-            break;
-          default:
-            // nop.
-            break;
-        }
-      }
-    }
-
-    final Timestamp timestamp = NetworkClient.getGson().fromJson(
-        srcPoint.get(PROPERTY_TIMESTAMP), Timestamp.class);
-    pointBuilder.setTimestamp(timestamp);
-    return pointBuilder.build();
-  }
+  @NonNull
+  private final SummaryValueAdapter summaryValueAdapter = new SummaryValueAdapter();
 
   @Override
-  public JsonElement serialize(@NonNull final Point src,
-                               @NonNull final Type typeOfSrc,
-                               @NonNull final JsonSerializationContext context) {
-    final JsonObject jsonObject = new JsonObject();
+  public void write(@NonNull final JsonWriter out, @NonNull final Point value)
+      throws IOException {
+    out.beginObject();
 
-    switch (src.getValueCase()) {
+    switch (value.getValueCase()) {
       case INT64_VALUE:
-        jsonObject.addProperty(PROPERTY_VALUE, src.getInt64Value());
+        out.name(PROPERTY_VALUE).value(value.getInt64Value());
         break;
       case DOUBLE_VALUE:
-        jsonObject.addProperty(PROPERTY_VALUE, src.getDoubleValue());
+        out.name(PROPERTY_VALUE).value(value.getDoubleValue());
         break;
       case DISTRIBUTION_VALUE:
+        out.name(PROPERTY_VALUE).beginObject().endObject();
+        break;
       case SUMMARY_VALUE:
-        jsonObject.add(PROPERTY_VALUE, new JsonObject());
+        out.name(PROPERTY_VALUE);
+        summaryValueAdapter.write(out, value.getSummaryValue());
         break;
       case VALUE_NOT_SET:
         // we deliberately do not serialize values that are not set.
@@ -97,8 +54,74 @@ public class PointAdapter implements JsonSerializer<Point>, JsonDeserializer<Poi
         break;
     }
 
-    jsonObject.addProperty(PROPERTY_VALUE_CASE, src.getValueCase().getNumber());
-    jsonObject.add(PROPERTY_TIMESTAMP, NetworkClient.getGson().toJsonTree(src.getTimestamp()));
-    return jsonObject;
+    out.name(PROPERTY_VALUE_CASE).value(value.getValueCase().getNumber());
+    out.name(PROPERTY_TIMESTAMP);
+    timestampAdapter.write(out, value.getTimestamp());
+    out.endObject();
+  }
+
+  @Override
+  public Point read(@NonNull final JsonReader in) throws IOException {
+    final Point.Builder pointBuilder = Point.newBuilder();
+    Point.ValueCase valueCase = null;
+    String value = null;
+    SummaryValue summaryValue = null;
+
+    // the value precedes the value_case, so the value is kept until the whole object is read
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case PROPERTY_VALUE:
+          if (in.peek() == JsonToken.NUMBER) {
+            value = in.nextString();
+          } else if (in.peek() == JsonToken.BEGIN_OBJECT) {
+            // only summaries have object values with content, distributions are always empty
+            summaryValue = summaryValueAdapter.read(in);
+          } else {
+            in.skipValue();
+          }
+          break;
+        case PROPERTY_VALUE_CASE:
+          valueCase = Point.ValueCase.forNumber(in.nextInt());
+          break;
+        case PROPERTY_TIMESTAMP:
+          pointBuilder.setTimestamp(timestampAdapter.read(in));
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+
+    if (valueCase != null) {
+      switch (valueCase) {
+        case INT64_VALUE:
+          if (value != null) {
+            pointBuilder.setInt64Value(Long.parseLong(value));
+          }
+          break;
+        case DOUBLE_VALUE:
+          if (value != null) {
+            pointBuilder.setDoubleValue(Double.parseDouble(value));
+          }
+          break;
+        case DISTRIBUTION_VALUE:
+          pointBuilder.setDistributionValue(DistributionValue.getDefaultInstance());
+          break;
+        case SUMMARY_VALUE:
+          pointBuilder.setSummaryValue(
+              summaryValue == null ? SummaryValue.getDefaultInstance() : summaryValue);
+          break;
+        case VALUE_NOT_SET:
+          // we deliberately do not deserialize values that were not set.
+          break;
+        default:
+          // nop.
+          break;
+      }
+    }
+
+    return pointBuilder.build();
   }
 }
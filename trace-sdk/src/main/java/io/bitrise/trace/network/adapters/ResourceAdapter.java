@@ -1,62 +1,62 @@
 package io.bitrise.trace.network.adapters;
 
 import androidx.annotation.NonNull;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import io.opencensus.proto.resource.v1.Resource;
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.util.Map;
 import java.util.TreeSet;
 
 /**
  * Adapter for {@link Resource} objects.
  */
-public class ResourceAdapter implements JsonSerializer<Resource>, JsonDeserializer<Resource> {
+public class ResourceAdapter extends TypeAdapter<Resource> {
 
   private static final String PROPERTY_LABELS = "labels";
   private static final String PROPERTY_TYPE = "type";
 
   @Override
-  public Resource deserialize(@NonNull final JsonElement json, @NonNull final Type typeOfT,
-                              @NonNull final JsonDeserializationContext context)
-      throws JsonParseException {
+  public void write(@NonNull final JsonWriter out, @NonNull final Resource value)
+      throws IOException {
+    out.beginObject();
+    out.name(PROPERTY_LABELS).beginObject();
+    if (value.getLabelsCount() > 0) {
 
-    final JsonObject srcResource = json.getAsJsonObject();
-    final Resource.Builder resource = Resource.newBuilder();
-
-    if (srcResource.has(PROPERTY_TYPE)) {
-      resource.setType(srcResource.get(PROPERTY_TYPE).getAsString());
-    }
-
-    if (srcResource.has(PROPERTY_LABELS)) {
-      final JsonObject srcLabels = srcResource.get(PROPERTY_LABELS).getAsJsonObject();
-      for (Map.Entry<String, JsonElement> entry : srcLabels.entrySet()) {
-        resource.putLabels(entry.getKey(), entry.getValue().getAsString());
+      final Map<String, String> labelsMap = value.getLabelsMap();
+      final TreeSet<String> labelKeys = new TreeSet<>(labelsMap.keySet());
+      for (String key : labelKeys) {
+        out.name(key).value(labelsMap.get(key));
       }
     }
-    return resource.build();
+    out.endObject();
+    out.name(PROPERTY_TYPE).value(value.getType());
+    out.endObject();
   }
 
   @Override
-  public JsonElement serialize(@NonNull final Resource src, Type typeOfSrc,
-                               @NonNull final JsonSerializationContext context) {
-    final JsonObject resource = new JsonObject();
-    final JsonObject labels = new JsonObject();
-    if (src.getLabelsCount() > 0) {
-
-      final Map<String, String> labelsMap = src.getLabelsMap();
-      final TreeSet<String> labelKeys = new TreeSet<>(labelsMap.keySet());
-      for (String key : labelKeys) {
-        labels.addProperty(key, labelsMap.get(key));
+  public Resource read(@NonNull final JsonReader in) throws IOException {
+    final Resource.Builder resource = Resource.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case PROPERTY_TYPE:
+          resource.setType(in.nextString());
+          break;
+        case PROPERTY_LABELS:
+          in.beginObject();
+          while (in.hasNext()) {
+            resource.putLabels(in.nextName(), in.nextString());
+          }
+          in.endObject();
+          break;
+        default:
+          in.skipValue();
+          break;
       }
     }
-    resource.add(PROPERTY_LABELS, labels);
-    resource.addProperty(PROPERTY_TYPE, src.getType());
-    return resource;
+    in.endObject();
+    return resource.build();
   }
 }
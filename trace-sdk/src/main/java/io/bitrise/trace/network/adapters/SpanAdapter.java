@@ -1,25 +1,16 @@
 package io.bitrise.trace.network.adapters;
 
 import androidx.annotation.NonNull;
-import com.google.gson.Gson;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
-import com.google.protobuf.ByteString;
-import com.google.protobuf.Timestamp;
-import io.bitrise.trace.network.NetworkClient;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import io.opencensus.proto.trace.v1.Span;
-import io.opencensus.proto.trace.v1.TruncatableString;
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * This adapter serializes and deserializes {@link Span} objects.
  */
-public class SpanAdapter implements JsonSerializer<Span>, JsonDeserializer<Span> {
+public class SpanAdapter extends TypeAdapter<Span> {
 
   private static final String PROPERTY_TRACE_ID = "trace_id";
   private static final String PROPERTY_SPAN_ID = "span_id";
@@ -30,65 +21,85 @@ public class SpanAdapter implements JsonSerializer<Span>, JsonDeserializer<Span>
   private static final String PROPERTY_ATTRIBUTES = "attributes";
   private static final String PROPERTY_KIND = "kind";
 
+  @NonNull
+  private final ByteStringAdapter byteStringAdapter = new ByteStringAdapter();
 
-  @Override
-  public Span deserialize(@NonNull final JsonElement json,
-                          @NonNull final Type typeOfT,
-                          @NonNull final JsonDeserializationContext context)
-      throws JsonParseException {
-    final JsonObject srcSpan = json.getAsJsonObject();
-    final Span.Builder builder = Span.newBuilder();
+  @NonNull
+  private final TruncatableStringAdapter truncatableStringAdapter =
+      new TruncatableStringAdapter();
 
-    builder.setTraceId(NetworkClient.getGson().fromJson(
-        srcSpan.get(PROPERTY_TRACE_ID), ByteString.class));
-    builder.setSpanId(NetworkClient.getGson().fromJson(
-        srcSpan.get(PROPERTY_SPAN_ID), ByteString.class));
-    builder.setName(NetworkClient.getGson().fromJson(
-        srcSpan.get(PROPERTY_NAME), TruncatableString.class));
+  @NonNull
+  private final TimestampAdapter timestampAdapter = new TimestampAdapter();
 
-    if (srcSpan.has(PROPERTY_PARENT_SPAN_ID)) {
-      builder.setParentSpanId(NetworkClient.getGson().fromJson(
-          srcSpan.get(PROPERTY_PARENT_SPAN_ID), ByteString.class));
+  @NonNull
+  private final SpanAttributeAdapter spanAttributeAdapter = new SpanAttributeAdapter();
+
+  @Override
+  public void write(@NonNull final JsonWriter out, @NonNull final Span value)
+      throws IOException {
+    out.beginObject();
+    out.name(PROPERTY_TRACE_ID);
+    byteStringAdapter.write(out, value.getTraceId());
+    out.name(PROPERTY_SPAN_ID);
+    byteStringAdapter.write(out, value.getSpanId());
+
+    if (!value.getParentSpanId().isEmpty()) {
+      out.name(PROPERTY_PARENT_SPAN_ID);
+      byteStringAdapter.write(out, value.getParentSpanId());
     }
 
-    builder.setStartTime(NetworkClient.getGson().fromJson(
-        srcSpan.get(PROPERTY_START_TIME), Timestamp.class));
-    builder.setEndTime(NetworkClient.getGson().fromJson(
-        srcSpan.get(PROPERTY_END_TIME), Timestamp.class));
+    out.name(PROPERTY_NAME);
+    truncatableStringAdapter.write(out, value.getName());
+    out.name(PROPERTY_START_TIME);
+    timestampAdapter.write(out, value.getStartTime());
+    out.name(PROPERTY_END_TIME);
+    timestampAdapter.write(out, value.getEndTime());
 
-    if (srcSpan.has(PROPERTY_ATTRIBUTES)) {
-      builder.setAttributes(NetworkClient.getGson().fromJson(
-          srcSpan.get(PROPERTY_ATTRIBUTES), Span.Attributes.class));
+    if (value.getAttributes().getAttributeMapCount() > 0) {
+      out.name(PROPERTY_ATTRIBUTES);
+      spanAttributeAdapter.write(out, value.getAttributes());
     }
 
-    builder.setKindValue(srcSpan.get(PROPERTY_KIND).getAsInt());
-
-    return builder.build();
+    out.name(PROPERTY_KIND).value(value.getKindValue());
+    out.endObject();
   }
 
   @Override
-  public JsonElement serialize(@NonNull final Span src,
-                               @NonNull final Type typeOfSrc,
-                               @NonNull final JsonSerializationContext context) {
-    final JsonObject jsonObject = new JsonObject();
-    final Gson gson = NetworkClient.getGson();
-    jsonObject.add(PROPERTY_TRACE_ID, gson.toJsonTree(src.getTraceId()));
-    jsonObject.add(PROPERTY_SPAN_ID, gson.toJsonTree(src.getSpanId()));
-
-    if (!src.getParentSpanId().isEmpty()) {
-      jsonObject.add(PROPERTY_PARENT_SPAN_ID, gson.toJsonTree(src.getParentSpanId()));
-    }
-
-    jsonObject.add(PROPERTY_NAME, gson.toJsonTree(src.getName()));
-    jsonObject.add(PROPERTY_START_TIME, gson.toJsonTree(src.getStartTime()));
-    jsonObject.add(PROPERTY_END_TIME, gson.toJsonTree(src.getEndTime()));
-
-    if (src.getAttributes().getAttributeMapCount() > 0) {
-      jsonObject.add(PROPERTY_ATTRIBUTES, NetworkClient.getGson().toJsonTree(src.getAttributes()));
+  public Span read(@NonNull final JsonReader in) throws IOException {
+    final Span.Builder builder = Span.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case PROPERTY_TRACE_ID:
+          builder.setTraceId(byteStringAdapter.read(in));
+          break;
+        case PROPERTY_SPAN_ID:
+          builder.setSpanId(byteStringAdapter.read(in));
+          break;
+        case PROPERTY_PARENT_SPAN_ID:
+          builder.setParentSpanId(byteStringAdapter.read(in));
+          break;
+        case PROPERTY_NAME:
+          builder.setName(truncatableStringAdapter.read(in));
+          break;
+        case PROPERTY_START_TIME:
+          builder.setStartTime(timestampAdapter.read(in));
+          break;
+        case PROPERTY_END_TIME:
+          builder.setEndTime(timestampAdapter.read(in));
+          break;
+        case PROPERTY_ATTRIBUTES:
+          builder.setAttributes(spanAttributeAdapter.read(in));
+          break;
+        case PROPERTY_KIND:
+          builder.setKindValue(in.nextInt());
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
     }
-
-    jsonObject.addProperty(PROPERTY_KIND, src.getKindValue());
-
-    return jsonObject;
+    in.endObject();
+    return builder.build();
   }
 }
@@ -2,16 +2,15 @@ package io.bitrise.trace.network.adapters;
 
 import static io.bitrise.trace.test.TraceTestProvider.getTruncatableString;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import io.opencensus.proto.trace.v1.AttributeValue;
 import io.opencensus.proto.trace.v1.Span;
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -20,107 +19,134 @@ import java.util.Map;
  * with a StackOverflowError. We also need to serialize the values as value, not string_value etc to
  * satisfy the contract with our current backend systems.
  */
-public class SpanAttributeAdapter
-    implements JsonSerializer<Span.Attributes>, JsonDeserializer<Span.Attributes> {
+public class SpanAttributeAdapter extends TypeAdapter<Span.Attributes> {
 
   private static final String PROPERTY_VALUE = "value";
   private static final String PROPERTY_VALUE_CASE = "value_case";
   private static final String PROPERTY_ATTRIBUTE_MAP = "attribute_map";
 
   @Override
-  public Span.Attributes deserialize(JsonElement json, Type typeOfT,
-                                     JsonDeserializationContext context) throws JsonParseException {
-    JsonObject srcAttributes = json.getAsJsonObject();
-    JsonObject srcAttributeMap = srcAttributes.get(PROPERTY_ATTRIBUTE_MAP).getAsJsonObject();
+  public void write(@NonNull final JsonWriter out, @NonNull final Span.Attributes value)
+      throws IOException {
+    out.beginObject();
+    out.name(PROPERTY_ATTRIBUTE_MAP).beginObject();
 
-    final Span.Attributes.Builder attributes = Span.Attributes.newBuilder();
+    final Map<String, AttributeValue> srcAttributeMap = value.getAttributeMapMap();
     for (String key : srcAttributeMap.keySet()) {
-      JsonObject srcAttribute = srcAttributeMap.get(key).getAsJsonObject()
-                                               .get(PROPERTY_VALUE).getAsJsonObject();
+      final AttributeValue srcAttribute = srcAttributeMap.get(key);
+      out.name(key).beginObject();
+      out.name(PROPERTY_VALUE).beginObject();
 
-      AttributeValue.ValueCase valueCase = AttributeValue.ValueCase.forNumber(
-          srcAttribute.get(PROPERTY_VALUE_CASE).getAsInt());
-      if (valueCase != null) {
-        switch (valueCase) {
+      if (srcAttribute != null) {
+        out.name(PROPERTY_VALUE_CASE).value(srcAttribute.getValueCase().getNumber());
+        switch (srcAttribute.getValueCase()) {
           case STRING_VALUE:
-            attributes.putAttributeMap(
-                key, AttributeValue.newBuilder()
-                                   .setStringValue(getTruncatableString(
-                                       srcAttribute.get(PROPERTY_VALUE).getAsString()))
-                                   .build());
-
+            out.name(PROPERTY_VALUE).value(srcAttribute.getStringValue().getValue());
             break;
           case INT_VALUE:
-            attributes.putAttributeMap(
-                key, AttributeValue.newBuilder()
-                                   .setIntValue(srcAttribute.get(PROPERTY_VALUE).getAsInt())
-                                   .build());
+            out.name(PROPERTY_VALUE).value(srcAttribute.getIntValue());
             break;
           case BOOL_VALUE:
-            attributes.putAttributeMap(
-                key, AttributeValue.newBuilder()
-                                   .setBoolValue(srcAttribute.get(PROPERTY_VALUE).getAsBoolean())
-                                   .build());
+            out.name(PROPERTY_VALUE).value(srcAttribute.getBoolValue());
             break;
           case DOUBLE_VALUE:
-            attributes.putAttributeMap(
-                key, AttributeValue.newBuilder()
-                                   .setDoubleValue(srcAttribute.get(PROPERTY_VALUE).getAsDouble())
-                                   .build());
+            out.name(PROPERTY_VALUE).value(srcAttribute.getDoubleValue());
             break;
           case VALUE_NOT_SET:
-            // we deliberately do not deserialize values that were not set.
+            // we deliberately do not serialize values that are not set.
             break;
           default:
             // nop.
             break;
         }
       }
+
+      out.endObject();
+      out.endObject();
     }
-    return attributes.build();
+
+    out.endObject();
+    out.endObject();
   }
 
   @Override
-  public JsonElement serialize(Span.Attributes src, Type typeOfSrc,
-                               JsonSerializationContext context) {
-    final JsonObject attributes = new JsonObject();
-    final JsonObject attributeMap = new JsonObject();
+  public Span.Attributes read(@NonNull final JsonReader in) throws IOException {
+    final Span.Attributes.Builder attributes = Span.Attributes.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      if (!PROPERTY_ATTRIBUTE_MAP.equals(in.nextName())) {
+        in.skipValue();
+        continue;
+      }
 
-    final Map<String, AttributeValue> srcAttributeMap = src.getAttributeMapMap();
-    for (String key : srcAttributeMap.keySet()) {
-      AttributeValue srcAttribute = srcAttributeMap.get(key);
-      JsonObject attribute = new JsonObject();
-      JsonObject value = new JsonObject();
+      in.beginObject();
+      while (in.hasNext()) {
+        final String key = in.nextName();
+        final AttributeValue attributeValue = readAttribute(in);
+        if (attributeValue != null) {
+          attributes.putAttributeMap(key, attributeValue);
+        }
+      }
+      in.endObject();
+    }
+    in.endObject();
+    return attributes.build();
+  }
 
-      if (srcAttribute != null) {
-        value.addProperty(PROPERTY_VALUE_CASE, srcAttribute.getValueCase().getNumber());
-        switch (srcAttribute.getValueCase()) {
-          case STRING_VALUE:
-            value.addProperty(PROPERTY_VALUE, srcAttribute.getStringValue().getValue());
-            break;
-          case INT_VALUE:
-            value.addProperty(PROPERTY_VALUE, srcAttribute.getIntValue());
-            break;
-          case BOOL_VALUE:
-            value.addProperty(PROPERTY_VALUE, srcAttribute.getBoolValue());
-            break;
-          case DOUBLE_VALUE:
-            value.addProperty(PROPERTY_VALUE, srcAttribute.getDoubleValue());
-            break;
-          case VALUE_NOT_SET:
-            // we deliberately do not serialize values that are not set.
-            break;
-          default:
-            // nop.
-            break;
+  /**
+   * Reads a single attribute of the attribute map.
+   *
+   * @param in the JsonReader positioned at the attribute.
+   * @return the AttributeValue, or {@code null} if the value was not set, or its type is not
+   *     known.
+   * @throws IOException if the attribute cannot be read.
+   */
+  @Nullable
+  private static AttributeValue readAttribute(@NonNull final JsonReader in) throws IOException {
+    AttributeValue.ValueCase valueCase = null;
+    String value = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      if (!PROPERTY_VALUE.equals(in.nextName())) {
+        in.skipValue();
+        continue;
+      }
+
+      in.beginObject();
+      while (in.hasNext()) {
+        final String name = in.nextName();
+        if (PROPERTY_VALUE_CASE.equals(name)) {
+          valueCase = AttributeValue.ValueCase.forNumber(in.nextInt());
+        } else if (PROPERTY_VALUE.equals(name)) {
+          value = in.peek() == JsonToken.BOOLEAN
+              ? String.valueOf(in.nextBoolean()) : in.nextString();
+        } else {
+          in.skipValue();
         }
       }
+      in.endObject();
+    }
+    in.endObject();
 
-      attribute.add(PROPERTY_VALUE, value);
-      attributeMap.add(key, attribute);
+    if (valueCase == null || value == null) {
+      return null;
     }
 
-    attributes.add(PROPERTY_ATTRIBUTE_MAP, attributeMap);
-    return attributes;
+    switch (valueCase) {
+      case STRING_VALUE:
+        return AttributeValue.newBuilder().setStringValue(getTruncatableString(value)).build();
+      case INT_VALUE:
+        return AttributeValue.newBuilder().setIntValue(Long.parseLong(value)).build();
+      case BOOL_VALUE:
+        return AttributeValue.newBuilder().setBoolValue(Boolean.parseBoolean(value)).build();
+      case DOUBLE_VALUE:
+        return AttributeValue.newBuilder().setDoubleValue(Double.parseDouble(value)).build();
+      case VALUE_NOT_SET:
+        // we deliberately do not deserialize values that were not set.
+        return null;
+      default:
+        return null;
+    }
   }
 }
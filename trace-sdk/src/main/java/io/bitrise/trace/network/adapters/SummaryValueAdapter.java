@@ -0,0 +1,162 @@
+package io.bitrise.trace.network.adapters;
+
+import androidx.annotation.NonNull;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.google.protobuf.DoubleValue;
+import com.google.protobuf.Int64Value;
+import io.opencensus.proto.metrics.v1.SummaryValue;
+import java.io.IOException;
+
+/**
+ * This adapter serializes and deserializes {@link SummaryValue} objects. The fields that are not
+ * set are not serialized.
+ */
+public class SummaryValueAdapter extends TypeAdapter<SummaryValue> {
+
+  private static final String PROPERTY_COUNT = "count";
+  private static final String PROPERTY_SUM = "sum";
+  private static final String PROPERTY_SNAPSHOT = "snapshot";
+  private static final String PROPERTY_PERCENTILE_VALUES = "percentile_values";
+  private static final String PROPERTY_PERCENTILE = "percentile";
+  private static final String PROPERTY_VALUE = "value";
+
+  @Override
+  public void write(@NonNull final JsonWriter out, @NonNull final SummaryValue value)
+      throws IOException {
+    out.beginObject();
+    if (value.hasCount()) {
+      out.name(PROPERTY_COUNT).value(value.getCount().getValue());
+    }
+    if (value.hasSum()) {
+      out.name(PROPERTY_SUM).value(value.getSum().getValue());
+    }
+    if (value.hasSnapshot()) {
+      out.name(PROPERTY_SNAPSHOT);
+      writeSnapshot(out, value.getSnapshot());
+    }
+    out.endObject();
+  }
+
+  /**
+   * Writes the {@link SummaryValue.Snapshot} of the SummaryValue.
+   *
+   * @param out      the JsonWriter to write to.
+   * @param snapshot the Snapshot to write.
+   * @throws IOException if the Snapshot cannot be written.
+   */
+  private static void writeSnapshot(@NonNull final JsonWriter out,
+                                    @NonNull final SummaryValue.Snapshot snapshot)
+      throws IOException {
+    out.beginObject();
+    if (snapshot.hasCount()) {
+      out.name(PROPERTY_COUNT).value(snapshot.getCount().getValue());
+    }
+    if (snapshot.hasSum()) {
+      out.name(PROPERTY_SUM).value(snapshot.getSum().getValue());
+    }
+    if (snapshot.getPercentileValuesCount() > 0) {
+      out.name(PROPERTY_PERCENTILE_VALUES).beginArray();
+      for (final SummaryValue.Snapshot.ValueAtPercentile valueAtPercentile
+          : snapshot.getPercentileValuesList()) {
+        out.beginObject();
+        out.name(PROPERTY_PERCENTILE).value(valueAtPercentile.getPercentile());
+        out.name(PROPERTY_VALUE).value(valueAtPercentile.getValue());
+        out.endObject();
+      }
+      out.endArray();
+    }
+    out.endObject();
+  }
+
+  @Override
+  public SummaryValue read(@NonNull final JsonReader in) throws IOException {
+    final SummaryValue.Builder builder = SummaryValue.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case PROPERTY_COUNT:
+          builder.setCount(Int64Value.of(in.nextLong()));
+          break;
+        case PROPERTY_SUM:
+          builder.setSum(DoubleValue.of(in.nextDouble()));
+          break;
+        case PROPERTY_SNAPSHOT:
+          builder.setSnapshot(readSnapshot(in));
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return builder.build();
+  }
+
+  /**
+   * Reads the {@link SummaryValue.Snapshot} of the SummaryValue.
+   *
+   * @param in the JsonReader positioned at the Snapshot.
+   * @return the Snapshot.
+   * @throws IOException if the Snapshot cannot be read.
+   */
+  @NonNull
+  private static SummaryValue.Snapshot readSnapshot(@NonNull final JsonReader in)
+      throws IOException {
+    final SummaryValue.Snapshot.Builder builder = SummaryValue.Snapshot.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case PROPERTY_COUNT:
+          builder.setCount(Int64Value.of(in.nextLong()));
+          break;
+        case PROPERTY_SUM:
+          builder.setSum(DoubleValue.of(in.nextDouble()));
+          break;
+        case PROPERTY_PERCENTILE_VALUES:
+          in.beginArray();
+          while (in.hasNext()) {
+            builder.addPercentileValues(readValueAtPercentile(in));
+          }
+          in.endArray();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return builder.build();
+  }
+
+  /**
+   * Reads a single {@link SummaryValue.Snapshot.ValueAtPercentile} of the percentile values.
+   *
+   * @param in the JsonReader positioned at the ValueAtPercentile.
+   * @return the ValueAtPercentile.
+   * @throws IOException if the ValueAtPercentile cannot be read.
+   */
+  @NonNull
+  private static SummaryValue.Snapshot.ValueAtPercentile readValueAtPercentile(
+      @NonNull final JsonReader in) throws IOException {
+    final SummaryValue.Snapshot.ValueAtPercentile.Builder builder =
+        SummaryValue.Snapshot.ValueAtPercentile.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case PROPERTY_PERCENTILE:
+          builder.setPercentile(in.nextDouble());
+          break;
+        case PROPERTY_VALUE:
+          builder.setValue(in.nextDouble());
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return builder.build();
+  }
+}
@@ -1,91 +1,115 @@
 package io.bitrise.trace.network.adapters;
 
 import androidx.annotation.NonNull;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
-import io.bitrise.trace.network.NetworkClient;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import io.opencensus.proto.metrics.v1.LabelValue;
 import io.opencensus.proto.metrics.v1.Point;
 import io.opencensus.proto.metrics.v1.TimeSeries;
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * This adapter serializes and deserializes {@link TimeSeries} objects.
  */
-public class TimeSeriesAdapter implements JsonSerializer<TimeSeries>,
-    JsonDeserializer<TimeSeries> {
+public class TimeSeriesAdapter extends TypeAdapter<TimeSeries> {
 
   private static final String PROPERTY_VALUE = "value";
   private static final String PROPERTY_LABEL_VALUES = "label_values";
   private static final String PROPERTY_POINTS = "points";
+  private static final String PROPERTY_START_TIMESTAMP = "start_timestamp";
+
+  @NonNull
+  private final PointAdapter pointAdapter = new PointAdapter();
+
+  @NonNull
+  private final TimestampAdapter timestampAdapter = new TimestampAdapter();
 
   @Override
-  public TimeSeries deserialize(@NonNull final JsonElement json,
-                                @NonNull final Type typeOfT,
-                                @NonNull final JsonDeserializationContext context)
-      throws JsonParseException {
-    final JsonObject srcTimeSeries = json.getAsJsonObject();
-    final TimeSeries.Builder builder = TimeSeries.newBuilder();
+  public void write(@NonNull final JsonWriter out, @NonNull final TimeSeries value)
+      throws IOException {
+    out.beginObject();
 
-    // add labels
-    if (srcTimeSeries.has(PROPERTY_LABEL_VALUES)
-                     && srcTimeSeries.get(PROPERTY_LABEL_VALUES).isJsonArray()) {
-      final JsonArray jsonLabelVales = srcTimeSeries.get(PROPERTY_LABEL_VALUES).getAsJsonArray();
+    // add start timestamp, only the cumulative and the aggregated time series have it
+    if (value.hasStartTimestamp()) {
+      out.name(PROPERTY_START_TIMESTAMP);
+      timestampAdapter.write(out, value.getStartTimestamp());
+    }
 
-      for (JsonElement jsonElement : jsonLabelVales) {
-        final JsonObject jsonValue = jsonElement.getAsJsonObject();
-        final LabelValue.Builder labelValue = LabelValue.newBuilder();
-        labelValue.setValue(jsonValue.get(PROPERTY_VALUE).getAsString());
-        builder.addLabelValues(labelValue);
+    // add label values
+    if (value.getLabelValuesCount() > 0) {
+      out.name(PROPERTY_LABEL_VALUES).beginArray();
+      for (final LabelValue labelValue : value.getLabelValuesList()) {
+        out.beginObject();
+        out.name(PROPERTY_VALUE).value(labelValue.getValue());
+        out.endObject();
       }
+      out.endArray();
     }
 
     // add points
-    if (srcTimeSeries.has(PROPERTY_POINTS)
-          && srcTimeSeries.get(PROPERTY_POINTS).isJsonArray()) {
-      final JsonArray jsonPoints = srcTimeSeries.get(PROPERTY_POINTS).getAsJsonArray();
-
-      for (JsonElement jsonElement : jsonPoints) {
-        final Point point = NetworkClient.getGson().fromJson(
-            jsonElement, Point.class);
-        builder.addPoints(point);
+    if (value.getPointsCount() > 0) {
+      out.name(PROPERTY_POINTS).beginArray();
+      for (final Point point : value.getPointsList()) {
+        pointAdapter.write(out, point);
       }
+      out.endArray();
     }
 
-    return builder.build();
+    out.endObject();
   }
 
   @Override
-  public JsonElement serialize(@NonNull final TimeSeries src,
-                               @NonNull final Type typeOfSrc,
-                               @NonNull final JsonSerializationContext context) {
-    final JsonObject jsonObject = new JsonObject();
-
-    // add label values
-    if (src.getLabelValuesCount() > 0) {
-      final JsonArray jsonLabelValues = new JsonArray();
-      for (final LabelValue labelValue : src.getLabelValuesList()) {
-        final JsonObject jsonValue = new JsonObject();
-        jsonValue.addProperty(PROPERTY_VALUE, labelValue.getValue());
-        jsonLabelValues.add(jsonValue);
+  public TimeSeries read(@NonNull final JsonReader in) throws IOException {
+    final TimeSeries.Builder builder = TimeSeries.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case PROPERTY_START_TIMESTAMP:
+          builder.setStartTimestamp(timestampAdapter.read(in));
+          break;
+        case PROPERTY_LABEL_VALUES:
+          in.beginArray();
+          while (in.hasNext()) {
+            builder.addLabelValues(readLabelValue(in));
+          }
+          in.endArray();
+          break;
+        case PROPERTY_POINTS:
+          in.beginArray();
+          while (in.hasNext()) {
+            builder.addPoints(pointAdapter.read(in));
+          }
+          in.endArray();
+          break;
+        default:
+          in.skipValue();
+          break;
       }
-      jsonObject.add(PROPERTY_LABEL_VALUES, jsonLabelValues);
     }
+    in.endObject();
+    return builder.build();
+  }
 
-    // add points
-    if (src.getPointsCount() > 0) {
-      final JsonArray jsonPoints = new JsonArray();
-      for (final Point point : src.getPointsList()) {
-        jsonPoints.add(NetworkClient.getGson().toJsonTree(point));
+  /**
+   * Reads a single {@link LabelValue} of the label value array.
+   *
+   * @param in the JsonReader positioned at the LabelValue.
+   * @return the LabelValue.
+   * @throws IOException if the LabelValue cannot be read.
+   */
+  @NonNull
+  private static LabelValue readLabelValue(@NonNull final JsonReader in) throws IOException {
+    final LabelValue.Builder labelValue = LabelValue.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      if (PROPERTY_VALUE.equals(in.nextName())) {
+        labelValue.setValue(in.nextString());
+      } else {
+        in.skipValue();
       }
-      jsonObject.add(PROPERTY_POINTS, jsonPoints);
     }
-    return jsonObject;
+    in.endObject();
+    return labelValue.build();
   }
 }
@@ -1,44 +1,47 @@
 package io.bitrise.trace.network.adapters;
 
 import androidx.annotation.NonNull;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.google.protobuf.Timestamp;
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * This adapter serializes and deserializes {@link Timestamp} objects.
  */
-public class TimestampAdapter implements JsonSerializer<Timestamp>, JsonDeserializer<Timestamp> {
+public class TimestampAdapter extends TypeAdapter<Timestamp> {
 
   private static final String PROPERTY_SECONDS = "seconds";
   private static final String PROPERTY_NANOS = "nanos";
 
   @Override
-  public Timestamp deserialize(@NonNull final JsonElement json,
-                               @NonNull final Type typeOfT,
-                               @NonNull final JsonDeserializationContext context)
-      throws JsonParseException {
-    final JsonObject srcTimestamp = json.getAsJsonObject();
-
-    final Timestamp.Builder builder = Timestamp.newBuilder();
-    builder.setSeconds(srcTimestamp.get(PROPERTY_SECONDS).getAsLong());
-    builder.setNanos(srcTimestamp.get(PROPERTY_NANOS).getAsInt());
-    return builder.build();
+  public void write(@NonNull final JsonWriter out, @NonNull final Timestamp value)
+      throws IOException {
+    out.beginObject();
+    out.name(PROPERTY_SECONDS).value(value.getSeconds());
+    out.name(PROPERTY_NANOS).value(value.getNanos());
+    out.endObject();
   }
 
   @Override
-  public JsonElement serialize(@NonNull final Timestamp src,
-                               @NonNull final Type typeOfSrc,
-                               @NonNull final JsonSerializationContext context) {
-    final JsonObject jsonObject = new JsonObject();
-    jsonObject.addProperty(PROPERTY_SECONDS, src.getSeconds());
-    jsonObject.addProperty(PROPERTY_NANOS, src.getNanos());
-    return jsonObject;
+  public Timestamp read(@NonNull final JsonReader in) throws IOException {
+    final Timestamp.Builder builder = Timestamp.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case PROPERTY_SECONDS:
+          builder.setSeconds(in.nextLong());
+          break;
+        case PROPERTY_NANOS:
+          builder.setNanos(in.nextInt());
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return builder.build();
   }
 }
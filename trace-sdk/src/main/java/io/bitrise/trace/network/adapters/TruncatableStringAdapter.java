@@ -1,43 +1,39 @@
 package io.bitrise.trace.network.adapters;
 
 import androidx.annotation.NonNull;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import io.opencensus.proto.trace.v1.TruncatableString;
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
  * This adapter serializes and deserializes {@link TruncatableString} objects.
  */
-public class TruncatableStringAdapter implements JsonSerializer<TruncatableString>,
-    JsonDeserializer<TruncatableString> {
+public class TruncatableStringAdapter extends TypeAdapter<TruncatableString> {
 
   private static final String PROPERTY_VALUE = "value";
 
   @Override
-  public TruncatableString deserialize(@NonNull final JsonElement json,
-                                       @NonNull final Type typeOfT,
-                                       @NonNull final  JsonDeserializationContext context)
-      throws JsonParseException {
-
-    final JsonObject srcString = json.getAsJsonObject();
-    final TruncatableString.Builder builder = TruncatableString.newBuilder();
-    builder.setValue(srcString.get(PROPERTY_VALUE).getAsString());
-
-    return builder.build();
+  public void write(@NonNull final JsonWriter out, @NonNull final TruncatableString value)
+      throws IOException {
+    out.beginObject();
+    out.name(PROPERTY_VALUE).value(value.getValue());
+    out.endObject();
   }
 
   @Override
-  public JsonElement serialize(@NonNull final  TruncatableString src,
-                               @NonNull final Type typeOfSrc,
-                               @NonNull final JsonSerializationContext context) {
-    final JsonObject jsonObject = new JsonObject();
-    jsonObject.addProperty(PROPERTY_VALUE, src.getValue());
-    return jsonObject;
+  public TruncatableString read(@NonNull final JsonReader in) throws IOException {
+    final TruncatableString.Builder builder = TruncatableString.newBuilder();
+    in.beginObject();
+    while (in.hasNext()) {
+      if (PROPERTY_VALUE.equals(in.nextName())) {
+        builder.setValue(in.nextString());
+      } else {
+        in.skipValue();
+      }
+    }
+    in.endObject();
+    return builder.build();
   }
 }
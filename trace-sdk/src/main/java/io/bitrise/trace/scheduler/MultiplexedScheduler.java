@@ -0,0 +1,286 @@
+package io.bitrise.trace.scheduler;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.bitrise.trace.utils.log.TraceLog;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler implementation that runs multiple recurring {@link Runnable}s on a single thread.
+ * The Runnables are driven by a common tick, which is the greatest common divisor of their
+ * intervals, so the Runnables that are due at the same time are executed in a single wake-up,
+ * one after the other. The ticking can be paused, e.g. when the application goes to the
+ * background, without losing the registered Runnables. Runnables with an interval of 0 or less
+ * are executed only once.
+ */
+public class MultiplexedScheduler extends Scheduler {
+
+  @NonNull
+  private final Object lock = new Object();
+
+  /**
+   * The registered {@link Task}s.
+   */
+  @NonNull
+  private final List<Task> tasks = new ArrayList<>();
+
+  /**
+   * The {@link ScheduledExecutorService} with the single thread of the Tasks.
+   */
+  @Nullable
+  @VisibleForTesting
+  ScheduledExecutorService scheduledExecutorService;
+
+  /**
+   * The ScheduledFuture of the ticking.
+   */
+  @Nullable
+  @VisibleForTesting
+  ScheduledFuture<?> scheduledFuture;
+
+  /**
+   * The period of the tick in milliseconds, or 0 if there is no recurring Task.
+   */
+  private long tickMs;
+
+  /**
+   * The number of ticks since the ticking was started.
+   */
+  private long tickCount;
+
+  /**
+   * Indicates that the ticking has been started with {@link #scheduleDelayed(long)}.
+   */
+  private boolean started;
+
+  /**
+   * Indicates that the ticking has been paused with {@link #pause()}.
+   */
+  private boolean paused;
+
+  /**
+   * Constructor for class.
+   *
+   * @param context the Android Context.
+   */
+  public MultiplexedScheduler(@NonNull final Context context) {
+    this.context = context;
+    this.initialDelay = 0;
+  }
+
+  /**
+   * Registers a Runnable to be executed with the given interval. When the ticking has already
+   * been started, it is restarted with the new set of Runnables.
+   *
+   * @param runnable   the Runnable to execute.
+   * @param intervalMs the interval of the execution in milliseconds, or 0 if it should be
+   *                   executed only once.
+   */
+  public void addTask(@NonNull final Runnable runnable, final long intervalMs) {
+    synchronized (lock) {
+      tasks.add(new Task(runnable, intervalMs));
+      if (started && !paused) {
+        startTicking(0);
+      }
+    }
+  }
+
+  @Nullable
+  @Override
+  public Integer scheduleDelayed(final long initialDelay) {
+    synchronized (lock) {
+      started = true;
+      if (!paused) {
+        startTicking(initialDelay);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Pauses the ticking, the registered Runnables are kept. Does nothing if it is already
+   * paused.
+   */
+  public void pause() {
+    synchronized (lock) {
+      paused = true;
+      if (scheduledFuture != null) {
+        scheduledFuture.cancel(false);
+        scheduledFuture = null;
+      }
+    }
+  }
+
+  /**
+   * Resumes the ticking after {@link #pause()}. The first tick is executed immediately, and it
+   * executes all the recurring Runnables. Does nothing if it is not paused.
+   */
+  public void resume() {
+    synchronized (lock) {
+      if (!paused) {
+        return;
+      }
+      paused = false;
+      if (started) {
+        startTicking(0);
+      }
+    }
+  }
+
+  /**
+   * Checks if the ticking is paused.
+   *
+   * @return {@code true} if it is paused, {@code false} otherwise.
+   */
+  public boolean isPaused() {
+    synchronized (lock) {
+      return paused;
+    }
+  }
+
+  /**
+   * Stops the ticking and removes all the registered Runnables. The scheduler can be reused
+   * afterwards.
+   */
+  @Override
+  public void cancelAll() {
+    synchronized (lock) {
+      started = false;
+      paused = false;
+      tasks.clear();
+      scheduledFuture = null;
+      if (scheduledExecutorService != null) {
+        scheduledExecutorService.shutdownNow();
+        scheduledExecutorService = null;
+      }
+    }
+  }
+
+  /**
+   * (Re)starts the ticking with the tick period calculated from the current Tasks.
+   *
+   * @param delay the delay of the first tick in milliseconds.
+   */
+  private void startTicking(final long delay) {
+    if (scheduledFuture != null) {
+      scheduledFuture.cancel(false);
+    }
+    if (scheduledExecutorService == null) {
+      scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+    }
+    tickCount = 0;
+    tickMs = calculateTickMs(tasks);
+    if (tickMs > 0) {
+      scheduledFuture = scheduledExecutorService
+          .scheduleAtFixedRate(this::tick, delay, tickMs, TimeUnit.MILLISECONDS);
+    } else {
+      scheduledFuture = scheduledExecutorService
+          .schedule(this::tick, delay, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Executes the Tasks that are due at the current tick. A failing Task does not prevent the
+   * execution of the others, or the following ticks.
+   */
+  @VisibleForTesting
+  void tick() {
+    final List<Runnable> dueRunnables = new ArrayList<>();
+    synchronized (lock) {
+      for (@NonNull final Task task : tasks) {
+        if (task.isDue(tickCount, tickMs)) {
+          dueRunnables.add(task.runnable);
+        }
+      }
+      tickCount++;
+    }
+
+    for (@NonNull final Runnable runnable : dueRunnables) {
+      try {
+        runnable.run();
+      } catch (final RuntimeException e) {
+        TraceLog.e(e);
+      }
+    }
+  }
+
+  /**
+   * Calculates the period of the tick, that is the greatest common divisor of the intervals of
+   * the recurring Tasks.
+   *
+   * @param tasks the Tasks.
+   * @return the tick period in milliseconds, or 0 if there is no recurring Task.
+   */
+  @VisibleForTesting
+  static long calculateTickMs(@NonNull final List<Task> tasks) {
+    long result = 0;
+    for (@NonNull final Task task : tasks) {
+      if (task.intervalMs > 0) {
+        result = greatestCommonDivisor(result, task.intervalMs);
+      }
+    }
+    return result;
+  }
+
+  private static long greatestCommonDivisor(final long a, final long b) {
+    return b == 0 ? a : greatestCommonDivisor(b, a % b);
+  }
+
+  @VisibleForTesting
+  long getTickMs() {
+    synchronized (lock) {
+      return tickMs;
+    }
+  }
+
+  /**
+   * A registered Runnable with its interval.
+   */
+  @VisibleForTesting
+  static class Task {
+
+    @NonNull
+    final Runnable runnable;
+
+    final long intervalMs;
+
+    /**
+     * Indicates that a one-time Task has been executed.
+     */
+    private boolean executed;
+
+    /**
+     * Constructor for class.
+     *
+     * @param runnable   the Runnable to execute.
+     * @param intervalMs the interval in milliseconds, or 0 if it should be executed only once.
+     */
+    Task(@NonNull final Runnable runnable, final long intervalMs) {
+      this.runnable = runnable;
+      this.intervalMs = intervalMs;
+    }
+
+    /**
+     * Checks if the Task should be executed at the given tick.
+     *
+     * @param tickCount the number of the tick.
+     * @param tickMs    the period of the tick in milliseconds.
+     * @return {@code true} if it should be executed, {@code false} otherwise.
+     */
+    boolean isDue(final long tickCount, final long tickMs) {
+      if (intervalMs <= 0 || tickMs <= 0) {
+        final boolean isDue = !executed;
+        executed = true;
+        return isDue;
+      }
+      return tickCount % (intervalMs / tickMs) == 0;
+    }
+  }
+}
@@ -19,11 +19,51 @@ import io.bitrise.trace.utils.log.TraceLog;
  * executed even when the app is terminated. For details of the JobScheduler please check
  * official docs.
  *
+ * <p>JobScheduler has a single job ID space for the whole application, so a job of the host
+ * application with the same ID as a job of the SDK replaces it, and the other way round. The SDK
+ * uses the IDs from {@link #METRIC_SENDER_JOB_ID} to {@link #TRACE_SENDER_RELAXED_JOB_ID}. The
+ * IDs must not change between the versions of the SDK, as the scheduled jobs are persisted, and
+ * a job with an old ID would be left behind.
+ *
  * @see
  * <a href="https://developer.android.com/reference/android/app/job/JobScheduler">JobScheduler</a>
  */
 public class ServiceScheduler extends Scheduler {
 
+  /**
+   * The initial backoff in milliseconds, when a job is finished with a request to be
+   * rescheduled. The backoff of the following retries is increased exponentially by the system.
+   */
+  private static final long INITIAL_BACKOFF_MS = 30000; //30 * 1000
+
+  /**
+   * The job ID of the regular runs of the {@link MetricSender}.
+   */
+  static final int METRIC_SENDER_JOB_ID = 0;
+
+  /**
+   * The job ID of the regular runs of the {@link TraceSender}.
+   */
+  static final int TRACE_SENDER_JOB_ID = 1;
+
+  /**
+   * The job ID of the relaxed runs of the {@link MetricSender}, see
+   * {@link UploadPolicy#getRelaxedRunLatencyMs(long, boolean)}.
+   */
+  static final int METRIC_SENDER_RELAXED_JOB_ID = 2;
+
+  /**
+   * The job ID of the relaxed runs of the {@link TraceSender}, see
+   * {@link UploadPolicy#getRelaxedRunLatencyMs(long, boolean)}.
+   */
+  static final int TRACE_SENDER_RELAXED_JOB_ID = 3;
+
+  /**
+   * The {@link UploadPolicy} that is mapped onto the constraints of the scheduled jobs.
+   */
+  @NonNull
+  private static volatile UploadPolicy uploadPolicy = UploadPolicy.getDefault();
+
   /**
    * The class of a {@link JobService} that should be created.
    */
@@ -62,20 +102,74 @@ public class ServiceScheduler extends Scheduler {
     this.componentName = new ComponentName(context, jobService);
   }
 
+  /**
+   * Sets the {@link UploadPolicy} of the jobs that are scheduled after this call.
+   *
+   * @param uploadPolicy the UploadPolicy.
+   */
+  public static void setUploadPolicy(@NonNull final UploadPolicy uploadPolicy) {
+    ServiceScheduler.uploadPolicy = uploadPolicy;
+  }
+
+  @NonNull
+  public static UploadPolicy getUploadPolicy() {
+    return uploadPolicy;
+  }
+
   @Override
   @Nullable
   public Integer scheduleDelayed(final long initialDelay) {
-    final JobInfo jobInfo = new JobInfo.Builder(getJobIdForService(jobService),
+    return scheduleDelayed(initialDelay, false);
+  }
+
+  /**
+   * Schedules the job delayed, with the constraints of the current {@link UploadPolicy}. When
+   * the constraints are restricted beyond having any network, a relaxed run is scheduled too,
+   * that only requires any network, and starts after the max staleness of the UploadPolicy.
+   * Otherwise the relaxed run is cancelled.
+   *
+   * @param initialDelay the amount of delay in milliseconds.
+   * @param isBacklog    {@code true} if the job uploads the backlog of a previous run.
+   * @return the result of {@link JobScheduler#schedule(JobInfo)}.
+   */
+  @Nullable
+  public Integer scheduleDelayed(final long initialDelay, final boolean isBacklog) {
+    final UploadPolicy currentUploadPolicy = uploadPolicy;
+    final long minimumLatency = currentUploadPolicy.getMinimumLatencyMs(initialDelay, isBacklog);
+    final JobInfo.Builder jobInfoBuilder = new JobInfo.Builder(getJobIdForService(jobService),
         this.componentName)
-        .setBackoffCriteria(18000, JobInfo.BACKOFF_POLICY_LINEAR)
-        .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
-        .setMinimumLatency(initialDelay)
-        .build();
+        .setBackoffCriteria(INITIAL_BACKOFF_MS, JobInfo.BACKOFF_POLICY_EXPONENTIAL)
+        .setRequiredNetworkType(currentUploadPolicy.getRequiredNetworkType(isBacklog))
+        .setRequiresCharging(currentUploadPolicy.isChargingRequired(isBacklog))
+        .setMinimumLatency(minimumLatency);
 
     final JobScheduler jobScheduler =
         (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
-    TraceLog.d(String.format(LogMessageConstants.SCHEDULER_SEND_SCHEDULE_DELAYED, initialDelay));
-    return jobScheduler.schedule(jobInfo);
+    final int relaxedJobId = getRelaxedJobIdForService(jobService);
+    final long relaxedRunLatency =
+        currentUploadPolicy.getRelaxedRunLatencyMs(minimumLatency, isBacklog);
+    if (relaxedRunLatency >= 0) {
+      jobScheduler.schedule(new JobInfo.Builder(relaxedJobId, this.componentName)
+          .setBackoffCriteria(INITIAL_BACKOFF_MS, JobInfo.BACKOFF_POLICY_EXPONENTIAL)
+          .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+          .setMinimumLatency(relaxedRunLatency)
+          .build());
+    } else {
+      jobScheduler.cancel(relaxedJobId);
+    }
+    TraceLog.d(String.format(LogMessageConstants.SCHEDULER_SEND_SCHEDULE_DELAYED, minimumLatency));
+    return jobScheduler.schedule(jobInfoBuilder.build());
+  }
+
+  /**
+   * Cancels the pending run of the {@link JobService} that is not the given one, so the regular
+   * and the relaxed run of a backlog upload do not both run.
+   *
+   * @param runningJobId the ID of the job that is running.
+   */
+  public void cancelOtherRun(final int runningJobId) {
+    final int jobId = getJobIdForService(jobService);
+    cancelServiceByTag(runningJobId == jobId ? getRelaxedJobIdForService(jobService) : jobId);
   }
 
   @Override
@@ -104,11 +198,30 @@ public class ServiceScheduler extends Scheduler {
   @VisibleForTesting
   int getJobIdForService(@NonNull final Class<? extends JobService> jobService) {
     if (jobService == MetricSender.class) {
-      return 0;
+      return METRIC_SENDER_JOB_ID;
     } else if (jobService == TraceSender.class) {
-      return 1;
+      return TRACE_SENDER_JOB_ID;
     }
     throw new IllegalArgumentException(
         "Could not determine the ID for class " + jobService.getName());
   }
+
+  /**
+   * Gets the ID of the relaxed run for the given {@link JobService} task, see
+   * {@link #scheduleDelayed(long, boolean)}.
+   *
+   * @param jobService the given JobService.
+   * @return the ID of the relaxed run for the given JobService, IllegalArgumentException if it is
+   *     not a {@link MetricSender} or {@link TraceSender}.
+   */
+  @VisibleForTesting
+  int getRelaxedJobIdForService(@NonNull final Class<? extends JobService> jobService) {
+    if (jobService == MetricSender.class) {
+      return METRIC_SENDER_RELAXED_JOB_ID;
+    } else if (jobService == TraceSender.class) {
+      return TRACE_SENDER_RELAXED_JOB_ID;
+    }
+    throw new IllegalArgumentException(
+        "Could not determine the relaxed ID for class " + jobService.getName());
+  }
 }
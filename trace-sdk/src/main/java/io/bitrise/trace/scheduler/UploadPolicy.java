@@ -0,0 +1,130 @@
+package io.bitrise.trace.scheduler;
+
+import android.app.job.JobInfo;
+import androidx.annotation.NonNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes when the {@link ServiceScheduler} should run the uploads of the stored data, it is
+ * mapped onto the constraints of the {@link JobInfo}. The uploads are coalesced into runs that are
+ * at least the batching window apart, so the radio of the device is not woken up for each small
+ * batch. When a run leaves a backlog of data behind, the following run can be restricted to
+ * unmetered networks and to the time when the device is charging. After the max staleness a
+ * relaxed run, that only requires any network, uploads the backlog, so the data is not held back
+ * forever.
+ *
+ * <p>Crash reports are not affected by the UploadPolicy, they are always sent immediately.
+ */
+public class UploadPolicy {
+
+  /**
+   * The default minimum time between two upload runs in milliseconds.
+   */
+  public static final long DEFAULT_BATCHING_WINDOW_MS = Scheduler.DEFAULT_SCHEDULE_INITIAL_DELAY_MS;
+
+  /**
+   * The default maximum time in milliseconds a restricted backlog upload can wait for its
+   * constraints.
+   */
+  public static final long DEFAULT_MAX_STALENESS_MS = TimeUnit.HOURS.toMillis(6);
+
+  private final boolean unmeteredBacklog;
+
+  private final boolean chargingBacklog;
+
+  private final long batchingWindowMs;
+
+  private final long maxStalenessMs;
+
+  /**
+   * Constructor for class.
+   *
+   * @param unmeteredBacklog {@code true} if the backlog should be uploaded only on unmetered
+   *                         networks.
+   * @param chargingBacklog  {@code true} if the backlog should be uploaded only while the device
+   *                         is charging.
+   * @param batchingWindowMs the minimum time between two upload runs in milliseconds.
+   * @param maxStalenessMs   the maximum time in milliseconds a backlog upload can wait for its
+   *                         constraints.
+   */
+  public UploadPolicy(final boolean unmeteredBacklog, final boolean chargingBacklog,
+                      final long batchingWindowMs, final long maxStalenessMs) {
+    this.unmeteredBacklog = unmeteredBacklog;
+    this.chargingBacklog = chargingBacklog;
+    this.batchingWindowMs = Math.max(batchingWindowMs, 0);
+    this.maxStalenessMs = Math.max(maxStalenessMs, 0);
+  }
+
+  /**
+   * Gets the default UploadPolicy, that has no restrictions for the backlog and uses the
+   * {@link #DEFAULT_BATCHING_WINDOW_MS}.
+   *
+   * @return the default UploadPolicy.
+   */
+  @NonNull
+  public static UploadPolicy getDefault() {
+    return new UploadPolicy(false, false, DEFAULT_BATCHING_WINDOW_MS, DEFAULT_MAX_STALENESS_MS);
+  }
+
+  /**
+   * Gets the required network type of a run.
+   *
+   * @param isBacklog {@code true} if the run uploads a backlog.
+   * @return one of the network type constants of the {@link JobInfo}.
+   */
+  public int getRequiredNetworkType(final boolean isBacklog) {
+    return isBacklog && unmeteredBacklog
+        ? JobInfo.NETWORK_TYPE_UNMETERED
+        : JobInfo.NETWORK_TYPE_ANY;
+  }
+
+  /**
+   * Checks if a run requires the device to be charging.
+   *
+   * @param isBacklog {@code true} if the run uploads a backlog.
+   * @return {@code true} if charging is required, {@code false} otherwise.
+   */
+  public boolean isChargingRequired(final boolean isBacklog) {
+    return isBacklog && chargingBacklog;
+  }
+
+  /**
+   * Gets the minimum latency of a run. A backlog upload is not delayed by the batching window,
+   * as it continues the previous run.
+   *
+   * @param delayMs   the requested delay of the run in milliseconds.
+   * @param isBacklog {@code true} if the run uploads a backlog.
+   * @return the minimum latency in milliseconds.
+   */
+  public long getMinimumLatencyMs(final long delayMs, final boolean isBacklog) {
+    return isBacklog ? delayMs : Math.max(delayMs, batchingWindowMs);
+  }
+
+  /**
+   * Gets the minimum latency of the relaxed run, that is scheduled next to a run that is
+   * restricted beyond having any network. The relaxed run only requires any network, so it
+   * uploads the backlog when the restrictions are not met within the max staleness. An override
+   * deadline is not used for this, as it would make the run ignore the network constraint too.
+   *
+   * @param minimumLatencyMs the minimum latency of the restricted run in milliseconds.
+   * @param isBacklog        {@code true} if the run uploads a backlog.
+   * @return the minimum latency of the relaxed run in milliseconds, or -1 if there should be
+   *     no relaxed run.
+   */
+  public long getRelaxedRunLatencyMs(final long minimumLatencyMs, final boolean isBacklog) {
+    final boolean isRestricted = getRequiredNetworkType(isBacklog) != JobInfo.NETWORK_TYPE_ANY
+        || isChargingRequired(isBacklog);
+    if (!isRestricted || maxStalenessMs == 0) {
+      return -1;
+    }
+    return Math.max(minimumLatencyMs, maxStalenessMs);
+  }
+
+  public long getBatchingWindowMs() {
+    return batchingWindowMs;
+  }
+
+  public long getMaxStalenessMs() {
+    return maxStalenessMs;
+  }
+}
@@ -226,7 +226,8 @@ public class MetricTestProvider {
    */
   @NonNull
   public static Metric getApplicationCpuMetric() {
-    return ApplicationCpuDataFormatter.createAppCpuMetric(21.5,
+    return ApplicationCpuDataFormatter.createAppCpuMetric(
+        new CpuUsageData.ApplicationCpuUsage(21.5, CpuUsageData.SampleQuality.ACCURATE),
         Timestamp.newBuilder().setSeconds(1615384507).setNanos(681000000).build());
   }
 
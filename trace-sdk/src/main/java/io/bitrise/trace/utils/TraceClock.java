@@ -2,7 +2,6 @@ package io.bitrise.trace.utils;
 
 import android.os.SystemClock;
 import androidx.annotation.NonNull;
-import androidx.annotation.VisibleForTesting;
 import com.google.protobuf.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -87,13 +86,13 @@ public class TraceClock {
   }
 
   /**
-   * Gets the uptime of the system in seconds.
+   * Gets the time since the boot of the system in nanoseconds, including the time spent in deep
+   * sleep. The clock is monotonic, so it is suitable for measuring intervals.
    *
-   * @return the uptime in seconds.
+   * @return the elapsed time since boot in nanoseconds.
    */
-  @VisibleForTesting
-  public static long getElapsedSeconds() {
-    return SystemClock.uptimeMillis() / 1000;
+  public static long getElapsedRealtimeNanos() {
+    return SystemClock.elapsedRealtimeNanos();
   }
 
   /**
@@ -1,33 +1,87 @@
 package io.bitrise.trace.utils;
 
+import androidx.annotation.NonNull;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Creates unique identifiers.
+ *
+ * <p>The span, trace and metric IDs are lowercase hexadecimal Strings made from the random
+ * values of the {@link ThreadLocalRandom}. It is not cryptographically secure, but these IDs
+ * only have to be unique, and unlike {@link UUID#randomUUID()} it does not contend on a shared
+ * {@link java.security.SecureRandom}. The hex digits are written directly to a per thread buffer,
+ * so only the resulting String is allocated.
  */
 public class UniqueIdGenerator {
 
   public static final int SPAN_ID_LENGTH = 16;
   public static final int TRACE_ID_LENGTH = 32;
+  public static final int METRIC_ID_LENGTH = 16;
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  /**
+   * The number of hex digits of a long value.
+   */
+  private static final int LONG_HEX_LENGTH = 16;
+
+  /**
+   * The buffer for the hex digits of the IDs, one for each thread.
+   */
+  private static final ThreadLocal<char[]> charBuffer = new ThreadLocal<char[]>() {
+    @Override
+    protected char[] initialValue() {
+      return new char[TRACE_ID_LENGTH];
+    }
+  };
 
   /**
    * Creates a 16 character span id.
    */
   public static String makeSpanId() {
-    return UUID.randomUUID()
-               .toString()
-               .replace("-", "")
-               .substring(0, SPAN_ID_LENGTH);
+    final char[] buffer = charBuffer.get();
+    writeHex(buffer, 0, nextNonZeroLong());
+    return new String(buffer, 0, SPAN_ID_LENGTH);
+  }
+
+  /**
+   * Creates a 16 character span id as a {@link ByteString}, in the same format as
+   * {@link ByteStringConverter#toByteString(String)} would create it from
+   * {@link #makeSpanId()}, without creating the String.
+   *
+   * @return the ID of the span.
+   */
+  @NonNull
+  public static ByteString makeSpanIdByteString() {
+    final byte[] bytes = new byte[SPAN_ID_LENGTH];
+    writeHex(bytes, 0, nextNonZeroLong());
+    return UnsafeByteOperations.unsafeWrap(bytes);
   }
 
   /**
    * Creates a 32 character trace id.
    */
   public static String makeTraceId() {
-    return UUID.randomUUID()
-               .toString()
-               .replace("-", "")
-               .substring(0, TRACE_ID_LENGTH);
+    final char[] buffer = charBuffer.get();
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    writeHex(buffer, 0, random.nextLong());
+    writeHex(buffer, LONG_HEX_LENGTH, nextNonZeroLong());
+    return new String(buffer, 0, TRACE_ID_LENGTH);
+  }
+
+  /**
+   * Creates a 16 character id for the stored metrics.
+   *
+   * @return the ID of the metric.
+   */
+  @NonNull
+  public static String makeMetricId() {
+    final char[] buffer = charBuffer.get();
+    writeHex(buffer, 0, ThreadLocalRandom.current().nextLong());
+    return new String(buffer, 0, METRIC_ID_LENGTH);
   }
 
   /**
@@ -36,4 +90,45 @@ public class UniqueIdGenerator {
   public static String makeCrashReportId() {
     return UUID.randomUUID().toString();
   }
+
+  /**
+   * Gets a random long value that is not 0, as the IDs consisting of only zeros are invalid.
+   *
+   * @return the random value.
+   */
+  private static long nextNonZeroLong() {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    long value;
+    do {
+      value = random.nextLong();
+    } while (value == 0);
+    return value;
+  }
+
+  /**
+   * Writes the 16 hex digits of the given value to the given buffer.
+   *
+   * @param buffer the buffer to write to.
+   * @param offset the index of the first digit in the buffer.
+   * @param value  the value to write.
+   */
+  private static void writeHex(@NonNull final char[] buffer, final int offset, final long value) {
+    for (int i = LONG_HEX_LENGTH - 1; i >= 0; i--) {
+      buffer[offset + i] = HEX_DIGITS[(int) (value >>> ((LONG_HEX_LENGTH - 1 - i) * 4)) & 0xf];
+    }
+  }
+
+  /**
+   * Writes the 16 hex digits of the given value to the given buffer as ASCII bytes.
+   *
+   * @param buffer the buffer to write to.
+   * @param offset the index of the first digit in the buffer.
+   * @param value  the value to write.
+   */
+  private static void writeHex(@NonNull final byte[] buffer, final int offset, final long value) {
+    for (int i = LONG_HEX_LENGTH - 1; i >= 0; i--) {
+      buffer[offset + i] =
+          (byte) HEX_DIGITS[(int) (value >>> ((LONG_HEX_LENGTH - 1 - i) * 4)) & 0xf];
+    }
+  }
 }
@@ -14,8 +14,12 @@ public final class LogMessageConstants {
   public static final String APPLICATION_SESSION_MANAGER_STARTED = "Application session started.";
   public static final String APPLICATION_SESSION_MANAGER_STOPPED = "Application session stopped.";
   public static final String APPLICATION_TRACE_INITIALISED = "Application trace initialised.";
+  public static final String APPLICATION_TRACE_SEGMENT_SAVED =
+      "Application trace segment saved, tracing continues in a new segment.";
   public static final String APPLICATION_TRACE_STARTED = "Application trace started.";
   public static final String APPLICATION_TRACE_STOPPED = "Application trace stopped.";
+  public static final String CONVERTER_FAILED_WITH_SIZE =
+      "Converter failed to convert a value of %1$d bytes.";
   public static final String CONVERTER_FAILED_WITH_VALUE =
       "Converter failed to convert the following value: `%1$s`";
   public static final String COULD_NOT_REGISTER_FRAGMENT_LIFECYCLE_CALLBACK =
@@ -30,6 +34,8 @@ public final class LogMessageConstants {
   public static final String DATA_MANAGER_START_SENDING = "Data manager started sending requests.";
   public static final String DATA_MANAGER_STOP_COLLECTING = "Data manager stopped collecting.";
   public static final String DATA_MANAGER_STOP_SENDING = "Data manager stopped sending requests.";
+  public static final String DATA_SENDER_DRAINED =
+      "%1$s sent %2$d batches, %3$d bytes in %4$d ms.";
   public static final String DELETE_ALL_METRICS = "All metrics deleted from storage.";
   public static final String DELETE_ALL_RESOURCE_ENTITIES =
       "All resource entities deleted from storage.";
@@ -47,6 +53,14 @@ public final class LogMessageConstants {
       "Failed to read CPU stats, result is out of bounds. This read will not be reported.";
   public static final String FAILED_TO_READ_SYSTEM_CPU_STATS =
       "Failed to read System CPU stats, Trace may not report any CPU stats for this session.";
+  public static final String FAILED_TO_READ_THREAD_CPU_STATS =
+      "Failed to read thread CPU stats, this read will not be reported.";
+  public static final String INGEST_PIPELINE_OVERFLOW_TASK_FAILED =
+      "Ingest pipeline overflow task failed";
+  public static final String INGEST_PIPELINE_TASK_DROPPED =
+      "Ingest pipeline queue is full, task dropped with policy %1$s. Dropped tasks so far: %2$d";
+  public static final String INGEST_PIPELINE_TASK_OVERFLOWED =
+      "Ingest pipeline queue is full, task moved to the overflow queue";
   public static final String INITIALISING_SDK = "Initialising the Trace SDK";
   public static final String METRIC_HEADERS_MISSING =
       "Metric response headers missing, failed to complete header validation.";
@@ -56,6 +70,16 @@ public final class LogMessageConstants {
           + "keys: %s";
   public static final String METRIC_SENDING = "Attempting to send a metric.";
   public static final String METRIC_SENT_SUCCESSFULLY = "Metric sent successfully";
+  public static final String PROTOBUF_TRANSPORT_REJECTED =
+      "Protobuf request rejected with code %1$d, falling back to JSON for this process.";
+  public static final String RETRY_POLICY_ATTEMPT_DELAYED =
+      "Sending to the %1$s endpoint is delayed by the retry policy for %2$d ms.";
+  public static final String RETRY_POLICY_BACKOFF =
+      "Sending to the %1$s endpoint failed %2$d times, next attempt in %3$d ms.";
+  public static final String RETRY_POLICY_CIRCUIT_OPEN =
+      "Sending to the %1$s endpoint failed with %2$d server errors, next attempt in %3$d ms.";
+  public static final String RETRY_POLICY_CIRCUIT_PROBE =
+      "Sending a probe to the %1$s endpoint, other attempts wait for its result.";
   public static final String SAVE_METRIC = "Metric saved to storage.";
   public static final String SAVE_RESOURCE = "Resource saved to storage.";
   public static final String SAVE_RESOURCE_ENTITY = "Resource entity saved to storage.";
@@ -73,9 +97,13 @@ public final class LogMessageConstants {
   public static final String TRACE_SENT_SUCCESSFULLY = "Trace sent successfully";
   public static final String TRACE_SDK_SUCCESSFULLY_INITIALISED =
       "Trace SDK is successfully initialised.";
+  public static final String TRACE_SPAN_NOT_RECORDED =
+      "Span `%1$s` ended, but it is not recorded, as the Trace SDK is not initialised.";
   public static final String URL_CONNECTION_REQUESTS_SUCCESS =
       "UrlConnection listening has successfully been configured, all requests using UrlConnection"
           + " will be reported by the Trace SDK.";
+  public static final String WRITE_BEHIND_BUFFER_FLUSHED =
+      "Write-behind buffer flushed %1$d metrics, %2$d resources and %3$d traces to storage.";
 
   public static final String CONFIGURATION_MANAGER_COULD_NOT_FIND_RESOURCES = "Trace could not "
       + "find the required token. Please ensure you have followed the setup instructions.";
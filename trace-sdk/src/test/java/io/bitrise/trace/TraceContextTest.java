@@ -0,0 +1,106 @@
+package io.bitrise.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TraceContext} and {@link TraceScope}.
+ */
+public class TraceContextTest {
+
+  private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+    TraceContext.setCurrentSpan(null);
+  }
+
+  private static TraceSpan createSpan(final String name) {
+    return new TraceSpan(name, null, TraceContext.getCurrentSpan());
+  }
+
+  @Test
+  public void makeCurrent_shouldRestorePreviousOnClose() {
+    final TraceSpan outer = createSpan("outer");
+    try (TraceScope outerScope = outer.makeCurrent()) {
+      assertSame(outer, TraceContext.getCurrentSpan());
+
+      final TraceSpan inner = createSpan("inner");
+      assertEquals(outer.getSpanId(), inner.getParentSpanId());
+      try (TraceScope innerScope = inner.makeCurrent()) {
+        assertSame(inner, TraceContext.getCurrentSpan());
+      }
+
+      assertSame(outer, TraceContext.getCurrentSpan());
+    }
+    assertNull(TraceContext.getCurrentSpan());
+  }
+
+  @Test
+  public void close_calledTwice_shouldRestoreOnce() {
+    final TraceSpan outer = createSpan("outer");
+    final TraceScope outerScope = outer.makeCurrent();
+    final TraceScope innerScope = createSpan("inner").makeCurrent();
+
+    innerScope.close();
+    assertSame(outer, TraceContext.getCurrentSpan());
+    innerScope.close();
+    assertSame(outer, TraceContext.getCurrentSpan());
+
+    outerScope.close();
+    assertNull(TraceContext.getCurrentSpan());
+  }
+
+  @Test
+  public void wrap_runnable_shouldPropagateCurrentSpan() throws Exception {
+    final TraceSpan span = createSpan("span");
+    final AtomicReference<TraceSpan> spanInTask = new AtomicReference<>();
+    final Runnable runnable;
+    try (TraceScope scope = span.makeCurrent()) {
+      runnable = TraceContext.wrap(() -> spanInTask.set(TraceContext.getCurrentSpan()));
+    }
+
+    executorService.submit(runnable).get();
+
+    assertSame(span, spanInTask.get());
+    assertNull(executorService.submit(TraceContext::getCurrentSpan).get());
+  }
+
+  @Test
+  public void wrap_callable_shouldPropagateCurrentSpan() throws Exception {
+    final TraceSpan span = createSpan("span");
+    final Callable<TraceSpan> callable;
+    try (TraceScope scope = span.makeCurrent()) {
+      callable = TraceContext.wrap(TraceContext::getCurrentSpan);
+    }
+
+    assertSame(span, executorService.submit(callable).get());
+  }
+
+  @Test
+  public void wrap_executor_shouldPropagateSpanOfSubmission() throws Exception {
+    final TraceSpan span = createSpan("span");
+    final AtomicReference<TraceSpan> spanInTask = new AtomicReference<>();
+    final AtomicReference<String> parentInTask = new AtomicReference<>();
+
+    try (TraceScope scope = span.makeCurrent()) {
+      TraceContext.wrap(executorService).execute(() -> {
+        spanInTask.set(TraceContext.getCurrentSpan());
+        parentInTask.set(createSpan("child").getParentSpanId());
+      });
+    }
+    executorService.submit(() -> { }).get();
+
+    assertSame(span, spanInTask.get());
+    assertEquals(span.getSpanId(), parentInTask.get());
+  }
+}
@@ -1,8 +1,11 @@
 package io.bitrise.trace;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import android.app.job.JobInfo;
+import io.bitrise.trace.scheduler.UploadPolicy;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.Test;
@@ -80,6 +83,111 @@ public class TraceOptionsUtilTests {
     assertFalse(TraceOptionsUtil.determineIfDebugMode(options));
   }
 
+  @Test
+  public void determineIfRequestCompression_nullOptions() {
+    assertFalse(TraceOptionsUtil.determineIfRequestCompression(null));
+  }
+
+  @Test
+  public void determineIfRequestCompression_emptyOptions() {
+    assertFalse(TraceOptionsUtil.determineIfRequestCompression(new ArrayList<>()));
+  }
+
+  @Test
+  public void determineIfRequestCompression_optionKeyTrue() {
+    final List<TraceOption> options = new ArrayList<>();
+    options.add(new TraceOption.RequestCompression(true));
+
+    assertTrue(TraceOptionsUtil.determineIfRequestCompression(options));
+  }
+
+  @Test
+  public void determineIfRequestCompression_optionKeyFalse() {
+    final List<TraceOption> options = new ArrayList<>();
+    options.add(new TraceOption.RequestCompression(false));
+
+    assertFalse(TraceOptionsUtil.determineIfRequestCompression(options));
+  }
+
+  @Test
+  public void determineIfRequestCompression_otherOptions() {
+    final List<TraceOption> options = new ArrayList<>();
+    options.add(new DummyOption());
+
+    assertFalse(TraceOptionsUtil.determineIfRequestCompression(options));
+  }
+
+  @Test
+  public void determineIfProtobufTransport_nullOptions() {
+    assertFalse(TraceOptionsUtil.determineIfProtobufTransport(null));
+  }
+
+  @Test
+  public void determineIfProtobufTransport_emptyOptions() {
+    assertFalse(TraceOptionsUtil.determineIfProtobufTransport(new ArrayList<>()));
+  }
+
+  @Test
+  public void determineIfProtobufTransport_optionKeyTrue() {
+    final List<TraceOption> options = new ArrayList<>();
+    options.add(new TraceOption.ProtobufTransport(true));
+
+    assertTrue(TraceOptionsUtil.determineIfProtobufTransport(options));
+  }
+
+  @Test
+  public void determineIfProtobufTransport_optionKeyFalse() {
+    final List<TraceOption> options = new ArrayList<>();
+    options.add(new TraceOption.ProtobufTransport(false));
+
+    assertFalse(TraceOptionsUtil.determineIfProtobufTransport(options));
+  }
+
+  @Test
+  public void determineIfProtobufTransport_otherOptions() {
+    final List<TraceOption> options = new ArrayList<>();
+    options.add(new DummyOption());
+
+    assertFalse(TraceOptionsUtil.determineIfProtobufTransport(options));
+  }
+
+  @Test
+  public void determineUploadPolicy_nullOptions() {
+    final UploadPolicy uploadPolicy = TraceOptionsUtil.determineUploadPolicy(null);
+
+    assertEquals(JobInfo.NETWORK_TYPE_ANY, uploadPolicy.getRequiredNetworkType(true));
+    assertFalse(uploadPolicy.isChargingRequired(true));
+    assertEquals(UploadPolicy.DEFAULT_BATCHING_WINDOW_MS, uploadPolicy.getBatchingWindowMs());
+    assertEquals(UploadPolicy.DEFAULT_MAX_STALENESS_MS, uploadPolicy.getMaxStalenessMs());
+  }
+
+  @Test
+  public void determineUploadPolicy_allOptions() {
+    final List<TraceOption> options = new ArrayList<>();
+    options.add(new TraceOption.UnmeteredBacklogUpload(true));
+    options.add(new TraceOption.ChargingBacklogUpload(true));
+    options.add(new TraceOption.UploadBatchingWindow(300000));
+    options.add(new TraceOption.UploadMaxStaleness(3600000));
+
+    final UploadPolicy uploadPolicy = TraceOptionsUtil.determineUploadPolicy(options);
+
+    assertEquals(JobInfo.NETWORK_TYPE_UNMETERED, uploadPolicy.getRequiredNetworkType(true));
+    assertTrue(uploadPolicy.isChargingRequired(true));
+    assertEquals(300000, uploadPolicy.getBatchingWindowMs());
+    assertEquals(3600000, uploadPolicy.getMaxStalenessMs());
+  }
+
+  @Test
+  public void determineUploadPolicy_otherOptions() {
+    final List<TraceOption> options = new ArrayList<>();
+    options.add(new DummyOption());
+
+    final UploadPolicy uploadPolicy = TraceOptionsUtil.determineUploadPolicy(options);
+
+    assertEquals(JobInfo.NETWORK_TYPE_ANY, uploadPolicy.getRequiredNetworkType(true));
+    assertEquals(UploadPolicy.DEFAULT_BATCHING_WINDOW_MS, uploadPolicy.getBatchingWindowMs());
+  }
+
   /**
    * private test {@link TraceOption} class.
    */
@@ -3,10 +3,12 @@ package io.bitrise.trace;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.notNullValue;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -16,6 +18,7 @@ import android.app.Application;
 import android.content.Context;
 import io.bitrise.trace.configuration.ConfigurationManager;
 import io.bitrise.trace.data.management.DataManager;
+import io.bitrise.trace.data.trace.TraceManager;
 import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.session.Session;
 import io.bitrise.trace.utils.log.AndroidLogger;
@@ -112,4 +115,32 @@ public class TraceSdkTest {
     verifyNoMoreInteractions(mockContext);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void startSpan_initialised_shouldAddSpanToActiveTrace() {
+    final TraceManager mockTraceManager = Mockito.mock(TraceManager.class);
+    TraceSdk.traceManager = mockTraceManager;
+
+    final TraceSpan parent = TraceSdk.startSpan("parent");
+    try (TraceScope scope = parent.makeCurrent()) {
+      final TraceSpan child = TraceSdk.startSpan("child");
+      assertEquals(parent.getSpanId(), child.getParentSpanId());
+      child.end();
+    }
+    parent.end();
+
+    verify(mockTraceManager, times(2)).addSpanToActiveTrace(any());
+  }
+
+  @Test
+  public void startSpan_notInitialised_shouldNotRecord() {
+    final TraceManager mockTraceManager = Mockito.mock(TraceManager.class);
+    final TraceSpan span = TraceSdk.startSpan("span");
+    TraceSdk.traceManager = mockTraceManager;
+
+    span.end();
+
+    assertTrue(span.isEnded());
+    verify(mockTraceManager, never()).addSpanToActiveTrace(any());
+  }
+
+}
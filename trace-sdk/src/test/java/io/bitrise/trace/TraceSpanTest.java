@@ -0,0 +1,100 @@
+package io.bitrise.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.bitrise.trace.data.trace.TraceManager;
+import io.bitrise.trace.utils.ByteStringConverter;
+import io.bitrise.trace.utils.TraceClock;
+import io.opencensus.proto.trace.v1.Span;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit tests for {@link TraceSpan}.
+ */
+public class TraceSpanTest {
+
+  private static final String ROOT_SPAN_ID = "0123456789abcdef";
+
+  private final TraceManager mockTraceManager = mock(TraceManager.class);
+
+  @Test
+  public void end_shouldAddSpanToActiveTrace() {
+    when(mockTraceManager.getRootSpanId()).thenReturn(ROOT_SPAN_ID);
+    final TraceSpan traceSpan = new TraceSpan("query", mockTraceManager, null);
+
+    traceSpan.end();
+
+    final ArgumentCaptor<Span> spanCaptor = ArgumentCaptor.forClass(Span.class);
+    verify(mockTraceManager, times(1)).addSpanToActiveTrace(spanCaptor.capture());
+    final Span span = spanCaptor.getValue();
+    assertEquals("query", span.getName().getValue());
+    assertEquals(traceSpan.getSpanId(), ByteStringConverter.toString(span.getSpanId()));
+    assertEquals(ROOT_SPAN_ID, ByteStringConverter.toString(span.getParentSpanId()));
+    assertTrue(TraceClock.timestampToMillis(span.getStartTime())
+        <= TraceClock.timestampToMillis(span.getEndTime()));
+    assertTrue(span.hasAttributes());
+    assertTrue(traceSpan.isEnded());
+  }
+
+  @Test
+  public void end_calledTwice_shouldAddSpanOnce() {
+    final TraceSpan traceSpan = new TraceSpan("query", mockTraceManager, null);
+
+    traceSpan.end();
+    traceSpan.end();
+
+    verify(mockTraceManager, times(1)).addSpanToActiveTrace(any());
+  }
+
+  @Test
+  public void end_noTraceManager_shouldNotFail() {
+    final TraceSpan traceSpan = new TraceSpan("query", null, null);
+
+    traceSpan.end();
+
+    assertTrue(traceSpan.isEnded());
+    assertNull(traceSpan.getParentSpanId());
+  }
+
+  @Test
+  public void constructor_withParent_shouldUseParentSpanId() {
+    when(mockTraceManager.getRootSpanId()).thenReturn(ROOT_SPAN_ID);
+    final TraceSpan parent = new TraceSpan("parent", mockTraceManager, null);
+
+    final TraceSpan child = new TraceSpan("child", mockTraceManager, parent);
+
+    assertEquals(parent.getSpanId(), child.getParentSpanId());
+    assertEquals(16, child.getSpanId().length());
+    assertFalse(child.isEnded());
+  }
+
+  @Test
+  public void constructor_noRootSpan_shouldHaveNoParent() {
+    when(mockTraceManager.getRootSpanId()).thenReturn(null);
+    final TraceSpan traceSpan = new TraceSpan("query", mockTraceManager, null);
+
+    assertNull(traceSpan.getParentSpanId());
+    assertFalse(traceSpan.toSpan(0).hasParentSpanId());
+  }
+
+  @Test
+  public void toSpan_endBeforeStart_shouldNotHaveNegativeDuration() {
+    final TraceSpan traceSpan = new TraceSpan("query", mockTraceManager, null);
+
+    final Span span = traceSpan.toSpan(0);
+
+    assertEquals(span.getStartTime(), span.getEndTime());
+    assertEquals(Span.SpanKind.SPAN_KIND_UNSPECIFIED, span.getKind());
+    assertEquals(TraceSpan.SPAN_TYPE_ATTRIBUTE,
+        span.getAttributes().getAttributeMapMap().keySet().iterator().next());
+  }
+}
@@ -2,16 +2,58 @@ package io.bitrise.trace.data.collector.cpu;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * Unit tests for {@link ApplicationCpuUsageDataCollector}.
  */
 public class ApplicationCpuUsageDataCollectorTest {
 
+  private static final String UPDATED_PROC_SELF_STAT =
+      "10267 (e.trace.testapp) R 1863 1863 0 0 -1 4211008 7678 0 85 0 60 12 0 0 10 -10 34 0 "
+          + "118182231 1516228608 20270\n";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   private final ApplicationCpuUsageDataCollector collector = new ApplicationCpuUsageDataCollector();
 
+  private File processStatFile;
+  private ProcStatSampler sampler;
+  private long currentTimeNanos;
+
+  /**
+   * Copies the proc/self/stat fixture to the temporary folder, so it can be modified by the tests.
+   *
+   * @throws IOException if the file cannot be copied.
+   */
+  @Before
+  public void setUp() throws IOException {
+    processStatFile = temporaryFolder.newFile();
+    Files.copy(Paths.get(ProcStatParserTest.PROC_SELF_STAT_FIXTURE), processStatFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+    sampler = new ProcStatSampler(new File(ProcStatParserTest.PROC_STAT_FIXTURE),
+        processStatFile, 0);
+  }
+
+  @After
+  public void tearDown() {
+    sampler.close();
+  }
+
   @Test
   public void getPermissions() {
     assertArrayEquals(new String[0], collector.getPermissions());
@@ -21,4 +63,78 @@ public class ApplicationCpuUsageDataCollectorTest {
   public void getIntervalMs() {
     assertEquals(15000, collector.getIntervalMs());
   }
+
+  @Test
+  public void getApplicationCpuUsage() throws IOException {
+    final ApplicationCpuUsageDataCollector collector = createCollector();
+
+    currentTimeNanos += TimeUnit.SECONDS.toNanos(2);
+    writeProcessStat();
+
+    assertEquals(new CpuUsageData.ApplicationCpuUsage(6.5, CpuUsageData.SampleQuality.ACCURATE),
+        collector.getApplicationCpuUsage());
+  }
+
+  @Test
+  public void getApplicationCpuUsage_shortInterval() throws IOException {
+    final ApplicationCpuUsageDataCollector collector = createCollector();
+
+    currentTimeNanos += TimeUnit.MILLISECONDS.toNanos(500);
+    writeProcessStat();
+
+    assertEquals(
+        new CpuUsageData.ApplicationCpuUsage(26, CpuUsageData.SampleQuality.LOW_RESOLUTION),
+        collector.getApplicationCpuUsage());
+  }
+
+  @Test
+  public void getApplicationCpuUsage_noTimeElapsedShouldKeepPreviousSample() throws IOException {
+    final ApplicationCpuUsageDataCollector collector = createCollector();
+    writeProcessStat();
+
+    assertNull(collector.getApplicationCpuUsage());
+
+    currentTimeNanos += TimeUnit.SECONDS.toNanos(2);
+    assertEquals(new CpuUsageData.ApplicationCpuUsage(6.5, CpuUsageData.SampleQuality.ACCURATE),
+        collector.getApplicationCpuUsage());
+  }
+
+  @Test
+  public void getApplicationCpuUsage_missingFile() {
+    final File file = new File("missing");
+    final ApplicationCpuUsageDataCollector collector =
+        new ApplicationCpuUsageDataCollector(new ProcStatSampler(file, file, 0));
+
+    assertNull(collector.getApplicationCpuUsage());
+  }
+
+  @Test
+  public void calculateUsage_countersReset() {
+    assertNull(ApplicationCpuUsageDataCollector.calculateUsage(-1, TimeUnit.SECONDS.toNanos(1)));
+  }
+
+  @Test
+  public void calculateUsage_aboveHundredPercent() {
+    assertNull(ApplicationCpuUsageDataCollector.calculateUsage(101, TimeUnit.SECONDS.toNanos(1)));
+  }
+
+  /**
+   * Creates an {@link ApplicationCpuUsageDataCollector} that reads the fixture files, with a clock
+   * that is controlled by the tests.
+   *
+   * @return the created collector.
+   */
+  private ApplicationCpuUsageDataCollector createCollector() {
+    return new ApplicationCpuUsageDataCollector(sampler) {
+      @Override
+      Long getElapsedRealtimeNanos() {
+        return currentTimeNanos;
+      }
+    };
+  }
+
+  private void writeProcessStat() throws IOException {
+    Files.write(processStatFile.toPath(),
+        UPDATED_PROC_SELF_STAT.getBytes(StandardCharsets.US_ASCII));
+  }
 }
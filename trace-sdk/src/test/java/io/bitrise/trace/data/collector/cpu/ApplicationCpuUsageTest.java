@@ -0,0 +1,44 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CpuUsageData.ApplicationCpuUsage}.
+ */
+public class ApplicationCpuUsageTest {
+
+  private final CpuUsageData.ApplicationCpuUsage applicationCpuUsage =
+      new CpuUsageData.ApplicationCpuUsage(12.5, CpuUsageData.SampleQuality.ACCURATE);
+
+  @Test
+  public void toString_shouldMatchWithContent() {
+    assertEquals("ApplicationCpuUsage{usage=12.5, sampleQuality=ACCURATE}",
+        applicationCpuUsage.toString());
+  }
+
+  @Test
+  public void equals_sameObject() {
+    assertTrue(applicationCpuUsage.equals(applicationCpuUsage));
+  }
+
+  @Test
+  public void equals_notApplicationCpuUsage() {
+    assertFalse(applicationCpuUsage.equals("application_cpu_usage"));
+  }
+
+  @Test
+  public void equals_differentSampleQuality() {
+    assertFalse(applicationCpuUsage.equals(
+        new CpuUsageData.ApplicationCpuUsage(12.5, CpuUsageData.SampleQuality.LOW_RESOLUTION)));
+  }
+
+  @Test
+  public void hashCode_shouldMatch() {
+    assertEquals(new CpuUsageData.ApplicationCpuUsage(12.5, CpuUsageData.SampleQuality.ACCURATE)
+        .hashCode(), applicationCpuUsage.hashCode());
+  }
+}
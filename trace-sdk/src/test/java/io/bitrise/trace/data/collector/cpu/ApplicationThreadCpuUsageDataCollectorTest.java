@@ -0,0 +1,203 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ApplicationThreadCpuUsageDataCollector}.
+ */
+public class ApplicationThreadCpuUsageDataCollectorTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File taskDirectory;
+  private long currentTimeNanos;
+  private ApplicationThreadCpuUsageDataCollector collector;
+
+  /**
+   * Creates a collector with a fixed clock, that reads the thread stats from a temporary folder.
+   *
+   * @throws IOException if the temporary folder cannot be created.
+   */
+  @Before
+  public void setUp() throws IOException {
+    taskDirectory = temporaryFolder.newFolder("task");
+    collector = new ApplicationThreadCpuUsageDataCollector(taskDirectory) {
+      @Override
+      long getCurrentTimeNanos() {
+        return currentTimeNanos;
+      }
+    };
+  }
+
+  @Test
+  public void getPermissions() {
+    assertArrayEquals(new String[0], collector.getPermissions());
+  }
+
+  @Test
+  public void getIntervalMs() {
+    assertEquals(15000, collector.getIntervalMs());
+  }
+
+  @Test
+  public void getThreadCpuUsage_firstCallShouldBeNull() throws IOException {
+    writeThreadStat(100, "main", 100, 50);
+
+    assertNull(collector.getThreadCpuUsage());
+  }
+
+  @Test
+  public void getThreadCpuUsage() throws IOException {
+    writeThreadStat(100, "main", 100, 50);
+    writeThreadStat(101, "OkHttp Dispatch", 10, 0);
+    writeThreadStat(102, "OkHttp Dispatch", 20, 0);
+    writeThreadStat(103, "Idle", 5, 5);
+    collector.getThreadCpuUsage();
+
+    currentTimeNanos += TimeUnit.SECONDS.toNanos(10);
+    writeThreadStat(100, "main", 400, 250);
+    writeThreadStat(101, "OkHttp Dispatch", 60, 0);
+    writeThreadStat(102, "OkHttp Dispatch", 70, 0);
+    writeThreadStat(104, "pool-1-thread-1", 50, 0);
+
+    assertArrayEquals(new CpuUsageData.ThreadCpuUsage[] {
+        new CpuUsageData.ThreadCpuUsage("main", 50),
+        new CpuUsageData.ThreadCpuUsage("OkHttp Dispatch", 10),
+        new CpuUsageData.ThreadCpuUsage("pool-1-thread", 5)}, collector.getThreadCpuUsage());
+  }
+
+  @Test
+  public void getThreadCpuUsage_numberedThreadsShouldBeGrouped() throws IOException {
+    writeThreadStat(100, "pool-3-thread-1", 0, 0);
+    writeThreadStat(101, "pool-3-thread-2", 0, 0);
+    writeThreadStat(102, "pool-4-thread-1", 0, 0);
+    collector.getThreadCpuUsage();
+
+    currentTimeNanos += TimeUnit.SECONDS.toNanos(1);
+    writeThreadStat(100, "pool-3-thread-1", 30, 0);
+    writeThreadStat(101, "pool-3-thread-2", 20, 10);
+    writeThreadStat(102, "pool-4-thread-1", 10, 0);
+
+    assertArrayEquals(new CpuUsageData.ThreadCpuUsage[] {
+        new CpuUsageData.ThreadCpuUsage("pool-3-thread", 60),
+        new CpuUsageData.ThreadCpuUsage("pool-4-thread", 10)}, collector.getThreadCpuUsage());
+  }
+
+  @Test
+  public void getThreadCpuUsage_statFilesShouldBeKeptOpen() throws IOException {
+    writeThreadStat(100, "main", 100, 50);
+    writeThreadStat(101, "worker", 10, 0);
+    collector.getThreadCpuUsage();
+    assertEquals(2, collector.getOpenStatFileCount());
+
+    currentTimeNanos += TimeUnit.SECONDS.toNanos(1);
+    writeThreadStat(100, "main", 150, 50);
+    deleteThreadStat(101);
+
+    assertArrayEquals(new CpuUsageData.ThreadCpuUsage[] {
+        new CpuUsageData.ThreadCpuUsage("main", 50)}, collector.getThreadCpuUsage());
+    assertEquals(1, collector.getOpenStatFileCount());
+  }
+
+  @Test
+  public void getThreadCpuUsage_openStatFilesShouldBeLimited() throws IOException {
+    final int threadCount = ApplicationThreadCpuUsageDataCollector.MAX_OPEN_STAT_FILES + 10;
+    for (int i = 0; i < threadCount; i++) {
+      writeThreadStat(1000 + i, "worker", 0, 0);
+    }
+    collector.getThreadCpuUsage();
+
+    currentTimeNanos += TimeUnit.SECONDS.toNanos(1);
+    for (int i = 0; i < threadCount; i++) {
+      writeThreadStat(1000 + i, "worker", 1, 0);
+    }
+
+    assertArrayEquals(new CpuUsageData.ThreadCpuUsage[] {
+        new CpuUsageData.ThreadCpuUsage("worker", threadCount)}, collector.getThreadCpuUsage());
+    assertEquals(ApplicationThreadCpuUsageDataCollector.MAX_OPEN_STAT_FILES,
+        collector.getOpenStatFileCount());
+  }
+
+  @Test
+  public void normalizeThreadName() {
+    assertEquals("pool-3-thread",
+        ApplicationThreadCpuUsageDataCollector.normalizeThreadName("pool-3-thread-7"));
+    assertEquals("Binder",
+        ApplicationThreadCpuUsageDataCollector.normalizeThreadName("Binder:1234_5"));
+    assertEquals("AsyncTask",
+        ApplicationThreadCpuUsageDataCollector.normalizeThreadName("AsyncTask #4"));
+    assertEquals("main", ApplicationThreadCpuUsageDataCollector.normalizeThreadName("main"));
+    assertEquals("42", ApplicationThreadCpuUsageDataCollector.normalizeThreadName("42"));
+  }
+
+  @Test
+  public void getThreadCpuUsage_missingDirectory() throws IOException {
+    collector = new ApplicationThreadCpuUsageDataCollector(
+        new File(temporaryFolder.getRoot(), "missing"));
+
+    assertNull(collector.getThreadCpuUsage());
+    assertNull(collector.getThreadCpuUsage());
+  }
+
+  @Test
+  public void getThreadCpuUsage_invalidFilesShouldBeSkipped() throws IOException {
+    writeThreadStat(100, "main", 100, 50);
+    collector.getThreadCpuUsage();
+
+    currentTimeNanos += TimeUnit.SECONDS.toNanos(1);
+    writeThreadStat(100, "main", 150, 50);
+    new File(taskDirectory, "self").mkdir();
+    final File invalidDirectory = new File(taskDirectory, "101");
+    invalidDirectory.mkdir();
+    Files.write(new File(invalidDirectory, "stat").toPath(),
+        "=^..^=".getBytes(StandardCharsets.US_ASCII));
+
+    assertArrayEquals(new CpuUsageData.ThreadCpuUsage[] {
+        new CpuUsageData.ThreadCpuUsage("main", 50)}, collector.getThreadCpuUsage());
+  }
+
+  @Test
+  public void calculateThreadCpuUsages_shouldBeLimited() {
+    final Map<String, Long> ticksByName = new HashMap<>();
+    for (int i = 0; i < ApplicationThreadCpuUsageDataCollector.MAX_REPORTED_THREADS * 2; i++) {
+      ticksByName.put("thread-" + i, (long) i + 1);
+    }
+
+    final CpuUsageData.ThreadCpuUsage[] actual =
+        ApplicationThreadCpuUsageDataCollector.calculateThreadCpuUsages(ticksByName, 1000);
+
+    assertEquals(ApplicationThreadCpuUsageDataCollector.MAX_REPORTED_THREADS, actual.length);
+    assertEquals(new CpuUsageData.ThreadCpuUsage("thread-19", 20), actual[0]);
+  }
+
+  private void deleteThreadStat(final int tid) {
+    final File threadDirectory = new File(taskDirectory, String.valueOf(tid));
+    new File(threadDirectory, "stat").delete();
+    threadDirectory.delete();
+  }
+
+  private void writeThreadStat(final int tid, final String name, final long utime,
+                               final long stime) throws IOException {
+    final File threadDirectory = new File(taskDirectory, String.valueOf(tid));
+    threadDirectory.mkdir();
+    final String content = tid + " (" + name + ") S 1863 1863 0 0 -1 1077952576 1290 0 0 0 "
+        + utime + " " + stime + " 0 0 10 -10 40 0 118182300 1516228608 20270\n";
+    Files.write(new File(threadDirectory, "stat").toPath(),
+        content.getBytes(StandardCharsets.US_ASCII));
+  }
+}
@@ -0,0 +1,40 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CpuUsageData.CoreCpuUsage}.
+ */
+public class CoreCpuUsageTest {
+
+  private final CpuUsageData.CoreCpuUsage coreCpuUsage = new CpuUsageData.CoreCpuUsage(1, 12.5);
+
+  @Test
+  public void toString_shouldMatchWithContent() {
+    assertEquals("CoreCpuUsage{core=1, usage=12.5}", coreCpuUsage.toString());
+  }
+
+  @Test
+  public void equals_sameObject() {
+    assertTrue(coreCpuUsage.equals(coreCpuUsage));
+  }
+
+  @Test
+  public void equals_notCoreCpuUsage() {
+    assertFalse(coreCpuUsage.equals("core_cpu_usage"));
+  }
+
+  @Test
+  public void equals_differentCoreCpuUsage() {
+    assertFalse(coreCpuUsage.equals(new CpuUsageData.CoreCpuUsage(2, 12.5)));
+  }
+
+  @Test
+  public void hashCode_shouldMatch() {
+    assertEquals(new CpuUsageData.CoreCpuUsage(1, 12.5).hashCode(), coreCpuUsage.hashCode());
+  }
+}
@@ -0,0 +1,170 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ProcStatParser}. The fixture files have the format of the proc
+ * filesystem, so the parser can be checked on any JVM.
+ */
+public class ProcStatParserTest {
+
+  static final String PROC_STAT_FIXTURE =
+      "src/test/resources/io/bitrise/trace/data/collector/cpu/proc_stat";
+  static final String PROC_SELF_STAT_FIXTURE =
+      "src/test/resources/io/bitrise/trace/data/collector/cpu/proc_self_stat";
+
+  private static final int FIELDS = ProcStatParser.SYSTEM_STAT_FIELD_COUNT;
+
+  @Test
+  public void parseSystemStat_fixture() throws IOException {
+    final byte[] content = Files.readAllBytes(Paths.get(PROC_STAT_FIXTURE));
+    final long[] ticks = new long[3 * FIELDS];
+
+    final int rowCount = ProcStatParser.parseSystemStat(content, content.length, ticks);
+
+    assertEquals(3, rowCount);
+    assertArrayEquals(new long[]{
+        2255, 34, 2290, 22625563, 6290, 127, 456, 0,
+        1132, 34, 1441, 11311718, 3675, 127, 438, 0,
+        1123, 0, 849, 11313845, 2614, 0, 18, 0}, ticks);
+  }
+
+  @Test
+  public void parseSystemStat_missingCore() {
+    final byte[] content = toBytes("cpu  110 220 330 440 550 660 770 880 0 0\n"
+        + "cpu0 100 200 300 400 500 600 700 800 0 0\n"
+        + "cpu2 10 20 30 40 50 60 70 80 0 0\n");
+    final long[] ticks = new long[4 * FIELDS];
+
+    final int rowCount = ProcStatParser.parseSystemStat(content, content.length, ticks);
+
+    assertEquals(4, rowCount);
+    assertEquals(110, ticks[0]);
+    assertEquals(100, ticks[FIELDS]);
+    assertEquals(-1, ticks[2 * FIELDS]);
+    assertEquals(10, ticks[3 * FIELDS]);
+    assertEquals(80, ticks[4 * FIELDS - 1]);
+  }
+
+  @Test
+  public void parseSystemStat_capacityExceeded() {
+    final byte[] content = toBytes("cpu  110 220 330 440 550 660 770 880 0 0\n"
+        + "cpu0 100 200 300 400 500 600 700 800 0 0\n"
+        + "cpu1 10 20 30 40 50 60 70 80 0 0\n");
+    final long[] ticks = new long[2 * FIELDS];
+
+    final int rowCount = ProcStatParser.parseSystemStat(content, content.length, ticks);
+
+    assertEquals(3, rowCount);
+    assertEquals(110, ticks[0]);
+    assertEquals(100, ticks[FIELDS]);
+  }
+
+  @Test
+  public void parseSystemStat_truncatedLine() {
+    final byte[] content = toBytes("cpu  110 220 330 440 550 660 770 880 0 0\n"
+        + "cpu0 100 200 300 40");
+    final long[] ticks = new long[2 * FIELDS];
+
+    final int rowCount = ProcStatParser.parseSystemStat(content, content.length, ticks);
+
+    assertEquals(1, rowCount);
+    assertEquals(-1, ticks[FIELDS]);
+  }
+
+  @Test
+  public void parseSystemStat_empty() {
+    final long[] ticks = new long[2 * FIELDS];
+
+    assertEquals(0, ProcStatParser.parseSystemStat(new byte[0], 0, ticks));
+    assertEquals(-1, ticks[0]);
+  }
+
+  @Test
+  public void parseSystemStat_linesNotCpuRecord() {
+    final byte[] content = toBytes("=^..^=\n");
+
+    assertEquals(0, ProcStatParser.parseSystemStat(content, content.length, new long[FIELDS]));
+  }
+
+  @Test
+  public void parseSystemStat_shouldOnlyUseValidLength() {
+    final byte[] content = toBytes("cpu  110 220 330 440 550 660 770 880 0 0\n");
+
+    assertEquals(0, ProcStatParser.parseSystemStat(content, 10, new long[FIELDS]));
+  }
+
+  @Test
+  public void parseProcessStat_fixture() throws IOException {
+    final byte[] content = Files.readAllBytes(Paths.get(PROC_SELF_STAT_FIXTURE));
+    final long[] values = new long[ProcStatParser.PROCESS_STAT_FIELD_COUNT];
+
+    assertTrue(ProcStatParser.parseProcessStat(content, content.length, values));
+    assertArrayEquals(new long[]{49, 10, 0, 0, 118182231}, values);
+  }
+
+  @Test
+  public void parseProcessStat_nameWithSpacesAndParentheses() {
+    final byte[] content = toBytes("10267 (my (app) name) S 1863 1863 0 0 -1 4211008 7678 0 85 "
+        + "0 49 10 1 2 10 -10 34 0 118182231 1516228608 20270\n");
+    final long[] values = new long[ProcStatParser.PROCESS_STAT_FIELD_COUNT];
+
+    assertTrue(ProcStatParser.parseProcessStat(content, content.length, values));
+    assertArrayEquals(new long[]{49, 10, 1, 2, 118182231}, values);
+  }
+
+  @Test
+  public void parseProcessStat_invalidInput() {
+    final byte[] content = toBytes("something that is not cool");
+
+    assertFalse(ProcStatParser.parseProcessStat(content, content.length,
+        new long[ProcStatParser.PROCESS_STAT_FIELD_COUNT]));
+  }
+
+  @Test
+  public void parseProcessStat_truncatedInput() {
+    final byte[] content = toBytes("10267 (e.trace.testapp) R 1863 1863 0 0 -1 4211008 7678 0 85 "
+        + "0 49 10 0");
+
+    assertFalse(ProcStatParser.parseProcessStat(content, content.length,
+        new long[ProcStatParser.PROCESS_STAT_FIELD_COUNT]));
+  }
+
+  @Test
+  public void parseThreadStat() {
+    final byte[] content = toBytes("10270 (OkHttp Dispatch) S 1863 1863 0 0 -1 1077952576 1290 0 "
+        + "0 0 120 35 0 0 10 -10 40 0 118182300 1516228608 20270\n");
+    final long[] values = new long[ProcStatParser.THREAD_STAT_FIELD_COUNT];
+
+    assertTrue(ProcStatParser.parseThreadStat(content, content.length, values));
+    assertArrayEquals(new long[]{120, 35}, values);
+  }
+
+  @Test
+  public void parseName() {
+    final byte[] content = toBytes("10267 (my (app) name) S 1863\n");
+
+    assertEquals("my (app) name", ProcStatParser.parseName(content, content.length));
+  }
+
+  @Test
+  public void parseName_invalidInput() {
+    final byte[] content = toBytes("something that is not cool)");
+
+    assertNull(ProcStatParser.parseName(content, content.length));
+  }
+
+  private static byte[] toBytes(final String content) {
+    return content.getBytes(StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,182 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ProcStatSampler}.
+ */
+public class ProcStatSamplerTest {
+
+  private static final CpuUsageData.CpuStat FIXTURE_CPU_STAT =
+      new CpuUsageData.CpuStat(2255, 34, 2290, 22625563, 6290, 127, 456, 0);
+  private static final CpuUsageData.PidCpuStat FIXTURE_PID_CPU_STAT =
+      new CpuUsageData.PidCpuStat(49, 10, 0, 0, 118182231);
+  private static final String UPDATED_PROC_STAT =
+      "cpu  3000 34 2290 22625563 6290 127 456 0 0 0\n";
+  private static final String UPDATED_PROC_SELF_STAT =
+      "10267 (e.trace.testapp) R 1863 1863 0 0 -1 4211008 7678 0 85 0 60 12 0 0 10 -10 34 0 "
+          + "118182231 1516228608 20270\n";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File systemStatFile;
+  private File processStatFile;
+  private ProcStatSampler sampler;
+
+  /**
+   * Copies the fixture files to the temporary folder, so they can be modified by the tests.
+   *
+   * @throws IOException if the files cannot be copied.
+   */
+  @Before
+  public void setUp() throws IOException {
+    systemStatFile = temporaryFolder.newFile();
+    processStatFile = temporaryFolder.newFile();
+    Files.copy(Paths.get(ProcStatParserTest.PROC_STAT_FIXTURE), systemStatFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+    Files.copy(Paths.get(ProcStatParserTest.PROC_SELF_STAT_FIXTURE), processStatFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  @After
+  public void tearDown() {
+    if (sampler != null) {
+      sampler.close();
+    }
+  }
+
+  @Test
+  public void getSystemCpuStat_fixture() {
+    sampler = new ProcStatSampler(systemStatFile, processStatFile, 0);
+
+    assertEquals(FIXTURE_CPU_STAT, sampler.getSystemCpuStat());
+  }
+
+  @Test
+  public void getCoreCpuStats_fixture() {
+    sampler = new ProcStatSampler(systemStatFile, processStatFile, 0);
+
+    final CpuUsageData.CpuStat[] coreCpuStats = sampler.getCoreCpuStats();
+
+    assertEquals(2, coreCpuStats.length);
+    assertEquals(new CpuUsageData.CpuStat(1132, 34, 1441, 11311718, 3675, 127, 438, 0),
+        coreCpuStats[0]);
+    assertEquals(new CpuUsageData.CpuStat(1123, 0, 849, 11313845, 2614, 0, 18, 0),
+        coreCpuStats[1]);
+  }
+
+  @Test
+  public void getCoreCpuStats_offlineCore() throws IOException {
+    write(systemStatFile, "cpu  110 220 330 440 550 660 770 880 0 0\n"
+        + "cpu0 100 200 300 400 500 600 700 800 0 0\n"
+        + "cpu2 10 20 30 40 50 60 70 80 0 0\n");
+    sampler = new ProcStatSampler(systemStatFile, processStatFile, 0);
+
+    final CpuUsageData.CpuStat[] coreCpuStats = sampler.getCoreCpuStats();
+
+    assertEquals(3, coreCpuStats.length);
+    assertNotNull(coreCpuStats[0]);
+    assertNull(coreCpuStats[1]);
+    assertEquals(new CpuUsageData.CpuStat(10, 20, 30, 40, 50, 60, 70, 80), coreCpuStats[2]);
+  }
+
+  @Test
+  public void getCoreCpuStats_missingFile() {
+    sampler = new ProcStatSampler(new File(temporaryFolder.getRoot(), "missing"),
+        processStatFile, 0);
+
+    assertEquals(0, sampler.getCoreCpuStats().length);
+  }
+
+  @Test
+  public void getProcessCpuStat_fixture() {
+    sampler = new ProcStatSampler(systemStatFile, processStatFile, 0);
+
+    assertEquals(FIXTURE_PID_CPU_STAT, sampler.getProcessCpuStat());
+  }
+
+  @Test
+  public void getProcessCpuStat_shouldBeServedFromTheSameSample() throws IOException {
+    sampler = new ProcStatSampler(systemStatFile, processStatFile, Long.MAX_VALUE / 2);
+    sampler.getSystemCpuStat();
+
+    write(processStatFile, UPDATED_PROC_SELF_STAT);
+
+    assertEquals(FIXTURE_PID_CPU_STAT, sampler.getProcessCpuStat());
+  }
+
+  @Test
+  public void getSystemCpuStat_shouldBeReadAgainWithOpenFile() throws IOException {
+    sampler = new ProcStatSampler(systemStatFile, processStatFile, 0);
+    sampler.getSystemCpuStat();
+
+    write(systemStatFile, UPDATED_PROC_STAT);
+    write(processStatFile, UPDATED_PROC_SELF_STAT);
+
+    assertEquals(new CpuUsageData.CpuStat(3000, 34, 2290, 22625563, 6290, 127, 456, 0),
+        sampler.getSystemCpuStat());
+    assertEquals(new CpuUsageData.PidCpuStat(60, 12, 0, 0, 118182231),
+        sampler.getProcessCpuStat());
+  }
+
+  @Test
+  public void getSystemCpuStat_missingFile() {
+    sampler = new ProcStatSampler(new File(temporaryFolder.getRoot(), "missing"),
+        processStatFile, 0);
+
+    assertNull(sampler.getSystemCpuStat());
+    assertEquals(FIXTURE_PID_CPU_STAT, sampler.getProcessCpuStat());
+  }
+
+  @Test
+  public void getSystemCpuStat_invalidContent() throws IOException {
+    write(systemStatFile, "=^..^=");
+    sampler = new ProcStatSampler(systemStatFile, processStatFile, 0);
+
+    assertNull(sampler.getSystemCpuStat());
+  }
+
+  @Test
+  public void close_shouldOpenTheFilesAgain() throws IOException {
+    final File missingFile = new File(temporaryFolder.getRoot(), "missing");
+    sampler = new ProcStatSampler(missingFile, processStatFile, 0);
+    assertNull(sampler.getSystemCpuStat());
+
+    Files.copy(systemStatFile.toPath(), missingFile.toPath());
+    assertNull(sampler.getSystemCpuStat());
+
+    sampler.close();
+    assertEquals(FIXTURE_CPU_STAT, sampler.getSystemCpuStat());
+  }
+
+  @Test
+  public void sample_procFilesystem() {
+    assumeTrue(new File("/proc/stat").canRead() && new File("/proc/self/stat").canRead());
+    sampler = new ProcStatSampler(new File("/proc/stat"), new File("/proc/self/stat"), 0);
+
+    for (int i = 0; i < 3; i++) {
+      assertNotNull(sampler.getSystemCpuStat());
+      assertNotNull(sampler.getProcessCpuStat());
+    }
+  }
+
+  private static void write(final File file, final String content) throws IOException {
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+  }
+}
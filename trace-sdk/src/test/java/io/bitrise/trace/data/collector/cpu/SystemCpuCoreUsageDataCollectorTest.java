@@ -0,0 +1,109 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link SystemCpuCoreUsageDataCollector}.
+ */
+public class SystemCpuCoreUsageDataCollectorTest {
+
+  private static final double DELTA = 0.0001;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void getPermissions() {
+    final SystemCpuCoreUsageDataCollector collector = createCollector(new File("missing"));
+    assertArrayEquals(new String[0], collector.getPermissions());
+  }
+
+  @Test
+  public void getIntervalMs() {
+    final SystemCpuCoreUsageDataCollector collector = createCollector(new File("missing"));
+    assertEquals(15000, collector.getIntervalMs());
+  }
+
+  @Test
+  public void getCoreCpuUsage() throws IOException {
+    final File file = temporaryFolder.newFile();
+    write(file, "cpu  200 0 200 200 0 0 0 0 0 0\n"
+        + "cpu0 100 0 100 100 0 0 0 0 0 0\n"
+        + "cpu1 100 0 100 100 0 0 0 0 0 0\n");
+    final SystemCpuCoreUsageDataCollector collector = createCollector(file);
+
+    write(file, "cpu  300 0 250 450 0 0 0 0 0 0\n"
+        + "cpu0 175 0 125 100 0 0 0 0 0 0\n"
+        + "cpu1 110 0 105 175 10 0 0 0 0 0\n");
+    final CpuUsageData.CoreCpuUsage[] actual = collector.getCoreCpuUsage();
+
+    assertArrayEquals(new CpuUsageData.CoreCpuUsage[] {
+        new CpuUsageData.CoreCpuUsage(0, 100),
+        new CpuUsageData.CoreCpuUsage(1, 15)}, actual);
+  }
+
+  @Test
+  public void getCoreCpuUsage_coreSwitchedOff() throws IOException {
+    final File file = temporaryFolder.newFile();
+    write(file, "cpu  200 0 200 200 0 0 0 0 0 0\n"
+        + "cpu0 100 0 100 100 0 0 0 0 0 0\n"
+        + "cpu1 100 0 100 100 0 0 0 0 0 0\n");
+    final SystemCpuCoreUsageDataCollector collector = createCollector(file);
+
+    write(file, "cpu  300 0 250 450 0 0 0 0 0 0\n"
+        + "cpu0 150 0 150 200 0 0 0 0 0 0\n");
+    final CpuUsageData.CoreCpuUsage[] actual = collector.getCoreCpuUsage();
+
+    assertArrayEquals(new CpuUsageData.CoreCpuUsage[] {
+        new CpuUsageData.CoreCpuUsage(0, 50)}, actual);
+  }
+
+  @Test
+  public void getCoreCpuUsage_missingFile() {
+    final SystemCpuCoreUsageDataCollector collector = createCollector(new File("missing"));
+
+    assertNull(collector.getCoreCpuUsage());
+  }
+
+  @Test
+  public void calculateUsage() {
+    final CpuUsageData.CpuStat previous = new CpuUsageData.CpuStat(10, 10, 10, 10, 10, 10, 10, 10);
+    final CpuUsageData.CpuStat current = new CpuUsageData.CpuStat(20, 10, 20, 30, 20, 10, 10, 10);
+
+    assertEquals(40, SystemCpuCoreUsageDataCollector.calculateUsage(current, previous), DELTA);
+  }
+
+  @Test
+  public void calculateUsage_noTimePassed() {
+    final CpuUsageData.CpuStat cpuStat = new CpuUsageData.CpuStat(10, 10, 10, 10, 10, 10, 10, 10);
+
+    assertNull(SystemCpuCoreUsageDataCollector.calculateUsage(cpuStat, cpuStat));
+  }
+
+  @Test
+  public void calculateUsage_countersReset() {
+    final CpuUsageData.CpuStat previous = new CpuUsageData.CpuStat(10, 10, 10, 50, 10, 10, 10, 10);
+    final CpuUsageData.CpuStat current = new CpuUsageData.CpuStat(20, 10, 20, 30, 10, 10, 10, 10);
+
+    assertNull(SystemCpuCoreUsageDataCollector.calculateUsage(current, previous));
+  }
+
+  private static SystemCpuCoreUsageDataCollector createCollector(final File systemStatFile) {
+    return new SystemCpuCoreUsageDataCollector(
+        new ProcStatSampler(systemStatFile, new File("missing"), 0));
+  }
+
+  private static void write(final File file, final String content) throws IOException {
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+  }
+}
@@ -2,15 +2,13 @@ package io.bitrise.trace.data.collector.cpu;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
-import static org.hamcrest.Matchers.is;
-import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
-import java.util.List;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -34,23 +32,6 @@ public class SystemCpuUsageDataCollectorTest {
       new CpuUsageData.CpuStat(100, 200, 300, 400, 500, 600, 700, 800);
   private final SystemCpuUsageDataCollector collector = new SystemCpuUsageDataCollector();
 
-  @Test
-  public void parseSystemCpuStat_ValidInput() {
-    final CpuUsageData.CpuStat actual =
-        SystemCpuUsageDataCollector.parseSystemCpuStat(3, " cpu2 23456 2345 2345 "
-            + "2345 234 0 0 0 0 0");
-    assertThat(actual,
-        equalTo(new CpuUsageData.CpuStat(2345f, 2345f, 2345f, 234f, 0f, 0f, 0f, 0f)));
-  }
-
-  @Test
-  public void parseSystemCpuStat_InvalidInput() {
-    final CpuUsageData.CpuStat actual =
-        SystemCpuUsageDataCollector.parseSystemCpuStat(0, " cpu2 23456 2345 2345 "
-            + "2345 234 0 0 0 0 0");
-    assertThat(actual, is(nullValue()));
-  }
-
   @Test
   public void calculateDiff_ShouldBeTheDifference() {
     final CpuUsageData.CpuStat actual = SystemCpuUsageDataCollector.calculateDiff(DUMMY_CPU_STAT_1,
@@ -95,64 +76,38 @@ public class SystemCpuUsageDataCollectorTest {
   }
 
   @Test
-  public void getCoresUsage_2cores() throws IOException {
+  public void getSystemCpuUsage() throws IOException {
     final File file = temporaryFolder.newFile();
     final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rwd");
-    randomAccessFile.writeBytes("cpu  0 110 220 330 440 550 660 770 880 0 0\n");
-    randomAccessFile.writeBytes("cpu0 0 100 200 300 400 500 600 700 800 0 0\n");
-    randomAccessFile.writeBytes("cpu2 0 10 20 30 40 50 60 70 80 0 0\n");
+    randomAccessFile.writeBytes("cpu  110 220 330 440 550 660 770 880 0 0\n");
+    randomAccessFile.writeBytes("cpu0 100 200 300 400 500 600 700 800 0 0\n");
+    randomAccessFile.writeBytes("cpu2 10 20 30 40 50 60 70 80 0 0\n");
     randomAccessFile.close();
+    final SystemCpuUsageDataCollector collector = new SystemCpuUsageDataCollector(
+        new ProcStatSampler(file, temporaryFolder.newFile(), 0));
 
-    final List<CpuUsageData.CpuStat> result =
-        collector.getCoresUsage(new RandomAccessFile(file, "r"), 2);
-
-    assertEquals(3, result.size());
     assertEquals(new CpuUsageData.CpuStat(110.0f, 220.0f, 330.0f, 440.0f,
-        550.0f, 660.0f, 770.0f, 880.0f), result.get(0));
-    assertEquals(DUMMY_CPU_STAT_4, result.get(1));
-    assertEquals(DUMMY_CPU_STAT_3, result.get(2));
+        550.0f, 660.0f, 770.0f, 880.0f), collector.getSystemCpuUsage());
   }
 
   @Test
-  public void getCoresUsage_2cores_missing2ndCoreRepeatsFirstCore() throws IOException {
+  public void getSystemCpuUsage_linesNotCpuRecord() throws IOException {
     final File file = temporaryFolder.newFile();
     final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rwd");
-    randomAccessFile.writeBytes("cpu  0 110 220 330 440 550 660 770 880 0 0\n");
-    randomAccessFile.writeBytes("cpu0 0 100 200 300 400 500 600 700 800 0 0\n");
+    randomAccessFile.writeBytes("=^..^=");
     randomAccessFile.close();
+    final SystemCpuUsageDataCollector collector =
+        new SystemCpuUsageDataCollector(new ProcStatSampler(file, file, 0));
 
-    final List<CpuUsageData.CpuStat> result =
-        collector.getCoresUsage(new RandomAccessFile(file, "r"), 2);
-
-    assertEquals(2, result.size());
-    assertEquals(new CpuUsageData.CpuStat(110.0f, 220.0f, 330.0f, 440.0f,
-        550.0f, 660.0f, 770.0f, 880.0f), result.get(0));
-    assertEquals(DUMMY_CPU_STAT_4, result.get(1));
-
-    file.deleteOnExit();
+    assertNull(collector.getSystemCpuUsage());
   }
 
   @Test
-  public void getCoresUsage_nullLines() throws IOException {
-    final File file = temporaryFolder.newFile();
-    final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rwd");
-
-    final List<CpuUsageData.CpuStat> result =
-        collector.getCoresUsage(new RandomAccessFile(file, "r"), 2);
-
-    assertEquals(0, result.size());
-  }
-
-  @Test
-  public void getCoresUsage_linesNotCpuRecord() throws IOException {
-    final File file = temporaryFolder.newFile();
-    final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rwd");
-    randomAccessFile.writeBytes("=^..^=");
-
-    final List<CpuUsageData.CpuStat> result =
-        collector.getCoresUsage(new RandomAccessFile(file, "r"), 2);
+  public void getSystemCpuUsage_missingFile() {
+    final File file = new File(temporaryFolder.getRoot(), "missing");
+    final SystemCpuUsageDataCollector collector =
+        new SystemCpuUsageDataCollector(new ProcStatSampler(file, file, 0));
 
-    assertEquals(0, result.size());
+    assertNull(collector.getSystemCpuUsage());
   }
-
 }
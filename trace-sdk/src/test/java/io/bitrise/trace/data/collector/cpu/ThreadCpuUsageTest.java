@@ -0,0 +1,42 @@
+package io.bitrise.trace.data.collector.cpu;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CpuUsageData.ThreadCpuUsage}.
+ */
+public class ThreadCpuUsageTest {
+
+  private final CpuUsageData.ThreadCpuUsage threadCpuUsage =
+      new CpuUsageData.ThreadCpuUsage("main", 12.5);
+
+  @Test
+  public void toString_shouldMatchWithContent() {
+    assertEquals("ThreadCpuUsage{name='main', usage=12.5}", threadCpuUsage.toString());
+  }
+
+  @Test
+  public void equals_sameObject() {
+    assertTrue(threadCpuUsage.equals(threadCpuUsage));
+  }
+
+  @Test
+  public void equals_notThreadCpuUsage() {
+    assertFalse(threadCpuUsage.equals("thread_cpu_usage"));
+  }
+
+  @Test
+  public void equals_differentThreadCpuUsage() {
+    assertFalse(threadCpuUsage.equals(new CpuUsageData.ThreadCpuUsage("RenderThread", 12.5)));
+  }
+
+  @Test
+  public void hashCode_shouldMatch() {
+    assertEquals(new CpuUsageData.ThreadCpuUsage("main", 12.5).hashCode(),
+        threadCpuUsage.hashCode());
+  }
+}
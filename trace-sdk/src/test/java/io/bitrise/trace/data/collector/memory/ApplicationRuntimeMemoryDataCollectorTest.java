@@ -0,0 +1,108 @@
+package io.bitrise.trace.data.collector.memory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ApplicationRuntimeMemoryDataCollector}.
+ */
+public class ApplicationRuntimeMemoryDataCollectorTest {
+
+  private static final long NATIVE_HEAP_SIZE = 4096L;
+
+  private final Map<String, String> runtimeStats = new HashMap<>();
+
+  @Test
+  public void getPermissions() {
+    assertArrayEquals(new String[0], createCollector().getPermissions());
+  }
+
+  @Test
+  public void getIntervalMs() {
+    assertEquals(15000, createCollector().getIntervalMs());
+  }
+
+  @Test
+  public void getRuntimeMemoryData_heapSizes() {
+    final RuntimeMemoryData actual = createCollector().getRuntimeMemoryData();
+
+    assertEquals(Runtime.getRuntime().maxMemory(), actual.getJavaHeapMaxBytes());
+    assertEquals(NATIVE_HEAP_SIZE, actual.getNativeHeapUsedBytes());
+  }
+
+  @Test
+  public void getRuntimeMemoryData_gcStatsShouldBeChangesSincePreviousCollection() {
+    setGcStats("10", "100", "1", "30");
+    final ApplicationRuntimeMemoryDataCollector collector = createCollector();
+
+    setGcStats("15", "140", "1", "30");
+    final RuntimeMemoryData first = collector.getRuntimeMemoryData();
+    setGcStats("16", "150", "2", "50");
+    final RuntimeMemoryData second = collector.getRuntimeMemoryData();
+
+    assertEquals(Long.valueOf(5), first.getGcCount());
+    assertEquals(Long.valueOf(40), first.getGcTimeMs());
+    assertEquals(Long.valueOf(0), first.getBlockingGcCount());
+    assertEquals(Long.valueOf(0), first.getBlockingGcTimeMs());
+    assertEquals(Long.valueOf(1), second.getGcCount());
+    assertEquals(Long.valueOf(10), second.getGcTimeMs());
+    assertEquals(Long.valueOf(1), second.getBlockingGcCount());
+    assertEquals(Long.valueOf(20), second.getBlockingGcTimeMs());
+  }
+
+  @Test
+  public void getRuntimeMemoryData_gcStatsNotAvailable() {
+    final RuntimeMemoryData actual = createCollector().getRuntimeMemoryData();
+
+    assertNull(actual.getGcCount());
+    assertNull(actual.getGcTimeMs());
+    assertNull(actual.getBlockingGcCount());
+    assertNull(actual.getBlockingGcTimeMs());
+  }
+
+  @Test
+  public void getRuntimeMemoryData_invalidGcStats() {
+    setGcStats("10", "100", "1", "30");
+    final ApplicationRuntimeMemoryDataCollector collector = createCollector();
+
+    setGcStats("not a number", "90", "1", "30");
+    final RuntimeMemoryData actual = collector.getRuntimeMemoryData();
+
+    assertNull(actual.getGcCount());
+    assertNull(actual.getGcTimeMs());
+    assertEquals(Long.valueOf(0), actual.getBlockingGcCount());
+  }
+
+  /**
+   * Creates an {@link ApplicationRuntimeMemoryDataCollector} that reads the runtime statistics
+   * from the {@link #runtimeStats}.
+   *
+   * @return the created collector.
+   */
+  private ApplicationRuntimeMemoryDataCollector createCollector() {
+    return new ApplicationRuntimeMemoryDataCollector() {
+      @Override
+      long getNativeHeapAllocatedSize() {
+        return NATIVE_HEAP_SIZE;
+      }
+
+      @Override
+      String getRuntimeStat(final String statName) {
+        return runtimeStats.get(statName);
+      }
+    };
+  }
+
+  private void setGcStats(final String gcCount, final String gcTime,
+                          final String blockingGcCount, final String blockingGcTime) {
+    runtimeStats.put("art.gc.gc-count", gcCount);
+    runtimeStats.put("art.gc.gc-time", gcTime);
+    runtimeStats.put("art.gc.blocking-gc-count", blockingGcCount);
+    runtimeStats.put("art.gc.blocking-gc-time", blockingGcTime);
+  }
+}
@@ -16,6 +16,10 @@ public class ApplicationUsedMemoryDataCollectorTest {
   private final ApplicationUsedMemoryDataCollector collector =
       new ApplicationUsedMemoryDataCollector(mockContext);
 
+  private long currentTimeMs;
+  private long pss;
+  private int pssReadCount;
+
   @Test
   public void getPermissions() {
     assertArrayEquals(new String[0], collector.getPermissions());
@@ -25,4 +29,54 @@ public class ApplicationUsedMemoryDataCollectorTest {
   public void getIntervalMs() {
     assertEquals(15000, collector.getIntervalMs());
   }
+
+  @Test
+  public void getAppUsedMemory_shouldBeCachedWithinRateLimit() {
+    final ApplicationUsedMemoryDataCollector collector =
+        createCollector(ApplicationUsedMemoryDataCollector.PSS_RATE_LIMIT_MS);
+    pss = 1000;
+    assertEquals(Long.valueOf(1000), collector.getAppUsedMemory());
+
+    pss = 2000;
+    currentTimeMs += ApplicationUsedMemoryDataCollector.PSS_RATE_LIMIT_MS - 1;
+    assertEquals(Long.valueOf(1000), collector.getAppUsedMemory());
+    assertEquals(1, pssReadCount);
+
+    currentTimeMs += 1;
+    assertEquals(Long.valueOf(2000), collector.getAppUsedMemory());
+    assertEquals(2, pssReadCount);
+  }
+
+  @Test
+  public void getAppUsedMemory_noRateLimit() {
+    final ApplicationUsedMemoryDataCollector collector = createCollector(0);
+    pss = 1000;
+    collector.getAppUsedMemory();
+    pss = 2000;
+
+    assertEquals(Long.valueOf(2000), collector.getAppUsedMemory());
+    assertEquals(2, pssReadCount);
+  }
+
+  /**
+   * Creates an {@link ApplicationUsedMemoryDataCollector} that returns the {@link #pss} and counts
+   * the reads, with a clock that is controlled by the tests.
+   *
+   * @param pssRateLimitMs the time in milliseconds while a read PSS value is reused.
+   * @return the created collector.
+   */
+  private ApplicationUsedMemoryDataCollector createCollector(final long pssRateLimitMs) {
+    return new ApplicationUsedMemoryDataCollector(mockContext, pssRateLimitMs) {
+      @Override
+      Long readPss() {
+        pssReadCount++;
+        return pss;
+      }
+
+      @Override
+      long getElapsedRealtimeMs() {
+        return currentTimeMs;
+      }
+    };
+  }
 }
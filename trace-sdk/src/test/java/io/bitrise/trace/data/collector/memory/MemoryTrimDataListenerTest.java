@@ -0,0 +1,85 @@
+package io.bitrise.trace.data.collector.memory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.data.management.DataManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link MemoryTrimDataListener}.
+ */
+public class MemoryTrimDataListenerTest {
+
+  private final Context mockContext = Mockito.mock(Context.class);
+  private final DataManager mockDataManager = Mockito.mock(DataManager.class);
+  private final MemoryTrimDataListener listener = new MemoryTrimDataListener(mockContext);
+
+  @Before
+  public void setUp() {
+    listener.setDataManager(mockDataManager);
+  }
+
+  @Test
+  public void getPermissions() {
+    assertArrayEquals(new String[0], listener.getPermissions());
+  }
+
+  @Test
+  public void startCollecting_shouldRegister() {
+    listener.startCollecting();
+
+    assertTrue(listener.isActive());
+    verify(mockContext, times(1)).registerComponentCallbacks(listener);
+  }
+
+  @Test
+  public void stopCollecting_shouldUnregister() {
+    listener.startCollecting();
+    listener.stopCollecting();
+
+    assertFalse(listener.isActive());
+    verify(mockContext, times(1)).unregisterComponentCallbacks(listener);
+  }
+
+  @Test
+  public void onTrimMemory_notActive() {
+    listener.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+
+    verify(mockDataManager, never()).handleReceivedData(any());
+  }
+
+  @Test
+  public void onTrimMemory_shouldReportLevel() {
+    listener.startCollecting();
+    listener.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+
+    final ArgumentCaptor<Data> argumentCaptorData = ArgumentCaptor.forClass(Data.class);
+    verify(mockDataManager, times(1)).handleReceivedData(argumentCaptorData.capture());
+    assertEquals(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW,
+        argumentCaptorData.getValue().getContent());
+  }
+
+  @Test
+  public void onLowMemory_shouldReportCompleteLevel() {
+    listener.startCollecting();
+    listener.onLowMemory();
+
+    final ArgumentCaptor<Data> argumentCaptorData = ArgumentCaptor.forClass(Data.class);
+    verify(mockDataManager, times(1)).handleReceivedData(argumentCaptorData.capture());
+    assertEquals(ComponentCallbacks2.TRIM_MEMORY_COMPLETE,
+        argumentCaptorData.getValue().getContent());
+  }
+}
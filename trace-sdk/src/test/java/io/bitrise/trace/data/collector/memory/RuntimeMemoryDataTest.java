@@ -0,0 +1,46 @@
+package io.bitrise.trace.data.collector.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RuntimeMemoryData}.
+ */
+public class RuntimeMemoryDataTest {
+
+  private final RuntimeMemoryData runtimeMemoryData =
+      new RuntimeMemoryData(100L, 200L, 50L, 2L, 30L, null, null);
+
+  @Test
+  public void toString_shouldMatchWithContent() {
+    assertEquals("RuntimeMemoryData{javaHeapUsedBytes=100, javaHeapMaxBytes=200, "
+            + "nativeHeapUsedBytes=50, gcCount=2, gcTimeMs=30, blockingGcCount=null, "
+            + "blockingGcTimeMs=null}",
+        runtimeMemoryData.toString());
+  }
+
+  @Test
+  public void equals_sameObject() {
+    assertTrue(runtimeMemoryData.equals(runtimeMemoryData));
+  }
+
+  @Test
+  public void equals_notRuntimeMemoryData() {
+    assertFalse(runtimeMemoryData.equals("runtime_memory_data"));
+  }
+
+  @Test
+  public void equals_differentRuntimeMemoryData() {
+    assertFalse(runtimeMemoryData.equals(
+        new RuntimeMemoryData(100L, 200L, 50L, 2L, 30L, 1L, 10L)));
+  }
+
+  @Test
+  public void hashCode_shouldMatch() {
+    assertEquals(new RuntimeMemoryData(100L, 200L, 50L, 2L, 30L, null, null).hashCode(),
+        runtimeMemoryData.hashCode());
+  }
+}
@@ -5,6 +5,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import io.bitrise.trace.TraceScope;
+import io.bitrise.trace.TraceSdk;
+import io.bitrise.trace.TraceSpan;
 import io.bitrise.trace.data.trace.TraceManager;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -42,4 +45,20 @@ public class NetworkDataListenerTest {
     mockNetworkDataListener.traceManager = mockTraceManager;
     assertThat(mockNetworkDataListener.getRootSpanId(), is(DUMMY_SPAN_ID));
   }
-}
\ No newline at end of file
+
+  /**
+   * When there is a current {@link TraceSpan} on the calling thread, method
+   * {@link NetworkDataListener#getRootSpanId()} should return its ID, so the network Span becomes
+   * its child.
+   */
+  @Test
+  public void getRootSpanId_CurrentSpan_ShouldReturnCurrentSpanId() {
+    when(mockTraceManager.getRootSpanId()).thenReturn(DUMMY_SPAN_ID);
+    mockNetworkDataListener.traceManager = mockTraceManager;
+    final TraceSpan span = TraceSdk.startSpan("request");
+    try (TraceScope scope = span.makeCurrent()) {
+      assertThat(mockNetworkDataListener.getRootSpanId(), is(span.getSpanId()));
+    }
+    assertThat(mockNetworkDataListener.getRootSpanId(), is(DUMMY_SPAN_ID));
+  }
+}
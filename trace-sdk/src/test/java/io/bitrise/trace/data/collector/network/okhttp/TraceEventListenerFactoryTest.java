@@ -0,0 +1,56 @@
+package io.bitrise.trace.data.collector.network.okhttp;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.bitrise.trace.TraceScope;
+import io.bitrise.trace.TraceSdk;
+import io.bitrise.trace.TraceSpan;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TraceEventListenerFactory}.
+ */
+public class TraceEventListenerFactoryTest {
+
+  private final EventListener mockEventListener = mock(EventListener.class);
+  private final EventListener.Factory mockFactory = mock(EventListener.Factory.class);
+  private final Call mockCall = mock(Call.class);
+
+  @Test
+  public void create_withCurrentSpan_shouldCaptureSpan() {
+    when(mockFactory.create(mockCall)).thenReturn(mockEventListener);
+    final TraceSpan span = TraceSdk.startSpan("span");
+
+    final EventListener eventListener;
+    try (TraceScope scope = span.makeCurrent()) {
+      eventListener = new TraceEventListenerFactory(mockFactory).create(mockCall);
+    }
+
+    assertSame(mockEventListener, eventListener);
+    assertSame(span, TraceEventListenerFactory.getCallSpan(mockCall));
+  }
+
+  @Test
+  public void create_noCurrentSpan_shouldNotCaptureSpan() {
+    new TraceEventListenerFactory().create(mockCall);
+
+    assertNull(TraceEventListenerFactory.getCallSpan(mockCall));
+  }
+
+  @Test
+  public void getCallSpan_noCall() {
+    assertNull(TraceEventListenerFactory.getCallSpan(null));
+  }
+
+  @Test
+  public void wrap_shouldNotWrapTwice() {
+    final EventListener.Factory factory = TraceEventListenerFactory.wrap(mockFactory);
+
+    assertSame(factory, TraceEventListenerFactory.wrap(factory));
+  }
+}
@@ -1,12 +1,24 @@
 package io.bitrise.trace.data.collector.network.okhttp;
 
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import io.bitrise.trace.TraceContext;
+import io.bitrise.trace.TraceScope;
+import io.bitrise.trace.TraceSdk;
+import io.bitrise.trace.TraceSpan;
 import io.bitrise.trace.data.collector.network.TraceNetworkListener;
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.Call;
+import okhttp3.EventListener;
 import okhttp3.Interceptor;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -29,4 +41,31 @@ public class TraceOkHttpInterceptorTest {
     verify(traceNetworkListener, times(1))
         .processOkHttpCall(any(), any(), anyLong(), anyLong());
   }
+
+  @Test
+  public void intercept_onOtherThread_shouldProcessWithSpanOfCallCreation() throws Exception {
+    final Interceptor.Chain mockChain = Mockito.mock(Interceptor.Chain.class);
+    final Call mockCall = Mockito.mock(Call.class);
+    when(mockChain.call()).thenReturn(mockCall);
+    final TraceNetworkListener traceNetworkListener = Mockito.mock(TraceNetworkListener.class);
+    TraceNetworkListener.setDebugTraceNetworkListener(traceNetworkListener);
+    final AtomicReference<TraceSpan> spanOfProcessing = new AtomicReference<>();
+    doAnswer(invocation -> {
+      spanOfProcessing.set(TraceContext.getCurrentSpan());
+      return null;
+    }).when(traceNetworkListener).processOkHttpCall(any(), any(), anyLong(), anyLong());
+
+    final TraceSpan span = TraceSdk.startSpan("span");
+    try (TraceScope scope = span.makeCurrent()) {
+      new TraceEventListenerFactory(call -> EventListener.NONE).create(mockCall);
+    }
+    final ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+    try {
+      dispatcher.submit(() -> new TraceOkHttpInterceptor().intercept(mockChain)).get();
+    } finally {
+      dispatcher.shutdownNow();
+    }
+
+    assertSame(span, spanOfProcessing.get());
+  }
 }
@@ -1,6 +1,6 @@
 package io.bitrise.trace.data.management;
 
-
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -11,10 +11,17 @@ import io.bitrise.trace.data.storage.TraceDataStorage;
 import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.session.Session;
 import io.bitrise.trace.test.DataTestUtils;
+import io.bitrise.trace.data.trace.Trace;
+import io.bitrise.trace.network.CrashRequest;
 import io.bitrise.trace.test.TraceTestProvider;
+import io.bitrise.trace.utils.ByteStringConverter;
+import io.opencensus.proto.trace.v1.Span;
+import java.util.ArrayList;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 /**
@@ -24,6 +31,9 @@ public class CrashSaverTest {
 
   final TraceDataStorage mockDataStorage = Mockito.mock(TraceDataStorage.class);
 
+  final IngestPipeline ingestPipeline =
+      new IngestPipeline(1, 4, IngestPipeline.OverflowPolicy.DROP_OLDEST);
+
   @BeforeClass
   public static void setUpBeforeClass() {
     ApplicationSessionManager.getInstance().startSession();
@@ -41,11 +51,60 @@ public class CrashSaverTest {
         new Session("session-id"),
         TraceTestProvider.getEmptyTrace(),
         CrashTestDataProvider.createCrashReport(),
-        mockDataStorage);
+        mockDataStorage,
+        ingestPipeline);
 
+    verify(mockDataStorage, times(1)).flushPendingWrites();
     verify(mockDataStorage, times(1)).saveCrashRequest(any());
   }
 
+  @Test
+  public void saveCrash_queuedTraceSave_shouldSaveTraceBeforeCrash() {
+    final Trace trace = TraceTestProvider.getEmptyTrace();
+    ingestPipeline.executeReliably(() -> {
+      sleepQuietly(100);
+      mockDataStorage.saveTraces(trace);
+    });
+
+    CrashSaver.saveCrash(
+        DataTestUtils.getSampleResource("session-id"),
+        new Session("session-id"),
+        trace,
+        CrashTestDataProvider.createCrashReport(),
+        mockDataStorage,
+        ingestPipeline);
+
+    final InOrder inOrder = Mockito.inOrder(mockDataStorage);
+    inOrder.verify(mockDataStorage).saveTraces(trace);
+    inOrder.verify(mockDataStorage).flushPendingWrites();
+    inOrder.verify(mockDataStorage).saveCrashRequest(any());
+  }
+
+  @Test
+  public void saveCrash_viewSpanInPreviousSegment_shouldLinkViewSpan() {
+    final Span viewSpan = TraceTestProvider.createActivityViewSpan();
+    final Trace firstSegment = new Trace("trace-id", "session-id", new ArrayList<>());
+    firstSegment.addSpan(viewSpan);
+    firstSegment.close();
+    final Trace secondSegment = firstSegment.createNextSegment();
+    secondSegment.setPreviousSegmentViewSpan(firstSegment.getLastActiveViewSpan());
+    secondSegment.addSpan(TraceTestProvider.createNetworkSpan());
+
+    CrashSaver.saveCrash(
+        DataTestUtils.getSampleResource("session-id"),
+        new Session("session-id"),
+        secondSegment,
+        CrashTestDataProvider.createCrashReport(),
+        mockDataStorage,
+        ingestPipeline);
+
+    final ArgumentCaptor<CrashRequest> requestCaptor = ArgumentCaptor.forClass(CrashRequest.class);
+    verify(mockDataStorage, times(1)).saveCrashRequest(requestCaptor.capture());
+    assertEquals("trace-id", requestCaptor.getValue().getMetadata().getTraceId());
+    assertEquals(ByteStringConverter.toString(viewSpan.getSpanId()),
+        requestCaptor.getValue().getMetadata().getSpanId());
+  }
+
   @Test
   public void saveCrash_nullSession() {
     CrashSaver.saveCrash(
@@ -53,7 +112,8 @@ public class CrashSaverTest {
         null,
         TraceTestProvider.getEmptyTrace(),
         CrashTestDataProvider.createCrashReport(),
-        mockDataStorage);
+        mockDataStorage,
+        ingestPipeline);
 
     verifyNoInteractions(mockDataStorage);
   }
@@ -65,7 +125,8 @@ public class CrashSaverTest {
         new Session("session-id"),
         TraceTestProvider.getEmptyTrace(),
         CrashTestDataProvider.createCrashReport(),
-        mockDataStorage);
+        mockDataStorage,
+        ingestPipeline);
 
     verifyNoInteractions(mockDataStorage);
   }
@@ -77,8 +138,17 @@ public class CrashSaverTest {
         new Session("session-id"),
         null,
         CrashTestDataProvider.createCrashReport(),
-        mockDataStorage);
+        mockDataStorage,
+        ingestPipeline);
 
     verifyNoInteractions(mockDataStorage);
   }
+
+  private static void sleepQuietly(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
 }
@@ -6,6 +6,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -14,14 +16,19 @@ import android.content.Context;
 import io.bitrise.trace.configuration.ConfigurationManager;
 import io.bitrise.trace.data.collector.DataCollector;
 import io.bitrise.trace.data.collector.DataListener;
+import io.bitrise.trace.data.collector.memory.ApplicationRuntimeMemoryDataCollector;
 import io.bitrise.trace.data.collector.memory.MemoryDataCollector;
+import io.bitrise.trace.data.collector.memory.MemoryTrimDataListener;
+import io.bitrise.trace.data.collector.memory.RuntimeMemoryData;
 import io.bitrise.trace.data.collector.network.okhttp.OkHttpDataListener;
 import io.bitrise.trace.data.collector.view.ApplicationStartUpDataListener;
 import io.bitrise.trace.data.dto.CrashData;
 import io.bitrise.trace.data.dto.Data;
 import io.bitrise.trace.data.dto.NetworkData;
+import io.bitrise.trace.data.metric.MetricAggregator;
 import io.bitrise.trace.data.storage.TraceDataStorage;
-import io.bitrise.trace.scheduler.ExecutorScheduler;
+import io.bitrise.trace.data.trace.ApplicationTraceManager;
+import io.bitrise.trace.scheduler.MultiplexedScheduler;
 import io.bitrise.trace.scheduler.ServiceScheduler;
 import io.bitrise.trace.session.ApplicationSessionManager;
 import java.util.HashMap;
@@ -77,23 +84,23 @@ public class DataManagerTest {
 
   @Test
   public void reset_everythingInitialised() {
-    final ExecutorScheduler mockExecutorScheduler = Mockito.mock(ExecutorScheduler.class);
+    final MultiplexedScheduler mockCollectorScheduler = Mockito.mock(MultiplexedScheduler.class);
     final ServiceScheduler mockMetricServiceScheduler = Mockito.mock(ServiceScheduler.class);
     final ServiceScheduler mockTraceServiceScheduler = Mockito.mock(ServiceScheduler.class);
 
     DataManager.setTestInstance(mockDataManager);
-    mockDataManager.executorScheduler = mockExecutorScheduler;
+    mockDataManager.collectorScheduler = mockCollectorScheduler;
     mockDataManager.metricServiceScheduler = mockMetricServiceScheduler;
     mockDataManager.traceServiceScheduler = mockTraceServiceScheduler;
 
     DataManager.reset();
 
     verify(mockDataManager, times(1)).stopCollection();
-    verify(mockExecutorScheduler, times(1)).cancelAll();
+    verify(mockCollectorScheduler, times(1)).cancelAll();
     verify(mockMetricServiceScheduler, times(1)).cancelAll();
     verify(mockTraceServiceScheduler, times(1)).cancelAll();
 
-    assertNull(mockDataManager.executorScheduler);
+    assertNull(mockDataManager.collectorScheduler);
     assertNull(mockDataManager.metricServiceScheduler);
     assertNull(mockDataManager.traceServiceScheduler);
     assertFalse(DataManager.isInitialised());
@@ -150,6 +157,32 @@ public class DataManagerTest {
     assertEquals(listeners, dataManager.getActiveDataListeners());
   }
 
+  @Test
+  public void startRecurringDataCollection_shouldScheduleTraceCheckpoints() {
+    final DataManager dataManager = createRealDataManager();
+    final MultiplexedScheduler mockCollectorScheduler = Mockito.mock(MultiplexedScheduler.class);
+    dataManager.collectorScheduler = mockCollectorScheduler;
+
+    dataManager.startRecurringDataCollection(mockContext);
+
+    verify(mockCollectorScheduler, times(1))
+        .addTask(any(), eq(ApplicationTraceManager.CHECKPOINT_INTERVAL_MS));
+    verify(mockCollectorScheduler, times(1)).schedule();
+  }
+
+  @Test
+  public void onForegroundStateChanged_shouldPauseAndResumeRecurringCollection() {
+    final DataManager dataManager = createRealDataManager();
+    final MultiplexedScheduler mockCollectorScheduler = Mockito.mock(MultiplexedScheduler.class);
+    dataManager.collectorScheduler = mockCollectorScheduler;
+
+    dataManager.onForegroundStateChanged(false);
+    verify(mockCollectorScheduler, times(1)).pause();
+
+    dataManager.onForegroundStateChanged(true);
+    verify(mockCollectorScheduler, times(1)).resume();
+  }
+
   @Test
   public void stopCollecting() {
     final DataManager dataManager = createRealDataManager();
@@ -205,6 +238,55 @@ public class DataManagerTest {
     return data;
   }
 
+  @Test
+  public void handleReceivedData_aggregatedMetric() {
+    final DataManager dataManager = createRealDataManager();
+    final IngestPipeline mockIngestPipeline = Mockito.mock(IngestPipeline.class);
+    dataManager.ingestPipeline = mockIngestPipeline;
+
+    dataManager.handleReceivedData(createRuntimeMemoryData());
+
+    verify(mockIngestPipeline, never()).execute(any());
+    verify(mockIngestPipeline, never()).executeReliably(any());
+    assertEquals(3, dataManager.metricAggregator.getOpenWindowCount());
+  }
+
+  private Data createRuntimeMemoryData() {
+    final Data data = new Data(ApplicationRuntimeMemoryDataCollector.class);
+    data.setContent(new RuntimeMemoryData(100, 200, 300, null, null, null, null));
+    return data;
+  }
+
+  @Test
+  public void handleReceivedData_notAggregatedMetric() {
+    final DataManager dataManager = createRealDataManager();
+    final IngestPipeline mockIngestPipeline = Mockito.mock(IngestPipeline.class);
+    dataManager.ingestPipeline = mockIngestPipeline;
+
+    final Data data = new Data(MemoryTrimDataListener.class);
+    data.setContent(15);
+    dataManager.handleReceivedData(data);
+
+    verify(mockIngestPipeline, times(1)).execute(any());
+    assertEquals(0, dataManager.metricAggregator.getOpenWindowCount());
+  }
+
+  @Test
+  public void onForegroundStateChanged_shouldSaveAggregatedMetricsInBackground() {
+    final DataManager dataManager = createRealDataManager();
+    final IngestPipeline mockIngestPipeline = Mockito.mock(IngestPipeline.class);
+    dataManager.ingestPipeline = mockIngestPipeline;
+    dataManager.handleReceivedData(createRuntimeMemoryData());
+
+    dataManager.onForegroundStateChanged(true);
+    verify(mockIngestPipeline, never()).executeReliably(any());
+
+    dataManager.onForegroundStateChanged(false);
+    verify(mockIngestPipeline, times(1)).executeReliably(any());
+    verify(mockIngestPipeline, never()).execute(any());
+    assertEquals(0, dataManager.metricAggregator.getOpenWindowCount());
+  }
+
   //endregion
 
   @Test
@@ -213,6 +295,7 @@ public class DataManagerTest {
     final CrashData crashData = new CrashData(new RuntimeException(), 0, new HashMap<>());
     final DataManager mockDataManager = Mockito.mock(DataManager.class,
         Mockito.CALLS_REAL_METHODS);
+    mockDataManager.metricAggregator = new MetricAggregator();
 
     when(mockDataManager.getActiveDataCollectors()).thenReturn(new HashSet<>());
     when(mockDataManager.getActiveDataListeners()).thenReturn(new HashSet<>());
@@ -0,0 +1,242 @@
+package io.bitrise.trace.data.management;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link IngestPipeline}.
+ */
+public class IngestPipelineTest {
+
+  @Test
+  public void getInstance_shouldReturnSameInstance() {
+    assertSame(IngestPipeline.getInstance(), IngestPipeline.getInstance());
+  }
+
+  @Test
+  public void execute_shouldRunTask() throws InterruptedException {
+    final IngestPipeline ingestPipeline =
+        new IngestPipeline(1, 4, IngestPipeline.OverflowPolicy.DROP_NEWEST);
+    final CountDownLatch latch = new CountDownLatch(1);
+
+    ingestPipeline.execute(latch::countDown);
+
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+    assertEquals(0, ingestPipeline.getDroppedTaskCount());
+  }
+
+  @Test
+  public void execute_shouldNotExceedWorkerCount() throws InterruptedException {
+    final IngestPipeline ingestPipeline =
+        new IngestPipeline(2, 100, IngestPipeline.OverflowPolicy.DROP_NEWEST);
+    final CountDownLatch latch = new CountDownLatch(50);
+
+    for (int i = 0; i < 50; i++) {
+      ingestPipeline.execute(latch::countDown);
+    }
+
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+    assertTrue(ingestPipeline.executor.getLargestPoolSize() <= 2);
+  }
+
+  @Test
+  public void execute_dropNewest_shouldKeepQueuedTasks() throws InterruptedException {
+    final IngestPipeline ingestPipeline =
+        new IngestPipeline(1, 2, IngestPipeline.OverflowPolicy.DROP_NEWEST);
+    final CountDownLatch blocker = new CountDownLatch(1);
+    final CountDownLatch started = new CountDownLatch(1);
+    final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+
+    ingestPipeline.execute(() -> {
+      started.countDown();
+      awaitQuietly(blocker);
+    });
+    assertTrue(started.await(1, TimeUnit.SECONDS));
+
+    for (int i = 0; i < 4; i++) {
+      final int value = i;
+      ingestPipeline.execute(() -> executed.add(value));
+    }
+
+    assertEquals(2, ingestPipeline.getDroppedTaskCount());
+    blocker.countDown();
+    assertTrue(ingestPipeline.awaitIdle(1000));
+    assertEquals(2, executed.size());
+    assertTrue(executed.contains(0));
+    assertTrue(executed.contains(1));
+  }
+
+  @Test
+  public void execute_dropOldest_shouldKeepNewestTasks() throws InterruptedException {
+    final IngestPipeline ingestPipeline =
+        new IngestPipeline(1, 2, IngestPipeline.OverflowPolicy.DROP_OLDEST);
+    final CountDownLatch blocker = new CountDownLatch(1);
+    final CountDownLatch started = new CountDownLatch(1);
+    final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+
+    ingestPipeline.execute(() -> {
+      started.countDown();
+      awaitQuietly(blocker);
+    });
+    assertTrue(started.await(1, TimeUnit.SECONDS));
+
+    for (int i = 0; i < 4; i++) {
+      final int value = i;
+      ingestPipeline.execute(() -> executed.add(value));
+    }
+
+    assertEquals(2, ingestPipeline.getDroppedTaskCount());
+    blocker.countDown();
+    assertTrue(ingestPipeline.awaitIdle(1000));
+    assertEquals(2, executed.size());
+    assertTrue(executed.contains(2));
+    assertTrue(executed.contains(3));
+  }
+
+  @Test
+  public void executeReliably_queueFull_shouldDropOldestDroppableTask()
+      throws InterruptedException {
+    final IngestPipeline ingestPipeline =
+        new IngestPipeline(1, 2, IngestPipeline.OverflowPolicy.DROP_NEWEST);
+    final CountDownLatch blocker = new CountDownLatch(1);
+    final CountDownLatch started = new CountDownLatch(1);
+    final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+
+    ingestPipeline.execute(() -> {
+      started.countDown();
+      awaitQuietly(blocker);
+    });
+    assertTrue(started.await(1, TimeUnit.SECONDS));
+
+    ingestPipeline.executeReliably(() -> executed.add(0));
+    ingestPipeline.execute(() -> executed.add(1));
+    ingestPipeline.executeReliably(() -> executed.add(2));
+    ingestPipeline.execute(() -> executed.add(3));
+
+    assertEquals(2, ingestPipeline.getDroppedTaskCount());
+    blocker.countDown();
+    assertTrue(ingestPipeline.awaitIdle(1000));
+    assertEquals(2, executed.size());
+    assertTrue(executed.contains(0));
+    assertTrue(executed.contains(2));
+  }
+
+  @Test
+  public void executeReliably_queueFullOfReliableTasks_shouldRunOnWorkerThread()
+      throws InterruptedException {
+    final IngestPipeline ingestPipeline =
+        new IngestPipeline(1, 1, IngestPipeline.OverflowPolicy.DROP_OLDEST);
+    final CountDownLatch blocker = new CountDownLatch(1);
+    final CountDownLatch started = new CountDownLatch(1);
+    final List<Thread> executedOn = Collections.synchronizedList(new ArrayList<>());
+
+    ingestPipeline.executeReliably(() -> {
+      started.countDown();
+      awaitQuietly(blocker);
+    });
+    assertTrue(started.await(1, TimeUnit.SECONDS));
+
+    for (int i = 0; i < 3; i++) {
+      ingestPipeline.executeReliably(() -> executedOn.add(Thread.currentThread()));
+    }
+
+    assertTrue(executedOn.isEmpty());
+    assertEquals(3, ingestPipeline.getQueuedTaskCount());
+    blocker.countDown();
+    assertTrue(ingestPipeline.awaitIdle(1000));
+    assertEquals(3, executedOn.size());
+    for (final Thread thread : executedOn) {
+      assertNotSame(Thread.currentThread(), thread);
+    }
+    assertEquals(0, ingestPipeline.getDroppedTaskCount());
+  }
+
+  @Test
+  public void executeReliably_overflowTaskFails_shouldRunOtherOverflowTasks()
+      throws InterruptedException {
+    final IngestPipeline ingestPipeline =
+        new IngestPipeline(1, 1, IngestPipeline.OverflowPolicy.DROP_OLDEST);
+    final CountDownLatch blocker = new CountDownLatch(1);
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch executed = new CountDownLatch(2);
+
+    ingestPipeline.executeReliably(() -> {
+      started.countDown();
+      awaitQuietly(blocker);
+    });
+    assertTrue(started.await(1, TimeUnit.SECONDS));
+
+    ingestPipeline.executeReliably(executed::countDown);
+    ingestPipeline.executeReliably(() -> {
+      throw new IllegalStateException();
+    });
+    ingestPipeline.executeReliably(executed::countDown);
+
+    blocker.countDown();
+    assertTrue(executed.await(1, TimeUnit.SECONDS));
+    assertTrue(ingestPipeline.awaitIdle(1000));
+  }
+
+  @Test
+  public void awaitIdle_taskRunning_shouldWaitForTask() throws InterruptedException {
+    final IngestPipeline ingestPipeline =
+        new IngestPipeline(1, 4, IngestPipeline.OverflowPolicy.DROP_OLDEST);
+    final CountDownLatch blocker = new CountDownLatch(1);
+    final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+
+    ingestPipeline.execute(() -> awaitQuietly(blocker));
+    ingestPipeline.executeReliably(() -> executed.add(0));
+
+    assertFalse(ingestPipeline.awaitIdle(50));
+    blocker.countDown();
+    assertTrue(ingestPipeline.awaitIdle(1000));
+    assertEquals(1, executed.size());
+  }
+
+  @Test
+  public void awaitIdle_droppedTasks_shouldNotWaitForThem() throws InterruptedException {
+    final IngestPipeline ingestPipeline =
+        new IngestPipeline(1, 1, IngestPipeline.OverflowPolicy.DROP_NEWEST);
+    final CountDownLatch blocker = new CountDownLatch(1);
+    final CountDownLatch started = new CountDownLatch(1);
+
+    ingestPipeline.execute(() -> {
+      started.countDown();
+      awaitQuietly(blocker);
+    });
+    assertTrue(started.await(1, TimeUnit.SECONDS));
+    for (int i = 0; i < 4; i++) {
+      ingestPipeline.execute(() -> { });
+    }
+    blocker.countDown();
+
+    assertTrue(ingestPipeline.awaitIdle(1000));
+    assertEquals(3, ingestPipeline.getDroppedTaskCount());
+  }
+
+  @Test
+  public void awaitIdle_noTasks_shouldReturnImmediately() throws InterruptedException {
+    final IngestPipeline ingestPipeline =
+        new IngestPipeline(1, 1, IngestPipeline.OverflowPolicy.DROP_OLDEST);
+
+    assertTrue(ingestPipeline.awaitIdle(0));
+  }
+
+  private static void awaitQuietly(final CountDownLatch latch) {
+    try {
+      latch.await(1, TimeUnit.SECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -5,13 +5,18 @@ import static io.bitrise.trace.data.dto.DataValues.getName;
 import static io.bitrise.trace.data.dto.DataValues.pct;
 import static io.bitrise.trace.data.dto.DataValues.percent;
 import static io.bitrise.trace.data.dto.DataValues.process;
+import static io.bitrise.trace.data.dto.DataValues.quality;
+import static io.bitrise.trace.data.dto.DataValues.sample;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import io.bitrise.trace.data.collector.cpu.ApplicationCpuUsageDataCollector;
+import io.bitrise.trace.data.collector.cpu.CpuUsageData;
 import io.bitrise.trace.data.dto.Data;
 import io.bitrise.trace.data.dto.FormattedData;
 import io.bitrise.trace.data.management.formatter.BaseDataFormatterTest;
+import io.opencensus.proto.metrics.v1.LabelKey;
+import io.opencensus.proto.metrics.v1.LabelValue;
 import io.opencensus.proto.metrics.v1.Metric;
 import io.opencensus.proto.metrics.v1.MetricDescriptor;
 import io.opencensus.proto.metrics.v1.Point;
@@ -26,21 +31,32 @@ public class ApplicationCpuDataFormatterTest extends BaseDataFormatterTest {
   final ApplicationCpuDataFormatter formatter = new ApplicationCpuDataFormatter();
 
   @Test
-  public void formatData_contentNotDouble() {
+  public void formatData_contentNotApplicationCpuUsage() {
     final Data data = new Data(ApplicationCpuUsageDataCollector.class);
     data.setContent("cpu usage");
     assertArrayEquals(new FormattedData[] {}, formatter.formatData(data));
   }
 
+  @Test
+  public void formatData_contentDouble() {
+    final Data data = new Data(ApplicationCpuUsageDataCollector.class);
+    data.setContent(12.3);
+    assertArrayEquals(new FormattedData[] {}, formatter.formatData(data));
+  }
+
   @Test
   public void formatData() {
     final double cpuValue = 12.3;
 
     final Data data = new Data(ApplicationCpuUsageDataCollector.class);
-    data.setContent(cpuValue);
+    data.setContent(new CpuUsageData.ApplicationCpuUsage(cpuValue,
+        CpuUsageData.SampleQuality.LOW_RESOLUTION));
     final FormattedData formattedData = formatter.formatData(data)[0];
 
     final TimeSeries expectedTimeSeries = TimeSeries.newBuilder()
+                                                    .addLabelValues(LabelValue.newBuilder()
+                                                        .setValue("low_resolution")
+                                                        .build())
                                                     .addPoints(Point.newBuilder()
                                                                     .setTimestamp(formattedData
                                                                         .getMetricEntity()
@@ -58,7 +74,10 @@ public class ApplicationCpuDataFormatterTest extends BaseDataFormatterTest {
                         .setDescription("Application CPU Usage")
                         .setName(getName(process, cpu, pct))
                         .setUnit(percent)
-                        .setType(MetricDescriptor.Type.GAUGE_DOUBLE);
+                        .setType(MetricDescriptor.Type.GAUGE_DOUBLE)
+                        .addLabelKeys(LabelKey.newBuilder()
+                                              .setKey(getName(sample, quality))
+                                              .build());
 
     metricBuilder.setMetricDescriptor(cpuDescriptorBuilder.build());
     metricBuilder.addTimeseries(expectedTimeSeries);
@@ -0,0 +1,92 @@
+package io.bitrise.trace.data.management.formatter.cpu;
+
+import static io.bitrise.trace.data.dto.DataValues.cpu;
+import static io.bitrise.trace.data.dto.DataValues.getName;
+import static io.bitrise.trace.data.dto.DataValues.name;
+import static io.bitrise.trace.data.dto.DataValues.pct;
+import static io.bitrise.trace.data.dto.DataValues.percent;
+import static io.bitrise.trace.data.dto.DataValues.process;
+import static io.bitrise.trace.data.dto.DataValues.thread;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import androidx.annotation.NonNull;
+import com.google.protobuf.Timestamp;
+import io.bitrise.trace.data.collector.cpu.CpuUsageData;
+import io.bitrise.trace.data.collector.cpu.ApplicationThreadCpuUsageDataCollector;
+import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.data.dto.FormattedData;
+import io.bitrise.trace.data.management.formatter.BaseDataFormatterTest;
+import io.opencensus.proto.metrics.v1.LabelKey;
+import io.opencensus.proto.metrics.v1.LabelValue;
+import io.opencensus.proto.metrics.v1.Metric;
+import io.opencensus.proto.metrics.v1.MetricDescriptor;
+import io.opencensus.proto.metrics.v1.Point;
+import io.opencensus.proto.metrics.v1.TimeSeries;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ApplicationThreadCpuDataFormatter}.
+ */
+public class ApplicationThreadCpuDataFormatterTest extends BaseDataFormatterTest {
+
+  final ApplicationThreadCpuDataFormatter formatter = new ApplicationThreadCpuDataFormatter();
+
+  @NonNull
+  private static TimeSeries createThreadTimeSeriesEntry(@NonNull final Timestamp timestamp,
+                                                        @NonNull final String labelValue,
+                                                        final double value) {
+    return TimeSeries.newBuilder()
+                     .addLabelValues(
+                         LabelValue.newBuilder()
+                                   .setValue(labelValue)
+                                   .build())
+                     .addPoints(
+                         Point.newBuilder()
+                              .setTimestamp(timestamp)
+                              .setDoubleValue(value)
+                              .build())
+                     .build();
+  }
+
+  @Test
+  public void formatData_notThreadCpuUsages() {
+    final Data data = new Data(ApplicationThreadCpuUsageDataCollector.class);
+    data.setContent("cpu usage");
+    assertArrayEquals(new FormattedData[] {}, formatter.formatData(data));
+  }
+
+  @Test
+  public void formatData_emptyThreadCpuUsages() {
+    final Data data = new Data(ApplicationThreadCpuUsageDataCollector.class);
+    data.setContent(new CpuUsageData.ThreadCpuUsage[0]);
+    assertArrayEquals(new FormattedData[] {}, formatter.formatData(data));
+  }
+
+  @Test
+  public void formatData() {
+    final Data data = new Data(ApplicationThreadCpuUsageDataCollector.class);
+    data.setContent(new CpuUsageData.ThreadCpuUsage[] {
+        new CpuUsageData.ThreadCpuUsage("main", 50),
+        new CpuUsageData.ThreadCpuUsage("OkHttp Dispatch", 12.5)});
+
+    final FormattedData formattedData = formatter.formatData(data)[0];
+
+    final Timestamp timestamp = formattedData.getMetricEntity().getMetric()
+                                             .getTimeseries(0).getPoints(0).getTimestamp();
+    final Metric expectedMetric = Metric.newBuilder()
+        .setMetricDescriptor(MetricDescriptor.newBuilder()
+                                             .setDescription("Application CPU Usage per Thread")
+                                             .setName(getName(process, thread, cpu, pct))
+                                             .setUnit(percent)
+                                             .setType(MetricDescriptor.Type.GAUGE_DOUBLE)
+                                             .addLabelKeys(LabelKey.newBuilder()
+                                                                   .setKey(getName(thread, name))
+                                                                   .build()))
+        .addTimeseries(createThreadTimeSeriesEntry(timestamp, "main", 50))
+        .addTimeseries(createThreadTimeSeriesEntry(timestamp, "OkHttp Dispatch", 12.5))
+        .build();
+
+    assertEquals(expectedMetric, formattedData.getMetricEntity().getMetric());
+  }
+}
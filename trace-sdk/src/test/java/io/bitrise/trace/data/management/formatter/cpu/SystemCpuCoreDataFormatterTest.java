@@ -0,0 +1,91 @@
+package io.bitrise.trace.data.management.formatter.cpu;
+
+import static io.bitrise.trace.data.dto.DataValues.core;
+import static io.bitrise.trace.data.dto.DataValues.cpu;
+import static io.bitrise.trace.data.dto.DataValues.getName;
+import static io.bitrise.trace.data.dto.DataValues.pct;
+import static io.bitrise.trace.data.dto.DataValues.percent;
+import static io.bitrise.trace.data.dto.DataValues.system;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import androidx.annotation.NonNull;
+import com.google.protobuf.Timestamp;
+import io.bitrise.trace.data.collector.cpu.CpuUsageData;
+import io.bitrise.trace.data.collector.cpu.SystemCpuCoreUsageDataCollector;
+import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.data.dto.FormattedData;
+import io.bitrise.trace.data.management.formatter.BaseDataFormatterTest;
+import io.opencensus.proto.metrics.v1.LabelKey;
+import io.opencensus.proto.metrics.v1.LabelValue;
+import io.opencensus.proto.metrics.v1.Metric;
+import io.opencensus.proto.metrics.v1.MetricDescriptor;
+import io.opencensus.proto.metrics.v1.Point;
+import io.opencensus.proto.metrics.v1.TimeSeries;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SystemCpuCoreDataFormatter}.
+ */
+public class SystemCpuCoreDataFormatterTest extends BaseDataFormatterTest {
+
+  final SystemCpuCoreDataFormatter formatter = new SystemCpuCoreDataFormatter();
+
+  @NonNull
+  private static TimeSeries createCoreTimeSeriesEntry(@NonNull final Timestamp timestamp,
+                                                      @NonNull final String labelValue,
+                                                      final double value) {
+    return TimeSeries.newBuilder()
+                     .addLabelValues(
+                         LabelValue.newBuilder()
+                                   .setValue(labelValue)
+                                   .build())
+                     .addPoints(
+                         Point.newBuilder()
+                              .setTimestamp(timestamp)
+                              .setDoubleValue(value)
+                              .build())
+                     .build();
+  }
+
+  @Test
+  public void formatData_notCoreCpuUsages() {
+    final Data data = new Data(SystemCpuCoreUsageDataCollector.class);
+    data.setContent("cpu usage");
+    assertArrayEquals(new FormattedData[] {}, formatter.formatData(data));
+  }
+
+  @Test
+  public void formatData_emptyCoreCpuUsages() {
+    final Data data = new Data(SystemCpuCoreUsageDataCollector.class);
+    data.setContent(new CpuUsageData.CoreCpuUsage[0]);
+    assertArrayEquals(new FormattedData[] {}, formatter.formatData(data));
+  }
+
+  @Test
+  public void formatData() {
+    final Data data = new Data(SystemCpuCoreUsageDataCollector.class);
+    data.setContent(new CpuUsageData.CoreCpuUsage[] {
+        new CpuUsageData.CoreCpuUsage(0, 12.5),
+        new CpuUsageData.CoreCpuUsage(2, 50)});
+
+    final FormattedData formattedData = formatter.formatData(data)[0];
+
+    final Timestamp timestamp = formattedData.getMetricEntity().getMetric()
+                                             .getTimeseries(0).getPoints(0).getTimestamp();
+    final Metric expectedMetric = Metric.newBuilder()
+        .setMetricDescriptor(MetricDescriptor.newBuilder()
+                                             .setDescription("System CPU Usage per Core")
+                                             .setName(getName(system, cpu, core, pct))
+                                             .setUnit(percent)
+                                             .setType(MetricDescriptor.Type.GAUGE_DOUBLE)
+                                             .addLabelKeys(LabelKey.newBuilder()
+                                                                   .setKey(getName(cpu, core))
+                                                                   .build()))
+        .addTimeseries(createCoreTimeSeriesEntry(timestamp, "0", 12.5))
+        .addTimeseries(createCoreTimeSeriesEntry(timestamp, "2", 50))
+        .build();
+
+    assertEquals(expectedMetric, formattedData.getMetricEntity().getMetric());
+  }
+}
@@ -0,0 +1,64 @@
+package io.bitrise.trace.data.management.formatter.memory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import io.bitrise.trace.data.collector.memory.ApplicationRuntimeMemoryDataCollector;
+import io.bitrise.trace.data.collector.memory.RuntimeMemoryData;
+import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.data.dto.FormattedData;
+import io.bitrise.trace.data.management.formatter.BaseDataFormatterTest;
+import io.opencensus.proto.metrics.v1.Metric;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ApplicationRuntimeMemoryDataFormatter}.
+ */
+public class ApplicationRuntimeMemoryDataFormatterTest extends BaseDataFormatterTest {
+
+  final ApplicationRuntimeMemoryDataFormatter formatter =
+      new ApplicationRuntimeMemoryDataFormatter();
+
+  @Test
+  public void formatData_contentNull() {
+    final Data data = new Data(ApplicationRuntimeMemoryDataCollector.class);
+    data.setContent(null);
+    assertArrayEquals(new FormattedData[] {}, formatter.formatData(data));
+  }
+
+  @Test
+  public void formatData() {
+    final Data data = new Data(ApplicationRuntimeMemoryDataCollector.class);
+    data.setContent(new RuntimeMemoryData(100L, 200L, 50L, 2L, 30L, 1L, 10L));
+
+    final FormattedData[] formattedData = formatter.formatData(data);
+
+    assertEquals(7, formattedData.length);
+    assertMetric("app.memory.java_heap.used.bytes", 100L, formattedData[0]);
+    assertMetric("app.memory.java_heap.max.bytes", 200L, formattedData[1]);
+    assertMetric("app.memory.native_heap.used.bytes", 50L, formattedData[2]);
+    assertMetric("app.gc.count", 2L, formattedData[3]);
+    assertMetric("app.gc.time.ms", 30L, formattedData[4]);
+    assertMetric("app.gc.blocking.count", 1L, formattedData[5]);
+    assertMetric("app.gc.blocking.time.ms", 10L, formattedData[6]);
+  }
+
+  @Test
+  public void formatData_gcStatsNotAvailable() {
+    final Data data = new Data(ApplicationRuntimeMemoryDataCollector.class);
+    data.setContent(new RuntimeMemoryData(100L, 200L, 50L, null, null, null, null));
+
+    final FormattedData[] formattedData = formatter.formatData(data);
+
+    assertEquals(3, formattedData.length);
+    assertMetric("app.memory.native_heap.used.bytes", 50L, formattedData[2]);
+  }
+
+  private static void assertMetric(final String expectedName, final long expectedValue,
+                                   final FormattedData formattedData) {
+    final Metric metric = formattedData.getMetricEntity().getMetric();
+    assertEquals(expectedName, metric.getMetricDescriptor().getName());
+    assertEquals(0, metric.getMetricDescriptor().getLabelKeysCount());
+    assertEquals(expectedValue, metric.getTimeseries(0).getPoints(0).getInt64Value());
+  }
+}
@@ -0,0 +1,49 @@
+package io.bitrise.trace.data.management.formatter.memory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import io.bitrise.trace.data.collector.memory.MemoryTrimDataListener;
+import io.bitrise.trace.data.dto.Data;
+import io.bitrise.trace.data.dto.FormattedData;
+import io.bitrise.trace.data.management.formatter.BaseDataFormatterTest;
+import io.opencensus.proto.metrics.v1.Metric;
+import io.opencensus.proto.metrics.v1.MetricDescriptor;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MemoryTrimDataFormatter}.
+ */
+public class MemoryTrimDataFormatterTest extends BaseDataFormatterTest {
+
+  final MemoryTrimDataFormatter formatter = new MemoryTrimDataFormatter();
+
+  @Test
+  public void formatData_contentNull() {
+    final Data data = new Data(MemoryTrimDataListener.class);
+    data.setContent(null);
+    assertArrayEquals(new FormattedData[] {}, formatter.formatData(data));
+  }
+
+  @Test
+  public void formatData() {
+    final Data data = new Data(MemoryTrimDataListener.class);
+    data.setContent(15);
+
+    final FormattedData[] formattedData = formatter.formatData(data);
+    assertEquals(1, formattedData.length);
+
+    final MetricDescriptor expectedMetricDescriptor =
+        MetricDescriptor.newBuilder()
+                        .setDescription("App Memory Trim Level")
+                        .setName("app.memory.trim.level")
+                        .setUnit("level")
+                        .setType(MetricDescriptor.Type.GAUGE_INT64)
+                        .build();
+
+    final Metric metric = formattedData[0].getMetricEntity().getMetric();
+    assertEquals(expectedMetricDescriptor, metric.getMetricDescriptor());
+    assertEquals(0, metric.getTimeseries(0).getLabelValuesCount());
+    assertEquals(15L, metric.getTimeseries(0).getPoints(0).getInt64Value());
+  }
+}
@@ -0,0 +1,227 @@
+package io.bitrise.trace.data.metric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.protobuf.Timestamp;
+import io.opencensus.proto.metrics.v1.LabelKey;
+import io.opencensus.proto.metrics.v1.LabelValue;
+import io.opencensus.proto.metrics.v1.Metric;
+import io.opencensus.proto.metrics.v1.MetricDescriptor;
+import io.opencensus.proto.metrics.v1.Point;
+import io.opencensus.proto.metrics.v1.SummaryValue;
+import io.opencensus.proto.metrics.v1.TimeSeries;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Contains tests for {@link MetricAggregator} class.
+ */
+public class MetricAggregatorTest {
+
+  private static final long WINDOW_MS = 60000;
+  private static final long WINDOW_START_MS = WINDOW_MS * 1000;
+  private static final String SESSION_ID = "sessionId";
+  private static final String METRIC_NAME = "app.memory.bytes";
+
+  private static MetricEntity createGauge(final String sessionId, final String name,
+                                          final long value, final long timeMs,
+                                          final String... labelValues) {
+    final MetricDescriptor.Builder descriptor =
+        MetricDescriptor.newBuilder()
+                        .setName(name)
+                        .setDescription("description")
+                        .setUnit("bytes")
+                        .setType(MetricDescriptor.Type.GAUGE_INT64);
+    final TimeSeries.Builder timeSeries = TimeSeries.newBuilder();
+    for (final String labelValue : labelValues) {
+      descriptor.addLabelKeys(LabelKey.newBuilder().setKey("key"));
+      timeSeries.addLabelValues(LabelValue.newBuilder().setValue(labelValue));
+    }
+    timeSeries.addPoints(Point.newBuilder()
+                              .setTimestamp(toTimestamp(timeMs))
+                              .setInt64Value(value));
+    final Metric metric = Metric.newBuilder()
+                                .setMetricDescriptor(descriptor)
+                                .addTimeseries(timeSeries)
+                                .build();
+    return new MetricEntity(metric, sessionId);
+  }
+
+  private static MetricEntity createGauge(final long value, final long timeMs) {
+    return createGauge(SESSION_ID, METRIC_NAME, value, timeMs);
+  }
+
+  private static Timestamp toTimestamp(final long timeMs) {
+    return Timestamp.newBuilder()
+                    .setSeconds(timeMs / 1000)
+                    .setNanos((int) (timeMs % 1000) * 1000000)
+                    .build();
+  }
+
+  private static SummaryValue getSummaryValue(final MetricEntity metricEntity) {
+    return metricEntity.getMetric().getTimeseries(0).getPoints(0).getSummaryValue();
+  }
+
+  private static double getPercentileValue(final SummaryValue summaryValue,
+                                           final double percentile) {
+    for (final SummaryValue.Snapshot.ValueAtPercentile valueAtPercentile
+        : summaryValue.getSnapshot().getPercentileValuesList()) {
+      if (valueAtPercentile.getPercentile() == percentile) {
+        return valueAtPercentile.getValue();
+      }
+    }
+    throw new AssertionError("Missing percentile " + percentile);
+  }
+
+  @Test
+  public void isAggregatable() {
+    assertTrue(MetricAggregator.isAggregatable(createGauge(1, 0).getMetric()));
+
+    final Metric cumulative = Metric.newBuilder()
+        .setMetricDescriptor(MetricDescriptor.newBuilder()
+                                             .setType(MetricDescriptor.Type.CUMULATIVE_INT64))
+        .build();
+    assertFalse(MetricAggregator.isAggregatable(cumulative));
+  }
+
+  @Test
+  public void add_sameWindow_shouldNotComplete() {
+    final MetricAggregator metricAggregator = new MetricAggregator(WINDOW_MS);
+
+    assertTrue(metricAggregator.add(createGauge(10, WINDOW_START_MS + 1000)).isEmpty());
+    assertTrue(metricAggregator.add(createGauge(20, WINDOW_START_MS + 2000)).isEmpty());
+    assertEquals(1, metricAggregator.getOpenWindowCount());
+  }
+
+  @Test
+  public void flush_shouldReportSummary() {
+    final MetricAggregator metricAggregator = new MetricAggregator(WINDOW_MS);
+    metricAggregator.add(createGauge(30, WINDOW_START_MS + 1000));
+    metricAggregator.add(createGauge(10, WINDOW_START_MS + 2000));
+    metricAggregator.add(createGauge(20, WINDOW_START_MS + 3000));
+
+    final List<MetricEntity> completed = metricAggregator.flush();
+
+    assertEquals(1, completed.size());
+    assertEquals(0, metricAggregator.getOpenWindowCount());
+    final MetricEntity metricEntity = completed.get(0);
+    assertEquals(SESSION_ID, metricEntity.getSessionId());
+
+    final Metric metric = metricEntity.getMetric();
+    assertEquals(METRIC_NAME, metric.getMetricDescriptor().getName());
+    assertEquals("bytes", metric.getMetricDescriptor().getUnit());
+    assertEquals(MetricDescriptor.Type.SUMMARY, metric.getMetricDescriptor().getType());
+    assertEquals(1, metric.getTimeseriesCount());
+    assertEquals(toTimestamp(WINDOW_START_MS), metric.getTimeseries(0).getStartTimestamp());
+    assertEquals(toTimestamp(WINDOW_START_MS + 3000),
+        metric.getTimeseries(0).getPoints(0).getTimestamp());
+
+    final SummaryValue summaryValue = getSummaryValue(metricEntity);
+    assertEquals(3, summaryValue.getCount().getValue());
+    assertEquals(60, summaryValue.getSum().getValue(), 0);
+    assertEquals(3, summaryValue.getSnapshot().getCount().getValue());
+    assertEquals(MetricAggregator.PERCENTILES.length,
+        summaryValue.getSnapshot().getPercentileValuesCount());
+    assertEquals(10, getPercentileValue(summaryValue, 0), 0);
+    assertEquals(20, getPercentileValue(summaryValue, 50), 20 * 0.01);
+    assertEquals(30, getPercentileValue(summaryValue, 100), 0);
+  }
+
+  @Test
+  public void flush_empty() {
+    assertTrue(new MetricAggregator(WINDOW_MS).flush().isEmpty());
+  }
+
+  @Test
+  public void add_afterWindowEnd_shouldCompleteWindow() {
+    final MetricAggregator metricAggregator = new MetricAggregator(WINDOW_MS);
+    metricAggregator.add(createGauge(10, WINDOW_START_MS + 1000));
+    metricAggregator.add(createGauge(20, WINDOW_START_MS + 2000));
+
+    final List<MetricEntity> completed =
+        metricAggregator.add(createGauge(100, WINDOW_START_MS + WINDOW_MS));
+
+    assertEquals(1, completed.size());
+    assertEquals(2, getSummaryValue(completed.get(0)).getCount().getValue());
+    assertEquals(1, metricAggregator.getOpenWindowCount());
+    assertEquals(100, getSummaryValue(metricAggregator.flush().get(0)).getSum().getValue(), 0);
+  }
+
+  @Test
+  public void add_otherMetricAfterWindowEnd_shouldCompleteWindow() {
+    final MetricAggregator metricAggregator = new MetricAggregator(WINDOW_MS);
+    metricAggregator.add(createGauge(10, WINDOW_START_MS + 1000));
+
+    final List<MetricEntity> completed = metricAggregator.add(
+        createGauge(SESSION_ID, "system.memory.bytes", 20, WINDOW_START_MS + WINDOW_MS + 1));
+
+    assertEquals(1, completed.size());
+    assertEquals(METRIC_NAME,
+        completed.get(0).getMetric().getMetricDescriptor().getName());
+  }
+
+  @Test
+  public void add_differentLabelsAndSessions_shouldHaveSeparateWindows() {
+    final MetricAggregator metricAggregator = new MetricAggregator(WINDOW_MS);
+    metricAggregator.add(createGauge(SESSION_ID, METRIC_NAME, 10, WINDOW_START_MS, "a"));
+    metricAggregator.add(createGauge(SESSION_ID, METRIC_NAME, 20, WINDOW_START_MS, "b"));
+    metricAggregator.add(createGauge(SESSION_ID, METRIC_NAME, 30, WINDOW_START_MS, "a"));
+    metricAggregator.add(createGauge("otherSessionId", METRIC_NAME, 40, WINDOW_START_MS, "a"));
+
+    final List<MetricEntity> completed = metricAggregator.flush();
+
+    assertEquals(3, completed.size());
+    assertEquals(SESSION_ID, completed.get(0).getSessionId());
+    assertEquals("a", completed.get(0).getMetric().getTimeseries(0).getLabelValues(0).getValue());
+    assertEquals(40, getSummaryValue(completed.get(0)).getSum().getValue(), 0);
+    assertEquals("b", completed.get(1).getMetric().getTimeseries(0).getLabelValues(0).getValue());
+    assertEquals("otherSessionId", completed.get(2).getSessionId());
+  }
+
+  @Test
+  public void add_doubleValues_shouldSkipInvalid() {
+    final MetricAggregator metricAggregator = new MetricAggregator(WINDOW_MS);
+    for (final double value : new double[] {1.5, Double.NaN, 2.5}) {
+      final Metric metric = Metric.newBuilder()
+          .setMetricDescriptor(MetricDescriptor.newBuilder()
+                                               .setName("process.cpu.pct")
+                                               .setType(MetricDescriptor.Type.GAUGE_DOUBLE))
+          .addTimeseries(TimeSeries.newBuilder()
+                                   .addPoints(Point.newBuilder()
+                                                   .setTimestamp(toTimestamp(WINDOW_START_MS))
+                                                   .setDoubleValue(value)))
+          .build();
+      metricAggregator.add(new MetricEntity(metric, SESSION_ID));
+    }
+
+    final SummaryValue summaryValue = getSummaryValue(metricAggregator.flush().get(0));
+    assertEquals(2, summaryValue.getCount().getValue());
+    assertEquals(4, summaryValue.getSum().getValue(), 0);
+    assertEquals(1.5, getPercentileValue(summaryValue, 0), 0);
+    assertEquals(2.5, getPercentileValue(summaryValue, 100), 0);
+  }
+
+  @Test
+  public void add_manySamples_shouldEstimatePercentiles() {
+    final MetricAggregator metricAggregator = new MetricAggregator(WINDOW_MS);
+    for (int i = 1; i <= 100; i++) {
+      metricAggregator.add(createGauge(i, WINDOW_START_MS + i));
+    }
+
+    final SummaryValue summaryValue = getSummaryValue(metricAggregator.flush().get(0));
+    assertEquals(100, summaryValue.getCount().getValue());
+    assertEquals(5050, summaryValue.getSum().getValue(), 0);
+    assertEquals(1, getPercentileValue(summaryValue, 0), 0);
+    assertEquals(50, getPercentileValue(summaryValue, 50), 50 * 0.01);
+    assertEquals(90, getPercentileValue(summaryValue, 90), 90 * 0.01);
+    assertEquals(99, getPercentileValue(summaryValue, 99), 99 * 0.01);
+    assertEquals(100, getPercentileValue(summaryValue, 100), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_invalidWindow() {
+    new MetricAggregator(0);
+  }
+}
@@ -1,6 +1,7 @@
 package io.bitrise.trace.data.metric;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import io.bitrise.trace.test.MetricTestProvider;
 import io.opencensus.proto.metrics.v1.Metric;
@@ -45,4 +46,25 @@ public class MetricConverterTest {
     assertEquals(MetricTestProvider.getApplicationStartUpMetric(),
         MetricConverter.toMetric(METRIC_APPLICATION_START_UP));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void toMetric_byteArray_applicationStartUpMetric() {
+    final Metric metric = MetricTestProvider.getApplicationStartUpMetric();
+    assertEquals(metric, MetricConverter.toMetric(MetricConverter.toByteArray(metric)));
+  }
+
+  @Test
+  public void toMetric_invalidByteArray_shouldReturnEmptyMetric() {
+    assertEquals(Metric.newBuilder().build(), MetricConverter.toMetric(new byte[]{1, 2, 3}));
+  }
+
+  /**
+   * The binary format should take less space in the database than the JSON format.
+   */
+  @Test
+  public void toByteArray_shouldBeSmallerThanJson() {
+    final Metric metric = MetricTestProvider.getApplicationStartUpMetric();
+    assertTrue(MetricConverter.toByteArray(metric).length
+        < MetricConverter.toString(metric).getBytes().length);
+  }
+}
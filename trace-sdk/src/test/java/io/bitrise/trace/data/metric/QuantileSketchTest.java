@@ -0,0 +1,95 @@
+package io.bitrise.trace.data.metric;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Contains tests for {@link QuantileSketch} class.
+ */
+public class QuantileSketchTest {
+
+  private static final double ACCURACY = QuantileSketch.DEFAULT_RELATIVE_ACCURACY;
+
+  /**
+   * Asserts that the estimated value is within the relative accuracy of the expected one. A small
+   * margin is allowed for the rounding errors of the values at the bounds of the buckets.
+   *
+   * @param expected the expected value.
+   * @param actual   the estimated value.
+   */
+  private static void assertWithinAccuracy(final double expected, final double actual) {
+    assertEquals(expected, actual, expected * ACCURACY * 1.001);
+  }
+
+  @Test
+  public void getQuantile_empty() {
+    final QuantileSketch sketch = new QuantileSketch();
+    assertEquals(0, sketch.getCount());
+    assertEquals(0, sketch.getQuantile(0.5), 0);
+  }
+
+  @Test
+  public void getQuantile_shouldBeWithinRelativeAccuracy() {
+    final QuantileSketch sketch = new QuantileSketch();
+    for (int i = 1; i <= 1000; i++) {
+      sketch.add(i);
+    }
+
+    assertEquals(1000, sketch.getCount());
+    assertWithinAccuracy(1, sketch.getQuantile(0));
+    assertWithinAccuracy(500, sketch.getQuantile(0.5));
+    assertWithinAccuracy(900, sketch.getQuantile(0.9));
+    assertWithinAccuracy(990, sketch.getQuantile(0.99));
+    assertWithinAccuracy(1000, sketch.getQuantile(1));
+  }
+
+  @Test
+  public void getQuantile_fractions() {
+    final QuantileSketch sketch = new QuantileSketch();
+    sketch.add(0.25);
+    sketch.add(0.5);
+    sketch.add(0.75);
+
+    assertWithinAccuracy(0.5, sketch.getQuantile(0.5));
+  }
+
+  @Test
+  public void getQuantile_zeros() {
+    final QuantileSketch sketch = new QuantileSketch();
+    sketch.add(0);
+    sketch.add(0);
+    sketch.add(-1);
+    sketch.add(10);
+
+    assertEquals(0, sketch.getQuantile(0.5), 0);
+    assertWithinAccuracy(10, sketch.getQuantile(1));
+    assertEquals(1, sketch.getBucketCount());
+  }
+
+  @Test
+  public void add_shouldCollapseLowestBuckets() {
+    final QuantileSketch sketch = new QuantileSketch(ACCURACY, 3);
+    sketch.add(1);
+    sketch.add(10);
+    sketch.add(100);
+    sketch.add(1000);
+    sketch.add(10000);
+
+    assertEquals(3, sketch.getBucketCount());
+    assertEquals(5, sketch.getCount());
+    assertWithinAccuracy(10000, sketch.getQuantile(1));
+    assertWithinAccuracy(1000, sketch.getQuantile(0.75));
+    assertWithinAccuracy(100, sketch.getQuantile(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_invalidAccuracy() {
+    new QuantileSketch(1, QuantileSketch.DEFAULT_MAX_BUCKET_COUNT);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_invalidBucketCount() {
+    new QuantileSketch(ACCURACY, 0);
+  }
+}
@@ -0,0 +1,147 @@
+package io.bitrise.trace.data.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import io.bitrise.trace.data.metric.MetricEntity;
+import io.bitrise.trace.data.resource.ResourceEntity;
+import io.bitrise.trace.data.trace.TraceEntity;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link WriteBehindBuffer}.
+ */
+public class WriteBehindBufferTest {
+
+  private static final long LONG_MAX_AGE_MS = 60000;
+
+  @Test
+  public void add_shouldNotWriteBelowThreshold() {
+    final RecordingBatchWriter batchWriter = new RecordingBatchWriter(1);
+    final WriteBehindBuffer buffer = new WriteBehindBuffer(batchWriter, 10, LONG_MAX_AGE_MS);
+
+    buffer.addMetric(new MetricEntity("metricId"));
+    buffer.addResource(new ResourceEntity());
+    buffer.addTrace(new TraceEntity());
+
+    assertEquals(3, buffer.getPendingCount());
+    assertEquals(0, batchWriter.batchCount);
+  }
+
+  @Test
+  public void flush_shouldWriteAllPendingInOneBatch() {
+    final RecordingBatchWriter batchWriter = new RecordingBatchWriter(1);
+    final WriteBehindBuffer buffer = new WriteBehindBuffer(batchWriter, 10, LONG_MAX_AGE_MS);
+
+    buffer.addMetric(new MetricEntity("metricId1"));
+    buffer.addMetric(new MetricEntity("metricId2"));
+    buffer.addResource(new ResourceEntity());
+    buffer.addTrace(new TraceEntity());
+    buffer.flush();
+
+    assertEquals(1, batchWriter.batchCount);
+    assertEquals(2, batchWriter.metricEntities.size());
+    assertEquals(1, batchWriter.resourceEntities.size());
+    assertEquals(1, batchWriter.traceEntities.size());
+    assertEquals(0, buffer.getPendingCount());
+  }
+
+  @Test
+  public void flush_empty_shouldNotWrite() {
+    final RecordingBatchWriter batchWriter = new RecordingBatchWriter(1);
+    final WriteBehindBuffer buffer = new WriteBehindBuffer(batchWriter, 10, LONG_MAX_AGE_MS);
+
+    buffer.flush();
+
+    assertEquals(0, batchWriter.batchCount);
+  }
+
+  @Test
+  public void add_sizeThresholdReached_shouldWrite() throws InterruptedException {
+    final RecordingBatchWriter batchWriter = new RecordingBatchWriter(1);
+    final WriteBehindBuffer buffer = new WriteBehindBuffer(batchWriter, 3, LONG_MAX_AGE_MS);
+
+    buffer.addMetric(new MetricEntity("metricId1"));
+    buffer.addMetric(new MetricEntity("metricId2"));
+    buffer.addMetric(new MetricEntity("metricId3"));
+
+    assertTrue(batchWriter.latch.await(1, TimeUnit.SECONDS));
+    assertEquals(3, batchWriter.metricEntities.size());
+  }
+
+  @Test
+  public void add_ageThresholdReached_shouldWrite() throws InterruptedException {
+    final RecordingBatchWriter batchWriter = new RecordingBatchWriter(1);
+    final WriteBehindBuffer buffer = new WriteBehindBuffer(batchWriter, 10, 50);
+
+    buffer.addTrace(new TraceEntity());
+
+    assertTrue(batchWriter.latch.await(1, TimeUnit.SECONDS));
+    assertEquals(1, batchWriter.traceEntities.size());
+  }
+
+  @Test
+  public void flush_writeFails_shouldKeepPendingEntities() {
+    final RecordingBatchWriter batchWriter = new RecordingBatchWriter(1);
+    final WriteBehindBuffer buffer = new WriteBehindBuffer(batchWriter, 10, LONG_MAX_AGE_MS);
+    final MetricEntity failedMetric = new MetricEntity("metricId1");
+    buffer.addMetric(failedMetric);
+    buffer.addTrace(new TraceEntity());
+    batchWriter.failure = new IllegalStateException("write failed");
+
+    try {
+      buffer.flush();
+      fail("The failure of the write should be thrown");
+    } catch (final IllegalStateException e) {
+      assertEquals(2, buffer.getPendingCount());
+    }
+
+    batchWriter.failure = null;
+    buffer.addMetric(new MetricEntity("metricId2"));
+    buffer.flush();
+
+    assertEquals(1, batchWriter.batchCount);
+    assertEquals(2, batchWriter.metricEntities.size());
+    assertSame(failedMetric, batchWriter.metricEntities.get(0));
+    assertEquals(1, batchWriter.traceEntities.size());
+    assertEquals(0, buffer.getPendingCount());
+  }
+
+  /**
+   * {@link WriteBehindBuffer.BatchWriter} that records the written entities.
+   */
+  private static class RecordingBatchWriter implements WriteBehindBuffer.BatchWriter {
+
+    final List<MetricEntity> metricEntities = Collections.synchronizedList(new ArrayList<>());
+    final List<ResourceEntity> resourceEntities = Collections.synchronizedList(new ArrayList<>());
+    final List<TraceEntity> traceEntities = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch latch;
+    volatile int batchCount;
+    volatile RuntimeException failure;
+
+    RecordingBatchWriter(final int expectedBatches) {
+      this.latch = new CountDownLatch(expectedBatches);
+    }
+
+    @Override
+    public void writeBatch(final List<MetricEntity> metricEntities,
+                           final List<ResourceEntity> resourceEntities,
+                           final List<TraceEntity> traceEntities) {
+      if (failure != null) {
+        throw failure;
+      }
+      this.metricEntities.addAll(metricEntities);
+      this.resourceEntities.addAll(resourceEntities);
+      this.traceEntities.addAll(traceEntities);
+      batchCount++;
+      latch.countDown();
+    }
+  }
+}
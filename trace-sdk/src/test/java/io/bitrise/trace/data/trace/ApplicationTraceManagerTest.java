@@ -6,9 +6,17 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 
 import android.app.Activity;
 import android.app.Application;
@@ -21,6 +29,9 @@ import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.test.TraceTestProvider;
 import io.bitrise.trace.utils.ByteStringConverter;
 import io.opencensus.proto.trace.v1.Span;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -129,6 +140,231 @@ public class ApplicationTraceManagerTest {
     assertEquals(expectedSpan, mockApplicationTraceManager.getActiveTrace().getSpanList().get(0));
   }
 
+  /**
+   * When a {@link Span} already has the ID of the active {@link Trace}, it should be added as it
+   * is.
+   */
+  @Test
+  public void addSpanToActiveTrace_sameTraceId_ShouldNotRebuildSpan() {
+    mockApplicationTraceManager.startTrace();
+    final Trace activeTrace = mockApplicationTraceManager.getActiveTrace();
+    final Span sampleSpan =
+        TraceTestProvider.getSampleSpan(activeTrace.getTraceId(), "dummySpanName");
+
+    mockApplicationTraceManager.addSpanToActiveTrace(sampleSpan);
+
+    assertSame(sampleSpan, activeTrace.getSpanList().get(0));
+  }
+
+  /**
+   * When {@link Span}s are added from multiple threads while the {@link Trace} is stopped, each
+   * Span should end up either in the stopped or in the new Trace.
+   */
+  @Test
+  public void addSpanToActiveTrace_multipleThreads_ShouldNotLoseSpans()
+      throws InterruptedException {
+    final int threadCount = 4;
+    final int spansPerThread = 1000;
+    mockApplicationTraceManager.dataStorage = mock(TraceDataStorage.class);
+    doReturn(Integer.MAX_VALUE).when(mockApplicationTraceManager).getMaxSegmentSpanCount();
+    doReturn(Long.MAX_VALUE).when(mockApplicationTraceManager).getMaxSegmentBytes();
+    mockApplicationTraceManager.startTrace();
+    final Trace firstTrace = mockApplicationTraceManager.getActiveTrace();
+    final Span sampleSpan = FragmentStateDataFormatter.createFragmentViewSpan("name", 10L, 20L,
+        "span-id", "parent-span-id");
+    final CountDownLatch startLatch = new CountDownLatch(1);
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadCount; i++) {
+      final Thread thread = new Thread(() -> {
+        try {
+          startLatch.await();
+        } catch (final InterruptedException e) {
+          return;
+        }
+        for (int j = 0; j < spansPerThread; j++) {
+          mockApplicationTraceManager.addSpanToActiveTrace(sampleSpan);
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    startLatch.countDown();
+    mockApplicationTraceManager.stopTrace();
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    final Trace secondTrace = mockApplicationTraceManager.getActiveTrace();
+    final int secondTraceSpanCount = secondTrace == null ? 0 : secondTrace.getSpanList().size();
+    assertEquals(threadCount * spansPerThread,
+        firstTrace.getSpanList().size() + secondTraceSpanCount);
+  }
+
+  /**
+   * When the {@link Span}s of the active {@link Trace} reach the limit, the segment should be
+   * closed and saved, and the Trace should continue in a new segment with the same trace ID.
+   */
+  @Test
+  public void addSpanToActiveTrace_limitReached_ShouldStartNextSegment() {
+    mockApplicationTraceManager.dataStorage = mock(TraceDataStorage.class);
+    doReturn(2).when(mockApplicationTraceManager).getMaxSegmentSpanCount();
+    doReturn(Long.MAX_VALUE).when(mockApplicationTraceManager).getMaxSegmentBytes();
+    mockApplicationTraceManager.startTrace();
+    final Trace firstSegment = mockApplicationTraceManager.getActiveTrace();
+    final Span sampleSpan =
+        TraceTestProvider.getSampleSpan(firstSegment.getTraceId(), "dummySpanName");
+
+    for (int i = 0; i < 3; i++) {
+      mockApplicationTraceManager.addSpanToActiveTrace(sampleSpan);
+    }
+
+    final Trace secondSegment = mockApplicationTraceManager.getActiveTrace();
+    assertNotSame(firstSegment, secondSegment);
+    assertTrue(firstSegment.isClosed());
+    assertEquals(2, firstSegment.getSpanList().size());
+    assertEquals(firstSegment.getTraceId(), secondSegment.getTraceId());
+    assertEquals(firstSegment.getSessionId(), secondSegment.getSessionId());
+    assertEquals(1, secondSegment.getSegmentIndex());
+    assertEquals(1, secondSegment.getSpanList().size());
+    verify(mockApplicationTraceManager.dataStorage, timeout(1000)).saveTraces(firstSegment);
+  }
+
+  /**
+   * When the active {@link Trace} continues in a new segment, the last view {@link Span} of the
+   * previous segment should still be the last active view Span of the Trace.
+   */
+  @Test
+  public void addSpanToActiveTrace_limitReached_ShouldKeepLastViewSpan() {
+    mockApplicationTraceManager.dataStorage = mock(TraceDataStorage.class);
+    doReturn(2).when(mockApplicationTraceManager).getMaxSegmentSpanCount();
+    doReturn(Long.MAX_VALUE).when(mockApplicationTraceManager).getMaxSegmentBytes();
+    mockApplicationTraceManager.startTrace();
+    final Span viewSpan = TraceTestProvider.createActivityViewSpan();
+
+    mockApplicationTraceManager.addSpanToActiveTrace(viewSpan);
+    for (int i = 0; i < 3; i++) {
+      mockApplicationTraceManager.addSpanToActiveTrace(TraceTestProvider.createNetworkSpan());
+    }
+
+    final Trace activeTrace = mockApplicationTraceManager.getActiveTrace();
+    assertEquals(2, activeTrace.getSegmentIndex());
+    assertEquals(viewSpan.getSpanId(), activeTrace.getLastActiveViewSpan().getSpanId());
+  }
+
+  /**
+   * A checkpoint should save the {@link Span}s of the active {@link Trace}, and the Trace should
+   * continue in a new segment with the same trace ID.
+   */
+  @Test
+  public void checkpointActiveTrace_ShouldSaveSegment() {
+    mockApplicationTraceManager.dataStorage = mock(TraceDataStorage.class);
+    mockApplicationTraceManager.startTrace();
+    final Trace firstSegment = mockApplicationTraceManager.getActiveTrace();
+    mockApplicationTraceManager.addSpanToActiveTrace(
+        TraceTestProvider.getSampleSpan(firstSegment.getTraceId(), "dummySpanName"));
+
+    mockApplicationTraceManager.checkpointActiveTrace();
+
+    final Trace secondSegment = mockApplicationTraceManager.getActiveTrace();
+    assertNotSame(firstSegment, secondSegment);
+    assertTrue(firstSegment.isClosed());
+    assertEquals(firstSegment.getTraceId(), secondSegment.getTraceId());
+    assertEquals(1, secondSegment.getSegmentIndex());
+    verify(mockApplicationTraceManager.dataStorage, timeout(1000)).saveTraces(firstSegment);
+  }
+
+  /**
+   * When the {@link Trace} is stopped after a checkpoint, without new {@link Span}s, only the
+   * segment saved by the checkpoint should be stored, the empty last segment should not.
+   */
+  @Test
+  public void stopTrace_afterCheckpoint_ShouldNotSaveEmptySegment() {
+    mockApplicationTraceManager.dataStorage = mock(TraceDataStorage.class);
+    mockApplicationTraceManager.startTrace();
+    final Trace firstSegment = mockApplicationTraceManager.getActiveTrace();
+    mockApplicationTraceManager.addSpanToActiveTrace(
+        TraceTestProvider.getSampleSpan(firstSegment.getTraceId(), "dummySpanName"));
+    mockApplicationTraceManager.checkpointActiveTrace();
+    final Trace secondSegment = mockApplicationTraceManager.getActiveTrace();
+
+    mockApplicationTraceManager.stopTrace();
+
+    verify(mockApplicationTraceManager.dataStorage, timeout(1000)).saveTraces(firstSegment);
+    verify(mockApplicationTraceManager.dataStorage, never()).saveTraces(secondSegment);
+    assertTrue(secondSegment.isClosed());
+  }
+
+  /**
+   * When the {@link Trace} is stopped after a checkpoint, the Spans added since the checkpoint
+   * should be saved in the last segment.
+   */
+  @Test
+  public void stopTrace_afterCheckpointWithSpans_ShouldSaveLastSegment() {
+    mockApplicationTraceManager.dataStorage = mock(TraceDataStorage.class);
+    mockApplicationTraceManager.startTrace();
+    final String traceId = mockApplicationTraceManager.getActiveTrace().getTraceId();
+    mockApplicationTraceManager.addSpanToActiveTrace(
+        TraceTestProvider.getSampleSpan(traceId, "dummySpanName"));
+    mockApplicationTraceManager.checkpointActiveTrace();
+    final Trace secondSegment = mockApplicationTraceManager.getActiveTrace();
+    mockApplicationTraceManager.addSpanToActiveTrace(
+        TraceTestProvider.getSampleSpan(traceId, "dummySpanName"));
+
+    mockApplicationTraceManager.stopTrace();
+
+    verify(mockApplicationTraceManager.dataStorage, timeout(1000)).saveTraces(secondSegment);
+  }
+
+  /**
+   * After a checkpoint the active {@link Trace} should still provide the trace ID and the last
+   * view {@link Span}, that a crash is linked to, even though the view Span was saved with the
+   * previous segment.
+   */
+  @Test
+  public void checkpointActiveTrace_ShouldKeepCrashLinkage() {
+    mockApplicationTraceManager.dataStorage = mock(TraceDataStorage.class);
+    mockApplicationTraceManager.startTrace();
+    final String traceId = mockApplicationTraceManager.getActiveTrace().getTraceId();
+    final Span viewSpan = TraceTestProvider.createActivityViewSpan();
+    mockApplicationTraceManager.addSpanToActiveTrace(viewSpan);
+
+    mockApplicationTraceManager.checkpointActiveTrace();
+    mockApplicationTraceManager.addSpanToActiveTrace(TraceTestProvider.createNetworkSpan());
+
+    final Trace activeTrace = mockApplicationTraceManager.getActiveTrace();
+    assertEquals(1, activeTrace.getSegmentIndex());
+    assertEquals(traceId, activeTrace.getTraceId());
+    assertEquals(viewSpan.getSpanId(), activeTrace.getLastActiveViewSpan().getSpanId());
+  }
+
+  /**
+   * A checkpoint should not do anything when no {@link Span} was added since the previous one.
+   */
+  @Test
+  public void checkpointActiveTrace_noSpans_ShouldKeepTrace() {
+    mockApplicationTraceManager.dataStorage = mock(TraceDataStorage.class);
+    mockApplicationTraceManager.startTrace();
+    final Trace activeTrace = mockApplicationTraceManager.getActiveTrace();
+
+    mockApplicationTraceManager.checkpointActiveTrace();
+
+    assertSame(activeTrace, mockApplicationTraceManager.getActiveTrace());
+    assertFalse(activeTrace.isClosed());
+  }
+
+  /**
+   * A checkpoint should not start a Trace when there is no active one.
+   */
+  @Test
+  public void checkpointActiveTrace_noActiveTrace_ShouldNotStartTrace() {
+    mockApplicationTraceManager.stopTrace();
+
+    mockApplicationTraceManager.checkpointActiveTrace();
+
+    assertThat(mockApplicationTraceManager.getActiveTrace(), is(nullValue()));
+  }
+
   /**
    * Each time a {@link Trace} is started it should have a different ID.
    */
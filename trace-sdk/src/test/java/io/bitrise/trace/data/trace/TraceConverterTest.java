@@ -2,9 +2,12 @@ package io.bitrise.trace.data.trace;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.test.TraceTestProvider;
+import io.opencensus.proto.trace.v1.Span;
+import java.util.List;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -69,4 +72,54 @@ public class TraceConverterTest {
   public void toTrace_activityViewSpan() {
     assertEquals(createActivityTrace(), TraceConverter.toTrace(ACTIVITY_TRACE));
   }
+
+  @Test
+  public void toTrace_byteArray_activityViewSpan() {
+    final Trace trace = createActivityTrace();
+    assertEquals(trace, TraceConverter.toTrace(TraceConverter.toByteArray(trace)));
+  }
+
+  @Test
+  public void toTrace_byteArray_emptyTrace() {
+    final Trace trace = TraceTestProvider.getEmptyTrace();
+    assertEquals(trace, TraceConverter.toTrace(TraceConverter.toByteArray(trace)));
+  }
+
+  @Test
+  public void toTrace_byteArray_segment() {
+    final Trace trace = createActivityTrace().createNextSegment();
+    trace.addSpan(TraceTestProvider.createNetworkSpan());
+
+    final Trace actual = TraceConverter.toTrace(TraceConverter.toByteArray(trace));
+
+    assertEquals(trace, actual);
+    assertEquals(1, actual.getSegmentIndex());
+  }
+
+  @Test
+  public void toTrace_invalidByteArray_shouldReturnEmptyTrace() {
+    final Trace actual = TraceConverter.toTrace(new byte[]{26, 10, 1});
+    assertEquals(0, actual.getSpanList().size());
+  }
+
+  @Test
+  public void toSpanList_activityViewSpan() {
+    final List<Span> actual = TraceConverter.toSpanList(ACTIVITY_TRACE);
+    assertEquals(createActivityTrace().getSpanList(), actual);
+  }
+
+  @Test
+  public void toSpanList_previousObjectTypes() {
+    assertEquals(0, TraceConverter.toSpanList(PREVIOUS_TRACE_RECORD).size());
+  }
+
+  /**
+   * The binary format should take less space in the database than the JSON format.
+   */
+  @Test
+  public void toByteArray_shouldBeSmallerThanJson() {
+    final Trace trace = createActivityTrace();
+    assertTrue(TraceConverter.toByteArray(trace).length
+        < TraceConverter.toString(trace).getBytes().length);
+  }
 }
@@ -1,14 +1,21 @@
 package io.bitrise.trace.data.trace;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import io.bitrise.trace.session.ApplicationSessionManager;
 import io.bitrise.trace.test.TraceTestProvider;
+import io.bitrise.trace.utils.ByteStringConverter;
 import io.bitrise.trace.utils.TraceClock;
 import io.opencensus.proto.trace.v1.Span;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -84,6 +91,33 @@ public class TraceTest {
     assertEquals(activitySpan2, trace.getLastActiveViewSpan());
   }
 
+  @Test
+  public void getLastActiveViewSpan_previousSegment_noActivitySpan() {
+    final Trace trace = new Trace("trace id", "session id", new ArrayList<>());
+    trace.addSpan(activitySpan);
+    trace.close();
+    final Trace nextSegment = trace.createNextSegment();
+    nextSegment.setPreviousSegmentViewSpan(trace.getLastActiveViewSpan());
+    nextSegment.addSpan(networkSpan);
+
+    assertEquals(activitySpan, nextSegment.getLastActiveViewSpan());
+  }
+
+  @Test
+  public void getLastActiveViewSpan_previousSegment_laterActivitySpan() {
+    final Span laterActivitySpan = activitySpan
+        .toBuilder()
+        .setStartTime(TraceClock.createTimestamp(
+            TraceClock.timestampToMillis(activitySpan.getStartTime()) + 1000))
+        .build();
+    final Trace nextSegment =
+        new Trace("trace id", "session id", new ArrayList<>()).createNextSegment();
+    nextSegment.setPreviousSegmentViewSpan(activitySpan);
+    nextSegment.addSpan(laterActivitySpan);
+
+    assertEquals(laterActivitySpan, nextSegment.getLastActiveViewSpan());
+  }
+
   @Test
   public void getLastActiveViewSpan_twoSpans_noActivitySpan() {
     final List<Span> spans = new ArrayList<>();
@@ -92,4 +126,173 @@ public class TraceTest {
     final Trace trace = new Trace("trace id", spans);
     assertNull(trace.getLastActiveViewSpan());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void addSpan_shouldBeInSpanList() {
+    final Trace trace = new Trace("trace id", new ArrayList<>());
+
+    assertTrue(trace.addSpan(activitySpan));
+    assertTrue(trace.addSpan(networkSpan));
+
+    final List<Span> expected = new ArrayList<>();
+    expected.add(activitySpan);
+    expected.add(networkSpan);
+    assertEquals(expected, trace.getSpanList());
+  }
+
+  @Test
+  public void addSpan_closed_shouldNotAdd() {
+    final Trace trace = new Trace("trace id", new ArrayList<>());
+    trace.addSpan(activitySpan);
+    trace.close();
+
+    assertTrue(trace.isClosed());
+    assertFalse(trace.addSpan(networkSpan));
+    assertEquals(1, trace.getSpanList().size());
+  }
+
+  @Test
+  public void getTraceIdByteString_shouldBeCached() {
+    final Trace trace = new Trace("trace id", new ArrayList<>());
+
+    assertEquals(ByteStringConverter.toByteString("trace id"), trace.getTraceIdByteString());
+    assertSame(trace.getTraceIdByteString(), trace.getTraceIdByteString());
+
+    trace.setTraceId("other trace id");
+    assertEquals(ByteStringConverter.toByteString("other trace id"),
+        trace.getTraceIdByteString());
+  }
+
+  @Test
+  public void isLimitReached_spanCount() {
+    final Trace trace = new Trace("trace id", new ArrayList<>());
+    trace.addSpan(activitySpan);
+
+    assertFalse(trace.isLimitReached(2, Long.MAX_VALUE));
+    trace.addSpan(networkSpan);
+    assertTrue(trace.isLimitReached(2, Long.MAX_VALUE));
+    assertEquals(2, trace.getAddedSpanCount());
+  }
+
+  @Test
+  public void isLimitReached_bytes() {
+    final Trace trace = new Trace("trace id", new ArrayList<>());
+    trace.addSpan(activitySpan);
+
+    assertFalse(trace.isLimitReached(Integer.MAX_VALUE, activitySpan.getSerializedSize() + 1));
+    assertTrue(trace.isLimitReached(Integer.MAX_VALUE, activitySpan.getSerializedSize()));
+  }
+
+  @Test
+  public void createNextSegment_shouldKeepIds() {
+    final Trace trace = new Trace("trace id", "session id", new ArrayList<>());
+    trace.addSpan(activitySpan);
+
+    final Trace nextSegment = trace.createNextSegment();
+
+    assertEquals("trace id", nextSegment.getTraceId());
+    assertEquals("session id", nextSegment.getSessionId());
+    assertEquals(1, nextSegment.getSegmentIndex());
+    assertTrue(nextSegment.getSpanList().isEmpty());
+    assertFalse(nextSegment.isLimitReached(1, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void getSegmentId() {
+    final Trace trace = new Trace("trace id", "session id", new ArrayList<>());
+    final Trace nextSegment = trace.createNextSegment();
+
+    assertEquals("trace id", trace.getSegmentId());
+    assertEquals("trace id-1", nextSegment.getSegmentId());
+    assertEquals("trace id-2", nextSegment.createNextSegment().getSegmentId());
+  }
+
+  @Test
+  public void getSpanList_shouldReturnSnapshot() {
+    final Trace trace = new Trace("trace id", new ArrayList<>());
+    trace.addSpan(activitySpan);
+
+    final List<Span> snapshot = trace.getSpanList();
+    trace.addSpan(networkSpan);
+
+    assertEquals(1, snapshot.size());
+    assertEquals(2, trace.getSpanList().size());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void getSpanList_shouldNotBeModifiable() {
+    final Trace trace = new Trace("trace id", new ArrayList<>());
+
+    trace.getSpanList().add(activitySpan);
+  }
+
+  /**
+   * Iterating the Span List, e.g. when a crash is linked to the last view Span, should not fail
+   * while other threads add Spans and read the Span List.
+   */
+  @Test
+  public void getLastActiveViewSpan_whileAddingSpans_shouldNotFail() throws InterruptedException {
+    final Trace trace = new Trace("trace id", new ArrayList<>());
+    trace.addSpan(activitySpan);
+    final AtomicBoolean running = new AtomicBoolean(true);
+    final Thread writer = new Thread(() -> {
+      for (int i = 0; running.get() && i < 10000; i++) {
+        trace.addSpan(networkSpan);
+        trace.getSpanList();
+      }
+    });
+    writer.start();
+
+    try {
+      for (int i = 0; i < 200; i++) {
+        assertEquals(activitySpan, trace.getLastActiveViewSpan());
+      }
+    } finally {
+      running.set(false);
+      writer.join();
+    }
+  }
+
+  /**
+   * Spans added from multiple threads while the Trace is being closed should either be in the
+   * Span List, or should be rejected, none of them should be lost.
+   */
+  @Test
+  public void addSpan_multipleThreads_shouldNotLoseSpans() throws InterruptedException {
+    final int threadCount = 8;
+    final int spansPerThread = 2000;
+    final Trace trace = new Trace("trace id", new ArrayList<>());
+    final AtomicInteger addedCount = new AtomicInteger();
+    final CountDownLatch startLatch = new CountDownLatch(1);
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadCount; i++) {
+      final Thread thread = new Thread(() -> {
+        try {
+          startLatch.await();
+        } catch (final InterruptedException e) {
+          return;
+        }
+        for (int j = 0; j < spansPerThread; j++) {
+          if (trace.addSpan(activitySpan)) {
+            addedCount.incrementAndGet();
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    startLatch.countDown();
+    while (addedCount.get() < threadCount * spansPerThread / 2) {
+      Thread.yield();
+    }
+    trace.close();
+    final int spanCountAfterClose = trace.getSpanList().size();
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(addedCount.get(), spanCountAfterClose);
+    assertEquals(addedCount.get(), trace.getSpanList().size());
+  }
+}
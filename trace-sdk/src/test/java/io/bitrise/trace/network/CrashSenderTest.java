@@ -2,6 +2,8 @@ package io.bitrise.trace.network;
 
 import static java.lang.Thread.sleep;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -24,10 +26,12 @@ public class CrashSenderTest {
 
   final NetworkCommunicator mockCommunicator = Mockito.mock(NetworkCommunicator.class);
   final DataStorage mockDataStorage = Mockito.mock(DataStorage.class);
+  final RetryPolicy mockRetryPolicy = Mockito.mock(RetryPolicy.class);
 
   @Before
   public void setup() {
     NetworkClient.networkCommunicator = mockCommunicator;
+    Mockito.when(mockRetryPolicy.isAttemptAllowed(RetryPolicy.Endpoint.CRASHES)).thenReturn(true);
   }
 
   @After
@@ -38,7 +42,8 @@ public class CrashSenderTest {
   @Test
   public void send_isSuccessful() throws InterruptedException {
     final CrashSender sender = new CrashSender(
-        CrashTestDataProvider.createCrashRequestWithUuid("uuid1"), mockDataStorage);
+        CrashTestDataProvider.createCrashRequestWithUuid("uuid1"), mockDataStorage,
+        mockRetryPolicy);
 
     final Call<Void> mockedCall = Mockito.mock(Call.class);
     Mockito.when(mockCommunicator.sendCrash(any())).thenReturn(mockedCall);
@@ -58,12 +63,14 @@ public class CrashSenderTest {
     // the request should be removed
     verify(mockDataStorage, times(1))
         .deleteCrashRequest("uuid1");
+    verify(mockRetryPolicy, times(1)).onSuccess(RetryPolicy.Endpoint.CRASHES);
   }
 
   @Test
   public void send_isNotSuccessful() throws InterruptedException {
     final CrashSender sender = new CrashSender(
-        CrashTestDataProvider.createCrashRequestWithUuid("uuid2"), mockDataStorage);
+        CrashTestDataProvider.createCrashRequestWithUuid("uuid2"), mockDataStorage,
+        mockRetryPolicy);
 
     final Call<Void> mockedCall = Mockito.mock(Call.class);
     Mockito.when(mockCommunicator.sendCrash(any())).thenReturn(mockedCall);
@@ -84,12 +91,14 @@ public class CrashSenderTest {
     // the request should be removed
     verify(mockDataStorage, times(1))
         .updateCrashRequestSentAttemptCounter("uuid2");
+    verify(mockRetryPolicy, times(1)).onFailure(eq(RetryPolicy.Endpoint.CRASHES), any());
   }
 
   @Test
   public void send_onFailure() throws InterruptedException {
     final CrashSender sender = new CrashSender(
-        CrashTestDataProvider.createCrashRequestWithUuid("uuid3"), mockDataStorage);
+        CrashTestDataProvider.createCrashRequestWithUuid("uuid3"), mockDataStorage,
+        mockRetryPolicy);
 
     final Call<Void> mockedCall = Mockito.mock(Call.class);
     Mockito.when(mockCommunicator.sendCrash(any())).thenReturn(mockedCall);
@@ -109,6 +118,20 @@ public class CrashSenderTest {
     // the request should be removed
     verify(mockDataStorage, times(1))
         .updateCrashRequestSentAttemptCounter("uuid3");
+    verify(mockRetryPolicy, times(1)).onNetworkError(RetryPolicy.Endpoint.CRASHES);
+  }
+
+  @Test
+  public void send_retryPolicyDoesNotAllow() {
+    Mockito.when(mockRetryPolicy.isAttemptAllowed(RetryPolicy.Endpoint.CRASHES)).thenReturn(false);
+    final CrashSender sender = new CrashSender(
+        CrashTestDataProvider.createCrashRequestWithUuid("uuid4"), mockDataStorage,
+        mockRetryPolicy);
+
+    sender.send();
+
+    verify(mockCommunicator, never()).sendCrash(any());
+    verify(mockDataStorage, never()).updateCrashRequestSentAttemptCounter(any());
   }
 
 }
@@ -0,0 +1,72 @@
+package io.bitrise.trace.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.junit.Test;
+import retrofit2.Response;
+
+/**
+ * Unit tests for {@link DrainBudget}.
+ */
+public class DrainBudgetTest {
+
+  private static final long LONG_MAX_DURATION_MS = 60000;
+
+  @Test
+  public void onBatchSent_shouldCountBatchesAndBytes() {
+    final DrainBudget drainBudget = new DrainBudget(100, LONG_MAX_DURATION_MS);
+
+    drainBudget.onBatchSent(10);
+    drainBudget.onBatchSent(20);
+
+    assertEquals(2, drainBudget.getBatchCount());
+    assertEquals(30, drainBudget.getSentBytes());
+    assertFalse(drainBudget.isExhausted());
+  }
+
+  @Test
+  public void isExhausted_byteBudgetReached() {
+    final DrainBudget drainBudget = new DrainBudget(100, LONG_MAX_DURATION_MS);
+
+    drainBudget.onBatchSent(60);
+    drainBudget.onBatchSent(40);
+
+    assertTrue(drainBudget.isExhausted());
+  }
+
+  @Test
+  public void isExhausted_timeBudgetReached() throws InterruptedException {
+    final DrainBudget drainBudget = new DrainBudget(100, 10);
+
+    Thread.sleep(20);
+
+    assertTrue(drainBudget.isExhausted());
+  }
+
+  @Test
+  public void getRequestSize_shouldReturnContentLength() {
+    final Request request = new Request.Builder()
+        .url("http://bitrise.io")
+        .post(RequestBody.create(MediaType.get("application/json"), "{\"key\":1}"))
+        .build();
+    final okhttp3.Response rawResponse = new okhttp3.Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(200)
+        .message("OK")
+        .build();
+
+    assertEquals(9, DrainBudget.getRequestSize(Response.success(null, rawResponse)));
+  }
+
+  @Test
+  public void getRequestSize_noBody_shouldReturnZero() {
+    assertEquals(0, DrainBudget.getRequestSize(Response.success(null)));
+  }
+}
@@ -0,0 +1,119 @@
+package io.bitrise.trace.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.GzipSource;
+import okio.Okio;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link GzipRequestInterceptor}, checking the bytes received by a local
+ * {@link MockWebServer}.
+ */
+public class GzipRequestInterceptorTest {
+
+  private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+  private static final long MIN_SIZE_BYTES = 64;
+
+  private MockWebServer mockWebServer;
+  private OkHttpClient client;
+
+  @Before
+  public void setUp() throws IOException {
+    mockWebServer = new MockWebServer();
+    mockWebServer.start();
+    client = new OkHttpClient.Builder()
+        .addInterceptor(new GzipRequestInterceptor(MIN_SIZE_BYTES))
+        .build();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    mockWebServer.shutdown();
+  }
+
+  @Test
+  public void intercept_largeBody_shouldBeCompressed() throws Exception {
+    final String body = createRepetitiveJson(100);
+
+    final RecordedRequest recordedRequest = post(body);
+
+    assertEquals("gzip", recordedRequest.getHeader("Content-Encoding"));
+    assertEquals(String.valueOf(recordedRequest.getBodySize()),
+        recordedRequest.getHeader("Content-Length"));
+    assertTrue(recordedRequest.getBodySize() < body.length());
+    assertEquals(body, decompress(recordedRequest.getBody()));
+  }
+
+  @Test
+  public void intercept_smallBody_shouldNotBeCompressed() throws Exception {
+    final String body = "{\"key\":\"value\"}";
+
+    final RecordedRequest recordedRequest = post(body);
+
+    assertNull(recordedRequest.getHeader("Content-Encoding"));
+    assertEquals(body, recordedRequest.getBody().readUtf8());
+  }
+
+  @Test
+  public void intercept_noBody_shouldNotBeCompressed() throws Exception {
+    mockWebServer.enqueue(new MockResponse());
+    final Request request = new Request.Builder().url(mockWebServer.url("/")).build();
+    try (Response response = client.newCall(request).execute()) {
+      assertTrue(response.isSuccessful());
+    }
+
+    final RecordedRequest recordedRequest = mockWebServer.takeRequest();
+
+    assertNull(recordedRequest.getHeader("Content-Encoding"));
+    assertEquals(0, recordedRequest.getBodySize());
+  }
+
+  /**
+   * Posts the given body to the {@link #mockWebServer}.
+   *
+   * @param body the body to send.
+   * @return the request received by the server.
+   * @throws Exception if the request fails.
+   */
+  private RecordedRequest post(final String body) throws Exception {
+    mockWebServer.enqueue(new MockResponse());
+    final Request request = new Request.Builder()
+        .url(mockWebServer.url("/"))
+        .post(RequestBody.create(JSON, body))
+        .build();
+    try (Response response = client.newCall(request).execute()) {
+      assertTrue(response.isSuccessful());
+    }
+    return mockWebServer.takeRequest();
+  }
+
+  private static String createRepetitiveJson(final int count) {
+    final StringBuilder stringBuilder = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        stringBuilder.append(',');
+      }
+      stringBuilder.append("{\"label_key\":\"app.start.state\",\"value\":").append(i).append('}');
+    }
+    return stringBuilder.append(']').toString();
+  }
+
+  private static String decompress(final Buffer compressed) throws IOException {
+    return Okio.buffer(new GzipSource(compressed)).readUtf8();
+  }
+}
@@ -6,8 +6,13 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -17,6 +22,7 @@ import android.app.job.JobParameters;
 import android.app.job.JobService;
 import android.content.ComponentName;
 import com.google.common.util.concurrent.SettableFuture;
+import io.bitrise.trace.configuration.ConfigurationManager;
 import io.bitrise.trace.data.collector.device.DeviceOsVersionDataCollector;
 import io.bitrise.trace.data.collector.network.okhttp.OkHttpDataListener;
 import io.bitrise.trace.data.management.DataManager;
@@ -28,10 +34,13 @@ import io.bitrise.trace.test.MetricTestProvider;
 import io.opencensus.proto.metrics.v1.Metric;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -59,7 +68,7 @@ public class MetricSenderTest {
 
   @Test
   public void needReschedule_shouldBeFalse() {
-    when(mockDataStorage.getAllMetrics()).thenReturn(Collections.emptyList());
+    when(mockDataStorage.hasMetrics()).thenReturn(false);
     when(mockDataManager.getActiveDataCollectors()).thenReturn(Collections.emptySet());
     when(mockDataManager.getActiveDataListeners()).thenReturn(Collections.emptySet());
 
@@ -68,8 +77,7 @@ public class MetricSenderTest {
 
   @Test
   public void needReschedule_shouldBeTrue_hasMetrics() {
-    when(mockDataStorage.getAllMetrics()).thenReturn(
-        Collections.singletonList(new MetricEntity(MetricTestProvider.getEmptyMetric())));
+    when(mockDataStorage.hasMetrics()).thenReturn(true);
     when(mockDataManager.getActiveDataCollectors()).thenReturn(Collections.emptySet());
     when(mockDataManager.getActiveDataListeners()).thenReturn(Collections.emptySet());
 
@@ -78,7 +86,7 @@ public class MetricSenderTest {
 
   @Test
   public void needReschedule_shouldBeTrue_hasActiveCollector() {
-    when(mockDataStorage.getAllMetrics()).thenReturn(Collections.emptyList());
+    when(mockDataStorage.hasMetrics()).thenReturn(false);
     when(mockDataManager.getActiveDataCollectors()).thenReturn(
         Collections.singleton(new DeviceOsVersionDataCollector()));
     when(mockDataManager.getActiveDataListeners()).thenReturn(Collections.emptySet());
@@ -88,7 +96,7 @@ public class MetricSenderTest {
 
   @Test
   public void needReschedule_shouldBeTrue_hasActiveListener() {
-    when(mockDataStorage.getAllMetrics()).thenReturn(Collections.emptyList());
+    when(mockDataStorage.hasMetrics()).thenReturn(false);
     when(mockDataManager.getActiveDataCollectors()).thenReturn(Collections.emptySet());
     when(mockDataManager.getActiveDataListeners()).thenReturn(
         Collections.singleton(mock(OkHttpDataListener.class)));
@@ -98,8 +106,7 @@ public class MetricSenderTest {
 
   @Test
   public void needReschedule_shouldBeTrue_hasAll() {
-    when(mockDataStorage.getAllMetrics()).thenReturn(
-        Collections.singletonList(new MetricEntity(MetricTestProvider.getEmptyMetric())));
+    when(mockDataStorage.hasMetrics()).thenReturn(true);
     when(mockDataManager.getActiveDataCollectors()).thenReturn(
         Collections.singleton(new DeviceOsVersionDataCollector()));
     when(mockDataManager.getActiveDataListeners()).thenReturn(
@@ -206,24 +213,126 @@ public class MetricSenderTest {
     assertEquals(DataSender.Result.FAILURE, settableFuture.get());
   }
 
+  @Test
+  public void send_shouldDrainUntilNoMoreData() throws Exception {
+    final MetricSender drainingSender = createDrainingSender();
+    doReturn(createMetricRequest(), createMetricRequest(), createMetricRequest(), null)
+        .when(drainingSender).getNetworkRequest();
+    doReturn(Response.success(null)).when(drainingSender).executeRequest(any());
+
+    final DataSender.Result result = drainingSender.send(mockJobParameters).get();
+
+    assertEquals(DataSender.Result.SUCCESS, result);
+    assertEquals(3, drainingSender.getDrainedBatchCount());
+    verify(drainingSender, times(3)).onSuccess();
+  }
+
+  @Test
+  public void send_failedBatch_shouldStopDraining() throws Exception {
+    final MetricSender drainingSender = createDrainingSender();
+    doReturn(createMetricRequest(), createMetricRequest(), createMetricRequest())
+        .when(drainingSender).getNetworkRequest();
+    doReturn(Response.success(null),
+        Response.error(500, ResponseBody.create(MediaType.get("text/plain"), "")))
+        .when(drainingSender).executeRequest(any());
+
+    final DataSender.Result result = drainingSender.send(mockJobParameters).get();
+
+    assertEquals(DataSender.Result.FAILURE, result);
+    assertEquals(1, drainingSender.getDrainedBatchCount());
+    verify(drainingSender, times(1)).onSuccess();
+    verify(drainingSender.getRetryPolicy(), times(1))
+        .onFailure(eq(RetryPolicy.Endpoint.METRICS), any(Response.class));
+  }
+
+  @Test
+  public void send_retryPolicyDoesNotAllow_shouldNotSend() throws Exception {
+    final MetricSender drainingSender = createDrainingSender();
+    when(drainingSender.getRetryPolicy().isAttemptAllowed(RetryPolicy.Endpoint.METRICS))
+        .thenReturn(false);
+    doReturn(createMetricRequest()).when(drainingSender).getNetworkRequest();
+
+    final DataSender.Result result = drainingSender.send(mockJobParameters).get();
+
+    assertEquals(DataSender.Result.FAILURE, result);
+    verify(drainingSender, never()).executeRequest(any());
+  }
+
+  @Test
+  public void finishSending_retryDelayed_shouldScheduleNextRun() {
+    final MetricSender drainingSender = createDrainingSender();
+    doReturn(true).when(drainingSender).isRescheduleNeeded();
+    doNothing().when(drainingSender).scheduleNextRun(anyLong(), anyBoolean());
+    when(drainingSender.getRetryPolicy().getRemainingDelayMs(RetryPolicy.Endpoint.METRICS))
+        .thenReturn(1000L);
+
+    drainingSender.finishSending(mockJobParameters, new DrainBudget());
+
+    verify(drainingSender, times(1)).onSendingFinished(mockJobParameters, false);
+    verify(drainingSender, times(1)).scheduleNextRun(1000L, false);
+  }
+
+  @Test
+  public void finishSending_drainBudgetExhausted_shouldScheduleBacklog() {
+    final MetricSender drainingSender = createDrainingSender();
+    doReturn(true).when(drainingSender).isRescheduleNeeded();
+    doReturn(true).when(drainingSender).hasData();
+    doNothing().when(drainingSender).scheduleNextRun(anyLong(), anyBoolean());
+    final DrainBudget exhaustedDrainBudget =
+        new DrainBudget(1, DrainBudget.DEFAULT_MAX_DURATION_MS);
+    exhaustedDrainBudget.onBatchSent(1);
+
+    drainingSender.finishSending(mockJobParameters, exhaustedDrainBudget);
+
+    verify(drainingSender, times(1)).scheduleNextRun(0L, true);
+  }
+
+  @Test
+  public void finishSending_noRescheduleNeeded_shouldNotScheduleNextRun() {
+    final MetricSender drainingSender = createDrainingSender();
+
+    drainingSender.finishSending(mockJobParameters, new DrainBudget());
+
+    verify(drainingSender, times(1)).onSendingFinished(mockJobParameters, false);
+    verify(drainingSender, never()).scheduleNextRun(anyLong(), anyBoolean());
+  }
+
   @Test
   public void onStartJob() {
     final MetricSender mockMetricSender = Mockito.mock(MetricSender.class,
         Mockito.CALLS_REAL_METHODS);
+    doNothing().when(mockMetricSender).cancelOtherRun(mockJobParameters);
     boolean serviceShouldContinue = mockMetricSender.onStartJob(mockJobParameters);
 
     assertTrue(serviceShouldContinue);
+    verify(mockMetricSender, times(1)).cancelOtherRun(mockJobParameters);
     verify(mockMetricSender, times(1)).send(mockJobParameters);
   }
 
   @Test
   public void getNetworkRequest_noItems() {
-    when(mockDataStorage.getFirstMetricGroup())
+    when(mockDataStorage.getFirstMetricGroup(RequestChunker.DEFAULT_MAX_ITEM_COUNT))
         .thenReturn(new ArrayList<>());
 
     assertNull(metricSender.getNetworkRequest());
   }
 
+  @Test
+  public void getNetworkRequest_largeGroup_shouldBeChunked() {
+    final List<MetricEntity> metricGroup = new ArrayList<>();
+    for (int i = 0; i < RequestChunker.DEFAULT_MAX_ITEM_COUNT + 10; i++) {
+      metricGroup.add(new MetricEntity(MetricTestProvider.getApplicationStartUpMetric()));
+    }
+    when(mockDataStorage.getFirstMetricGroup(RequestChunker.DEFAULT_MAX_ITEM_COUNT))
+        .thenReturn(metricGroup);
+
+    metricSender.getNetworkRequest();
+
+    assertEquals(RequestChunker.DEFAULT_MAX_ITEM_COUNT, metricSender.getMetricEntityList().size());
+    assertEquals(metricGroup.subList(0, RequestChunker.DEFAULT_MAX_ITEM_COUNT),
+        metricSender.getMetricEntityList());
+  }
+
   @Test
   public void getMetricEntityList_hasNoItems() {
     metricSender.setMetricEntityList(null);
@@ -238,4 +347,21 @@ public class MetricSenderTest {
 
     assertEquals(metricList, metricSender.getMetricEntityList());
   }
-}
\ No newline at end of file
+
+  private MetricSender createDrainingSender() {
+    ConfigurationManager.getDebugInstance("token", new HashMap<>());
+    final MetricSender drainingSender = spy(new MetricSender());
+    doNothing().when(drainingSender).onSuccess();
+    doNothing().when(drainingSender).onSendingFinished(any(), anyBoolean());
+    doReturn(false).when(drainingSender).isRescheduleNeeded();
+    final RetryPolicy mockRetryPolicy = mock(RetryPolicy.class);
+    when(mockRetryPolicy.isAttemptAllowed(any())).thenReturn(true);
+    drainingSender.setRetryPolicy(mockRetryPolicy);
+    return drainingSender;
+  }
+
+  private MetricRequest createMetricRequest() {
+    return new MetricRequest(DataTestUtils.getSampleResource("sessionId"),
+        Collections.singletonList(MetricTestProvider.getSampleMetric()));
+  }
+}
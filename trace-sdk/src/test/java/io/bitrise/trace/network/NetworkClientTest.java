@@ -2,6 +2,7 @@ package io.bitrise.trace.network;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -32,6 +33,14 @@ public class NetworkClientTest {
     assertThat(actualValue, is(expectedValue));
   }
 
+  /**
+   * Checks that the same Gson instance is returned on subsequent calls.
+   */
+  @Test
+  public void getGson_shouldReturnSameInstance() {
+    assertSame(NetworkClient.getGson(), NetworkClient.getGson());
+  }
+
   /**
    * Checks that the result of the {@link NetworkClient#getContentLength(Interceptor.Chain)}
    * should be equal with the value of {@link RequestBody#contentLength()} in the
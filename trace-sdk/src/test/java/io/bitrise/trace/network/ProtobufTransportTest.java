@@ -0,0 +1,166 @@
+package io.bitrise.trace.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.bitrise.trace.test.DataTestUtils;
+import io.bitrise.trace.test.MetricTestProvider;
+import io.bitrise.trace.test.TraceTestProvider;
+import io.opencensus.proto.agent.metrics.v1.ExportMetricsServiceRequest;
+import io.opencensus.proto.agent.trace.v1.ExportTraceServiceRequest;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Response;
+
+/**
+ * Unit tests for sending the Metrics and Traces in the binary protobuf format, checking the
+ * requests received by a local {@link MockWebServer}.
+ */
+public class ProtobufTransportTest {
+
+  private static final String CONTENT_TYPE_JSON = "application/vnd.bitrise.trace-v1+json";
+
+  private MockWebServer mockWebServer;
+  private NetworkCommunicator networkCommunicator;
+
+  @Before
+  public void setUp() throws IOException {
+    mockWebServer = new MockWebServer();
+    mockWebServer.start();
+    networkCommunicator =
+        NetworkClient.buildRetrofit(new OkHttpClient(), mockWebServer.url("/").toString())
+                     .create(NetworkCommunicator.class);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    NetworkClient.setProtobufTransportEnabled(false);
+    mockWebServer.shutdown();
+  }
+
+  @Test
+  public void sendMetrics_protobufEnabled_shouldSendBinaryBody() throws Exception {
+    NetworkClient.setProtobufTransportEnabled(true);
+    mockWebServer.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_ACCEPTED));
+    final MetricRequest metricRequest = DataTestUtils.getMetricRequest(
+        Collections.singletonList(MetricTestProvider.getSampleMetric()));
+
+    final Response<Void> response = createMetricSender().executeRequest(metricRequest);
+
+    assertTrue(response.isSuccessful());
+    final RecordedRequest recordedRequest = mockWebServer.takeRequest();
+    assertEquals(ProtobufConverterFactory.MEDIA_TYPE_PROTOBUF,
+        recordedRequest.getHeader("Content-Type"));
+    assertEquals(metricRequest.toExportRequest(),
+        ExportMetricsServiceRequest.parseFrom(recordedRequest.getBody().readByteArray()));
+  }
+
+  @Test
+  public void sendTraces_protobufEnabled_shouldSendBinaryBody() throws Exception {
+    NetworkClient.setProtobufTransportEnabled(true);
+    mockWebServer.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_ACCEPTED));
+    final TraceRequest traceRequest = new TraceRequest(DataTestUtils.getSampleResource(null),
+        Collections.singletonList(TraceTestProvider.createNetworkSpan()));
+
+    final Response<Void> response = createTraceSender().executeRequest(traceRequest);
+
+    assertTrue(response.isSuccessful());
+    final RecordedRequest recordedRequest = mockWebServer.takeRequest();
+    assertEquals(ProtobufConverterFactory.MEDIA_TYPE_PROTOBUF,
+        recordedRequest.getHeader("Content-Type"));
+    assertEquals(traceRequest.toExportRequest(),
+        ExportTraceServiceRequest.parseFrom(recordedRequest.getBody().readByteArray()));
+  }
+
+  @Test
+  public void sendMetrics_protobufRejected_shouldFallBackToJson() throws Exception {
+    NetworkClient.setProtobufTransportEnabled(true);
+    mockWebServer.enqueue(
+        new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNSUPPORTED_TYPE));
+    mockWebServer.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_ACCEPTED));
+    final MetricRequest metricRequest = DataTestUtils.getMetricRequest(
+        Collections.singletonList(MetricTestProvider.getSampleMetric()));
+
+    final Response<Void> response = createMetricSender().executeRequest(metricRequest);
+
+    assertTrue(response.isSuccessful());
+    assertEquals(2, mockWebServer.getRequestCount());
+    assertEquals(ProtobufConverterFactory.MEDIA_TYPE_PROTOBUF,
+        mockWebServer.takeRequest().getHeader("Content-Type"));
+    final RecordedRequest jsonRequest = mockWebServer.takeRequest();
+    assertEquals(CONTENT_TYPE_JSON, jsonRequest.getHeader("Content-Type"));
+    assertEquals(NetworkClient.getGson().toJson(metricRequest),
+        jsonRequest.getBody().readUtf8());
+    assertFalse(NetworkClient.isProtobufTransportEnabled());
+  }
+
+  @Test
+  public void sendMetrics_protobufServerError_shouldNotFallBack() throws Exception {
+    NetworkClient.setProtobufTransportEnabled(true);
+    mockWebServer.enqueue(
+        new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE));
+    final MetricRequest metricRequest = DataTestUtils.getMetricRequest(
+        Collections.singletonList(MetricTestProvider.getSampleMetric()));
+
+    final Response<Void> response = createMetricSender().executeRequest(metricRequest);
+
+    assertEquals(HttpURLConnection.HTTP_UNAVAILABLE, response.code());
+    assertEquals(1, mockWebServer.getRequestCount());
+    assertTrue(NetworkClient.isProtobufTransportEnabled());
+  }
+
+  @Test
+  public void sendMetrics_protobufBadRequest_shouldNotFallBack() throws Exception {
+    NetworkClient.setProtobufTransportEnabled(true);
+    mockWebServer.enqueue(
+        new MockResponse().setResponseCode(HttpURLConnection.HTTP_BAD_REQUEST));
+    final MetricRequest metricRequest = DataTestUtils.getMetricRequest(
+        Collections.singletonList(MetricTestProvider.getSampleMetric()));
+
+    final Response<Void> response = createMetricSender().executeRequest(metricRequest);
+
+    assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, response.code());
+    assertEquals(1, mockWebServer.getRequestCount());
+    assertTrue(NetworkClient.isProtobufTransportEnabled());
+  }
+
+  @Test
+  public void checkProtobufTransportRejected_notAcceptable() {
+    NetworkClient.setProtobufTransportEnabled(true);
+
+    assertTrue(NetworkClient.checkProtobufTransportRejected(HttpURLConnection.HTTP_NOT_ACCEPTABLE));
+    assertFalse(NetworkClient.isProtobufTransportEnabled());
+  }
+
+  @Test
+  public void sendMetrics_protobufDisabled_shouldSendJson() throws Exception {
+    mockWebServer.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_ACCEPTED));
+    final MetricRequest metricRequest = DataTestUtils.getMetricRequest(
+        Collections.singletonList(MetricTestProvider.getSampleMetric()));
+
+    createMetricSender().executeRequest(metricRequest);
+
+    assertEquals(CONTENT_TYPE_JSON, mockWebServer.takeRequest().getHeader("Content-Type"));
+  }
+
+  private MetricSender createMetricSender() {
+    final MetricSender metricSender = new MetricSender();
+    metricSender.setNetworkCommunicator(networkCommunicator);
+    return metricSender;
+  }
+
+  private TraceSender createTraceSender() {
+    final TraceSender traceSender = new TraceSender();
+    traceSender.setNetworkCommunicator(networkCommunicator);
+    return traceSender;
+  }
+}
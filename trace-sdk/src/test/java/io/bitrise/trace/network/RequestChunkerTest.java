@@ -0,0 +1,73 @@
+package io.bitrise.trace.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RequestChunker}.
+ */
+public class RequestChunkerTest {
+
+  /**
+   * Measures the test elements, the value of the element is used as the byte size, every
+   * element counts as two items.
+   */
+  private static final RequestChunker.Measurer<Integer> measurer =
+      new RequestChunker.Measurer<Integer>() {
+        @Override
+        public int getItemCount(@NonNull final Integer element) {
+          return 2;
+        }
+
+        @Override
+        public long getByteSize(@NonNull final Integer element) {
+          return element;
+        }
+      };
+
+  @Test
+  public void takeChunk_empty_shouldReturnEmpty() {
+    final RequestChunker requestChunker = new RequestChunker(10, 100);
+
+    assertTrue(requestChunker.takeChunk(new ArrayList<Integer>(), measurer).isEmpty());
+  }
+
+  @Test
+  public void takeChunk_withinLimits_shouldReturnAll() {
+    final RequestChunker requestChunker = new RequestChunker(10, 100);
+    final List<Integer> elements = Arrays.asList(10, 20, 30);
+
+    assertEquals(elements, requestChunker.takeChunk(elements, measurer));
+  }
+
+  @Test
+  public void takeChunk_byteLimitReached_shouldReturnPrefix() {
+    final RequestChunker requestChunker = new RequestChunker(10, 100);
+    final List<Integer> elements = Arrays.asList(40, 50, 20, 5);
+
+    assertEquals(Arrays.asList(40, 50), requestChunker.takeChunk(elements, measurer));
+  }
+
+  @Test
+  public void takeChunk_itemLimitReached_shouldReturnPrefix() {
+    final RequestChunker requestChunker = new RequestChunker(5, 100);
+    final List<Integer> elements = Arrays.asList(1, 2, 3, 4);
+
+    assertEquals(Arrays.asList(1, 2), requestChunker.takeChunk(elements, measurer));
+  }
+
+  @Test
+  public void takeChunk_oversizedFirstElement_shouldReturnIt() {
+    final RequestChunker requestChunker = new RequestChunker(10, 100);
+    final List<Integer> elements = Arrays.asList(500, 10);
+
+    assertEquals(Collections.singletonList(500), requestChunker.takeChunk(elements, measurer));
+  }
+}
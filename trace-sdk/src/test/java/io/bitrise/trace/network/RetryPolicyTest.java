@@ -0,0 +1,292 @@
+package io.bitrise.trace.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Headers;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RetryPolicy}.
+ */
+public class RetryPolicyTest {
+
+  private static final long START_TIME_MS = 1600000000000L;
+  private static final RetryPolicy.Endpoint ENDPOINT = RetryPolicy.Endpoint.METRICS;
+
+  private final InMemoryStore store = new InMemoryStore();
+  private long currentTimeMs;
+  private RetryPolicy retryPolicy;
+
+  /**
+   * Creates a RetryPolicy with a fixed clock and a jitter of 0.
+   */
+  @Before
+  public void setUp() {
+    currentTimeMs = START_TIME_MS;
+    retryPolicy = createRetryPolicy(0);
+  }
+
+  @Test
+  public void isAttemptAllowed_noFailures() {
+    assertTrue(retryPolicy.isAttemptAllowed(ENDPOINT));
+    assertEquals(0, retryPolicy.getRemainingDelayMs(ENDPOINT));
+  }
+
+  @Test
+  public void onFailure_shouldDelayNextAttempt() {
+    final long delayMs = retryPolicy.onFailure(ENDPOINT, 500, null);
+
+    assertEquals(RetryPolicy.BASE_DELAY_MS / 2, delayMs);
+    assertFalse(retryPolicy.isAttemptAllowed(ENDPOINT));
+    assertEquals(delayMs, retryPolicy.getRemainingDelayMs(ENDPOINT));
+
+    currentTimeMs += delayMs;
+    assertTrue(retryPolicy.isAttemptAllowed(ENDPOINT));
+  }
+
+  @Test
+  public void onFailure_shouldNotAffectOtherEndpoints() {
+    retryPolicy.onFailure(ENDPOINT, 500, null);
+
+    assertTrue(retryPolicy.isAttemptAllowed(RetryPolicy.Endpoint.TRACES));
+  }
+
+  @Test
+  public void getBackoffDelayMs_shouldGrowExponentially() {
+    assertEquals(RetryPolicy.BASE_DELAY_MS / 2, retryPolicy.getBackoffDelayMs(1));
+    assertEquals(RetryPolicy.BASE_DELAY_MS, retryPolicy.getBackoffDelayMs(2));
+    assertEquals(RetryPolicy.BASE_DELAY_MS * 2, retryPolicy.getBackoffDelayMs(3));
+  }
+
+  @Test
+  public void getBackoffDelayMs_shouldBeCapped() {
+    assertEquals(RetryPolicy.MAX_BACKOFF_MS / 2, retryPolicy.getBackoffDelayMs(100));
+  }
+
+  @Test
+  public void getBackoffDelayMs_shouldAddJitter() {
+    final RetryPolicy jitteredRetryPolicy = createRetryPolicy(0.5);
+
+    assertEquals(RetryPolicy.BASE_DELAY_MS * 3 / 4, jitteredRetryPolicy.getBackoffDelayMs(1));
+  }
+
+  @Test
+  public void onFailure_retryAfter_shouldBeHonoured() {
+    final long delayMs = retryPolicy.onFailure(ENDPOINT, 429,
+        Headers.of(RetryPolicy.RETRY_AFTER_HEADER, "120"));
+
+    assertEquals(TimeUnit.SECONDS.toMillis(120), delayMs);
+    assertEquals(delayMs, retryPolicy.getRemainingDelayMs(ENDPOINT));
+  }
+
+  @Test
+  public void getRetryAfterMs_seconds() {
+    assertEquals(TimeUnit.SECONDS.toMillis(30), RetryPolicy.getRetryAfterMs("30", START_TIME_MS));
+  }
+
+  @Test
+  public void getRetryAfterMs_httpDate() {
+    final Headers headers = new Headers.Builder()
+        .set(RetryPolicy.RETRY_AFTER_HEADER, new Date(START_TIME_MS + 60000))
+        .build();
+
+    assertEquals(60000, RetryPolicy.getRetryAfterMs(
+        headers.get(RetryPolicy.RETRY_AFTER_HEADER), START_TIME_MS));
+  }
+
+  @Test
+  public void getRetryAfterMs_shouldBeCapped() {
+    assertEquals(RetryPolicy.MAX_RETRY_AFTER_MS,
+        RetryPolicy.getRetryAfterMs("31536000", START_TIME_MS));
+  }
+
+  @Test
+  public void getRetryAfterMs_invalid() {
+    assertEquals(-1, RetryPolicy.getRetryAfterMs(null, START_TIME_MS));
+    assertEquals(-1, RetryPolicy.getRetryAfterMs("soon", START_TIME_MS));
+  }
+
+  @Test
+  public void onFailure_repeatedServerErrors_shouldOpenCircuit() {
+    long delayMs = 0;
+    for (int i = 0; i < RetryPolicy.CIRCUIT_BREAKER_THRESHOLD; i++) {
+      assertFalse(retryPolicy.isCircuitOpen(ENDPOINT));
+      delayMs = retryPolicy.onFailure(ENDPOINT, 503, null);
+    }
+
+    assertTrue(retryPolicy.isCircuitOpen(ENDPOINT));
+    assertEquals(RetryPolicy.CIRCUIT_OPEN_MS, delayMs);
+  }
+
+  @Test
+  public void onFailure_clientError_shouldNotOpenCircuit() {
+    for (int i = 0; i < RetryPolicy.CIRCUIT_BREAKER_THRESHOLD - 1; i++) {
+      retryPolicy.onFailure(ENDPOINT, 500, null);
+    }
+    retryPolicy.onFailure(ENDPOINT, 400, null);
+    retryPolicy.onFailure(ENDPOINT, 500, null);
+
+    assertFalse(retryPolicy.isCircuitOpen(ENDPOINT));
+  }
+
+  @Test
+  public void onNetworkError_shouldNotOpenCircuit() {
+    for (int i = 0; i < RetryPolicy.CIRCUIT_BREAKER_THRESHOLD; i++) {
+      retryPolicy.onNetworkError(ENDPOINT);
+    }
+
+    assertFalse(retryPolicy.isCircuitOpen(ENDPOINT));
+    assertFalse(retryPolicy.isAttemptAllowed(ENDPOINT));
+  }
+
+  @Test
+  public void onSuccess_shouldResetState() {
+    for (int i = 0; i < RetryPolicy.CIRCUIT_BREAKER_THRESHOLD; i++) {
+      retryPolicy.onFailure(ENDPOINT, 500, null);
+    }
+
+    retryPolicy.onSuccess(ENDPOINT);
+
+    assertFalse(retryPolicy.isCircuitOpen(ENDPOINT));
+    assertTrue(retryPolicy.isAttemptAllowed(ENDPOINT));
+    assertEquals(RetryPolicy.BASE_DELAY_MS / 2, retryPolicy.onFailure(ENDPOINT, 500, null));
+  }
+
+  @Test
+  public void isAttemptAllowed_halfOpenCircuit_shouldAllowSingleProbe() {
+    openCircuit();
+    assertFalse(retryPolicy.isAttemptAllowed(ENDPOINT));
+    currentTimeMs += RetryPolicy.CIRCUIT_OPEN_MS;
+
+    assertTrue(retryPolicy.isAttemptAllowed(ENDPOINT));
+    assertFalse(retryPolicy.isAttemptAllowed(ENDPOINT));
+    assertFalse(createRetryPolicy(0).isAttemptAllowed(ENDPOINT));
+  }
+
+  @Test
+  public void onSuccess_probe_shouldCloseCircuit() {
+    openCircuit();
+    currentTimeMs += RetryPolicy.CIRCUIT_OPEN_MS;
+    assertTrue(retryPolicy.isAttemptAllowed(ENDPOINT));
+
+    retryPolicy.onSuccess(ENDPOINT);
+
+    assertFalse(retryPolicy.isCircuitOpen(ENDPOINT));
+    assertTrue(retryPolicy.isAttemptAllowed(ENDPOINT));
+    assertTrue(retryPolicy.isAttemptAllowed(ENDPOINT));
+  }
+
+  @Test
+  public void onFailure_probe_shouldOpenCircuitAgain() {
+    openCircuit();
+    currentTimeMs += RetryPolicy.CIRCUIT_OPEN_MS;
+    assertTrue(retryPolicy.isAttemptAllowed(ENDPOINT));
+
+    assertEquals(RetryPolicy.CIRCUIT_OPEN_MS, retryPolicy.onFailure(ENDPOINT, 503, null));
+
+    assertTrue(retryPolicy.isCircuitOpen(ENDPOINT));
+    assertFalse(retryPolicy.isAttemptAllowed(ENDPOINT));
+  }
+
+  @Test
+  public void isAttemptAllowed_probeTimedOut_shouldAllowNextProbe() {
+    openCircuit();
+    currentTimeMs += RetryPolicy.CIRCUIT_OPEN_MS;
+    assertTrue(retryPolicy.isAttemptAllowed(ENDPOINT));
+
+    currentTimeMs += RetryPolicy.PROBE_TIMEOUT_MS - 1;
+    assertFalse(retryPolicy.isAttemptAllowed(ENDPOINT));
+    currentTimeMs += 1;
+    assertTrue(retryPolicy.isAttemptAllowed(ENDPOINT));
+    assertFalse(retryPolicy.isAttemptAllowed(ENDPOINT));
+  }
+
+  @Test
+  public void onFailure_crashes_shouldNotBackOffOrOpenCircuit() {
+    final RetryPolicy.Endpoint crashes = RetryPolicy.Endpoint.CRASHES;
+    for (int i = 0; i < RetryPolicy.CIRCUIT_BREAKER_THRESHOLD; i++) {
+      assertEquals(0, retryPolicy.onFailure(crashes, 503, null));
+    }
+    retryPolicy.onNetworkError(crashes);
+
+    assertFalse(retryPolicy.isCircuitOpen(crashes));
+    assertTrue(retryPolicy.isAttemptAllowed(crashes));
+    assertTrue(retryPolicy.isAttemptAllowed(crashes));
+  }
+
+  @Test
+  public void onFailure_crashesRetryAfter_shouldBeHonoured() {
+    final RetryPolicy.Endpoint crashes = RetryPolicy.Endpoint.CRASHES;
+    final Headers headers = Headers.of(RetryPolicy.RETRY_AFTER_HEADER, "120");
+
+    assertEquals(TimeUnit.SECONDS.toMillis(120), retryPolicy.onFailure(crashes, 503, headers));
+    assertFalse(retryPolicy.isAttemptAllowed(crashes));
+    currentTimeMs += TimeUnit.SECONDS.toMillis(120);
+    assertTrue(retryPolicy.isAttemptAllowed(crashes));
+  }
+
+  @Test
+  public void getRemainingDelayMs_clockSetBack_shouldBeCapped() {
+    retryPolicy.onFailure(ENDPOINT, 500, null);
+    currentTimeMs -= TimeUnit.DAYS.toMillis(365);
+
+    assertEquals(RetryPolicy.MAX_RETRY_AFTER_MS, retryPolicy.getRemainingDelayMs(ENDPOINT));
+  }
+
+  @Test
+  public void state_shouldBeSharedThroughTheStore() {
+    retryPolicy.onFailure(ENDPOINT, 500, null);
+
+    assertFalse(createRetryPolicy(0).isAttemptAllowed(ENDPOINT));
+  }
+
+  private void openCircuit() {
+    for (int i = 0; i < RetryPolicy.CIRCUIT_BREAKER_THRESHOLD; i++) {
+      retryPolicy.onFailure(ENDPOINT, 503, null);
+    }
+  }
+
+  private RetryPolicy createRetryPolicy(final double jitter) {
+    final Random random = new Random() {
+      @Override
+      public double nextDouble() {
+        return jitter;
+      }
+    };
+    return new RetryPolicy(store, random) {
+      @Override
+      long getCurrentTimeMillis() {
+        return currentTimeMs;
+      }
+    };
+  }
+
+  /**
+   * {@link RetryPolicy.Store} that keeps the state in the memory.
+   */
+  private static class InMemoryStore implements RetryPolicy.Store {
+
+    final Map<RetryPolicy.Endpoint, RetryPolicy.EndpointState> states =
+        new EnumMap<>(RetryPolicy.Endpoint.class);
+
+    @Override
+    public RetryPolicy.EndpointState read(final RetryPolicy.Endpoint endpoint) {
+      final RetryPolicy.EndpointState state = states.get(endpoint);
+      return state == null ? new RetryPolicy.EndpointState(0, 0, 0) : state;
+    }
+
+    @Override
+    public void write(final RetryPolicy.Endpoint endpoint,
+                      final RetryPolicy.EndpointState state) {
+      states.put(endpoint, state);
+    }
+  }
+}
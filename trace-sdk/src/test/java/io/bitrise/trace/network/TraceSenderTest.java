@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -96,7 +97,7 @@ public class TraceSenderTest {
 
   @Test
   public void needReschedule_shouldBeFalse() {
-    when(mockDataStorage.getAllMetrics()).thenReturn(Collections.emptyList());
+    when(mockDataStorage.hasTraces()).thenReturn(false);
     when(mockDataManager.getActiveDataCollectors()).thenReturn(Collections.emptySet());
     when(mockDataManager.getActiveDataListeners()).thenReturn(Collections.emptySet());
 
@@ -105,8 +106,7 @@ public class TraceSenderTest {
 
   @Test
   public void needReschedule_shouldBeTrue_hasTraces() {
-    when(mockDataStorage.getAllTraces())
-        .thenReturn(Collections.singletonList(TraceTestProvider.getEmptyTrace()));
+    when(mockDataStorage.hasTraces()).thenReturn(true);
     when(mockDataManager.getActiveDataCollectors()).thenReturn(Collections.emptySet());
     when(mockDataManager.getActiveDataListeners()).thenReturn(Collections.emptySet());
 
@@ -115,7 +115,7 @@ public class TraceSenderTest {
 
   @Test
   public void needReschedule_shouldBeTrue_hasActiveCollector() {
-    when(mockDataStorage.getAllTraces()).thenReturn(Collections.emptyList());
+    when(mockDataStorage.hasTraces()).thenReturn(false);
     when(mockDataManager.getActiveDataCollectors()).thenReturn(
         Collections.singleton(new DeviceOsVersionDataCollector()));
     when(mockDataManager.getActiveDataListeners()).thenReturn(Collections.emptySet());
@@ -125,7 +125,7 @@ public class TraceSenderTest {
 
   @Test
   public void needReschedule_shouldBeTrue_hasActiveListener() {
-    when(mockDataStorage.getAllTraces()).thenReturn(Collections.emptyList());
+    when(mockDataStorage.hasTraces()).thenReturn(false);
     when(mockDataManager.getActiveDataCollectors()).thenReturn(Collections.emptySet());
     when(mockDataManager.getActiveDataListeners()).thenReturn(
         Collections.singleton(mock(OkHttpDataListener.class)));
@@ -135,8 +135,7 @@ public class TraceSenderTest {
 
   @Test
   public void needReschedule_shouldBeTrue_hasAll() {
-    when(mockDataStorage.getAllTraces())
-        .thenReturn(Collections.singletonList(TraceTestProvider.getEmptyTrace()));
+    when(mockDataStorage.hasTraces()).thenReturn(true);
     when(mockDataManager.getActiveDataCollectors()).thenReturn(
         Collections.singleton(new DeviceOsVersionDataCollector()));
     when(mockDataManager.getActiveDataListeners()).thenReturn(
@@ -161,19 +160,33 @@ public class TraceSenderTest {
 
   @Test
   public void getNetworkRequest_noItems() {
-    when(mockDataStorage.getFirstTraceGroup())
+    when(mockDataStorage.getFirstTraceGroup(RequestChunker.DEFAULT_MAX_ITEM_COUNT))
         .thenReturn(new ArrayList<>());
 
     assertNull(traceSender.getNetworkRequest());
   }
 
+  @Test
+  public void getNetworkRequest_emptyTraces_shouldDeleteThem() {
+    final List<Trace> emptyTraces = new ArrayList<>();
+    emptyTraces.add(TraceTestProvider.getEmptyTrace());
+    emptyTraces.add(TraceTestProvider.getEmptyTrace());
+    when(mockDataStorage.getFirstTraceGroup(RequestChunker.DEFAULT_MAX_ITEM_COUNT))
+        .thenReturn(new ArrayList<>(emptyTraces));
+
+    assertNull(traceSender.getNetworkRequest());
+    verify(mockDataStorage, times(1)).deleteTraces(emptyTraces);
+  }
+
   @Test
   public void onStartJob() {
     final TraceSender mockTraceSender = Mockito.mock(TraceSender.class,
         Mockito.CALLS_REAL_METHODS);
+    doNothing().when(mockTraceSender).cancelOtherRun(mockJobParameters);
     boolean serviceShouldContinue = mockTraceSender.onStartJob(mockJobParameters);
 
     assertTrue(serviceShouldContinue);
+    verify(mockTraceSender, times(1)).cancelOtherRun(mockJobParameters);
     verify(mockTraceSender, times(1)).send(mockJobParameters);
   }
 
@@ -22,6 +22,11 @@ public class PointAdapterTest {
       "{\"value\":{},\"value_case\":4,\"timestamp\":{\"seconds\":500,\"nanos\":600}}";
   private final String jsonSummaryValuePoint =
       "{\"value\":{},\"value_case\":5,\"timestamp\":{\"seconds\":700,\"nanos\":800}}";
+  private final String jsonFilledSummaryValuePoint =
+      "{\"value\":{\"count\":3,\"sum\":60.5,\"snapshot\":{\"count\":3,\"sum\":60.5,"
+          + "\"percentile_values\":[{\"percentile\":0.0,\"value\":10.0},"
+          + "{\"percentile\":100.0,\"value\":30.5}]}},\"value_case\":5,"
+          + "\"timestamp\":{\"seconds\":700,\"nanos\":800}}";
   private final String jsonValueNotSetPoint =
       "{\"value_case\":0,\"timestamp\":{\"seconds\":700,\"nanos\":800}}";
   private final String jsonValueUnknownValueCasePoint =
@@ -55,6 +60,13 @@ public class PointAdapterTest {
                 .build();
   }
 
+  private Point getFilledSummaryValuePoint() {
+    return Point.newBuilder()
+                .setSummaryValue(SummaryValueAdapterTest.getSummaryValue())
+                .setTimestamp(Timestamp.newBuilder().setSeconds(700).setNanos(800).build())
+                .build();
+  }
+
   private Point getValueNotSetPoint() {
     return Point.newBuilder()
                   .setTimestamp(Timestamp.newBuilder().setSeconds(700).setNanos(800).build())
@@ -115,6 +127,19 @@ public class PointAdapterTest {
     assertEquals(getSummaryValuePoint(), point);
   }
 
+  @Test
+  public void serialize_filledSummaryValue() {
+    final String json = NetworkClient.getGson().toJson(getFilledSummaryValuePoint());
+    assertEquals(jsonFilledSummaryValuePoint, json);
+  }
+
+  @Test
+  public void deserialize_filledSummaryValue() {
+    final Point point =
+        NetworkClient.getGson().fromJson(jsonFilledSummaryValuePoint, Point.class);
+    assertEquals(getFilledSummaryValuePoint(), point);
+  }
+
   @Test
   public void deserialize_valueNotSet() {
     final Point point = NetworkClient.getGson().fromJson(jsonValueNotSetPoint, Point.class);
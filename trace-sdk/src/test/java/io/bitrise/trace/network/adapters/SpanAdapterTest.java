@@ -22,6 +22,10 @@ public class SpanAdapterTest {
   private static final String jsonEmptySpan = "{\"trace_id\":\"trace id\",\"span_id\":\"span "
       + "id\",\"name\":{\"value\":\"name\"},\"start_time\":{\"seconds\":12345,\"nanos\":678},"
       + "\"end_time\":{\"seconds\":23456,\"nanos\":789},\"kind\":2}";
+  private static final String jsonReorderedSpan = "{\"kind\":2,\"unknown\":{\"a\":[1,2]},"
+      + "\"end_time\":{\"nanos\":789,\"seconds\":23456},\"name\":{\"value\":\"name\"},"
+      + "\"start_time\":{\"seconds\":12345,\"nanos\":678},\"span_id\":\"span id\","
+      + "\"trace_id\":\"trace id\"}";
 
   private Span getSpan() {
     final Timestamp timestamp1 = Timestamp.newBuilder().setSeconds(12345L).setNanos(678).build();
@@ -76,4 +80,11 @@ public class SpanAdapterTest {
     final String json = NetworkClient.getGson().toJson(getEmptySpan());
     assertEquals(jsonEmptySpan, json);
   }
+
+  @Test
+  public void deserialize_reorderedAndUnknownFields() {
+    final Span span = NetworkClient.getGson()
+        .fromJson(jsonReorderedSpan, Span.class);
+    assertEquals(getEmptySpan(), span);
+  }
 }
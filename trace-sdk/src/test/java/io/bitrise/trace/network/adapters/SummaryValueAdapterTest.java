@@ -0,0 +1,75 @@
+package io.bitrise.trace.network.adapters;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.protobuf.DoubleValue;
+import com.google.protobuf.Int64Value;
+import io.bitrise.trace.network.NetworkClient;
+import io.opencensus.proto.metrics.v1.SummaryValue;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SummaryValueAdapter}.
+ */
+public class SummaryValueAdapterTest {
+
+  private static final String jsonSummaryValue = "{\"count\":3,\"sum\":60.5,\"snapshot\":"
+      + "{\"count\":3,\"sum\":60.5,\"percentile_values\":[{\"percentile\":0.0,\"value\":10.0},"
+      + "{\"percentile\":100.0,\"value\":30.5}]}}";
+  private static final String jsonEmptySummaryValue = "{}";
+
+  /**
+   * Creates a test {@link SummaryValue} object.
+   *
+   * @return the {@link SummaryValue} object.
+   */
+  public static SummaryValue getSummaryValue() {
+    final SummaryValue.Snapshot snapshot =
+        SummaryValue.Snapshot.newBuilder()
+                             .setCount(Int64Value.of(3))
+                             .setSum(DoubleValue.of(60.5))
+                             .addPercentileValues(SummaryValue.Snapshot.ValueAtPercentile
+                                 .newBuilder().setPercentile(0).setValue(10))
+                             .addPercentileValues(SummaryValue.Snapshot.ValueAtPercentile
+                                 .newBuilder().setPercentile(100).setValue(30.5))
+                             .build();
+    return SummaryValue.newBuilder()
+                       .setCount(Int64Value.of(3))
+                       .setSum(DoubleValue.of(60.5))
+                       .setSnapshot(snapshot)
+                       .build();
+  }
+
+  @Test
+  public void serialize() {
+    final String json = NetworkClient.getGson().toJson(getSummaryValue());
+    assertEquals(jsonSummaryValue, json);
+  }
+
+  @Test
+  public void deserialize() {
+    final SummaryValue summaryValue = NetworkClient.getGson()
+        .fromJson(jsonSummaryValue, SummaryValue.class);
+    assertEquals(getSummaryValue(), summaryValue);
+  }
+
+  @Test
+  public void serialize_empty() {
+    final String json = NetworkClient.getGson().toJson(SummaryValue.getDefaultInstance());
+    assertEquals(jsonEmptySummaryValue, json);
+  }
+
+  @Test
+  public void deserialize_empty() {
+    final SummaryValue summaryValue = NetworkClient.getGson()
+        .fromJson(jsonEmptySummaryValue, SummaryValue.class);
+    assertEquals(SummaryValue.getDefaultInstance(), summaryValue);
+  }
+
+  @Test
+  public void deserialize_unknownProperty() {
+    final SummaryValue summaryValue = NetworkClient.getGson()
+        .fromJson("{\"unknown\":[1,2]}", SummaryValue.class);
+    assertEquals(SummaryValue.getDefaultInstance(), summaryValue);
+  }
+}
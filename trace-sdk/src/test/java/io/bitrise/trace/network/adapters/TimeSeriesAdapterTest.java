@@ -19,6 +19,9 @@ public class TimeSeriesAdapterTest {
       + "\"timestamp\":{\"seconds\":12345,\"nanos\":678}},{\"value\":456,\"value_case\":2,"
       + "\"timestamp\":{\"seconds\":23456,\"nanos\":789}}]}";
   private static final String jsonEmptyTimeSeries = "{}";
+  private static final String jsonTimeSeriesWithStartTimestamp =
+      "{\"start_timestamp\":{\"seconds\":12000,\"nanos\":0},\"points\":[{\"value\":123,"
+          + "\"value_case\":2,\"timestamp\":{\"seconds\":12345,\"nanos\":678}}]}";
 
   /**
    * Creates a test {@link TimeSeries} object.
@@ -38,6 +41,14 @@ public class TimeSeriesAdapterTest {
                      .build();
   }
 
+  private TimeSeries getTimeSeriesWithStartTimestamp() {
+    final Timestamp timestamp = Timestamp.newBuilder().setSeconds(12345L).setNanos(678).build();
+    return TimeSeries.newBuilder()
+                     .setStartTimestamp(Timestamp.newBuilder().setSeconds(12000L))
+                     .addPoints(Point.newBuilder().setInt64Value(123L).setTimestamp(timestamp))
+                     .build();
+  }
+
   private TimeSeries getEmptyTimeSeries() {
     return TimeSeries.newBuilder().build();
   }
@@ -67,4 +78,17 @@ public class TimeSeriesAdapterTest {
     final String json = NetworkClient.getGson().toJson(getEmptyTimeSeries());
     assertEquals(jsonEmptyTimeSeries, json);
   }
+
+  @Test
+  public void deserialize_withStartTimestamp() {
+    final TimeSeries timeSeries = NetworkClient.getGson()
+        .fromJson(jsonTimeSeriesWithStartTimestamp, TimeSeries.class);
+    assertEquals(getTimeSeriesWithStartTimestamp(), timeSeries);
+  }
+
+  @Test
+  public void serialize_withStartTimestamp() {
+    final String json = NetworkClient.getGson().toJson(getTimeSeriesWithStartTimestamp());
+    assertEquals(jsonTimeSeriesWithStartTimestamp, json);
+  }
 }
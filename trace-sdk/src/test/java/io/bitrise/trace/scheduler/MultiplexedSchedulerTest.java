@@ -0,0 +1,127 @@
+package io.bitrise.trace.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for {@link MultiplexedScheduler}.
+ */
+public class MultiplexedSchedulerTest {
+
+  private static final long LONG_INTERVAL_MS = 60000;
+
+  private final Context mockContext = Mockito.mock(Context.class);
+
+  @Test
+  public void calculateTickMs_shouldBeGreatestCommonDivisor() {
+    final Runnable runnable = () -> { };
+    assertEquals(5000, MultiplexedScheduler.calculateTickMs(Arrays.asList(
+        new MultiplexedScheduler.Task(runnable, 15000),
+        new MultiplexedScheduler.Task(runnable, 10000),
+        new MultiplexedScheduler.Task(runnable, 0))));
+  }
+
+  @Test
+  public void calculateTickMs_noRecurringTask() {
+    assertEquals(0, MultiplexedScheduler.calculateTickMs(Collections.singletonList(
+        new MultiplexedScheduler.Task(() -> { }, 0))));
+  }
+
+  @Test
+  public void tick_shouldRunTasksWhenDue() {
+    final MultiplexedScheduler scheduler = new MultiplexedScheduler(mockContext);
+    final AtomicInteger shortCounter = new AtomicInteger();
+    final AtomicInteger longCounter = new AtomicInteger();
+    final AtomicInteger oneTimeCounter = new AtomicInteger();
+    scheduler.addTask(shortCounter::incrementAndGet, LONG_INTERVAL_MS);
+    scheduler.addTask(longCounter::incrementAndGet, 2 * LONG_INTERVAL_MS);
+    scheduler.addTask(oneTimeCounter::incrementAndGet, 0);
+    scheduler.scheduleDelayed(LONG_INTERVAL_MS);
+    assertEquals(LONG_INTERVAL_MS, scheduler.getTickMs());
+
+    for (int i = 0; i < 4; i++) {
+      scheduler.tick();
+    }
+
+    assertEquals(4, shortCounter.get());
+    assertEquals(2, longCounter.get());
+    assertEquals(1, oneTimeCounter.get());
+    scheduler.cancelAll();
+  }
+
+  @Test
+  public void tick_failingTask_shouldNotStopOthers() {
+    final MultiplexedScheduler scheduler = new MultiplexedScheduler(mockContext);
+    final AtomicInteger counter = new AtomicInteger();
+    scheduler.addTask(() -> {
+      throw new IllegalStateException();
+    }, LONG_INTERVAL_MS);
+    scheduler.addTask(counter::incrementAndGet, LONG_INTERVAL_MS);
+
+    scheduler.tick();
+
+    assertEquals(1, counter.get());
+  }
+
+  @Test
+  public void scheduleDelayed_shouldUseSingleExecutor() {
+    final MultiplexedScheduler scheduler = new MultiplexedScheduler(mockContext);
+    scheduler.addTask(() -> { }, LONG_INTERVAL_MS);
+    scheduler.addTask(() -> { }, LONG_INTERVAL_MS);
+
+    scheduler.scheduleDelayed(LONG_INTERVAL_MS);
+
+    assertNotNull(scheduler.scheduledExecutorService);
+    assertNotNull(scheduler.scheduledFuture);
+    scheduler.cancelAll();
+  }
+
+  @Test
+  public void pause_shouldCancelTicking() {
+    final MultiplexedScheduler scheduler = new MultiplexedScheduler(mockContext);
+    scheduler.addTask(() -> { }, LONG_INTERVAL_MS);
+    scheduler.scheduleDelayed(LONG_INTERVAL_MS);
+
+    scheduler.pause();
+
+    assertTrue(scheduler.isPaused());
+    assertNull(scheduler.scheduledFuture);
+    scheduler.cancelAll();
+  }
+
+  @Test
+  public void resume_shouldRestartTicking() {
+    final MultiplexedScheduler scheduler = new MultiplexedScheduler(mockContext);
+    scheduler.addTask(() -> { }, LONG_INTERVAL_MS);
+    scheduler.scheduleDelayed(LONG_INTERVAL_MS);
+    scheduler.pause();
+
+    scheduler.resume();
+
+    assertFalse(scheduler.isPaused());
+    assertNotNull(scheduler.scheduledFuture);
+    scheduler.cancelAll();
+  }
+
+  @Test
+  public void cancelAll_shouldShutDownExecutor() {
+    final MultiplexedScheduler scheduler = new MultiplexedScheduler(mockContext);
+    scheduler.addTask(() -> { }, LONG_INTERVAL_MS);
+    scheduler.scheduleDelayed(LONG_INTERVAL_MS);
+
+    scheduler.cancelAll();
+
+    assertNull(scheduler.scheduledExecutorService);
+    assertNull(scheduler.scheduledFuture);
+  }
+}
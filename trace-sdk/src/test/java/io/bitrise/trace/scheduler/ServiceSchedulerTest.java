@@ -57,6 +57,39 @@ public class ServiceSchedulerTest {
     assertEquals(1, scheduler.getJobIdForService(TraceSender.class));
   }
 
+  @Test
+  public void getRelaxedJobIdForService_shouldNotCollide() {
+    final ServiceScheduler scheduler = new ServiceScheduler(mockContext, TraceSender.class);
+    assertEquals(2, scheduler.getRelaxedJobIdForService(MetricSender.class));
+    assertEquals(3, scheduler.getRelaxedJobIdForService(TraceSender.class));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getRelaxedJobIdForService_unknownService_shouldThrow() {
+    final ServiceScheduler scheduler = new ServiceScheduler(mockContext, TraceSender.class);
+    scheduler.getRelaxedJobIdForService(JobService.class);
+  }
+
+  @Test
+  public void cancelOtherRun_regularRunStarted_shouldCancelRelaxedRun() {
+    final ServiceScheduler scheduler = new ServiceScheduler(mockContext, TraceSender.class);
+    when(mockContext.getSystemService(Context.JOB_SCHEDULER_SERVICE))
+        .thenReturn(mockJobScheduler);
+
+    scheduler.cancelOtherRun(1);
+    verify(mockJobScheduler, times(1)).cancel(3);
+  }
+
+  @Test
+  public void cancelOtherRun_relaxedRunStarted_shouldCancelRegularRun() {
+    final ServiceScheduler scheduler = new ServiceScheduler(mockContext, TraceSender.class);
+    when(mockContext.getSystemService(Context.JOB_SCHEDULER_SERVICE))
+        .thenReturn(mockJobScheduler);
+
+    scheduler.cancelOtherRun(3);
+    verify(mockJobScheduler, times(1)).cancel(1);
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void getJobIdForService_unknown() {
     final ServiceScheduler scheduler = new ServiceScheduler(mockContext, TestSender.class);
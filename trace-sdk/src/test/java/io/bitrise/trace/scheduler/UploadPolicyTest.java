@@ -0,0 +1,86 @@
+package io.bitrise.trace.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.app.job.JobInfo;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link UploadPolicy}.
+ */
+public class UploadPolicyTest {
+
+  private static final long BATCHING_WINDOW_MS = 60000;
+  private static final long MAX_STALENESS_MS = 3600000;
+
+  @Test
+  public void getDefault_shouldNotRestrictBacklog() {
+    final UploadPolicy uploadPolicy = UploadPolicy.getDefault();
+
+    assertEquals(JobInfo.NETWORK_TYPE_ANY, uploadPolicy.getRequiredNetworkType(true));
+    assertFalse(uploadPolicy.isChargingRequired(true));
+    assertEquals(-1, uploadPolicy.getRelaxedRunLatencyMs(0, true));
+  }
+
+  @Test
+  public void getRequiredNetworkType_unmeteredBacklog() {
+    final UploadPolicy uploadPolicy =
+        new UploadPolicy(true, false, BATCHING_WINDOW_MS, MAX_STALENESS_MS);
+
+    assertEquals(JobInfo.NETWORK_TYPE_UNMETERED, uploadPolicy.getRequiredNetworkType(true));
+    assertEquals(JobInfo.NETWORK_TYPE_ANY, uploadPolicy.getRequiredNetworkType(false));
+  }
+
+  @Test
+  public void isChargingRequired_chargingBacklog() {
+    final UploadPolicy uploadPolicy =
+        new UploadPolicy(false, true, BATCHING_WINDOW_MS, MAX_STALENESS_MS);
+
+    assertTrue(uploadPolicy.isChargingRequired(true));
+    assertFalse(uploadPolicy.isChargingRequired(false));
+  }
+
+  @Test
+  public void getMinimumLatencyMs_shouldApplyBatchingWindow() {
+    final UploadPolicy uploadPolicy =
+        new UploadPolicy(false, false, BATCHING_WINDOW_MS, MAX_STALENESS_MS);
+
+    assertEquals(BATCHING_WINDOW_MS, uploadPolicy.getMinimumLatencyMs(0, false));
+    assertEquals(120000, uploadPolicy.getMinimumLatencyMs(120000, false));
+  }
+
+  @Test
+  public void getMinimumLatencyMs_backlog_shouldNotApplyBatchingWindow() {
+    final UploadPolicy uploadPolicy =
+        new UploadPolicy(true, false, BATCHING_WINDOW_MS, MAX_STALENESS_MS);
+
+    assertEquals(0, uploadPolicy.getMinimumLatencyMs(0, true));
+  }
+
+  @Test
+  public void getRelaxedRunLatencyMs_restrictedBacklog() {
+    final UploadPolicy uploadPolicy =
+        new UploadPolicy(true, false, BATCHING_WINDOW_MS, MAX_STALENESS_MS);
+
+    assertEquals(MAX_STALENESS_MS, uploadPolicy.getRelaxedRunLatencyMs(0, true));
+    assertEquals(-1, uploadPolicy.getRelaxedRunLatencyMs(0, false));
+  }
+
+  @Test
+  public void getRelaxedRunLatencyMs_shouldNotBeBeforeMinimumLatency() {
+    final UploadPolicy uploadPolicy =
+        new UploadPolicy(false, true, BATCHING_WINDOW_MS, MAX_STALENESS_MS);
+
+    assertEquals(2 * MAX_STALENESS_MS,
+        uploadPolicy.getRelaxedRunLatencyMs(2 * MAX_STALENESS_MS, true));
+  }
+
+  @Test
+  public void getRelaxedRunLatencyMs_noMaxStaleness() {
+    final UploadPolicy uploadPolicy = new UploadPolicy(true, true, BATCHING_WINDOW_MS, 0);
+
+    assertEquals(-1, uploadPolicy.getRelaxedRunLatencyMs(0, true));
+  }
+}
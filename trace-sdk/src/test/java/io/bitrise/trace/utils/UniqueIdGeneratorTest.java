@@ -4,6 +4,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import com.google.protobuf.ByteString;
+import java.util.HashSet;
+import java.util.Set;
 import org.junit.Test;
 
 /**
@@ -11,11 +14,30 @@ import org.junit.Test;
  */
 public class UniqueIdGeneratorTest {
 
+  private static final String HEX_PATTERN = "[0-9a-f]+";
+
   @Test
   public void makeSpanId() {
     final String id = UniqueIdGenerator.makeSpanId();
     assertEquals(16, id.length());
     assertFalse(id.contains("-"));
+    assertTrue(id.matches(HEX_PATTERN));
+  }
+
+  @Test
+  public void makeSpanId_shouldBeUnique() {
+    final Set<String> ids = new HashSet<>();
+    for (int i = 0; i < 10000; i++) {
+      assertTrue(ids.add(UniqueIdGenerator.makeSpanId()));
+    }
+  }
+
+  @Test
+  public void makeSpanIdByteString() {
+    final ByteString id = UniqueIdGenerator.makeSpanIdByteString();
+    assertEquals(16, id.size());
+    assertTrue(ByteStringConverter.toString(id).matches(HEX_PATTERN));
+    assertEquals(id, ByteStringConverter.toByteString(ByteStringConverter.toString(id)));
   }
 
   @Test
@@ -23,6 +45,22 @@ public class UniqueIdGeneratorTest {
     final String id = UniqueIdGenerator.makeTraceId();
     assertEquals(32, id.length());
     assertFalse(id.contains("-"));
+    assertTrue(id.matches(HEX_PATTERN));
+  }
+
+  @Test
+  public void makeTraceId_shouldBeUnique() {
+    final Set<String> ids = new HashSet<>();
+    for (int i = 0; i < 10000; i++) {
+      assertTrue(ids.add(UniqueIdGenerator.makeTraceId()));
+    }
+  }
+
+  @Test
+  public void makeMetricId() {
+    final String id = UniqueIdGenerator.makeMetricId();
+    assertEquals(16, id.length());
+    assertTrue(id.matches(HEX_PATTERN));
   }
 
   @Test